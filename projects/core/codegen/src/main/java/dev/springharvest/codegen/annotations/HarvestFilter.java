@@ -0,0 +1,19 @@
+package dev.springharvest.codegen.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the binder of the annotated filter request, i.e. a class named after it with the Binder_ suffix that enumerates
+ * its filter parameters with their getters, and holds the constants of their paths.
+ * <p>
+ * The annotated class may be a BaseFilterRequestBO or a BaseFilterRequestDTO, whose filters and filter parameters must have
+ * getters, e.g. generated by Lombok.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface HarvestFilter {
+
+}
@@ -5,6 +5,7 @@ import dev.springharvest.codegen.factories.ControllerConstantsGenerator;
 import dev.springharvest.codegen.factories.CrudControllerGenerator;
 import dev.springharvest.codegen.factories.CrudRepositoryGenerator;
 import dev.springharvest.codegen.factories.CrudServiceGenerator;
+import dev.springharvest.codegen.factories.FilterBinderGenerator;
 import dev.springharvest.codegen.factories.MapperGenerator;
 import dev.springharvest.codegen.models.HarvestBO;
 import dev.springharvest.codegen.utils.AnnotationPackageFinder;
@@ -15,6 +16,7 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
@@ -25,7 +27,7 @@ public class HarvestProcessor extends AbstractProcessor {
 
   @Override
   public Set<String> getSupportedAnnotationTypes() {
-    return Set.of(Harvest.class.getCanonicalName());
+    return Set.of(Harvest.class.getCanonicalName(), HarvestFilter.class.getCanonicalName());
   }
 
   @Override
@@ -75,6 +77,17 @@ public class HarvestProcessor extends AbstractProcessor {
 
     }
 
+    for (Element element : roundEnv.getElementsAnnotatedWith(HarvestFilter.class)) {
+
+      // The binders are looked up by the binary name of the filter request suffixed with Binder_, in the same package
+      if (element.getKind() != ElementKind.CLASS || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+        error(element, "Only top-level classes can be annotated with @HarvestFilter");
+        return false; // Exit processing
+      }
+
+      FilterBinderGenerator.generate((TypeElement) element, processingEnv);
+    }
+
     return true;
   }
 
@@ -0,0 +1,135 @@
+package dev.springharvest.codegen.factories;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import dev.springharvest.codegen.utils.JavaPoetUtils;
+import dev.springharvest.errors.constants.ExceptionMessages;
+import dev.springharvest.search.domains.base.mappers.queries.FilterBinders;
+import dev.springharvest.search.domains.base.mappers.queries.IFilterBinder;
+import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterBO;
+import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterDTO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterBO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterDTO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestDTO;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Generates the binders of the filter requests annotated with HarvestFilter, which enumerate their filter parameters with
+ * their getters instead of reflection. The paths of the filter parameters are the same as those built by walking the
+ * fields of the filter request at runtime, and are exposed as constants, e.g. BOOK_TITLE = "book.title".
+ *
+ * @see FilterBinders
+ */
+public class FilterBinderGenerator {
+
+  private static final String FILTER_REQUEST = "filterRequest";
+  private static final String ACTION = "action";
+
+  private FilterBinderGenerator() {
+    throw new UnsupportedOperationException(ExceptionMessages.PRIVATE_CONSTRUCTOR_MESSAGE);
+  }
+
+  public static void generate(TypeElement filterRequest, ProcessingEnvironment processingEnv) {
+    boolean isDto = isSubtype(filterRequest.asType(), BaseFilterRequestDTO.class, processingEnv)
+                    || isSubtype(filterRequest.asType(), BaseFilterDTO.class, processingEnv);
+    Class<?> parameterClass = isDto ? FilterParameterDTO.class : FilterParameterBO.class;
+    ClassName filterRequestName = ClassName.get(filterRequest);
+    ClassName binderName = ClassName.get(filterRequestName.packageName(), filterRequestName.simpleName() + FilterBinders.GENERATED_BINDER_SUFFIX);
+
+    TypeSpec.Builder binder = TypeSpec.classBuilder(binderName)
+        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+        .addSuperinterface(ParameterizedTypeName.get(ClassName.get(IFilterBinder.class), filterRequestName, ClassName.get(parameterClass)));
+    CodeBlock.Builder body = CodeBlock.builder();
+    bind(filterRequest, FILTER_REQUEST, "", parameterClass, binder, body, new HashSet<>(), processingEnv);
+
+    binder.addMethod(MethodSpec.methodBuilder("forEachParameter")
+                         .addAnnotation(Override.class)
+                         .addModifiers(Modifier.PUBLIC)
+                         .addParameter(filterRequestName, FILTER_REQUEST)
+                         .addParameter(ParameterizedTypeName.get(ClassName.get(BiConsumer.class), ClassName.get(String.class),
+                                                                 ClassName.get(parameterClass)), ACTION)
+                         .addCode(body.build())
+                         .build());
+
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "FILTER BINDER NAME: " + binderName.canonicalName());
+    JavaPoetUtils.writeJavaFile(JavaFile.builder(binderName.packageName(), binder.build()).build(), processingEnv);
+  }
+
+  /**
+   * Adds the statements passing the filter parameters of a filter to the action, and the constants of their paths.
+   */
+  private static void bind(TypeElement filter, String variable, String path, Class<?> parameterClass, TypeSpec.Builder binder,
+                           CodeBlock.Builder body, Set<String> visiting, ProcessingEnvironment processingEnv) {
+    if (!visiting.add(filter.getQualifiedName().toString())) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "The filters cannot contain themselves: " + path, filter);
+      return;
+    }
+    for (VariableElement field : ElementFilter.fieldsIn(filter.getEnclosedElements())) {
+      if (field.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+      String name = field.getSimpleName().toString();
+      String getter = "get" + StringUtils.capitalize(name);
+      TypeMirror fieldType = field.asType();
+      if (isSubtype(fieldType, parameterClass, processingEnv)) {
+        String parameterPath = path + "." + name;
+        String constant = toConstantName(parameterPath);
+        binder.addField(FieldSpec.builder(String.class, constant, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                            .initializer("$S", parameterPath)
+                            .build());
+        body.beginControlFlow("if ($L.$L() != null)", variable, getter)
+            .addStatement("$L.accept($L, $L.$L())", ACTION, constant, variable, getter)
+            .endControlFlow();
+      } else if (isSubtype(fieldType, BaseFilterBO.class, processingEnv) || isSubtype(fieldType, BaseFilterDTO.class, processingEnv)) {
+        String nestedPath = path.isEmpty() ? name : path + "." + name;
+        String nestedVariable = nestedPath.replace('.', '_');
+        body.addStatement("$T $L = $L.$L()", TypeName.get(fieldType), nestedVariable, variable, getter)
+            .beginControlFlow("if ($L != null)", nestedVariable);
+        bind((TypeElement) processingEnv.getTypeUtils().asElement(fieldType), nestedVariable, nestedPath, parameterClass, binder, body,
+             visiting, processingEnv);
+        body.endControlFlow();
+      }
+    }
+    visiting.remove(filter.getQualifiedName().toString());
+  }
+
+  private static boolean isSubtype(TypeMirror type, Class<?> clazz, ProcessingEnvironment processingEnv) {
+    TypeElement element = processingEnv.getElementUtils().getTypeElement(clazz.getCanonicalName());
+    return element != null && processingEnv.getTypeUtils().isAssignable(type, element.asType());
+  }
+
+  /**
+   * Converts a path to the name of its constant, e.g. "book.publishedDate" to "BOOK_PUBLISHED_DATE".
+   */
+  static String toConstantName(String path) {
+    StringBuilder constant = new StringBuilder();
+    for (char character : StringUtils.stripStart(path, ".").toCharArray()) {
+      if (character == '.') {
+        constant.append('_');
+      } else {
+        if (Character.isUpperCase(character) && !constant.isEmpty() && constant.charAt(constant.length() - 1) != '_') {
+          constant.append('_');
+        }
+        constant.append(Character.toUpperCase(character));
+      }
+    }
+    return constant.toString();
+  }
+
+}
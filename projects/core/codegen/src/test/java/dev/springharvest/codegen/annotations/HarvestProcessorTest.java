@@ -1,7 +1,10 @@
 package dev.springharvest.codegen.annotations;
 
 import static com.google.common.truth.Truth.assert_;
+import static com.google.testing.compile.CompilationSubject.assertThat;
 
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
 import com.google.testing.compile.JavaFileObjects;
 import com.google.testing.compile.JavaSourcesSubjectFactory;
 import java.util.List;
@@ -39,4 +42,45 @@ class HarvestProcessorTest {
         .processedWith(new HarvestProcessor())
         .compilesWithoutError();
   }
-}
\ No newline at end of file
+
+  @Test
+  void testHarvestFilterProcessor() {
+
+    JavaFileObject userFilterFile = JavaFileObjects.forSourceString("test.users.user.models.queries.UserFilterBO",
+                                                                    "package test.users.user.models.queries;\n" +
+                                                                    "\n" +
+                                                                    "import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterBO;\n" +
+                                                                    "import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterBO;\n" +
+                                                                    "\n" +
+                                                                    "public class UserFilterBO extends BaseFilterBO {\n" +
+                                                                    "  private FilterParameterBO id;\n" +
+                                                                    "  private FilterParameterBO firstName;\n" +
+                                                                    "  public FilterParameterBO getId() { return id; }\n" +
+                                                                    "  public FilterParameterBO getFirstName() { return firstName; }\n" +
+                                                                    "}");
+
+    JavaFileObject userFilterRequestFile = JavaFileObjects.forSourceString("test.users.user.models.queries.UserFilterRequestBO",
+                                                                           "package test.users.user.models.queries;\n" +
+                                                                           "\n" +
+                                                                           "import dev.springharvest.codegen.annotations.HarvestFilter;\n" +
+                                                                           "import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;\n" +
+                                                                           "\n" +
+                                                                           "@HarvestFilter\n" +
+                                                                           "public class UserFilterRequestBO extends BaseFilterRequestBO {\n" +
+                                                                           "  private UserFilterBO user;\n" +
+                                                                           "  public UserFilterBO getUser() { return user; }\n" +
+                                                                           "}");
+
+    Compilation compilation = Compiler.javac()
+        .withProcessors(new HarvestProcessor())
+        .compile(userFilterFile, userFilterRequestFile);
+
+    assertThat(compilation).succeeded();
+    assertThat(compilation).generatedSourceFile("test.users.user.models.queries.UserFilterRequestBOBinder_")
+        .contentsAsUtf8String()
+        .contains("public static final String USER_FIRST_NAME = \"user.firstName\";");
+    assertThat(compilation).generatedSourceFile("test.users.user.models.queries.UserFilterRequestBOBinder_")
+        .contentsAsUtf8String()
+        .contains("action.accept(USER_FIRST_NAME, user.getFirstName());");
+  }
+}
@@ -1,25 +1,45 @@
 package dev.springharvest.crud.domains.base.graphql;
 
+import dev.springharvest.crud.domains.base.services.ICrudService;
 import dev.springharvest.expressions.helpers.Operation;
 import dev.springharvest.shared.constants.Aggregates;
 import dev.springharvest.shared.constants.DataPaging;
 import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.models.dtos.BaseDTO;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import dev.springharvest.shared.utils.AttributePath;
+import graphql.language.Argument;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableReference;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.PropertyDataFetcher;
 import lombok.Setter;
+import org.dataloader.DataLoader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import dev.springharvest.expressions.builders.TypedQueryBuilder;
 import jakarta.persistence.criteria.JoinType;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import reactor.core.publisher.Mono;
 
 /**
  * A generic implementation of the IGraphQLCrudController interface.
  * This class provides CRUD operations for GraphQL endpoints using generics to handle different types of DTOs, entities, and primary key fields.
+ * <p>
+ * When constructed with a CRUD service, the controller registers a DataLoader for its entity type, loading the entities
+ * of a request by their ids in batches. The associations declared with {@link #batchAssociation(String, Class)} are then
+ * searched by their id only, unless they are joined, and resolved with {@link #loadAssociation(DataFetchingEnvironment)}
+ * from a schema mapping, so that the associations of a page cost one query per association rather than one per entity.
  *
  * @param <E> The entity type, which extends BaseEntity<K>
  * @param <K> The type of the primary key field, which extends Serializable
@@ -34,6 +54,16 @@ import java.util.stream.Stream;
 public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Serializable>
         implements IGraphQLCrudController<E, K> {
 
+    /**
+     * The name of the argument of the fields to join.
+     */
+    static final String JOIN_ARGUMENT = "join";
+
+    /**
+     * The name of the id field of the entities.
+     */
+    static final String ID_FIELD = "id";
+
     /**
      * The class type of the entity.
      */
@@ -45,9 +75,32 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
     protected Class<K> keyClass;
 
     /**
-     * The list of joins to be performed.
+     * The service loading the entities by their ids for the DataLoader of the entity type, or null to register none.
      */
-    protected Map<String, JoinType> joins;
+    protected ICrudService<E, K> crudService;
+
+    /**
+     * The associations resolved through the DataLoader of their entity type, keyed by their field name.
+     */
+    protected final Map<String, Class<? extends BaseEntity<?>>> batchedAssociations = new LinkedHashMap<>();
+
+    /**
+     * The fields and joins of the searches, keyed by the field of the search in its document.
+     * <p>
+     * The documents cached by the PersistedDocumentCache are the same instances for every request sending them, so the
+     * selection of their searches is only extracted and formatted once. The entries of the documents that are no longer
+     * used are released with them.
+     */
+    private final Map<Field, SelectionPlan> selectionPlans = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The fields and joins extracted and formatted from the selection of a search.
+     *
+     * @param fields The formatted fields, with the batched associations replaced by their id.
+     * @param joins The formatted joins.
+     */
+    record SelectionPlan(List<String> fields, Map<String, JoinType> joins) {
+    }
 
     /**
      * The TypedQueryBuilder to parse filter expressions.
@@ -64,23 +117,161 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
     protected AbstractGraphQLCrudController(Class<E> entityClass, Class<K> keyClass) {
         this.entityClass = entityClass;
         this.keyClass = keyClass;
-        this.joins = new HashMap<>();
     }
 
+    /**
+     * Constructs an AbstractGraphQLCrudController registering a DataLoader of the entity type, backed by the CRUD service.
+     *
+     * @param entityClass the class type of the entity
+     * @param keyClass the class type of the primary key field
+     * @param crudService the service loading the entities by their ids
+     */
+    protected AbstractGraphQLCrudController(Class<E> entityClass, Class<K> keyClass, ICrudService<E, K> crudService) {
+        this(entityClass, keyClass);
+        this.crudService = crudService;
+    }
+
+    /**
+     * Registers the DataLoader of the entity type, when the controller has a CRUD service.
+     * <p>
+     * The DataLoader is named after the entity class (see {@link #getDataLoaderName(Class)}) and created for each request,
+     * so that the ids collected while resolving a level of the response are loaded with a single call to
+     * {@link ICrudService#findAllByIds(Set)}.
+     *
+     * @param batchLoaderRegistry the registry of the batch loaders of the GraphQL requests
+     */
+    @Autowired(required = false)
+    public void setBatchLoaderRegistry(BatchLoaderRegistry batchLoaderRegistry) {
+        if (crudService == null) {
+            return;
+        }
+        batchLoaderRegistry.<K, E>forName(getDataLoaderName(entityClass))
+                .registerMappedBatchLoader((ids, environment) -> Mono.fromCallable(() -> findAllByIds(ids)));
+    }
+
+    /**
+     * Declares an association of the entity to resolve through the DataLoader of its entity type.
+     * <p>
+     * The schema must map the field of the association to {@link #loadAssociation(DataFetchingEnvironment)}, e.g.
+     * with a {@code @SchemaMapping} method of the controller.
+     *
+     * @param association the name of the field of the association
+     * @param associationClass the class of the associated entity, whose controller registers the DataLoader
+     */
+    protected void batchAssociation(String association, Class<? extends BaseEntity<?>> associationClass) {
+        batchedAssociations.put(association, associationClass);
+    }
+
+    /**
+     * Resolves the association selected by the environment through the DataLoader of its entity type.
+     * <p>
+     * The association is returned as searched when it is joined, when it is not batched or when no DataLoader is
+     * registered for its type. Otherwise, only its id was searched, and the entity is loaded along with the
+     * associations of the other entities of the request.
+     *
+     * @param environment the environment of the field of the association, whose source is the entity (or row)
+     * @return the associated entity, or null if there is none
+     */
+    protected CompletableFuture<Object> loadAssociation(DataFetchingEnvironment environment) {
+        String association = environment.getField().getName();
+        Object value = PropertyDataFetcher.fetching(association).get(environment);
+        Object id = getId(value);
+        Class<?> associationClass = batchedAssociations.get(association);
+        if (id == null || associationClass == null || environment.getArgument(JOIN_ARGUMENT) != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        DataLoader<Object, Object> dataLoader = environment.getDataLoader(getDataLoaderName(associationClass));
+        return dataLoader != null ? dataLoader.load(id) : CompletableFuture.completedFuture(value);
+    }
+
+    /**
+     * Returns the name of the DataLoader of an entity type.
+     *
+     * @param entityClass the class of the entity
+     * @return the name of the DataLoader
+     */
+    public static String getDataLoaderName(Class<?> entityClass) {
+        return entityClass.getName();
+    }
+
+    /**
+     * Loads the entities with the given ids, keyed by their id.
+     *
+     * @param ids the ids of the entities
+     * @return the entities found
+     */
+    Map<K, E> findAllByIds(Set<K> ids) {
+        Map<K, E> entities = new HashMap<>();
+        for (E entity : crudService.findAllByIds(ids)) {
+            entities.put(entity.getId(), entity);
+        }
+        return entities;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When the TypedQueryBuilder is configured with the ROWS result mode, the data of the page are read-only views of
+     * the selected tuples rather than entities, resolved by the default data fetchers of GraphQL.
+     */
     @SuppressWarnings("unchecked")
     @Override
     public PageData<E> search(Map<String, Object> filter, Map<String, Object> clause, DataPaging paging, DataFetchingEnvironment environment) {
-        try {
-            List<String> fields = extractFieldsFromEnvironment(environment);
-            processJoins();
+        SelectionPlan selectionPlan = getSelectionPlan(environment);
+        return (PageData<E>) typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, filter, clause,
+                selectionPlan.fields(), new LinkedHashMap<>(selectionPlan.joins()), null, paging);
+    }
 
-            return (PageData<E>) typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, filter, clause, getFormattedFields(fields), joins, null, paging);
+    /**
+     * Returns the fields and joins of the selection of a search, extracting them only once per field of a cached document.
+     * <p>
+     * The selections depending on the variables of the request, i.e. with a variable join argument or a directive
+     * (e.g., @include(if: $variable)), are extracted on every request.
+     *
+     * @param environment The DataFetchingEnvironment of the search.
+     * @return The fields and joins of the search.
+     */
+    SelectionPlan getSelectionPlan(DataFetchingEnvironment environment) {
+        Field field = environment != null ? environment.getField() : null;
+        SelectionPlan selectionPlan = field != null ? selectionPlans.get(field) : null;
+        if (selectionPlan != null) {
+            return selectionPlan;
+        }
+        // The joins are kept local to the request, as the controller is shared between concurrent requests
+        Map<String, JoinType> requestJoins = new LinkedHashMap<>();
+        List<String> fields = extractFieldsFromEnvironment(environment, requestJoins);
+        Map<String, JoinType> formattedJoins = processJoins(requestJoins);
+        List<String> formattedFields = getBatchedFields(getFormattedFields(fields), formattedJoins, environment);
+        selectionPlan = new SelectionPlan(List.copyOf(formattedFields), Collections.unmodifiableMap(formattedJoins));
+        if (field != null && isStatic(field.getSelectionSet(), environment.getFragmentsByName())) {
+            selectionPlans.put(field, selectionPlan);
+        }
+        return selectionPlan;
+    }
+
+    /**
+     * Whether a selection set is the same for every request, i.e. uses no variable and no directive.
+     */
+    private static boolean isStatic(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments) {
+        if (selectionSet == null) {
+            return true;
         }
-        finally {
-            if (joins != null && !joins.isEmpty()) {
-                joins.clear();
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            boolean isStatic = switch (selection) {
+                case Field field -> field.getDirectives().isEmpty()
+                        && field.getArguments().stream().map(Argument::getValue).noneMatch(VariableReference.class::isInstance)
+                        && isStatic(field.getSelectionSet(), fragments);
+                case InlineFragment fragment -> fragment.getDirectives().isEmpty() && isStatic(fragment.getSelectionSet(), fragments);
+                case FragmentSpread spread -> spread.getDirectives().isEmpty() && fragments.containsKey(spread.getName())
+                        && fragments.get(spread.getName()).getDirectives().isEmpty()
+                        && isStatic(fragments.get(spread.getName()).getSelectionSet(), fragments);
+                default -> false;
+            };
+            if (!isStatic) {
+                return false;
             }
         }
+        return true;
     }
 
     @Override
@@ -95,6 +286,38 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
         return (long) typedQueryBuilder.parseFilterExpression(Operation.COUNT, entityClass, keyClass, filter, clause, getFormattedFields(fields), null, null, null);
     }
 
+    /**
+     * Replaces the fields of the batched associations by their id, as the DataLoaders load the rest of their fields.
+     * <p>
+     * The associations that are joined, or whose DataLoader is not registered, keep their fields.
+     *
+     * @param fields The formatted fields, e.g. "data.author.name".
+     * @param joins The formatted joins of the request, e.g. "data.author".
+     * @param environment The DataFetchingEnvironment of the search, holding the DataLoaders of the request.
+     * @return The fields to search.
+     */
+    List<String> getBatchedFields(List<String> fields, Map<String, JoinType> joins, DataFetchingEnvironment environment) {
+        if (batchedAssociations.isEmpty()) {
+            return fields;
+        }
+        List<String> batchedFields = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            AttributePath path = AttributePath.of(field);
+            Class<?> associationClass = path.size() > 1 ? batchedAssociations.get(path.segment(1)) : null;
+            if (associationClass == null
+                    || joins.containsKey(path.subPath(0, 2).toString())
+                    || environment.getDataLoader(getDataLoaderName(associationClass)) == null) {
+                batchedFields.add(field);
+                continue;
+            }
+            String idField = path.subPath(0, 2) + "." + ID_FIELD;
+            if (!batchedFields.contains(idField)) {
+                batchedFields.add(idField);
+            }
+        }
+        return batchedFields;
+    }
+
     /**
      * Formats the provided aggregates and fields.
      * <p>
@@ -190,8 +413,7 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
         StringBuilder formatted = new StringBuilder(parts[0]);
 
         for (int i = 1; i < parts.length; i++) {
-            String[] subParts = parts[i].split("\\.");
-            formatted.append(".").append(subParts[subParts.length - 1]);
+            formatted.append(".").append(AttributePath.of(parts[i]).last());
         }
 
         return formatted.toString();
@@ -208,13 +430,13 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
             }
         }
 
-        return field.split("\\.").length == 2 && field.endsWith(".data");
+        return AttributePath.of(field).size() == 2 && field.endsWith(".data");
     }
 
     private static void addSpecialField(List<String> formattedFields, String field) {
         if (field.contains("currentPage") && !formattedFields.contains("currentPage")) {
-            String[] parts = field.split("\\.");
-            if (parts.length == 2 && "currentPage".equals(parts[1]) && !formattedFields.contains("currentPage")) {
+            AttributePath path = AttributePath.of(field);
+            if (path.size() == 2 && "currentPage".equals(path.segment(1)) && !formattedFields.contains("currentPage")) {
                 formattedFields.add("currentPage");
             }
         }
@@ -228,8 +450,8 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
             formattedFields.add("currentPageCount");
         }
         if (field.contains("total")) {
-            String[] parts = field.split("\\.");
-            if (parts.length == 2 && "total".equals(parts[1]) && !formattedFields.contains("total")) {
+            AttributePath path = AttributePath.of(field);
+            if (path.size() == 2 && "total".equals(path.segment(1)) && !formattedFields.contains("total")) {
                 formattedFields.add("total");
             }
         }
@@ -237,15 +459,15 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
 
 
     /**
-     * Extracts the list of fields from the DataFetchingEnvironment.
+     * Extracts the list of fields from the DataFetchingEnvironment, adding the join arguments to the provided map.
      * <p>
-     * This method retrieves the fields from the provided DataFetchingEnvironment and returns them as a list of strings.
-     * It also processes any join arguments and adds them to the joins map.
+     * The map is local to the request, as the controller is shared between concurrent requests.
      *
      * @param environment The DataFetchingEnvironment containing the selection set.
+     * @param joins The map to which the join arguments are added.
      * @return A list of field names extracted from the environment, or null if the environment or its selection set is null.
      */
-    List<String> extractFieldsFromEnvironment(DataFetchingEnvironment environment) {
+    List<String> extractFieldsFromEnvironment(DataFetchingEnvironment environment, Map<String, JoinType> joins) {
         if (environment == null || environment.getSelectionSet() == null || environment.getSelectionSet().getFields() == null) {
             return new ArrayList<>();
         }
@@ -257,7 +479,7 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
             fields.add(x.getFullyQualifiedName());
             if (x.getArguments() != null && !x.getArguments().isEmpty()) {
                 x.getArguments().forEach((y, z) -> {
-                    if (y.contains("join"))
+                    if (y.contains(JOIN_ARGUMENT))
                         joins.put(x.getFullyQualifiedName(), JoinType.valueOf(z.toString()));
                 });
             }
@@ -266,17 +488,30 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
     }
 
     /**
-     * Processes the joins by formatting the join keys.
-     * <p>
-     * This method updates the `joins` map by formatting the keys using the `getFormattedFields` method.
-     * It creates a new map with the formatted keys and the corresponding join types, then replaces the original `joins` map with the updated one.
+     * Returns the id of an associated entity, or of its row in the ROWS result mode.
      */
-    void processJoins() {
-        if (joins == null || joins.isEmpty()) {
-            return;
+    private static Object getId(Object association) {
+        if (association instanceof BaseEntity<?> entity) {
+            return entity.getId();
         }
+        if (association instanceof Map<?, ?> row) {
+            return row.get(ID_FIELD);
+        }
+        return null;
+    }
 
+    /**
+     * Formats the keys of the provided joins using the `getFormattedFields` method.
+     *
+     * @param joins The joins to be formatted.
+     * @return A new map with the formatted keys and the corresponding join types.
+     */
+    static Map<String, JoinType> processJoins(Map<String, JoinType> joins) {
         Map<String, JoinType> updatedJoins = new LinkedHashMap<>();
+        if (joins == null || joins.isEmpty()) {
+            return updatedJoins;
+        }
+
         List<String> formattedFields = getFormattedFields(new ArrayList<>(joins.keySet()));
         Iterator<String> keyIterator = joins.keySet().iterator();
         Iterator<String> formattedFieldIterator = formattedFields.iterator();
@@ -287,7 +522,6 @@ public class AbstractGraphQLCrudController<E extends BaseEntity<K>, K extends Se
             updatedJoins.put(newKey, joins.get(oldKey));
         }
 
-        joins.clear();
-        joins.putAll(updatedJoins);
+        return updatedJoins;
     }
 }
@@ -0,0 +1,132 @@
+package dev.springharvest.crud.domains.base.persistence;
+
+import dev.springharvest.errors.constants.ExceptionMessages;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Subgraph;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A utility class deriving the fetch plan of an entity, i.e. the paths of the to-one associations to load along with the entity, so that mapping a page of
+ * entities does not lazily load their associations one row at a time.
+ * <p>
+ * The paths are derived from the fields of the entity annotated with {@link ManyToOne} or {@link OneToOne}, and kept only when the DTO the entities are mapped
+ * to has a field of the same name, as the mappers then read them. Without a DTO, only the associations up to a maximum depth are kept, the direct ones by
+ * default, so that a wide entity graph is not loaded whole. The to-many associations are left out, as fetching them would multiply the rows of a page.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @since 1.0
+ */
+public final class FetchPlan {
+
+  /**
+   * The default maximum depth of the associations fetched without a DTO: the direct associations of the entity only.
+   */
+  public static final int DEFAULT_MAX_DEPTH = 1;
+
+  private FetchPlan() {
+    throw new UnsupportedOperationException(ExceptionMessages.PRIVATE_CONSTRUCTOR_MESSAGE);
+  }
+
+  /**
+   * Derives the paths of the to-one associations of the entity that are mapped by the DTO, e.g. "author" and "author.pet".
+   *
+   * @param entityClass The class of the entity.
+   * @param dtoClass    The class of the DTO the entities are mapped to, or null to fetch the direct to-one associations.
+   * @return The paths of the associations to fetch, parents first.
+   */
+  public static List<String> of(Class<?> entityClass, Class<?> dtoClass) {
+    return of(entityClass, dtoClass, dtoClass != null ? Integer.MAX_VALUE : DEFAULT_MAX_DEPTH);
+  }
+
+  /**
+   * Derives the paths of the to-one associations of the entity that are mapped by the DTO, up to the given depth, e.g. "author" for a depth of 1 and
+   * "author.pet" as well for a depth of 2.
+   *
+   * @param entityClass The class of the entity.
+   * @param dtoClass    The class of the DTO the entities are mapped to, or null to fetch every to-one association up to the depth.
+   * @param maxDepth    The maximum number of associations in a path, 0 to fetch none.
+   * @return The paths of the associations to fetch, parents first.
+   */
+  public static List<String> of(Class<?> entityClass, Class<?> dtoClass, int maxDepth) {
+    List<String> paths = new ArrayList<>();
+    Set<Class<?>> visited = new HashSet<>();
+    visited.add(entityClass);
+    addPaths(entityClass, dtoClass, null, maxDepth, visited, paths);
+    return List.copyOf(paths);
+  }
+
+  /**
+   * Builds the entity graph of the given paths, e.g. to pass it as the load graph hint of a query.
+   *
+   * @param entityManager The entity manager creating the graph.
+   * @param entityClass   The class of the entity.
+   * @param paths         The paths of the associations to fetch, parents first.
+   * @param <E>           The type of the entity.
+   * @return The entity graph.
+   */
+  public static <E> EntityGraph<E> toEntityGraph(EntityManager entityManager, Class<E> entityClass, Collection<String> paths) {
+    EntityGraph<E> graph = entityManager.createEntityGraph(entityClass);
+    Map<String, Subgraph<?>> subgraphs = new HashMap<>();
+    for (String path : paths) {
+      int separator = path.lastIndexOf('.');
+      String attribute = path.substring(separator + 1);
+      Subgraph<?> subgraph = separator < 0 ? graph.addSubgraph(attribute) : subgraphs.get(path.substring(0, separator)).addSubgraph(attribute);
+      subgraphs.put(path, subgraph);
+    }
+    return graph;
+  }
+
+  private static void addPaths(Class<?> entityClass, Class<?> dtoClass, String prefix, int depth, Set<Class<?>> visited, List<String> paths) {
+    if (depth <= 0) {
+      return;
+    }
+    for (Field field : getFields(entityClass)) {
+      if (!field.isAnnotationPresent(ManyToOne.class) && !field.isAnnotationPresent(OneToOne.class)) {
+        continue;
+      }
+      Field dtoField = dtoClass != null ? findField(dtoClass, field.getName()) : null;
+      if (dtoClass != null && dtoField == null) {
+        continue;
+      }
+      String path = prefix == null ? field.getName() : prefix + "." + field.getName();
+      paths.add(path);
+      // The associations leading back to an entity of the path are not followed, to stop on cycles
+      if (visited.add(field.getType())) {
+        addPaths(field.getType(), dtoField != null ? dtoField.getType() : null, path, depth - 1, visited, paths);
+        visited.remove(field.getType());
+      }
+    }
+  }
+
+  private static List<Field> getFields(Class<?> clazz) {
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fields.add(field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  private static Field findField(Class<?> clazz, String name) {
+    for (Field field : getFields(clazz)) {
+      if (field.getName().equals(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+}
@@ -2,7 +2,11 @@ package dev.springharvest.crud.domains.base.persistence;
 
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import java.io.Serializable;
+import java.util.Collection;
 
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.data.repository.ListPagingAndSortingRepository;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -10,17 +14,31 @@ import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 /**
  * This interface is used to define the contract for a base repository. It wraps the ListCrudRepository and ListPagingAndSortingRepository interfaces.
+ * The JpaSpecificationExecutor interface gives access to the fluent queries, e.g. to fetch the associations of a page along with it.
  *
  * @param <E> The type of the entity.
  * @param <K> The type of the id (primary key) field.
  * @see ListCrudRepository
  * @see ListPagingAndSortingRepository
+ * @see JpaSpecificationExecutor
  */
 
 @NoRepositoryBean
 public interface ICrudRepository<E extends BaseEntity<K>, K extends Serializable>
-    extends ListCrudRepository<E, K>, ListPagingAndSortingRepository<E, K>, QueryByExampleExecutor<E> {
+    extends ListCrudRepository<E, K>, ListPagingAndSortingRepository<E, K>, QueryByExampleExecutor<E>,
+    JpaSpecificationExecutor<E> {
 
   long count();
 
+  /**
+   * Deletes the entities with the given ids in a single DELETE statement, without loading them. The JPA cascades and the
+   * entity listeners are skipped, and the entities already loaded in the persistence context are not detached.
+   *
+   * @param ids The ids of the entities to delete.
+   * @return The number of deleted entities.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("delete from #{#entityName} e where e.id in :ids")
+  int deleteInBulkByIds(Collection<K> ids);
+
 }
@@ -7,6 +7,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
 
+import dev.springharvest.crud.domains.base.persistence.FetchPlan;
 import dev.springharvest.crud.domains.base.rest.constants.CrudControllerUri;
 import dev.springharvest.crud.domains.base.services.AbstractCrudService;
 import dev.springharvest.errors.models.ClientException;
@@ -54,10 +56,17 @@ public abstract class AbstractCrudController<D extends BaseDTO<K>, E extends Bas
   protected IBaseModelMapper<D, E, K> modelMapper;
   protected AbstractCrudService<E, K> crudService;
 
+  /**
+   * The to-one associations of the entity that are mapped to the DTO, fetched along with the pages of entities.
+   */
+  protected List<String> fetchPlan;
+
   protected AbstractCrudController(IBaseModelMapper<D, E, K> modelMapper,
                                    AbstractCrudService<E, K> crudService) {
     this.modelMapper = modelMapper;
     this.crudService = crudService;
+    Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), AbstractCrudController.class);
+    this.fetchPlan = typeArguments != null ? FetchPlan.of(typeArguments[1], typeArguments[0]) : List.of();
   }
 
   @Override
@@ -107,7 +116,8 @@ public abstract class AbstractCrudController<D extends BaseDTO<K>, E extends Bas
                 }).toList()) :
                 Sort.unsorted();
     PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, sort);
-    Page<E> entities = crudService.findAll(PageRequest.of(pageNumber, pageSize, sort));
+    // The associations read by the mapper are fetched with the page, rather than lazily for each entity
+    Page<E> entities = fetchPlan.isEmpty() ? crudService.findAll(pageRequest) : crudService.findAll(pageRequest, fetchPlan);
     Page<D> dtos = entities.hasContent() ? modelMapper.pagedEntityToPagedDto(entities) : Page.empty(pageRequest);
     return ResponseEntity.status(HttpStatusCode.valueOf(200)).body(dtos);
   }
@@ -1,41 +1,127 @@
 package dev.springharvest.crud.domains.base.services;
 
 import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
+import dev.springharvest.shared.cache.QueryResultCache;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import dev.springharvest.shared.domains.embeddables.traces.dates.models.entities.TraceDatesEntity;
 import dev.springharvest.shared.domains.embeddables.traces.trace.models.entities.TraceDataEntity;
 import dev.springharvest.shared.domains.embeddables.traces.traceable.models.entities.ITraceableEntity;
 import dev.springharvest.shared.domains.embeddables.traces.users.models.entities.TraceUsersEntity;
+import dev.springharvest.shared.utils.AttributePath;
 import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
 import jakarta.validation.Valid;
 import java.io.Serializable;
-import java.lang.reflect.ParameterizedType;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
 @Slf4j
 public abstract class AbstractCrudService<E extends BaseEntity<K>, K extends Serializable>
     implements ICrudService<E, K> {
 
+  private static final String DATE_UPDATED_PATH = "traceData.traceDates.dateUpdated";
+
   protected ICrudRepository<E, K> crudRepository;
+  protected QueryResultCache queryResultCache;
+  @PersistenceContext
+  protected EntityManager entityManager;
+
+  /**
+   * Whether the entity is kept in the second-level cache, resolved on first use.
+   */
+  private volatile Boolean secondLevelCached;
+
+  /**
+   * The number of entities inserted between two flushes of a bulk creation.
+   */
+  private int bulkChunkSize = 1000;
+
+  /**
+   * Whether the bulk creations insert the entities through a stateless session.
+   */
+  private boolean bulkStateless;
 
   protected AbstractCrudService(ICrudRepository<E, K> crudRepository) {
     this.crudRepository = crudRepository;
   }
 
+  /**
+   * Sets the cache of the results of the searches, whose results depending on this entity are invalidated once its
+   * creations, updates and deletions commit.
+   *
+   * @param queryResultCache The query result cache.
+   */
+  @Autowired(required = false)
+  public void setQueryResultCache(QueryResultCache queryResultCache) {
+    this.queryResultCache = queryResultCache;
+  }
+
+  public void setEntityManager(EntityManager entityManager) {
+    this.entityManager = entityManager;
+    this.secondLevelCached = null;
+  }
+
+  /**
+   * Sets the number of entities inserted between two flushes of a bulk creation. The entities of a chunk are detached once
+   * flushed, so that the persistence context does not grow with the number of created entities. The chunk size is best
+   * set to a multiple of hibernate.jdbc.batch_size.
+   *
+   * @param chunkSize The chunk size.
+   */
+  @Value("${springharvest.crud.bulk.chunk-size:1000}")
+  public void setBulkChunkSize(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("The chunk size of the bulk creations must be positive: " + chunkSize);
+    }
+    this.bulkChunkSize = chunkSize;
+  }
+
+  /**
+   * Sets whether the bulk creations insert the entities through a stateless session, on the connection of the current
+   * transaction. A stateless session has no persistence context and does not cascade to the associations nor fire the
+   * entity listeners. The created entities are then never managed, so {@link #afterCreation(BaseEntity)} must not rely on
+   * their lazy associations.
+   *
+   * @param stateless true to insert through a stateless session, false to persist the entities in chunks.
+   */
+  @Value("${springharvest.crud.bulk.stateless:false}")
+  public void setBulkStateless(boolean stateless) {
+    this.bulkStateless = stateless;
+  }
 
   protected Class<E> getClazz() {
-    ParameterizedType paramType = (ParameterizedType) getClass().getGenericSuperclass();
-    return (Class<E>) paramType.getActualTypeArguments()[1];
+    return (Class<E>) GenericTypeResolver.resolveTypeArguments(ClassUtils.getUserClass(getClass()), AbstractCrudService.class)[0];
   }
 
   @Override
@@ -47,6 +133,10 @@ public abstract class AbstractCrudService<E extends BaseEntity<K>, K extends Ser
   @Override
   @Transactional(readOnly = true)
   public boolean existsById(K id) {
+    if (isSecondLevelCached()) {
+      // A lookup by id reads the second-level cache, unlike the count query of existsById
+      return crudRepository.findById(id).isPresent();
+    }
     return crudRepository.existsById(id);
   }
 
@@ -74,6 +164,12 @@ public abstract class AbstractCrudService<E extends BaseEntity<K>, K extends Ser
   @Override
   @Transactional(readOnly = true)
   public List<E> findAllByIds(Set<K> ids) {
+    if (isSecondLevelCached()) {
+      // Only the entities missing from the second-level cache are read, in batches, instead of all of them in one query
+      return entityManager.unwrap(Session.class).byMultipleIds(getClazz()).with(CacheMode.NORMAL).multiLoad(new ArrayList<>(ids)).stream()
+          .filter(Objects::nonNull)
+          .toList();
+    }
     return crudRepository.findAllById(ids);
   }
 
@@ -83,40 +179,230 @@ public abstract class AbstractCrudService<E extends BaseEntity<K>, K extends Ser
     return crudRepository.findAll(pageable);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Page<E> findAll(Pageable pageable, Collection<String> fetchPaths) {
+    if (fetchPaths == null || fetchPaths.isEmpty()) {
+      return findAll(pageable);
+    }
+    // The projected properties are fetched through an entity graph, the sort of the page is not applied by page() itself
+    return crudRepository.findBy(Specification.where(null), query -> query.project(fetchPaths).sortBy(pageable.getSort()).page(pageable));
+  }
+
   @Transactional
   public E create(@Valid E entity) {
     entity = beforeCreation(entity);
     try {
-      return afterCreation(crudRepository.save(entity));
+      E created = afterCreation(crudRepository.save(entity));
+      invalidateQueryResults();
+      return created;
     } catch (EntityExistsException e) {
       log.error("Entity already exists", e);
       throw e;
     }
   }
 
+  /**
+   * Creates the entities in bulk, see {@link #insertAll(List)}. The created entities are detached from the persistence
+   * context once flushed, the other entities of the current transaction stay managed.
+   *
+   * @param entities The new entities.
+   * @return The created entities, with their ids.
+   */
   @Transactional
   public List<E> create(@Valid List<E> entities) {
-    return afterCreation(crudRepository.saveAll(beforeCreation(entities)));
+    List<E> created = afterCreation(insertAll(beforeCreation(entities)));
+    invalidateQueryResults();
+    return created;
   }
 
   @Transactional
   public E update(@Valid E entity) {
-    return afterUpdate(crudRepository.save(beforeUpdate(entity)));
+    E updated = afterUpdate(crudRepository.save(beforeUpdate(entity)));
+    invalidateQueryResults();
+    return updated;
   }
 
   @Transactional
   public List<E> update(@Valid List<E> entities) {
-    return afterUpdate(entities.stream().map(this::update).toList());
+    List<E> updated = afterUpdate(mergeAll(entities));
+    invalidateQueryResults();
+    return updated;
+  }
+
+  @Override
+  @Transactional
+  public int updateAllById(Collection<K> ids, Map<String, Object> values) {
+    if (entityManager == null) {
+      throw new IllegalStateException("The bulk updates require an entity manager");
+    }
+    Map<String, Object> assignments = new LinkedHashMap<>(values);
+    if (ITraceableEntity.class.isAssignableFrom(getClazz())) {
+      assignments.putIfAbsent(DATE_UPDATED_PATH, LocalDate.ofInstant(Instant.now(), ZoneOffset.UTC));
+    }
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    List<K> idList = new ArrayList<>(ids);
+    int updated = 0;
+    for (int from = 0; from < idList.size(); from += bulkChunkSize) {
+      CriteriaUpdate<E> update = builder.createCriteriaUpdate(getClazz());
+      Root<E> root = update.from(getClazz());
+      assignments.forEach((path, value) -> update.set(path(root, path), value));
+      update.where(root.get("id").in(idList.subList(from, Math.min(from + bulkChunkSize, idList.size()))));
+      updated += entityManager.createQuery(update).executeUpdate();
+    }
+    invalidateQueryResults();
+    return updated;
   }
 
   @Transactional
   public void deleteById(K id) {
     crudRepository.deleteById(id);
+    invalidateQueryResults();
   }
 
   @Transactional
   public void deleteById(List<K> ids) {
-    crudRepository.deleteAllById(ids);
+    deleteAllById(ids);
+  }
+
+  @Override
+  @Transactional
+  public int deleteAllById(Collection<K> ids) {
+    // Deletes in chunks, so that a large list of ids does not end up in one giant statement
+    List<K> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+    int deleted = 0;
+    for (int from = 0; from < idList.size(); from += bulkChunkSize) {
+      List<K> chunk = idList.subList(from, Math.min(from + bulkChunkSize, idList.size()));
+      beforeDeletion(chunk);
+      deleted += crudRepository.deleteInBulkByIds(chunk);
+    }
+    invalidateQueryResults();
+    return deleted;
+  }
+
+  /**
+   * Inserts new entities in bulk. Unlike saveAll, which merges or persists them one at a time, the entities are persisted
+   * in chunks, each chunk being flushed in JDBC batches and then detached from the persistence context. The entities
+   * cascaded from them, unless the associations cascade the detachment, and the entities loaded earlier in the current
+   * transaction stay managed.
+   * <p>
+   * The ids are generated by the id generator of the entity as the entities are persisted, without a round trip when it
+   * is a UUID or a pooled sequence. An identity column disables the JDBC batching of the inserts. When inserted through a
+   * stateless session, the entities are never managed: {@link #afterCreation(BaseEntity)} receives them detached, with their
+   * lazy associations as the caller set them.
+   *
+   * @param entities The new entities, without ids.
+   * @return The inserted entities, with their ids.
+   */
+  protected List<E> insertAll(List<E> entities) {
+    if (entityManager == null) {
+      return crudRepository.saveAll(entities);
+    }
+    if (bulkStateless) {
+      Session session = entityManager.unwrap(Session.class);
+      session.flush();
+      session.doWork(connection -> {
+        try (StatelessSession statelessSession = session.getSessionFactory().openStatelessSession(connection)) {
+          statelessSession.setJdbcBatchSize(session.getJdbcBatchSize());
+          entities.forEach(statelessSession::insert);
+        }
+      });
+      return entities;
+    }
+    for (int from = 0; from < entities.size(); from += bulkChunkSize) {
+      List<E> chunk = entities.subList(from, Math.min(from + bulkChunkSize, entities.size()));
+      chunk.forEach(entityManager::persist);
+      entityManager.flush();
+      // Only the flushed chunk leaves the persistence context, the entities the caller loaded stay managed
+      chunk.forEach(entityManager::detach);
+    }
+    return entities;
+  }
+
+  /**
+   * Updates entities in bulk. Unlike an update per entity, which checks that the entity exists and then merges it, the
+   * existing entities are loaded with one query per chunk, the entities are merged onto them and the changes of each
+   * chunk are flushed in JDBC batches. The chunk is then detached from the persistence context, so that it does not grow
+   * with the number of updated entities: {@link #afterUpdate(BaseEntity)} receives detached entities, and an entity the
+   * caller loaded in the current transaction is detached as well when it is part of the update.
+   * <p>
+   * Only the rows that changed are updated. Annotating the entity with {@link org.hibernate.annotations.DynamicUpdate}
+   * restricts the updates to the changed columns, but Hibernate then no longer batches them. The existing entities go
+   * through {@link #beforeUpdateOfExisting(BaseEntity)}, the entities that do not exist are created through
+   * {@link #beforeCreation(BaseEntity)} and {@link #afterCreation(BaseEntity)}.
+   *
+   * @param entities The entities to update.
+   * @return The updated entities.
+   */
+  protected List<E> mergeAll(List<E> entities) {
+    if (entityManager == null) {
+      return entities.stream().map(entity -> crudRepository.save(beforeUpdate(entity))).toList();
+    }
+    List<E> updated = new ArrayList<>(entities.size());
+    for (int from = 0; from < entities.size(); from += bulkChunkSize) {
+      List<E> merged = new ArrayList<>(Math.min(bulkChunkSize, entities.size() - from));
+      List<E> chunk = entities.subList(from, Math.min(from + bulkChunkSize, entities.size()));
+      // Loads the existing entities into the persistence context, so that merging them runs no further query
+      Set<K> existing = findAllByIds(chunk.stream().map(BaseEntity::getId).filter(Objects::nonNull).collect(Collectors.toSet()))
+          .stream()
+          .map(BaseEntity::getId)
+          .collect(Collectors.toSet());
+      for (E entity : chunk) {
+        if (entity.getId() != null && existing.contains(entity.getId())) {
+          merged.add(entityManager.merge(beforeUpdateOfExisting(entity)));
+        } else {
+          E created = beforeCreation(entity);
+          entityManager.persist(created);
+          merged.add(afterCreation(created));
+        }
+      }
+      entityManager.flush();
+      // As in insertAll, only the flushed chunk leaves the persistence context
+      merged.forEach(entityManager::detach);
+      updated.addAll(merged);
+    }
+    return updated;
+  }
+
+  /**
+   * Resolves a dotted attribute path, e.g. "traceData.traceDates.dateUpdated", from the root of a query, through the attributes of the metamodel the
+   * path is resolved to once.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <X> Path<X> path(Root<?> root, String attributePath) {
+    Path<?> path = root;
+    for (Attribute<?, ?> attribute : AttributePath.of(attributePath).attributes(root.getModel())) {
+      path = path.get((SingularAttribute) attribute);
+    }
+    return (Path<X>) path;
+  }
+
+  /**
+   * Invalidates the cached results depending on this entity once the current transaction commits.
+   */
+  protected void invalidateQueryResults() {
+    if (queryResultCache != null) {
+      queryResultCache.invalidateAfterCommit(getClazz());
+    }
+  }
+
+  /**
+   * Tells whether the entity is kept in the second-level cache, i.e. it is marked as {@link jakarta.persistence.Cacheable}
+   * and a cache region factory is configured.
+   *
+   * @return true if the lookups by id can be served by the second-level cache.
+   */
+  protected boolean isSecondLevelCached() {
+    if (entityManager == null) {
+      return false;
+    }
+    Boolean cached = secondLevelCached;
+    if (cached == null) {
+      cached = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+          .getEntityDescriptor(getClazz()).canReadFromCache();
+      secondLevelCached = cached;
+    }
+    return cached;
   }
 
   protected List<E> afterUpdate(List<E> source) {
@@ -129,11 +415,28 @@ public abstract class AbstractCrudService<E extends BaseEntity<K>, K extends Ser
   }
 
   protected E beforeUpdate(E source) {
-    validate(source);
     K id = source.getId();
     if (!existsById(id)) {
+      validate(source);
       return create(source);
     }
+    return beforeUpdateOfExisting(source);
+  }
+
+  /**
+   * Called before an entity known to exist is updated, by the updates of a single entity as well as by the bulk updates.
+   * This is where the updates are customized, rather than in {@link #beforeUpdate(BaseEntity)}, which the bulk updates
+   * skip since they check the existence of the entities in chunks.
+   *
+   * @param source The existing entity about to be updated.
+   * @return The entity to merge.
+   */
+  protected E beforeUpdateOfExisting(E source) {
+    validate(source);
+    return setDateUpdated(source);
+  }
+
+  private E setDateUpdated(E source) {
     if (source instanceof ITraceableEntity<?>) {
       TraceDataEntity<K> traceData = ((ITraceableEntity) source).getTraceData();
       if (traceData != null) {
@@ -158,6 +461,15 @@ public abstract class AbstractCrudService<E extends BaseEntity<K>, K extends Ser
     // TODO: implement update validation
   }
 
+  /**
+   * Called before the entities with the given ids are deleted in bulk. The bulk deletions skip the JPA cascades, so this is
+   * where the rows referencing the entities are deleted or detached from them, e.g. with their own bulk statements.
+   *
+   * @param ids The ids of the entities about to be deleted.
+   */
+  protected void beforeDeletion(List<K> ids) {
+  }
+
   protected List<E> beforeCreation(List<E> source) {
     source.forEach(this::beforeCreation);
     return source;
@@ -2,7 +2,9 @@ package dev.springharvest.crud.domains.base.services;
 
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.springframework.data.domain.Page;
@@ -53,6 +55,16 @@ public interface ICrudService<E extends BaseEntity<K>, K extends Serializable> {
    */
   Page<E> findAll(Pageable pageable);
 
+  /**
+   * Returns all entities of the entity domain, loading the given associations in the same query rather than lazily.
+   *
+   * @param pageable   The page to return.
+   * @param fetchPaths The paths of the to-one associations to fetch, e.g. "author" or "author.pet".
+   * @return All entities of the entity domain.
+   * @see dev.springharvest.crud.domains.base.persistence.FetchPlan
+   */
+  Page<E> findAll(Pageable pageable, Collection<String> fetchPaths);
+
   /**
    * Saves a new entity to the database if it does not already exist.
    *
@@ -85,6 +97,16 @@ public interface ICrudService<E extends BaseEntity<K>, K extends Serializable> {
    */
   List<E> update(List<E> dtos);
 
+  /**
+   * Sets the same values on all the entities with the given ids, in set-based update statements that neither load the
+   * entities nor go through their persistence context.
+   *
+   * @param ids    The ids of the entities to update.
+   * @param values The new values, by attribute path, e.g. "title" or "traceData.traceDates.dateUpdated".
+   * @return The number of updated entities.
+   */
+  int updateAllById(Collection<K> ids, Map<String, Object> values);
+
   /**
    * Deletes an entity from the database.
    *
@@ -99,4 +121,12 @@ public interface ICrudService<E extends BaseEntity<K>, K extends Serializable> {
    */
   void deleteById(List<K> ids);
 
+  /**
+   * Deletes the entities with the given ids in set-based DELETE statements, without loading them.
+   *
+   * @param ids The ids of the entities to delete.
+   * @return The number of deleted entities.
+   */
+  int deleteAllById(Collection<K> ids);
+
 }
\ No newline at end of file
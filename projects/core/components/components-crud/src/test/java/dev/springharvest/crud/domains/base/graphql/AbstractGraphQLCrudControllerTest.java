@@ -1,16 +1,33 @@
 package dev.springharvest.crud.domains.base.graphql;
 
+import dev.springharvest.crud.domains.base.services.ICrudService;
+import dev.springharvest.expressions.config.PersistedQueryDocumentProvider;
+import dev.springharvest.expressions.helpers.PersistedDocumentCache;
 import dev.springharvest.shared.constants.*;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLContext;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
 import graphql.schema.DataFetchingFieldSelectionSet;
 import graphql.schema.SelectedField;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.criteria.JoinType;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
@@ -32,10 +49,11 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.stream.IntStream;
 
 public class AbstractGraphQLCrudControllerTest {
 
-    private class Author extends BaseEntity<UUID>{
+    public class Author extends BaseEntity<UUID>{
         public String name;
         public Pet pet;
 
@@ -44,7 +62,7 @@ public class AbstractGraphQLCrudControllerTest {
             this.pet = pet;
         }
     }
-    private class Pet extends BaseEntity<UUID>{
+    public class Pet extends BaseEntity<UUID>{
         public String name;
         public Pet(String name) {
             this.name = name;
@@ -77,7 +95,7 @@ public class AbstractGraphQLCrudControllerTest {
         Map<String, Object> clause = new HashMap<>();
         Map<String, JoinType> joins = new HashMap<>();
         List<String> fields = new ArrayList<>();
-        DataPaging paging = new DataPaging(1, 10, new ArrayList<>());
+        DataPaging paging = new DataPaging(1, 10, new ArrayList<>(), null);
         PageData<Author> expectedPageData = new PageData<>(new ArrayList<>(), 1, 10, 0L, 1, 10);
 
         when(typedQueryBuilder.parseFilterExpression(
@@ -104,7 +122,7 @@ public class AbstractGraphQLCrudControllerTest {
         Map<String, Object> filter = null;
         Map<String, Object> clause = new HashMap<>();
         clause.put("distinct", "true");
-        DataPaging paging = new DataPaging(1, 10, new ArrayList<>());
+        DataPaging paging = new DataPaging(1, 10, new ArrayList<>(), null);
 
         when(typedQueryBuilder.parseFilterExpression(eq(Operation.SEARCH), eq(entityClass), eq(keyClass), eq(filter), eq(clause), anyList(), anyMap(), any(), eq(paging)))
                 .thenReturn(null);
@@ -129,7 +147,7 @@ public class AbstractGraphQLCrudControllerTest {
         Map<String, Object> clause = Map.of("distinct", "true");
         Map<String, JoinType> joins = new LinkedHashMap<>();
         joins.put("pet", JoinType.RIGHT);
-        DataPaging paging = new DataPaging(0, 10, new ArrayList<>());
+        DataPaging paging = new DataPaging(0, 10, new ArrayList<>(), null);
         Pet pet = new Pet("Jojo");
         Author author = new Author("Joshua Bloch", pet);
         Pet pet2 = new Pet("Rocky");
@@ -159,7 +177,7 @@ public class AbstractGraphQLCrudControllerTest {
         when(environment.getSelectionSet()).thenReturn(mock(DataFetchingFieldSelectionSet.class));
         Map<String, Object> filter = new HashMap<>();
         Map<String, Object> clause = new HashMap<>();
-        DataPaging paging = new DataPaging(1, 10, new ArrayList<>());
+        DataPaging paging = new DataPaging(1, 10, new ArrayList<>(), null);
         PageData<Author> expectedPageData = new PageData<>(new ArrayList<>(), 1, 10, 0L, 1, 10);
 
         when(typedQueryBuilder.parseFilterExpression(eq(Operation.SEARCH), eq(entityClass), eq(keyClass), eq(filter), eq(clause), anyList(), anyMap(), any(), eq(paging)))
@@ -183,7 +201,7 @@ public class AbstractGraphQLCrudControllerTest {
         List<String> fields = new ArrayList<>();
         fields.add("Author.name");
         fields.add("Author.pet.name");
-        DataPaging paging = new DataPaging(1, 10, Collections.singletonList(new Sort("Author.pet.name", SortDirection.DESC)));
+        DataPaging paging = new DataPaging(1, 10, Collections.singletonList(new Sort("Author.pet.name", SortDirection.DESC)), null);
         List<String> countFields = new ArrayList<>();
         countFields.add("Author_name");
         List<String> formattedCountFields = new ArrayList<>();
@@ -361,42 +379,40 @@ public class AbstractGraphQLCrudControllerTest {
 
     @Test
     void processJoinsWithValidJoins() {
-        abstractGraphQLCrudController.joins.put("author_pet", JoinType.LEFT);
-        abstractGraphQLCrudController.joins.put("author_books", JoinType.INNER);
+        Map<String, JoinType> joins = new LinkedHashMap<>();
+        joins.put("author_pet", JoinType.LEFT);
+        joins.put("author_books", JoinType.INNER);
 
-        abstractGraphQLCrudController.processJoins();
+        Map<String, JoinType> result = AbstractGraphQLCrudController.processJoins(joins);
 
-        assertEquals(JoinType.LEFT, abstractGraphQLCrudController.joins.get("author.pet"));
-        assertEquals(JoinType.INNER, abstractGraphQLCrudController.joins.get("author.books"));
+        assertEquals(JoinType.LEFT, result.get("author.pet"));
+        assertEquals(JoinType.INNER, result.get("author.books"));
     }
 
     @Test
     void processJoinsWithEmptyJoins() {
-        abstractGraphQLCrudController.joins.clear();
-
-        abstractGraphQLCrudController.processJoins();
+        Map<String, JoinType> result = AbstractGraphQLCrudController.processJoins(new HashMap<>());
 
-        assertTrue(abstractGraphQLCrudController.joins.isEmpty());
+        assertTrue(result.isEmpty());
     }
 
     @Test
     void processJoinsWithNullJoins() {
-        abstractGraphQLCrudController.joins = null;
+        Map<String, JoinType> result = AbstractGraphQLCrudController.processJoins(null);
 
-        abstractGraphQLCrudController.processJoins();
-
-        assertNull(abstractGraphQLCrudController.joins);
+        assertTrue(result.isEmpty());
     }
 
     @Test
     void processJoinsWithMixedJoinTypes() {
-        abstractGraphQLCrudController.joins.put("author_pet", JoinType.LEFT);
-        abstractGraphQLCrudController.joins.put("author_books", JoinType.RIGHT);
+        Map<String, JoinType> joins = new LinkedHashMap<>();
+        joins.put("author_pet", JoinType.LEFT);
+        joins.put("author_books", JoinType.RIGHT);
 
-        abstractGraphQLCrudController.processJoins();
+        Map<String, JoinType> result = AbstractGraphQLCrudController.processJoins(joins);
 
-        assertEquals(JoinType.LEFT, abstractGraphQLCrudController.joins.get("author.pet"));
-        assertEquals(JoinType.RIGHT, abstractGraphQLCrudController.joins.get("author.books"));
+        assertEquals(JoinType.LEFT, result.get("author.pet"));
+        assertEquals(JoinType.RIGHT, result.get("author.books"));
     }
 
     @Test
@@ -409,7 +425,7 @@ public class AbstractGraphQLCrudControllerTest {
         when(field.getFullyQualifiedName()).thenReturn("author.name");
         when(field.getArguments()).thenReturn(Map.of());
 
-        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(environment);
+        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(environment, new HashMap<>());
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -418,7 +434,7 @@ public class AbstractGraphQLCrudControllerTest {
 
     @Test
     void extractFieldsFromEnvironmentWithNullEnvironment() {
-        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(null);
+        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(null, new HashMap<>());
 
         assertEquals(List.of(), result);
     }
@@ -430,7 +446,7 @@ public class AbstractGraphQLCrudControllerTest {
         when(environment.getSelectionSet()).thenReturn(selectionSet);
         when(selectionSet.getFields()).thenReturn(Collections.emptyList());
 
-        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(environment);
+        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(environment, new HashMap<>());
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -446,11 +462,146 @@ public class AbstractGraphQLCrudControllerTest {
         when(field.getFullyQualifiedName()).thenReturn("author.pet");
         when(field.getArguments()).thenReturn(Map.of("join", "LEFT"));
 
-        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(environment);
+        Map<String, JoinType> joins = new HashMap<>();
+        List<String> result = abstractGraphQLCrudController.extractFieldsFromEnvironment(environment, joins);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("author.pet", result.get(0));
-        assertEquals(JoinType.LEFT, abstractGraphQLCrudController.joins.get("author.pet"));
+        assertEquals(Map.of("author.pet", JoinType.LEFT), joins);
+    }
+
+    @Test
+    void getBatchedFieldsReplacesBatchedAssociationFieldsByTheirId() {
+        abstractGraphQLCrudController.batchAssociation("pet", Pet.class);
+        DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
+        when(environment.getDataLoader(AbstractGraphQLCrudController.getDataLoaderName(Pet.class))).thenReturn(mock(DataLoader.class));
+
+        List<String> result = abstractGraphQLCrudController.getBatchedFields(List.of("data.name", "data.pet", "data.pet.name", "total"), Map.of(), environment);
+
+        assertEquals(List.of("data.name", "data.pet.id", "total"), result);
+    }
+
+    @Test
+    void getBatchedFieldsKeepsJoinedOrUnregisteredAssociations() {
+        abstractGraphQLCrudController.batchAssociation("pet", Pet.class);
+        DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
+        List<String> fields = List.of("data.name", "data.pet.name");
+
+        assertEquals(fields, abstractGraphQLCrudController.getBatchedFields(fields, Map.of(), environment));
+        when(environment.getDataLoader(AbstractGraphQLCrudController.getDataLoaderName(Pet.class))).thenReturn(mock(DataLoader.class));
+        assertEquals(fields, abstractGraphQLCrudController.getBatchedFields(fields, Map.of("data.pet", JoinType.LEFT), environment));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadAssociationLoadsTheAssociationsOfAPageInOneBatch() {
+        ICrudService<Pet, UUID> petService = mock(ICrudService.class);
+        List<Pet> pets = IntStream.range(0, 10).mapToObj(i -> {
+            Pet pet = new Pet("Pet " + i);
+            pet.setId(UUID.randomUUID());
+            return pet;
+        }).toList();
+        when(petService.findAllByIds(any())).thenAnswer(invocation -> pets.stream().filter(pet -> ((Set<UUID>) invocation.getArgument(0)).contains(pet.getId())).toList());
+        DefaultBatchLoaderRegistry batchLoaderRegistry = new DefaultBatchLoaderRegistry();
+        new AbstractGraphQLCrudController<>(Pet.class, UUID.class, petService) {}.setBatchLoaderRegistry(batchLoaderRegistry);
+        abstractGraphQLCrudController.batchAssociation("pet", Pet.class);
+
+        // A page of 100 authors whose pets were searched by id only, as getBatchedFields requests
+        List<Author> authors = IntStream.range(0, 100).mapToObj(i -> {
+            Pet pet = new Pet(null);
+            pet.setId(pets.get(i % pets.size()).getId());
+            return new Author("Author " + i, pet);
+        }).toList();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("""
+                type Query { authors: [Author] }
+                type Author { name: String pet(join: Join): Pet }
+                type Pet { id: ID name: String }
+                enum Join { INNER LEFT }
+                """), RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder.dataFetcher("authors", environment -> authors))
+                .type("Author", builder -> builder.dataFetcher("pet", abstractGraphQLCrudController::loadAssociation))
+                .build());
+        DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+        batchLoaderRegistry.registerDataLoaders(dataLoaderRegistry, GraphQLContext.newContext().build());
+
+        ExecutionResult result = GraphQL.newGraphQL(schema).build().execute(ExecutionInput.newExecutionInput("{ authors { name pet { name } } }").dataLoaderRegistry(dataLoaderRegistry).build());
+
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        List<Map<String, Object>> data = ((Map<String, List<Map<String, Object>>>) result.getData()).get("authors");
+        assertEquals(100, data.size());
+        assertEquals(Map.of("name", "Pet 3"), data.get(13).get("pet"));
+        ArgumentCaptor<Set<UUID>> ids = ArgumentCaptor.forClass(Set.class);
+        verify(petService, times(1)).findAllByIds(ids.capture());
+        assertEquals(10, ids.getValue().size());
+    }
+
+    @Test
+    void loadAssociationReturnsJoinedAssociationAsSearched() {
+        abstractGraphQLCrudController.batchAssociation("pet", Pet.class);
+        Pet pet = new Pet("Jojo");
+        pet.setId(UUID.randomUUID());
+        DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class, Answers.RETURNS_DEEP_STUBS);
+        when(environment.getField().getName()).thenReturn("pet");
+        when(environment.getSource()).thenReturn(Map.of("pet", pet));
+        when(environment.getArgument("join")).thenReturn("LEFT");
+
+        assertSame(pet, abstractGraphQLCrudController.loadAssociation(environment).join());
+        verify(environment, times(0)).getDataLoader(any());
+    }
+
+    @Test
+    void getSelectionPlanExtractsTheSelectionOncePerCachedDocument() {
+        AbstractGraphQLCrudController<Author, UUID> controller = spy(abstractGraphQLCrudController);
+        List<AbstractGraphQLCrudController.SelectionPlan> plans = new ArrayList<>();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("""
+                type Query { searchAuthors: AuthorPageData }
+                type AuthorPageData { data: [Author] total: Int }
+                type Author { name: String pet(join: Join): Pet }
+                type Pet { name: String }
+                enum Join { INNER LEFT }
+                """), RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder.dataFetcher("searchAuthors", environment -> {
+                    plans.add(controller.getSelectionPlan(environment));
+                    return Map.of("data", List.of());
+                }))
+                .build());
+        GraphQL graphQL = GraphQL.newGraphQL(schema).preparsedDocumentProvider(new PersistedQueryDocumentProvider(new PersistedDocumentCache(16))).build();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(graphQL.execute("{ searchAuthors { data { name pet(join: LEFT) { name } } total } }").getErrors().isEmpty());
+        }
+
+        verify(controller, times(1)).extractFieldsFromEnvironment(any(), anyMap());
+        assertEquals(3, plans.size());
+        assertSame(plans.get(0), plans.get(2));
+        assertEquals(Map.of("data.pet", JoinType.LEFT), plans.get(0).joins());
+    }
+
+    @Test
+    void getSelectionPlanExtractsVariableSelectionsOnEveryRequest() {
+        AbstractGraphQLCrudController<Author, UUID> controller = spy(abstractGraphQLCrudController);
+        List<AbstractGraphQLCrudController.SelectionPlan> plans = new ArrayList<>();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("""
+                type Query { searchAuthors: AuthorPageData }
+                type AuthorPageData { data: [Author] }
+                type Author { name: String pet(join: Join): Pet }
+                type Pet { name: String }
+                enum Join { INNER LEFT }
+                """), RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder.dataFetcher("searchAuthors", environment -> {
+                    plans.add(controller.getSelectionPlan(environment));
+                    return Map.of("data", List.of());
+                }))
+                .build());
+        GraphQL graphQL = GraphQL.newGraphQL(schema).preparsedDocumentProvider(new PersistedQueryDocumentProvider(new PersistedDocumentCache(16))).build();
+        String query = "query($join: Join) { searchAuthors { data { name pet(join: $join) { name } } } }";
+
+        graphQL.execute(ExecutionInput.newExecutionInput(query).variables(Map.of("join", "LEFT")).build());
+        graphQL.execute(ExecutionInput.newExecutionInput(query).variables(Map.of("join", "INNER")).build());
+
+        verify(controller, times(2)).extractFieldsFromEnvironment(any(), anyMap());
+        assertEquals(Map.of("data.pet", JoinType.LEFT), plans.get(0).joins());
+        assertEquals(Map.of("data.pet", JoinType.INNER), plans.get(1).joins());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package dev.springharvest.crud.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
+import dev.springharvest.crud.domains.base.services.AbstractCrudService;
+import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes entities in bulk against an in-memory H2 database, to check that they are deleted in one statement per chunk
+ * of ids without being loaded.
+ */
+class BulkDeleteIT {
+
+  @Entity(name = "Crate")
+  public static class Crate extends BaseEntity<UUID> {
+
+    String label;
+
+  }
+
+  public interface CrateRepository extends ICrudRepository<Crate, UUID> {
+
+  }
+
+  private static EmbeddedDatabase database;
+  private static EntityManagerFactory entityManagerFactory;
+  private static EntityManager entityManager;
+  private static TransactionTemplate transactionTemplate;
+  private static AbstractCrudService<Crate, UUID> crateService;
+
+  @BeforeAll
+  static void setUp() {
+    database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(database);
+    factoryBean.setPersistenceProvider(new HibernatePersistenceProvider());
+    factoryBean.setManagedTypes(PersistenceManagedTypes.of(Crate.class.getName()));
+    factoryBean.setJpaPropertyMap(Map.of(
+        "hibernate.hbm2ddl.auto", "create",
+        "hibernate.generate_statistics", "true",
+        "hibernate.jdbc.batch_size", "50"));
+    factoryBean.afterPropertiesSet();
+    entityManagerFactory = factoryBean.getObject();
+    transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+
+    entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    crateService = new AbstractCrudService<>(new JpaRepositoryFactory(entityManager).getRepository(CrateRepository.class)) {
+    };
+    crateService.setEntityManager(entityManager);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    entityManagerFactory.close();
+    database.shutdown();
+  }
+
+  @Test
+  void deleteAllById_deletesTheEntitiesInOneStatementPerChunk() {
+    List<Crate> crates = new ArrayList<>();
+    for (int i = 0; i < 2_500; i++) {
+      Crate crate = new Crate();
+      crate.label = "Crate " + i;
+      crates.add(crate);
+    }
+    List<UUID> ids = inTransaction(() -> crateService.create(crates)).stream().map(BaseEntity::getId).toList();
+    statistics().clear();
+
+    assertEquals(2_000, inTransaction(() -> crateService.deleteAllById(ids.subList(0, 2_000))));
+
+    assertEquals(2, statistics().getPrepareStatementCount());
+    assertEquals(0, statistics().getEntityLoadCount());
+    assertEquals(500L, (long) inTransaction(() -> entityManager.createQuery("select count(c) from Crate c", Long.class).getSingleResult()));
+  }
+
+  private static <T> T inTransaction(Supplier<T> action) {
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  private static Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
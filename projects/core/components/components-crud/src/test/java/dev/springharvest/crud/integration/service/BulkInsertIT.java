@@ -0,0 +1,159 @@
+package dev.springharvest.crud.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
+import dev.springharvest.crud.domains.base.services.AbstractCrudService;
+import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates entities in bulk against an in-memory H2 database, to check that they are inserted in JDBC batches and that the
+ * persistence context does not grow with them.
+ */
+class BulkInsertIT {
+
+  private static final int BATCH_SIZE = 50;
+
+  @Entity(name = "Parcel")
+  public static class Parcel extends BaseEntity<UUID> {
+
+    String label;
+
+  }
+
+  public interface ParcelRepository extends ICrudRepository<Parcel, UUID> {
+
+  }
+
+  private static EmbeddedDatabase database;
+  private static EntityManagerFactory entityManagerFactory;
+  private static EntityManager entityManager;
+  private static TransactionTemplate transactionTemplate;
+  private static AbstractCrudService<Parcel, UUID> parcelService;
+
+  @BeforeAll
+  static void setUp() {
+    database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(database);
+    factoryBean.setPersistenceProvider(new HibernatePersistenceProvider());
+    factoryBean.setManagedTypes(PersistenceManagedTypes.of(Parcel.class.getName()));
+    factoryBean.setJpaPropertyMap(Map.of(
+        "hibernate.hbm2ddl.auto", "create",
+        "hibernate.generate_statistics", "true",
+        "hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE),
+        "hibernate.order_inserts", "true"));
+    factoryBean.afterPropertiesSet();
+    entityManagerFactory = factoryBean.getObject();
+    transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+
+    entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    parcelService = new AbstractCrudService<>(new JpaRepositoryFactory(entityManager).getRepository(ParcelRepository.class)) {
+    };
+    parcelService.setEntityManager(entityManager);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    entityManagerFactory.close();
+    database.shutdown();
+  }
+
+  @BeforeEach
+  void clear() {
+    inTransaction(() -> entityManager.createQuery("delete from Parcel").executeUpdate());
+    parcelService.setBulkChunkSize(1000);
+    parcelService.setBulkStateless(false);
+    statistics().clear();
+  }
+
+  @Test
+  void create_inChunks_insertsTheEntitiesInBatches() {
+    parcelService.setBulkChunkSize(500);
+
+    List<Parcel> created = inTransaction(() -> {
+      List<Parcel> parcels = parcelService.create(parcels(5_000));
+      assertTrue(parcels.stream().noneMatch(entityManager::contains), "The persistence context is cleared");
+      return parcels;
+    });
+
+    assertEquals(5_000, created.size());
+    assertNotNull(created.getLast().getId());
+    assertEquals(5_000, count());
+    // one insert statement per chunk, executed in batches, and the count
+    assertEquals(5_000 / 500 + 1, statistics().getPrepareStatementCount());
+  }
+
+  @Test
+  void create_keepsTheEntitiesLoadedInTheTransactionManaged() {
+    UUID id = inTransaction(() -> parcelService.create(parcels(1)).getFirst().getId());
+
+    inTransaction(() -> {
+      Parcel loaded = entityManager.find(Parcel.class, id);
+      List<Parcel> parcels = parcelService.create(parcels(2));
+      assertTrue(entityManager.contains(loaded), "The entities loaded before the bulk creation stay managed");
+      assertTrue(parcels.stream().noneMatch(entityManager::contains), "The created entities are detached");
+      return parcels;
+    });
+
+    assertEquals(3, count());
+  }
+
+  @Test
+  void create_throughAStatelessSession_insertsTheEntities() {
+    parcelService.setBulkStateless(true);
+
+    List<Parcel> created = inTransaction(() -> parcelService.create(parcels(2_000)));
+
+    assertNotNull(created.getFirst().getId());
+    assertEquals(2_000, count());
+  }
+
+  private static List<Parcel> parcels(int count) {
+    List<Parcel> parcels = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Parcel parcel = new Parcel();
+      parcel.label = "Parcel " + i;
+      parcels.add(parcel);
+    }
+    return parcels;
+  }
+
+  private static long count() {
+    return inTransaction(() -> entityManager.createQuery("select count(p) from Parcel p", Long.class).getSingleResult());
+  }
+
+  private static <T> T inTransaction(Supplier<T> action) {
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  private static Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
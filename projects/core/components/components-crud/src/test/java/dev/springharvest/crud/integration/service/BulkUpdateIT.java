@@ -0,0 +1,200 @@
+package dev.springharvest.crud.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
+import dev.springharvest.crud.domains.base.services.AbstractCrudService;
+import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Updates entities in bulk against an in-memory H2 database, to check that the existing entities are loaded once per
+ * chunk and that only the changed rows are updated, in JDBC batches. The entity is not annotated with
+ * {@link org.hibernate.annotations.DynamicUpdate}, whose updates Hibernate does not batch.
+ */
+class BulkUpdateIT {
+
+  private static final int ENTITIES = 3_000;
+
+  @Entity(name = "Ledger")
+  public static class Ledger extends BaseEntity<UUID> {
+
+    String label;
+    int balance;
+
+  }
+
+  public interface LedgerRepository extends ICrudRepository<Ledger, UUID> {
+
+  }
+
+  private static EmbeddedDatabase database;
+  private static EntityManagerFactory entityManagerFactory;
+  private static EntityManager entityManager;
+  private static TransactionTemplate transactionTemplate;
+  private static AbstractCrudService<Ledger, UUID> ledgerService;
+
+  private List<Ledger> ledgers;
+
+  @BeforeAll
+  static void setUp() {
+    database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(database);
+    factoryBean.setPersistenceProvider(new HibernatePersistenceProvider());
+    factoryBean.setManagedTypes(PersistenceManagedTypes.of(Ledger.class.getName()));
+    factoryBean.setJpaPropertyMap(Map.of(
+        "hibernate.hbm2ddl.auto", "create",
+        "hibernate.generate_statistics", "true",
+        "hibernate.jdbc.batch_size", "50",
+        "hibernate.order_updates", "true"));
+    factoryBean.afterPropertiesSet();
+    entityManagerFactory = factoryBean.getObject();
+    transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+
+    entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    ledgerService = new AbstractCrudService<>(new JpaRepositoryFactory(entityManager).getRepository(LedgerRepository.class)) {
+    };
+    ledgerService.setEntityManager(entityManager);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    entityManagerFactory.close();
+    database.shutdown();
+  }
+
+  @BeforeEach
+  void createLedgers() {
+    inTransaction(() -> entityManager.createQuery("delete from Ledger").executeUpdate());
+    List<Ledger> created = new ArrayList<>(ENTITIES);
+    for (int i = 0; i < ENTITIES; i++) {
+      Ledger ledger = new Ledger();
+      ledger.label = "Ledger " + i;
+      created.add(ledger);
+    }
+    ledgers = inTransaction(() -> ledgerService.create(created));
+    statistics().clear();
+  }
+
+  @Test
+  void update_loadsTheExistingEntitiesOncePerChunkAndOnlyUpdatesTheChangedRows() {
+    List<Ledger> changes = new ArrayList<>(ENTITIES);
+    for (int i = 0; i < ENTITIES; i++) {
+      Ledger change = new Ledger();
+      change.setId(ledgers.get(i).getId());
+      change.label = ledgers.get(i).label;
+      change.balance = i % 2 == 0 ? 100 : 0;
+      changes.add(change);
+    }
+
+    List<Ledger> updated = inTransaction(() -> {
+      List<Ledger> result = ledgerService.update(changes);
+      assertTrue(result.stream().noneMatch(entityManager::contains), "The flushed chunks are detached");
+      return result;
+    });
+
+    assertEquals(ENTITIES, updated.size());
+
+    assertEquals(ENTITIES / 2, statistics().getEntityUpdateCount());
+    // one select per chunk of 1000 and the update statements, executed in batches rather than one per row
+    assertTrue(statistics().getPrepareStatementCount() <= 2 * (ENTITIES / 1000));
+    assertEquals(ENTITIES / 2, countWithBalance(100));
+  }
+
+  @Test
+  void update_ofEntitiesThatDoNotExist_createsThem() {
+    Ledger existing = new Ledger();
+    existing.setId(ledgers.getFirst().getId());
+    existing.label = "Renamed";
+    Ledger missing = new Ledger();
+    missing.setId(UUID.randomUUID());
+    missing.label = "New";
+
+    inTransaction(() -> ledgerService.update(List.of(existing, missing)));
+
+    assertEquals(1, statistics().getEntityUpdateCount());
+    assertEquals(1, statistics().getEntityInsertCount());
+  }
+
+  @Test
+  void update_runsTheHooksOfTheUpdatedAndCreatedEntities() {
+    List<Ledger> updatedHooks = new ArrayList<>();
+    List<Ledger> createdHooks = new ArrayList<>();
+    AbstractCrudService<Ledger, UUID> hookedService =
+        new AbstractCrudService<>(new JpaRepositoryFactory(entityManager).getRepository(LedgerRepository.class)) {
+
+          @Override
+          protected Ledger beforeUpdateOfExisting(Ledger source) {
+            updatedHooks.add(source);
+            return super.beforeUpdateOfExisting(source);
+          }
+
+          @Override
+          protected Ledger afterCreation(Ledger entity) {
+            createdHooks.add(entity);
+            return super.afterCreation(entity);
+          }
+        };
+    hookedService.setEntityManager(entityManager);
+    Ledger existing = new Ledger();
+    existing.setId(ledgers.getFirst().getId());
+    existing.label = "Renamed";
+    Ledger missing = new Ledger();
+    missing.setId(UUID.randomUUID());
+    missing.label = "New";
+
+    inTransaction(() -> hookedService.update(List.of(existing, missing)));
+
+    assertEquals(List.of(existing), updatedHooks);
+    assertEquals(List.of(missing), createdHooks);
+  }
+
+  @Test
+  void updateAllById_setsTheValuesInOneStatementPerChunk() {
+    List<UUID> ids = ledgers.stream().map(BaseEntity::getId).toList();
+
+    assertEquals(ENTITIES, inTransaction(() -> ledgerService.updateAllById(ids, Map.of("balance", 100))));
+
+    assertEquals(ENTITIES / 1000, statistics().getPrepareStatementCount());
+    assertEquals(ENTITIES, countWithBalance(100));
+  }
+
+  private static long countWithBalance(int balance) {
+    return inTransaction(() -> entityManager.createQuery("select count(l) from Ledger l where l.balance = :balance", Long.class)
+        .setParameter("balance", balance)
+        .getSingleResult());
+  }
+
+  private static <T> T inTransaction(Supplier<T> action) {
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  private static Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
@@ -0,0 +1,178 @@
+package dev.springharvest.crud.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
+import dev.springharvest.crud.domains.base.services.AbstractCrudService;
+import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the lookups by id of the crud services against an in-memory H2 database whose entities are kept in a
+ * second-level cache backed by the Caffeine JCache provider, to check that the repeated lookups run no SQL.
+ */
+class SecondLevelCacheIT {
+
+  @Entity(name = "Shelf")
+  @Cacheable
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "shelves")
+  public static class Shelf extends BaseEntity<UUID> {
+
+    String label;
+
+  }
+
+  @Entity(name = "Crate")
+  public static class Crate extends BaseEntity<UUID> {
+
+    String label;
+
+  }
+
+  public interface ShelfRepository extends ICrudRepository<Shelf, UUID> {
+
+  }
+
+  public interface CrateRepository extends ICrudRepository<Crate, UUID> {
+
+  }
+
+  private static EmbeddedDatabase database;
+  private static EntityManagerFactory entityManagerFactory;
+  private static TransactionTemplate transactionTemplate;
+  private static AbstractCrudService<Shelf, UUID> shelfService;
+  private static AbstractCrudService<Crate, UUID> crateService;
+  private static List<UUID> shelfIds;
+  private static UUID crateId;
+
+  @BeforeAll
+  static void setUp() {
+    database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(database);
+    factoryBean.setPersistenceProvider(new HibernatePersistenceProvider());
+    factoryBean.setManagedTypes(PersistenceManagedTypes.of(Shelf.class.getName(), Crate.class.getName()));
+    factoryBean.setJpaPropertyMap(Map.of(
+        "hibernate.hbm2ddl.auto", "create",
+        "hibernate.generate_statistics", "true",
+        "hibernate.cache.region.factory_class", "jcache",
+        "hibernate.javax.cache.uri", "second-level-cache.conf",
+        "hibernate.javax.cache.missing_cache_strategy", "create",
+        "jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE"));
+    factoryBean.afterPropertiesSet();
+    entityManagerFactory = factoryBean.getObject();
+    transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+
+    EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+    shelfService = new AbstractCrudService<>(repositoryFactory.getRepository(ShelfRepository.class)) {
+    };
+    shelfService.setEntityManager(entityManager);
+    crateService = new AbstractCrudService<>(repositoryFactory.getRepository(CrateRepository.class)) {
+    };
+    crateService.setEntityManager(entityManager);
+
+    shelfIds = inTransaction(() -> List.of(save(entityManager, "A"), save(entityManager, "B"), save(entityManager, "C")));
+    crateId = inTransaction(() -> {
+      Crate crate = new Crate();
+      crate.label = "Crate";
+      entityManager.persist(crate);
+      return crate.getId();
+    });
+  }
+
+  @AfterAll
+  static void tearDown() {
+    entityManagerFactory.close();
+    database.shutdown();
+  }
+
+  @BeforeEach
+  void evictCaches() {
+    entityManagerFactory.getCache().evictAll();
+    statistics().clear();
+  }
+
+  @Test
+  void findById_repeated_isServedByTheSecondLevelCache() {
+    UUID id = shelfIds.getFirst();
+
+    assertTrue(inTransaction(() -> shelfService.findById(id)).isPresent());
+    assertEquals(1, statistics().getPrepareStatementCount());
+    assertTrue(inTransaction(() -> shelfService.findById(id)).isPresent());
+    assertTrue(inTransaction(() -> shelfService.existsById(id)));
+
+    assertEquals(1, statistics().getPrepareStatementCount());
+    assertEquals(2, statistics().getSecondLevelCacheHitCount());
+  }
+
+  @Test
+  void findAllByIds_repeated_onlyReadsTheMissingEntities() {
+    inTransaction(() -> shelfService.findById(shelfIds.getFirst()));
+    statistics().clear();
+
+    assertEquals(3, inTransaction(() -> shelfService.findAllByIds(Set.copyOf(shelfIds))).size());
+    assertEquals(1, statistics().getPrepareStatementCount());
+    assertEquals(3, inTransaction(() -> shelfService.findAllByIds(Set.copyOf(shelfIds))).size());
+
+    assertEquals(1, statistics().getPrepareStatementCount());
+    assertEquals(4, statistics().getSecondLevelCacheHitCount());
+  }
+
+  @Test
+  void existsById_ofMissingEntity_isFalse() {
+    assertFalse(inTransaction(() -> shelfService.existsById(UUID.randomUUID())));
+  }
+
+  @Test
+  void findById_ofEntityNotMarkedCacheable_alwaysRunsSql() {
+    inTransaction(() -> crateService.findById(crateId));
+    inTransaction(() -> crateService.findById(crateId));
+
+    assertEquals(2, statistics().getPrepareStatementCount());
+    assertEquals(0, statistics().getSecondLevelCachePutCount());
+  }
+
+  private static UUID save(EntityManager entityManager, String label) {
+    Shelf shelf = new Shelf();
+    shelf.label = label;
+    entityManager.persist(shelf);
+    return shelf.getId();
+  }
+
+  private static <T> T inTransaction(Supplier<T> action) {
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  private static Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
@@ -0,0 +1,206 @@
+package dev.springharvest.crud.unit.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.springharvest.crud.domains.base.persistence.FetchPlan;
+import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
+import dev.springharvest.crud.domains.base.services.AbstractCrudService;
+import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+/**
+ * Derives the fetch plans of a small entity model, and loads pages of books with and without their fetch plan from an in-memory H2 database.
+ */
+class FetchPlanTest {
+
+  private static final int BOOKS = 20;
+
+  @Entity(name = "Pet")
+  public static class Pet extends BaseEntity<UUID> {
+
+    String name;
+    @ManyToOne(fetch = FetchType.LAZY)
+    Pet mother;
+
+    String getName() {
+      return name;
+    }
+  }
+
+  @Entity(name = "Author")
+  public static class Author extends BaseEntity<UUID> {
+
+    String name;
+    @OneToOne(fetch = FetchType.LAZY)
+    Pet pet;
+    @OneToMany(mappedBy = "author")
+    List<Book> books;
+
+    Pet getPet() {
+      return pet;
+    }
+  }
+
+  @Entity(name = "Publisher")
+  public static class Publisher extends BaseEntity<UUID> {
+
+    String name;
+  }
+
+  @Entity(name = "Book")
+  public static class Book extends BaseEntity<UUID> {
+
+    String title;
+    @ManyToOne(fetch = FetchType.LAZY)
+    Author author;
+    @ManyToOne(fetch = FetchType.LAZY)
+    Publisher publisher;
+
+    Author getAuthor() {
+      return author;
+    }
+  }
+
+  static class AuthorDTO {
+
+    String name;
+    Object pet;
+  }
+
+  static class BookDTO {
+
+    String title;
+    AuthorDTO author;
+  }
+
+  public interface BookRepository extends ICrudRepository<Book, UUID> {
+
+  }
+
+  private static EmbeddedDatabase database;
+  private static EntityManagerFactory entityManagerFactory;
+
+  @BeforeAll
+  static void setUp() {
+    database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(database);
+    factoryBean.setPersistenceProvider(new HibernatePersistenceProvider());
+    factoryBean.setManagedTypes(PersistenceManagedTypes.of(Pet.class.getName(), Author.class.getName(), Publisher.class.getName(), Book.class.getName()));
+    factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create", "hibernate.generate_statistics", "true"));
+    factoryBean.afterPropertiesSet();
+    entityManagerFactory = factoryBean.getObject();
+
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.getTransaction().begin();
+    Publisher publisher = new Publisher();
+    publisher.name = "Publisher";
+    entityManager.persist(publisher);
+    for (int i = 0; i < BOOKS; i++) {
+      Pet pet = new Pet();
+      pet.name = "Pet " + i;
+      entityManager.persist(pet);
+      Author author = new Author();
+      author.name = "Author " + i;
+      author.pet = pet;
+      entityManager.persist(author);
+      Book book = new Book();
+      book.title = String.format("Book %02d", i);
+      book.author = author;
+      book.publisher = publisher;
+      entityManager.persist(book);
+    }
+    entityManager.getTransaction().commit();
+    entityManager.close();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    entityManagerFactory.close();
+    database.shutdown();
+  }
+
+  @Test
+  void ofWithoutDtoReturnsDirectToOneAssociations() {
+    assertEquals(List.of("author", "publisher"), FetchPlan.of(Book.class, null));
+  }
+
+  @Test
+  void ofWithDepthReturnsToOneAssociationsUpToTheDepth() {
+    assertEquals(List.of("author", "author.pet", "publisher"), FetchPlan.of(Book.class, null, 2));
+    assertEquals(List.of("author", "author.pet", "author.pet.mother", "publisher"), FetchPlan.of(Book.class, null, Integer.MAX_VALUE));
+    assertEquals(List.of(), FetchPlan.of(Book.class, null, 0));
+  }
+
+  @Test
+  void ofWithDtoReturnsMappedAssociationsOnly() {
+    assertEquals(List.of("author", "author.pet"), FetchPlan.of(Book.class, BookDTO.class));
+  }
+
+  @Test
+  void ofStopsOnCycles() {
+    assertEquals(List.of("mother"), FetchPlan.of(Pet.class, null, Integer.MAX_VALUE));
+  }
+
+  @Test
+  void findAllWithFetchPlanLoadsPageInTwoStatements() {
+    List<String> fetchPlan = List.of("author", "author.pet", "publisher");
+
+    long withoutPlan = countStatements(null);
+    long withPlan = countStatements(fetchPlan);
+
+    // The page and its count, instead of the page, its count and the lazy loads of the authors, pets and publisher
+    assertEquals(2, withPlan);
+    assertEquals(2 + 2 * (BOOKS / 2) + 1, withoutPlan);
+  }
+
+  private static long countStatements(List<String> fetchPlan) {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      BookRepository repository = new JpaRepositoryFactory(entityManager).getRepository(BookRepository.class);
+      AbstractCrudService<Book, UUID> crudService = new AbstractCrudService<>(repository) {};
+      Statistics statistics = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+      statistics.clear();
+
+      PageRequest pageRequest = PageRequest.of(0, BOOKS / 2, Sort.by("title"));
+      Page<Book> page = fetchPlan == null ? crudService.findAll(pageRequest) : crudService.findAll(pageRequest, fetchPlan);
+      // Reads the associations as a mapper would
+      for (Book book : page) {
+        assertTrue(book.getAuthor().getPet().getName().startsWith("Pet "));
+        assertTrue(Hibernate.isInitialized(book.publisher) || fetchPlan == null);
+        Hibernate.initialize(book.publisher);
+      }
+      assertEquals("Book 00", page.getContent().getFirst().title);
+      assertEquals(BOOKS, page.getTotalElements());
+      return statistics.getPrepareStatementCount();
+    } finally {
+      entityManager.close();
+    }
+  }
+}
@@ -3,6 +3,7 @@ package dev.springharvest.crud.unit.persistence;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import dev.springharvest.crud.domains.base.persistence.FetchPlan;
 import dev.springharvest.crud.domains.base.rest.constants.CrudControllerUri;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -13,7 +14,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 class PrivateConstructorTest {
 
   private static Stream<Class<?>> provideClassesForTesting() {
-    return Stream.of(CrudControllerUri.class
+    return Stream.of(CrudControllerUri.class,
+                     FetchPlan.class
                     );
   }
 
@@ -7,10 +7,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import dev.springharvest.crud.domains.base.persistence.ICrudRepository;
 import dev.springharvest.crud.domains.base.services.AbstractCrudService;
+import dev.springharvest.shared.cache.QueryResultCache;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import java.util.List;
 import java.util.Optional;
@@ -104,7 +107,7 @@ class AbstractCrudServiceTest {
 
   @Test
   void findByExampleReturnsEntityWhenEntityExists() {
-    when(crudRepository.findOne(any())).thenReturn(Optional.of(baseEntity));
+    when(crudRepository.findOne(any(Example.class))).thenReturn(Optional.of(baseEntity));
     Optional<BaseEntity<Long>> foundEntity = crudService.findByExample(baseEntity);
     assertTrue(foundEntity.isPresent());
     assertEquals(baseEntity, foundEntity.get());
@@ -112,7 +115,7 @@ class AbstractCrudServiceTest {
 
   @Test
   void findByExampleReturnsEmptyWhenEntityDoesNotExist() {
-    when(crudRepository.findOne(any())).thenReturn(Optional.empty());
+    when(crudRepository.findOne(any(Example.class))).thenReturn(Optional.empty());
     Optional<BaseEntity<Long>> foundEntity = crudService.findByExample(baseEntity);
     assertFalse(foundEntity.isPresent());
   }
@@ -178,4 +181,26 @@ class AbstractCrudServiceTest {
     assertDoesNotThrow(() -> crudService.deleteById(List.of(1L)));
   }
 
+  @Test
+  void deleteAllByIdDeletesTheIdsInChunks() {
+    crudService.setBulkChunkSize(2);
+    when(crudRepository.deleteInBulkByIds(any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+    assertEquals(5, crudService.deleteAllById(List.of(1L, 2L, 3L, 4L, 5L, 5L)));
+
+    verify(crudRepository, times(3)).deleteInBulkByIds(any());
+  }
+
+  @Test
+  void createInvalidatesTheQueryResultsOfTheEntity() {
+    QueryResultCache cache = mock(QueryResultCache.class);
+    crudService.setQueryResultCache(cache);
+    when(crudRepository.save(any())).thenReturn(baseEntity);
+
+    crudService.create(baseEntity);
+    crudService.deleteById(1L);
+
+    verify(cache, times(2)).invalidateAfterCommit(BaseEntity.class);
+  }
+
 }
@@ -1,22 +1,40 @@
 package dev.springharvest.expressions.builders;
 
+import dev.springharvest.expressions.helpers.EntityAttributeIndex;
+import dev.springharvest.expressions.helpers.FilterPlan;
+import dev.springharvest.expressions.helpers.FilterPlanCache;
 import dev.springharvest.expressions.helpers.Operation;
 import dev.springharvest.expressions.helpers.Operator;
 import dev.springharvest.expressions.helpers.PathObject;
+import dev.springharvest.expressions.helpers.QueryContext;
+import dev.springharvest.expressions.helpers.StreamedColumnarData;
+import dev.springharvest.expressions.helpers.TrimmedTuple;
 import dev.springharvest.expressions.mappers.GenericEntityMapper;
+import dev.springharvest.expressions.mappers.TupleRow;
+import dev.springharvest.shared.cache.QueryResultCache;
 import dev.springharvest.shared.constants.*;
+import dev.springharvest.shared.utils.AttributePath;
+import dev.springharvest.shared.utils.CursorUtils;
+import dev.springharvest.shared.utils.SearchMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.SingularAttribute;
 import lombok.Setter;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.time.LocalDate;
@@ -24,6 +42,10 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 
 /**
@@ -62,19 +84,208 @@ public class TypedQueryBuilder {
     private EntityManagerFactory entityManagerFactory;
 
     /**
-     * A map containing joins to be applied to the query.
+     * The paging elements that can be requested alongside the data of a page.
      */
-    private static Map<String, Join<?, ?>> joinsMap;
+    static final Set<String> PAGING_ELEMENTS = Set.of("currentPage", "pageSize", "totalPages", "currentPageCount", "total", "nextCursor");
 
     /**
-     * A list of paging elements to include in the query result.
+     * The operators that can be applied to a simple field, by order of precedence when several are present.
      */
-    public static List<String> pagingElementsToInclude = new ArrayList<>();
+    private static final List<Operator> FIELD_OPERATORS = List.of(
+            Operator.STARTS, Operator.STARTSIC, Operator.ENDS, Operator.ENDSIC, Operator.CONTAINS, Operator.CONTAINSIC,
+            Operator.EQUALS, Operator.EQUALSIC, Operator.LT, Operator.LTE, Operator.EQ, Operator.GT, Operator.GTE,
+            Operator.IN, Operator.BETWEEN);
+
+    /**
+     * The cache of compiled filter plans, keyed by filter shape.
+     * Requests sharing the same filter shape reuse the same plan and skip parsing and reflection.
+     */
+    private FilterPlanCache filterPlanCache = new FilterPlanCache(FilterPlanCache.DEFAULT_MAX_SIZE);
+
+    /**
+     * The alias of the window total added to the projection of a paged search when the WINDOW count strategy is used.
+     */
+    static final String WINDOW_TOTAL_ALIAS = "springharvest_window_total";
+
+    /**
+     * The prefix of the aliases of the cursor keys added to the projection of a paged search when they are not selected.
+     */
+    static final String CURSOR_KEY_ALIAS_PREFIX = "springharvest_cursor_key_";
+
+    /**
+     * The strategy used to compute the total count of a paged search when the request does not specify one.
+     */
+    private CountStrategy defaultCountStrategy = CountStrategy.TWO_QUERIES;
+
+    /**
+     * The number of rows fetched from the database at once by the streamed searches.
+     */
+    private int streamFetchSize = 1000;
+
+    /**
+     * How the rows of a search are returned, as entities or as views of their tuples.
+     */
+    private ResultMode defaultResultMode = ResultMode.ENTITIES;
+
+    /**
+     * The default maximum number of count queries running concurrently with their data query.
+     */
+    static final int DEFAULT_PARALLEL_COUNT_MAX_CONCURRENCY = 4;
+
+    /**
+     * Whether the count query of a paged search runs concurrently with its data query.
+     */
+    private boolean parallelCount = false;
+
+    /**
+     * The permits of the count queries running concurrently, each holding a connection of its own. The counts that find
+     * no permit run after their data query.
+     */
+    private Semaphore parallelCountPermits = new Semaphore(DEFAULT_PARALLEL_COUNT_MAX_CONCURRENCY);
+
+    /**
+     * The metrics of the phases of the searches, recording nothing until a meter registry is set.
+     */
+    private SearchMetrics metrics = SearchMetrics.NOOP;
+
+    /**
+     * The cache of the results of the searches and counts, none until one is set.
+     */
+    private QueryResultCache queryResultCache;
+
+    /**
+     * The executor running the concurrent count queries, one virtual thread per count.
+     */
+    private final ExecutorService countExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Whether the dialect of the entity manager factory supports window functions, resolved on first use.
+     */
+    private volatile Boolean windowFunctionsSupported;
+
+    /**
+     * Indexes the attributes of every entity known to the entity manager factory, so that no reflection is needed
+     * on the entity classes while building queries.
+     */
+    @PostConstruct
+    void indexEntities() {
+        if (entityManagerFactory != null) {
+            EntityAttributeIndex.shared().index(entityManagerFactory.getMetamodel());
+        }
+    }
+
+    /**
+     * Sets the maximum number of compiled filter plans kept in the cache. A size of 0 disables the cache.
+     *
+     * @param maxSize The maximum number of plans.
+     */
+    @Value("${springharvest.expressions.filter-plan-cache.max-size:" + FilterPlanCache.DEFAULT_MAX_SIZE + "}")
+    public void setFilterPlanCacheMaxSize(int maxSize) {
+        this.filterPlanCache = new FilterPlanCache(maxSize);
+    }
+
+    /**
+     * Sets the strategy used to compute the total count of a paged search when the request does not specify one.
+     *
+     * @param countStrategy The default count strategy (e.g., TWO_QUERIES, WINDOW).
+     */
+    @Value("${springharvest.expressions.count-strategy:TWO_QUERIES}")
+    public void setDefaultCountStrategy(CountStrategy countStrategy) {
+        this.defaultCountStrategy = countStrategy;
+    }
+
+    /**
+     * Sets the number of rows fetched from the database at once by the streamed searches, i.e. the JDBC fetch size.
+     *
+     * @param fetchSize The fetch size.
+     */
+    @Value("${springharvest.expressions.stream.fetch-size:1000}")
+    public void setStreamFetchSize(int fetchSize) {
+        this.streamFetchSize = fetchSize;
+    }
+
+    /**
+     * Sets how the rows of a search are returned. With ROWS, the data of a page is a list of {@link TupleRow} views
+     * instead of entities, which saves the instantiation of the entity graph of every row when the page is only read by
+     * GraphQL.
+     *
+     * @param resultMode The result mode (e.g., ENTITIES, ROWS).
+     */
+    @Value("${springharvest.expressions.result-mode:ENTITIES}")
+    public void setDefaultResultMode(ResultMode resultMode) {
+        this.defaultResultMode = resultMode;
+    }
+
+    /**
+     * Sets whether the count query of a paged search runs concurrently with its data query, on its own entity manager.
+     * Each concurrent count holds a second connection while the data query runs, so this is disabled by default, and the
+     * count still runs after the data query when a transaction is active, as it would not see the same data.
+     *
+     * @param parallelCount true to run the count concurrently, false to run it after the data query.
+     * @see #setParallelCountMaxConcurrency(int)
+     */
+    @Value("${springharvest.expressions.parallel-count:false}")
+    public void setParallelCount(boolean parallelCount) {
+        this.parallelCount = parallelCount;
+    }
+
+    /**
+     * Sets the maximum number of count queries running concurrently with their data query. It must be kept well below the
+     * size of the connection pool, as the searches waiting for a connection would otherwise hold the connections their
+     * counts wait for. The counts past this limit run after their data query.
+     *
+     * @param maxConcurrency The maximum number of concurrent counts.
+     */
+    @Value("${springharvest.expressions.parallel-count.max-concurrency:" + DEFAULT_PARALLEL_COUNT_MAX_CONCURRENCY + "}")
+    public void setParallelCountMaxConcurrency(int maxConcurrency) {
+        this.parallelCountPermits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Sets the registry in which the duration of the phases of the searches (cleaning the fields, building the predicates,
+     * the count query, the data query and the mapping of the rows) and the number of rows read are recorded.
+     *
+     * @param meterRegistry The meter registry.
+     * @see SearchMetrics
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.metrics = SearchMetrics.of(meterRegistry);
+    }
+
+    /**
+     * Sets the cache of the results of the searches and counts, keyed by the normalized filter, clauses, selection,
+     * joins, aggregates and paging of the requests. The streamed searches are not cached, as their rows are read lazily.
+     *
+     * @param queryResultCache The query result cache.
+     * @see QueryResultCache
+     */
+    @Autowired(required = false)
+    public void setQueryResultCache(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    /**
+     * Stops the executor of the concurrent count queries.
+     */
+    @PreDestroy
+    void shutdownCountExecutor() {
+        countExecutor.shutdown();
+    }
+
+    /**
+     * Returns the hit, miss and eviction metrics of the filter plan cache.
+     *
+     * @return A snapshot of the metrics of the cache.
+     */
+    public FilterPlanCache.Stats getFilterPlanCacheStats() {
+        return filterPlanCache.stats();
+    }
 
     /**
      * Parses a filter expression and creates a typed query for querying entities.
      * Examples of parameter values can be fount in the tests classes (TypedQueryBuilderTest, AbstractGraphQlControllerTest, BookGraphQlControllerTest, etc)
-     *
+     * When a query result cache is set, the results of equivalent requests are read from it until an entity they depend on is written.
      *
      * @param operation The operation to be performed (e.g., SEARCH, COUNT).
      * @param rootClass The class of the root entity.
@@ -97,29 +308,55 @@ public class TypedQueryBuilder {
                                             Map<String, JoinType> joins,
                                             Aggregates aggregatesFilter,
                                             DataPaging paging) {
+        if (queryResultCache == null || resolveResultFormat(clauseMap) == ResultFormat.STREAM) {
+            return executeFilterExpression(operation, rootClass, keyClass, filterMap, clauseMap, fields, joins, aggregatesFilter, paging);
+        }
+        QueryResultCache.Key key = QueryResultCache.Key.of(rootClass, operation.getName(), filterMap, clauseMap, fields, joins, aggregatesFilter, paging);
+        return queryResultCache.get(key, () -> executeFilterExpression(operation, rootClass, keyClass, filterMap, clauseMap, fields, joins, aggregatesFilter, paging));
+    }
+
+    /**
+     * Builds and runs the query of a filter expression, bypassing the query result cache.
+     *
+     * @see #parseFilterExpression(Operation, Class, Class, Map, Map, List, Map, Aggregates, DataPaging)
+     */
+    private <T, K> Object executeFilterExpression(Operation operation,
+                                                  Class<T> rootClass,
+                                                  Class<K> keyClass,
+                                                  Map<String, Object> filterMap,
+                                                  Map<String, Object> clauseMap,
+                                                  List<String> fields,
+                                                  Map<String, JoinType> joins,
+                                                  Aggregates aggregatesFilter,
+                                                  DataPaging paging) {
 
         EntityManager entityManager = entityManagerFactory.createEntityManager();
 
         try {
+            QueryContext context = QueryContext.of(extractPagingElements(fields));
+            long start = metrics.start();
             try {
                 fields = CleanFields(rootClass, keyClass, fields);
             } catch (NoSuchFieldException e) {
                 throw new RuntimeException("Field not found.\n For each field make sure the field's name exists in the class corresponding to your schema definition and follows this format 'Schema type name' + '.' + 'fieldName.\n e.g: 'Book.title', 'Book.author.pet.name'.");
             }
+            metrics.stop(start, SearchMetrics.CLEAN_FIELDS, rootClass, operation.getName());
             CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
             CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createQuery(Tuple.class);
             Root<T> root = criteriaQuery.from(rootClass);
-            applyJoins(root, joins);
+            context = context.withJoins(applyJoins(root, joins));
 
             if (filterMap == null || filterMap.isEmpty()) {
-                return applyOperations(criteriaBuilder, criteriaQuery, entityManager, clauseMap, root, fields, joins, operation, null, rootClass, keyClass, null, aggregatesFilter, paging);
+                return applyOperations(criteriaBuilder, criteriaQuery, entityManager, clauseMap, root, fields, joins, operation, null, rootClass, keyClass, null, aggregatesFilter, paging, context);
             }
 
-            String rootOperator = determineRootOperator(filterMap);
-            Predicate predicate = createTypedQuery(filterMap, criteriaBuilder, rootClass, keyClass, root, "", rootOperator, fields, criteriaQuery);
+            start = metrics.start();
+            FilterPlan filterPlan = getFilterPlan(filterMap, rootClass, keyClass, context);
+            Predicate predicate = applyFilterPlan(filterPlan, filterMap, criteriaBuilder, root, criteriaQuery, context);
             criteriaQuery.where(predicate);
+            metrics.stop(start, SearchMetrics.PREDICATES, rootClass, operation.getName());
 
-            return applyOperations(criteriaBuilder, criteriaQuery, entityManager, clauseMap, root, fields, joins, operation, filterMap, rootClass, keyClass, rootOperator, aggregatesFilter, paging);
+            return applyOperations(criteriaBuilder, criteriaQuery, entityManager, clauseMap, root, fields, joins, operation, filterMap, rootClass, keyClass, filterPlan, aggregatesFilter, paging, context);
 
         } finally {
             if (entityManager != null && entityManager.isOpen()) {
@@ -128,6 +365,20 @@ public class TypedQueryBuilder {
         }
     }
 
+    /**
+     * Returns the compiled plan of the filter map, compiling it only if no plan with the same shape is cached.
+     *
+     * @param filterMap A map containing filter criteria.
+     * @param rootClass The class of the root entity.
+     * @param keyClass The class of the key entity.
+     * @param context The context of the current query invocation, holding the joins applied to the root.
+     * @return The compiled plan of the filter map.
+     */
+    private FilterPlan getFilterPlan(Map<String, Object> filterMap, Class<?> rootClass, Class<?> keyClass, QueryContext context) {
+        FilterPlan.Key key = new FilterPlan.Key(rootClass, keyClass, context.joins().keySet(), FilterPlan.shapeOf(filterMap));
+        return filterPlanCache.get(key, k -> compileFilterPlan(filterMap, rootClass, keyClass, k.joinAliases()));
+    }
+
     /**
      * Applies joins to the root entity based on the provided map of join paths and join types.
      * <p>
@@ -136,39 +387,37 @@ public class TypedQueryBuilder {
      * e.g., "data.Author.pet" -> JoinType.INNER"
      * @param root The root entity in the query.
      * @param joins A map containing join paths as keys and join types as values.
+     * @return A map containing the created joins, keyed by their path.
      */
-    private void applyJoins(Root<?> root, Map<String, JoinType> joins) {
-        joinsMap = new HashMap<>();
+    private static Map<String, Join<?, ?>> applyJoins(Root<?> root, Map<String, JoinType> joins) {
+        Map<String, Join<?, ?>> joinsMap = new HashMap<>();
 
         if (joins == null) {
-            return;
+            return joinsMap;
         }
         // Apply joins based on the provided map
         for (Map.Entry<String, JoinType> entry : joins.entrySet()) {
-            String path = entry.getKey();
+            AttributePath path = AttributePath.of(entry.getKey());
             JoinType joinType = entry.getValue();
 
-            String[] pathParts = path.split("\\.");
             From<?, ?> currentFrom = root;
-            StringBuilder currentPath = new StringBuilder(pathParts[1]); // Start from root (e.g., "Book")
 
-            for (int i = 1; i < pathParts.length; i++) {
-                // Build the current path incrementally
-                if (i > 1) {
-                    currentPath.append(".").append(pathParts[i]);
-                }
-                String currentPathStr = currentPath.toString();
+            // Start from the segment following the root (e.g., "author" for "Book.author.pet")
+            for (int i = 1; i < path.size(); i++) {
+                // The current path (e.g., "author", then "author.pet"), interned along with the join path
+                String currentPathStr = path.subPath(1, i + 1).toString();
                 // Check if a join for this path already exists
                 if (joinsMap.containsKey(currentPathStr)) {
                     currentFrom = joinsMap.get(currentPathStr);
                 } else {
                     // Create a new join and add it to the map
-                    Join<?, ?> newJoin = ((From<?, ?>) currentFrom).join(pathParts[i], joinType);
+                    Join<?, ?> newJoin = currentFrom.join(path.segment(i), joinType);
                     joinsMap.put(currentPathStr, newJoin);
                     currentFrom = newJoin;
                 }
             }
         }
+        return joinsMap;
     }
 
     /**
@@ -183,54 +432,135 @@ public class TypedQueryBuilder {
      * @param operation The operation to be performed (e.g., SEARCH, COUNT).
      * @param filterMap A map containing filter criteria.
      * @param rootClass The class of the root entity.
-     * @param rootOperator The root operator for combining predicates.
+     * @param filterPlan The compiled plan of the filter map.
      * @param aggregates Aggregates to be applied to the query.
      * @param paging Paging information for the query.
+     * @param context The context of the current query invocation.
      * @param <T> The type of the root entity.
      * @return The result of the query, which can be a list of entities or a count.
      * @throws IllegalArgumentException If an unsupported operation is specified.
      */
-    private <T, K> Object applyOperations(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, EntityManager entityManager, Map<String, Object> operationMap, Root<T> root, List<String> fields, Map<String, JoinType> joins, Operation operation, Map<String, Object> filterMap, Class<T> rootClass, Class<K> keyClass, String rootOperator, Aggregates aggregates, DataPaging paging)
+    private <T, K> Object applyOperations(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, EntityManager entityManager, Map<String, Object> operationMap, Root<T> root, List<String> fields, Map<String, JoinType> joins, Operation operation, Map<String, Object> filterMap, Class<T> rootClass, Class<K> keyClass, FilterPlan filterPlan, Aggregates aggregates, DataPaging paging, QueryContext context)
     {
         boolean distinct = operationMap != null && Boolean.TRUE.equals(operationMap.get("distinct"));
         long total = -1L;
 
         switch (operation) {
             case SEARCH:
-                applyFieldProjection(criteriaBuilder, criteriaQuery, root, fields, aggregates, paging);
+                applyFieldProjection(criteriaBuilder, criteriaQuery, root, fields, aggregates, paging, context);
                 if (distinct) {
                     criteriaQuery.distinct(true);
                 }
+                boolean cursorPaging = paging != null && (paging.after() != null || context.includes("nextCursor"));
+                List<CursorUtils.Key> cursorKeys = List.of();
+                int[] cursorIndexes = new int[0];
+                int hiddenSelections = 0;
+                if (cursorPaging) {
+                    if (distinct || aggregates != null)
+                        throw new IllegalArgumentException("Cursor paging is not supported for distinct or aggregated searches");
+                    cursorKeys = getCursorKeys(criteriaBuilder, criteriaQuery, root, paging, context);
+                    if (paging.after() != null) {
+                        Predicate after = CursorUtils.after(criteriaBuilder, cursorKeys, CursorUtils.decode(paging.after(), cursorKeys));
+                        Predicate restriction = criteriaQuery.getRestriction();
+                        criteriaQuery.where(restriction != null ? criteriaBuilder.and(restriction, after) : after);
+                    }
+                    cursorIndexes = new int[cursorKeys.size()];
+                    hiddenSelections = addCursorSelections(criteriaQuery, cursorKeys, cursorIndexes);
+                }
+                boolean countRequested = context.includes("total") || context.includes("totalPages") || (aggregates != null && context.hasNoPagingElements());
+                if (resolveResultFormat(operationMap) == ResultFormat.STREAM) {
+                    if (cursorPaging)
+                        throw new IllegalArgumentException("Cursor paging is not supported for streamed searches");
+                    return streamColumns(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, filterPlan, distinct, root, aggregates, paging, countRequested, context);
+                }
+                // The window total would only count the rows after the cursor
+                boolean windowTotal = countRequested && (paging == null || paging.after() == null) && useWindowTotal(criteriaBuilder, operationMap, distinct, aggregates, context);
+                if (windowTotal) {
+                    addWindowTotal((HibernateCriteriaBuilder) criteriaBuilder, criteriaQuery, root);
+                    hiddenSelections++;
+                }
                 TypedQuery<Tuple> query = entityManager.createQuery(criteriaQuery);
                 int totalPages = -1;
-                if (pagingElementsToInclude.contains("total") || pagingElementsToInclude.contains("totalPages") || (aggregates != null && pagingElementsToInclude.isEmpty()))
-                    //Seems to add +1 to the real total count
-                    //Might need fixing
-                    total = handleCountOperation(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, rootOperator, distinct, root, true, aggregates);
+                // The aggregated results need the total right away, the page data can resolve it later
+                Semaphore countPermits = parallelCountPermits;
+                // A count on its own entity manager would not see the data of the active transaction
+                boolean countConcurrently = countRequested && !windowTotal && parallelCount && aggregates == null
+                        && !TransactionSynchronizationManager.isActualTransactionActive() && countPermits.tryAcquire();
+                CompletableFuture<Long> pendingTotal = null;
+                if (countConcurrently) {
+                    try {
+                        // The data query is already created, so the criteria query is no longer modified while the count is built from it
+                        pendingTotal = countConcurrently(buildCountQuery(criteriaBuilder, criteriaQuery, filterMap, rootClass, fields, joins, filterPlan, distinct, root, true, aggregates, context), rootClass, countPermits);
+                    } catch (RuntimeException e) {
+                        countPermits.release();
+                        throw e;
+                    }
+                } else if (countRequested && !windowTotal)
+                    total = handleCountOperation(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, filterPlan, distinct, root, true, aggregates, context);
                 if (paging != null) {
-                    query.setFirstResult((paging.page() - 1) * paging.size());
-                    query.setMaxResults(paging.size());
-                    if (pagingElementsToInclude.contains("totalPages") || (aggregates != null && pagingElementsToInclude.isEmpty()))
-                        totalPages = (int) Math.ceil((double) total / paging.size());
+                    query.setFirstResult(paging.after() != null ? 0 : (paging.page() - 1) * paging.size());
+                    // One more row tells whether there is a next page
+                    query.setMaxResults(context.includes("nextCursor") ? paging.size() + 1 : paging.size());
                 }
                 //Need the mapper here
+                long start = metrics.start();
                 List<Tuple> resultsList = query.getResultList();
+                metrics.stop(start, SearchMetrics.DATA, rootClass, operation.getName());
+                metrics.recordRows(resultsList.size(), SearchMetrics.DATA, rootClass, operation.getName());
+                if (windowTotal) {
+                    if (!resultsList.isEmpty()) {
+                        // Every row holds the total
+                        total = resultsList.getFirst().get(WINDOW_TOTAL_ALIAS, Long.class);
+                    } else if (paging != null && paging.page() > 1) {
+                        // A page past the end has no row to read the total from
+                        total = handleCountOperation(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, filterPlan, distinct, root, true, aggregates, context);
+                    } else {
+                        total = 0L;
+                    }
+                }
+                String nextCursor = null;
+                if (cursorPaging && resultsList.size() > paging.size()) {
+                    resultsList = resultsList.subList(0, paging.size());
+                    Tuple last = resultsList.getLast();
+                    List<Object> values = new ArrayList<>(cursorIndexes.length);
+                    for (int index : cursorIndexes) {
+                        values.add(last.get(index));
+                    }
+                    nextCursor = CursorUtils.encode(cursorKeys, values);
+                }
+                if (hiddenSelections > 0) {
+                    // The cursor keys and the window total are hidden from the mappers
+                    resultsList = TrimmedTuple.trim(resultsList, hiddenSelections);
+                }
+                boolean totalPagesRequested = paging != null && (context.includes("totalPages") || (aggregates != null && context.hasNoPagingElements()));
+                if (totalPagesRequested && pendingTotal == null)
+                    totalPages = (int) Math.ceil((double) total / paging.size());
                 int currentPageCount = -1;
-                if (pagingElementsToInclude.contains("currentPageCount") || (aggregates != null && pagingElementsToInclude.isEmpty()))
+                if (context.includes("currentPageCount") || (aggregates != null && context.hasNoPagingElements()))
                     currentPageCount = resultsList.size();
                 GenericEntityMapper<T> mapper = new GenericEntityMapper<>();
+                start = metrics.start();
                 if (aggregates == null) // If no aggregates are specified, return a list of entities
                 {
-                    return new PageData<>(
-                            mapper.mapTuplesToEntity(resultsList, rootClass),
-                            paging != null && pagingElementsToInclude.contains("currentPage") ? paging.page() : -1,
-                            paging != null && pagingElementsToInclude.contains("pageSize") ? paging.size() : -1,
+                    // The rows are only read by GraphQL, which resolves their fields from the views as it does from the entities
+                    @SuppressWarnings("unchecked")
+                    List<T> data = defaultResultMode == ResultMode.ROWS ? (List<T>) (List<?>) mapper.mapTuplesToRows(resultsList)
+                                                                        : mapper.mapTuplesToEntity(resultsList, rootClass);
+                    metrics.stop(start, SearchMetrics.MAPPING, rootClass, operation.getName());
+                    PageData<T> pageData = new PageData<>(
+                            data,
+                            paging != null && context.includes("currentPage") ? paging.page() : -1,
+                            paging != null && context.includes("pageSize") ? paging.size() : -1,
                             total,
                             totalPages,
-                            currentPageCount);
+                            currentPageCount,
+                            nextCursor);
+                    if (pendingTotal != null) {
+                        int size = paging != null ? paging.size() : 0;
+                        pageData.setPendingTotal(pendingTotal, totalPagesRequested ? pendingTotal.thenApply(count -> (int) Math.ceil((double) count / size)) : null);
+                    }
+                    return pageData;
                 }
-                List<Map<String, Object>> dataMap = mapper.mapTuplesToMap(resultsList);
-                Map<String, Object> pagingMap = new HashMap<>();
                 Map<String, Object> subPagingMap = new HashMap<>();
                 assert paging != null;
                 subPagingMap.put("page", paging.page());
@@ -238,19 +568,209 @@ public class TypedQueryBuilder {
                 subPagingMap.put("currentPageCount", currentPageCount);
                 subPagingMap.put("totalCount", total);
                 subPagingMap.put("totalPages", totalPages);
+                if (resolveResultFormat(operationMap) == ResultFormat.COLUMNAR) {
+                    // The aliases are sent once, and each row is an array of values instead of a map
+                    List<String> columns = criteriaQuery.getSelection().getCompoundSelectionItems().stream().map(Selection::getAlias).toList();
+                    ColumnarData columnarData = new ColumnarData(columns, mapper.mapTuplesToArrays(resultsList), subPagingMap);
+                    metrics.stop(start, SearchMetrics.MAPPING, rootClass, operation.getName());
+                    return columnarData;
+                }
+                List<Map<String, Object>> dataMap = mapper.mapTuplesToMap(resultsList);
+                metrics.stop(start, SearchMetrics.MAPPING, rootClass, operation.getName());
+                Map<String, Object> pagingMap = new HashMap<>();
 
                 pagingMap.put("paging", subPagingMap);
                 dataMap.add(pagingMap);
                 return dataMap;
 
             case COUNT:
-                return handleCountOperation(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, rootOperator, distinct, root, false, null);
+                return handleCountOperation(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, filterPlan, distinct, root, false, null, context);
 
             default:
                 throw new IllegalArgumentException("Unsupported operation");
         }
     }
 
+    /**
+     * Returns the keys of the cursor of a paged search, i.e. the sort orders followed by the id of the root entity.
+     * The id is also added to the sort orders of the query when it is not sorted yet, so that the order of the rows is total.
+     *
+     * @param builder The criteria builder used to construct the query.
+     * @param query The criteria query, whose sort orders are already applied.
+     * @param root The root entity in the query.
+     * @param paging Paging information for the query, including sort orders.
+     * @param context The context of the current query invocation.
+     * @return The keys of the cursor.
+     */
+    private static List<CursorUtils.Key> getCursorKeys(CriteriaBuilder builder, CriteriaQuery<Tuple> query, Root<?> root, DataPaging paging, QueryContext context) {
+        List<CursorUtils.Key> keys = new ArrayList<>();
+        if (paging.sortOrders() != null) {
+            for (Sort sortOrder : paging.sortOrders()) {
+                Path<?> path = getPathFromField(root, sortOrder.field(), context).path();
+                keys.add(new CursorUtils.Key(sortOrder.field(), path, sortOrder.sortDirection() != SortDirection.DESC));
+            }
+        }
+        String idAttribute = root.getModel().getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .map(SingularAttribute::getName)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Primary key not found. Please make sure to add @Id annotation to the primary key field in your entity class."));
+        Path<?> idPath = root.get(idAttribute);
+        if (keys.stream().noneMatch(key -> key.path() == idPath)) {
+            keys.add(new CursorUtils.Key(idAttribute, idPath, true));
+            List<Order> orders = new ArrayList<>(query.getOrderList());
+            orders.add(builder.asc(idPath));
+            query.orderBy(orders);
+        }
+        return keys;
+    }
+
+    /**
+     * Finds the keys of the cursor in the projection of the criteria query, and adds the keys that are not selected yet
+     * after the selected fields.
+     *
+     * @param query The criteria query, whose projection is already applied.
+     * @param keys The keys of the cursor.
+     * @param indexes The indexes of the keys in the projection, filled by this method.
+     * @return The number of selections added to the projection.
+     */
+    private static int addCursorSelections(CriteriaQuery<Tuple> query, List<CursorUtils.Key> keys, int[] indexes) {
+        Selection<?> selection = query.getSelection();
+        List<Selection<?>> selections = new ArrayList<>(selection.isCompoundSelection() ? selection.getCompoundSelectionItems() : List.of(selection));
+        int added = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            Path<?> path = keys.get(i).path();
+            int index = -1;
+            for (int j = 0; j < selections.size() && index < 0; j++) {
+                if (selections.get(j) == path) {
+                    index = j;
+                }
+            }
+            if (index < 0) {
+                // The path is not selected, so it does not carry the alias of a field
+                selections.add(path.alias(CURSOR_KEY_ALIAS_PREFIX + i));
+                index = selections.size() - 1;
+                added++;
+            }
+            indexes[i] = index;
+        }
+        if (added > 0) {
+            query.multiselect(selections);
+        }
+        return added;
+    }
+
+    /**
+     * Checks whether the total count of a paged search can be fetched with the page, through a window function.
+     * <p>
+     * The window total counts the rows of the query before the limit is applied, which matches the count query only when
+     * each row is a distinct root entity, i.e. when the search is not distinct, has no aggregates and only joins to-one
+     * associations. The dialect must also support window functions.
+     *
+     * @param criteriaBuilder The criteria builder used to construct the query.
+     * @param operationMap A map containing additional operation parameters, possibly holding the count strategy.
+     * @param distinct Whether the search is distinct.
+     * @param aggregates Aggregates to be applied to the query.
+     * @param context The context of the current query invocation.
+     * @return true if the window total can be used, false if the count must be fetched by a separate query.
+     */
+    private boolean useWindowTotal(CriteriaBuilder criteriaBuilder, Map<String, Object> operationMap, boolean distinct, Aggregates aggregates, QueryContext context) {
+        if (resolveCountStrategy(operationMap) != CountStrategy.WINDOW || distinct || aggregates != null)
+            return false;
+        if (!(criteriaBuilder instanceof HibernateCriteriaBuilder))
+            return false;
+        for (Join<?, ?> join : context.joins().values()) {
+            if (join.getAttribute().isCollection())
+                return false;
+        }
+        return supportsWindowFunctions();
+    }
+
+    /**
+     * Returns the results of a search in the STREAM format, whose query is executed when the results are written.
+     * The total is counted beforehand when it is requested, as for the other formats.
+     *
+     * @return The streamed results.
+     * @see StreamedColumnarData
+     */
+    private <T, K> StreamedColumnarData streamColumns(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, EntityManager entityManager, Map<String, Object> filterMap, Class<T> rootClass, Class<K> keyClass, List<String> fields, Map<String, JoinType> joins, FilterPlan filterPlan, boolean distinct, Root<T> root, Aggregates aggregates, DataPaging paging, boolean countRequested, QueryContext context) {
+        long total = countRequested ? handleCountOperation(criteriaBuilder, criteriaQuery, entityManager, filterMap, rootClass, keyClass, fields, joins, filterPlan, distinct, root, true, aggregates, context) : -1L;
+        Map<String, Object> pagingMap = new HashMap<>();
+        pagingMap.put("page", paging != null ? paging.page() : -1);
+        pagingMap.put("size", paging != null ? paging.size() : -1);
+        pagingMap.put("currentPageCount", -1);
+        pagingMap.put("totalCount", total);
+        pagingMap.put("totalPages", paging != null && countRequested ? (int) Math.ceil((double) total / paging.size()) : -1);
+        List<String> columns = criteriaQuery.getSelection().getCompoundSelectionItems().stream().map(Selection::getAlias).toList();
+        return new StreamedColumnarData(entityManagerFactory, criteriaQuery,
+                paging != null ? (paging.page() - 1) * paging.size() : -1,
+                paging != null ? paging.size() : -1,
+                streamFetchSize, columns, pagingMap);
+    }
+
+    /**
+     * Returns the format of the results of the request, MAPS if the request does not specify one.
+     *
+     * @param operationMap A map containing additional operation parameters, possibly holding the result format.
+     * @return The result format to use.
+     */
+    private static ResultFormat resolveResultFormat(Map<String, Object> operationMap) {
+        Object resultFormat = operationMap != null ? operationMap.get("resultFormat") : null;
+        if (resultFormat instanceof ResultFormat format)
+            return format;
+        if (resultFormat != null)
+            return ResultFormat.valueOf(resultFormat.toString());
+        return ResultFormat.MAPS;
+    }
+
+    /**
+     * Returns the count strategy of the request, or the default count strategy if the request does not specify one.
+     *
+     * @param operationMap A map containing additional operation parameters, possibly holding the count strategy.
+     * @return The count strategy to use.
+     */
+    private CountStrategy resolveCountStrategy(Map<String, Object> operationMap) {
+        Object countStrategy = operationMap != null ? operationMap.get("countStrategy") : null;
+        if (countStrategy instanceof CountStrategy strategy)
+            return strategy;
+        if (countStrategy != null)
+            return CountStrategy.valueOf(countStrategy.toString());
+        return defaultCountStrategy;
+    }
+
+    /**
+     * Checks whether the dialect of the entity manager factory supports window functions.
+     * The result is resolved once, the dialect being fixed for the lifetime of the factory.
+     *
+     * @return true if the dialect supports window functions, false otherwise or if the dialect cannot be resolved.
+     */
+    private boolean supportsWindowFunctions() {
+        Boolean supported = windowFunctionsSupported;
+        if (supported == null) {
+            try {
+                supported = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect().supportsWindowFunctions();
+            } catch (RuntimeException e) {
+                supported = false;
+            }
+            windowFunctionsSupported = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Adds a COUNT(...) OVER() selection to the projection of the criteria query, after the selected fields.
+     *
+     * @param builder The criteria builder used to construct the query.
+     * @param query The criteria query, whose projection is already applied.
+     * @param root The root entity in the query.
+     */
+    private static void addWindowTotal(HibernateCriteriaBuilder builder, CriteriaQuery<Tuple> query, Root<?> root) {
+        Selection<?> selection = query.getSelection();
+        List<Selection<?>> selections = new ArrayList<>(selection.isCompoundSelection() ? selection.getCompoundSelectionItems() : List.of(selection));
+        selections.add(builder.functionAggregate("count", Long.class, builder.createWindow(), root).alias(WINDOW_TOTAL_ALIAS));
+        query.multiselect(selections);
+    }
+
     /**
      * Handles the count operation for a criteria query.
      *
@@ -261,14 +781,41 @@ public class TypedQueryBuilder {
      * @param filterMap A map containing filter criteria.
      * @param rootClass The class of the root entity.
      * @param fields A list of fields to be included in the query.
-     * @param rootOperator The root operator for combining predicates.
+     * @param filterPlan The compiled plan of the filter map.
      * @param distinct Whether the count should be distinct.
      * @param root The root entity in the query.
      * @param isSubQuery Whether the query is a subquery.
      * @param aggregates Aggregates to be applied to the query.
+     * @param context The context of the current query invocation.
      * @return The result of the count operation.
      */
-    private <T, K> long handleCountOperation(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, EntityManager entityManager, Map<String, Object> filterMap, Class<T> rootClass, Class<K> keyClass, List<String> fields, Map<String, JoinType> joins, String rootOperator, boolean distinct, Root<T> root, boolean isSubQuery, Aggregates aggregates) {
+    private <T, K> long handleCountOperation(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, EntityManager entityManager, Map<String, Object> filterMap, Class<T> rootClass, Class<K> keyClass, List<String> fields, Map<String, JoinType> joins, FilterPlan filterPlan, boolean distinct, Root<T> root, boolean isSubQuery, Aggregates aggregates, QueryContext context) {
+        long start = metrics.start();
+        long count = entityManager.createQuery(buildCountQuery(criteriaBuilder, criteriaQuery, filterMap, rootClass, fields, joins, filterPlan, distinct, root, isSubQuery, aggregates, context)).getSingleResult();
+        // The count of a search is a sub-query of the search, a count operation is the count itself
+        metrics.stop(start, SearchMetrics.COUNT, rootClass, isSubQuery ? Operation.SEARCH.getName() : Operation.COUNT.getName());
+        return count;
+    }
+
+    /**
+     * Builds the count query of a criteria query, without executing it.
+     *
+     * @param <T> The type of the root entity.
+     * @param criteriaBuilder The criteria builder used to construct the query.
+     * @param criteriaQuery The criteria query to which operations will be applied.
+     * @param filterMap A map containing filter criteria.
+     * @param rootClass The class of the root entity.
+     * @param fields A list of fields to be included in the query.
+     * @param joins A map of the joins of the query.
+     * @param filterPlan The compiled plan of the filter map.
+     * @param distinct Whether the count should be distinct.
+     * @param root The root entity in the query.
+     * @param isSubQuery Whether the query is a subquery.
+     * @param aggregates Aggregates to be applied to the query.
+     * @param context The context of the current query invocation.
+     * @return The count query.
+     */
+    private <T> CriteriaQuery<Long> buildCountQuery(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, Map<String, Object> filterMap, Class<T> rootClass, List<String> fields, Map<String, JoinType> joins, FilterPlan filterPlan, boolean distinct, Root<T> root, boolean isSubQuery, Aggregates aggregates, QueryContext context) {
         CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
         Root<?> countRoot = countQuery.from(root.getJavaType());
 
@@ -276,9 +823,9 @@ public class TypedQueryBuilder {
         {
             Subquery<Integer> subquery = countQuery.subquery(Integer.class);
             Root<?> subRoot = subquery.from(countRoot.getJavaType());
-            applyJoins(subRoot, joins);
+            QueryContext subQueryContext = context.withJoins(applyJoins(subRoot, joins));
 
-            Predicate filterPredicate = filterMap != null ? createTypedQuery(filterMap, criteriaBuilder, rootClass, keyClass, (Root) subRoot, "", rootOperator, fields, criteriaQuery) : null;
+            Predicate filterPredicate = filterMap != null ? applyFilterPlan(filterPlan, filterMap, criteriaBuilder, subRoot, criteriaQuery, subQueryContext) : null;
             String primaryKeyField = findPrimaryKeyField(rootClass);
             if (primaryKeyField == null)
                 throw new RuntimeException("Primary key not found. Please make sure to add @Id annotation to the primary key field in your entity class.");
@@ -294,18 +841,19 @@ public class TypedQueryBuilder {
                 subquery.where(criteriaBuilder.equal(subRoot.get(primaryKeyField), countRoot.get(primaryKeyField)));
             }
 
-            joinsMap.clear();
+            // The aggregates are resolved without the joins, as they were before the context was introduced
+            QueryContext aggregatesContext = context.withJoins(null);
             if (aggregates != null) {
                 List<Selection<?>> selections = new ArrayList<>();
                 List<Path<?>> groupByPaths = new ArrayList<>();
 
                 for (String field : fields) {
-                    PathObject pathAndAlias = getPathFromField(subRoot, field);
+                    PathObject pathAndAlias = getPathFromField(subRoot, field, aggregatesContext);
                     Path<?> path = pathAndAlias.path();
                     selections.add(path);
                 }
-                addAggregateSelections(criteriaBuilder, subRoot, aggregates, selections);
-                addGroupByPaths(subRoot, aggregates, groupByPaths);
+                addAggregateSelections(criteriaBuilder, subRoot, aggregates, selections, aggregatesContext);
+                addGroupByPaths(subRoot, aggregates, groupByPaths, aggregatesContext);
                 if (!groupByPaths.isEmpty()) {
                     subquery.groupBy(groupByPaths.toArray(new Path[0]));
                 }
@@ -323,7 +871,8 @@ public class TypedQueryBuilder {
              * So I think it is preferable to avoid using Concatenation for now.
              */
 
-            Predicate filterPredicate = filterMap != null ? createTypedQuery(filterMap, criteriaBuilder, rootClass, keyClass, (Root) countRoot, "", rootOperator, fields, criteriaQuery) : null;
+            QueryContext countContext = context.withJoins(applyJoins(countRoot, joins));
+            Predicate filterPredicate = filterMap != null ? applyFilterPlan(filterPlan, filterMap, criteriaBuilder, countRoot, criteriaQuery, countContext) : null;
             if (filterPredicate != null) {
                 countQuery.where(filterPredicate);
             }
@@ -332,128 +881,237 @@ public class TypedQueryBuilder {
                 if (fields == null || fields.isEmpty()) {
                     countQuery.select(criteriaBuilder.countDistinct(countRoot));
                 } else {
-                    countQuery.select(criteriaBuilder.countDistinct(getPathFromField(countRoot, fields.getFirst()).path()));
+                    countQuery.select(criteriaBuilder.countDistinct(getPathFromField(countRoot, fields.getFirst(), countContext).path()));
                 }
             } else {
                 if (fields == null || fields.isEmpty())
                     countQuery.select(criteriaBuilder.count(countRoot));
                 else
-                    countQuery.select(criteriaBuilder.count(getPathFromField(countRoot, fields.getFirst()).path()));
+                    countQuery.select(criteriaBuilder.count(getPathFromField(countRoot, fields.getFirst(), countContext).path()));
             }
         }
 
-        return entityManager.createQuery(countQuery).getSingleResult();
+        return countQuery;
     }
 
     /**
-     * Creates a typed query based on the provided filter map.
+     * Starts the count query of a paged search on a virtual thread, with its own entity manager, so that it runs
+     * concurrently with the data query. The caller holds a permit of the concurrent counts, released once the count returns.
+     *
+     * @param countQuery The count query, which must not be modified afterward.
+     * @param rootClass The class of the root entity, tagging the metrics of the count.
+     * @param permits The permits of the concurrent counts, one of which is held by the caller.
+     * @return The future total count.
+     */
+    private CompletableFuture<Long> countConcurrently(CriteriaQuery<Long> countQuery, Class<?> rootClass, Semaphore permits) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = metrics.start();
+            try (EntityManager countEntityManager = entityManagerFactory.createEntityManager()) {
+                return countEntityManager.createQuery(countQuery).getSingleResult();
+            } finally {
+                metrics.stop(start, SearchMetrics.COUNT, rootClass, Operation.SEARCH.getName());
+                permits.release();
+            }
+        }, countExecutor);
+    }
+
+    /**
+     * Compiles a filter map into a plan of operators and resolved attribute paths.
+     * <p>
+     * This is where the filter map is parsed and where the reflective lookups on the entity classes are done. The plan only
+     * depends on the shape of the filter map, so it can be cached and applied to any filter map sharing the same shape.
      *
-     * @param <T> The type of the root entity.
      * @param filterMap A map containing filter criteria.
-     * @param builder The criteria builder used to construct the query.
      * @param rootClass The class of the root entity.
-     * @param root The root entity in the query.
+     * @param keyClass The class of the key entity.
+     * @param joinAliases The aliases of the joins applied to the root (e.g., "author", "author.pet").
+     * @return The compiled plan of the filter map.
+     */
+    static FilterPlan compileFilterPlan(Map<String, Object> filterMap, Class<?> rootClass, Class<?> keyClass, Set<String> joinAliases) {
+        String rootOperator = filterMap != null ? determineRootOperator(filterMap) : "and";
+        return new FilterPlan(compileGroup(filterMap, rootClass, keyClass, "", rootOperator, joinAliases));
+    }
+
+    /**
+     * Compiles the entries of a filter map into a group combined with the given operator.
+     *
+     * @param filterMap A map containing filter criteria.
+     * @param rootClass The class of the entity the keys of the filter map belong to.
+     * @param keyClass The class of the key entity.
      * @param parentPath The parent path for nested fields.
-     * @param rootOperator The root operator for combining predicates.
-     * @param fields A list of fields to be included in the query.
-     * @param query The criteria query to which predicates will be applied.
-     * @return A combined predicate representing the filter criteria.
+     * @param operator The operator for combining the entries (e.g., "and", "or").
+     * @param joinAliases The aliases of the joins applied to the root.
+     * @return The compiled group.
      */
     @SuppressWarnings("unchecked") // Made sure these casts are safe
-    private static <T, K> Predicate createTypedQuery(Map<String, Object> filterMap, CriteriaBuilder builder, Class<T> rootClass, Class<K> keyClass, Root<T> root, String parentPath, String rootOperator, List<String> fields, CriteriaQuery<?> query) {
-        List<Predicate> predicates = new ArrayList<>();
+    private static FilterPlan.Group compileGroup(Map<String, Object> filterMap, Class<?> rootClass, Class<?> keyClass, String parentPath, String operator, Set<String> joinAliases) {
+        List<FilterPlan.Entry> entries = new ArrayList<>();
 
-        if (filterMap == null || filterMap.isEmpty()) {
-            return builder.conjunction();
-        }
-
-        for (Map.Entry<String, Object> entry : filterMap.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
+        if (filterMap != null) {
+            for (Map.Entry<String, Object> entry : filterMap.entrySet()) {
+                String key = entry.getKey();
+                Object value = entry.getValue();
 
-            if (isLogicalOperator(key)) {
-                if (Operator.getOperator(key).getKind() != Operator.Kind.UNARY) {
-                    predicates.add(createLogicalOperatorTypedQuery(key, (List<Map<String, Object>>) value, builder, rootClass, keyClass, root, parentPath, fields, query));
-                } else {
-                    predicates.add(createUnaryOperatorTypedQuery((Map<String, Object>) value, builder, rootClass, keyClass, root, parentPath, fields, query));
-                }
-            } else {
-                try {
-                    if (isComplexField(rootClass, keyClass, key)) {
-                        String newPath = parentPath.isEmpty() ? key : parentPath + "." + key;
-                        Class<?> nestedClass = getFieldType(rootClass, key);
-                        String subOperator = determineRootOperator((Map<String, Object>) value);
-                        predicates.add(createTypedQuery((Map<String, Object>) value, builder, (Class) nestedClass, keyClass, root, newPath, subOperator, fields, query));
+                if (isLogicalOperator(key)) {
+                    if (Operator.getOperator(key).getKind() != Operator.Kind.UNARY) {
+                        entries.add(new FilterPlan.Entry(key, compileLogical(key, (List<Map<String, Object>>) value, rootClass, keyClass, parentPath, joinAliases)));
                     } else {
-                        predicates.add(createSimpleFieldTypedQuery(key, value, parentPath, rootClass, builder, root));
+                        Map<String, Object> subFilter = (Map<String, Object>) value;
+                        entries.add(new FilterPlan.Entry(key, new FilterPlan.Not(compileGroup(subFilter, rootClass, keyClass, parentPath, determineRootOperator(subFilter), joinAliases))));
+                    }
+                } else {
+                    try {
+                        if (isComplexField(rootClass, keyClass, key)) {
+                            String newPath = parentPath.isEmpty() ? key : parentPath + "." + key;
+                            Class<?> nestedClass = getFieldType(rootClass, key);
+                            Map<String, Object> subFilter = (Map<String, Object>) value;
+                            entries.add(new FilterPlan.Entry(key, compileGroup(subFilter, nestedClass, keyClass, newPath, determineRootOperator(subFilter), joinAliases)));
+                        } else {
+                            entries.add(new FilterPlan.Entry(key, compileCondition(key, value, parentPath, rootClass, joinAliases)));
+                        }
+                    } catch (NoSuchFieldException e) {
+                        throw new RuntimeException(e);
                     }
-                } catch (NoSuchFieldException e) {
-                    throw new RuntimeException(e);
                 }
             }
         }
 
-        return combinePredicates(predicates, builder, rootOperator, query, root);
+        return new FilterPlan.Group(Operator.getOperator(operator), entries);
     }
 
     /**
-     * Creates a typed query for logical operators (AND, OR, etc.) based on the provided filter map.
+     * Compiles a list of sub-filters combined with a logical operator (AND, OR).
      *
-     * @param <T> The type of the root entity.
-     * @param operator The logical operator to be applied (e.g., AND, OR).
+     * @param operator The logical operator to be applied (e.g., "and", "or").
      * @param value A list of filter maps representing the sub-filters.
-     * @param builder The criteria builder used to construct the query.
-     * @param rootClass The class of the root entity.
-     * @param root The root entity in the query.
+     * @param rootClass The class of the entity the keys of the sub-filters belong to.
+     * @param keyClass The class of the key entity.
      * @param parentPath The parent path for nested fields.
-     * @param fields A list of fields to be included in the query.
-     * @param query The criteria query to which predicates will be applied.
-     * @return A combined predicate representing the logical operation.
+     * @param joinAliases The aliases of the joins applied to the root.
+     * @return The compiled logical node.
      */
-    private static <T,K> Predicate createLogicalOperatorTypedQuery(String operator, List<Map<String, Object>> value, CriteriaBuilder builder, Class<T> rootClass, Class<K> keyClass, Root<T> root, String parentPath, List<String> fields, CriteriaQuery<?> query) {
-        List<Predicate> subPredicates = new ArrayList<>();
+    private static FilterPlan.Logical compileLogical(String operator, List<Map<String, Object>> value, Class<?> rootClass, Class<?> keyClass, String parentPath, Set<String> joinAliases) {
+        List<FilterPlan.Group> subGroups = new ArrayList<>();
 
         for (Map<String, Object> subFilter : value) {
-            String subOperator = determineRootOperator(subFilter);
-            subPredicates.add(createTypedQuery(subFilter, builder, rootClass, keyClass, root, parentPath, subOperator, fields, query));
+            subGroups.add(compileGroup(subFilter, rootClass, keyClass, parentPath, determineRootOperator(subFilter), joinAliases));
         }
 
-        return combinePredicates(subPredicates, builder, operator, query, root);
+        return new FilterPlan.Logical(Operator.getOperator(operator), subGroups);
     }
 
     /**
-     * Creates a typed query for unary operators (NOT) based on the provided filter map.
+     * Compiles the condition on a simple field.
+     * The actual name and type of the field, the operator and the join the path goes through are resolved once here.
      *
-     * @param <T> The type of the root entity.
-     * @param value A map containing filter criteria.
+     * @param key The key representing the field name.
+     * @param value The value to be matched against the field, either as is or through an operator (e.g., {"gt": 5}).
+     * @param parentPath The parent path for nested fields.
+     * @param rootClass The class of the entity the field belongs to.
+     * @param joinAliases The aliases of the joins applied to the root.
+     * @return The compiled condition.
+     */
+    @SuppressWarnings("unchecked") // Made sure these casts are safe
+    private static FilterPlan.Condition compileCondition(String key, Object value, String parentPath, Class<?> rootClass, Set<String> joinAliases) {
+        AttributePath parent = parentPath.isEmpty() ? null : AttributePath.of(parentPath);
+        List<String> parentSegments = parent == null ? List.of() : parent.segments();
+        String joinAlias = null;
+        int joinDepth = 0;
+
+        // Find the deepest join covering the parent segments
+        for (int i = 0; i < parentSegments.size(); i++) {
+            String alias = parent.subPath(0, i + 1).toString();
+            if (joinAliases.contains(alias)) {
+                joinAlias = alias;
+                joinDepth = i + 1;
+            }
+        }
+
+        Operator operator = value instanceof Map ? selectFieldOperator((Map<String, Object>) value) : null;
+        return new FilterPlan.Condition(getActualFieldName(rootClass, key), getFieldType(rootClass, key), parentSegments, joinAlias, joinDepth, operator);
+    }
+
+    /**
+     * Selects the operator applied to a field from its value map.
+     * If several operators are present, the first one in {@link #FIELD_OPERATORS} wins.
+     *
+     * @param valueMap The value map of the field (e.g., {"containsic": "cat"}).
+     * @return The operator, or null if the value map contains none, in which case the value map is matched as is.
+     */
+    private static Operator selectFieldOperator(Map<String, Object> valueMap) {
+        for (Operator operator : FIELD_OPERATORS) {
+            if (valueMap.containsKey(operator.getName())) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies a compiled plan to the given root, reading the values from the filter map.
+     *
+     * @param filterPlan The compiled plan of the filter map.
+     * @param filterMap A map containing filter criteria, sharing the shape of the plan.
      * @param builder The criteria builder used to construct the query.
-     * @param rootClass The class of the root entity.
      * @param root The root entity in the query.
-     * @param parentPath The parent path for nested fields.
-     * @param fields A list of fields to be included in the query.
      * @param query The criteria query to which predicates will be applied.
-     * @return A predicate representing the NOT operation.
+     * @param context The context of the current query invocation.
+     * @return A combined predicate representing the filter criteria.
      */
-    private static <T, K> Predicate createUnaryOperatorTypedQuery(Map<String, Object> value, CriteriaBuilder builder, Class<T> rootClass, Class<K> keyClass, Root<T> root, String parentPath, List<String> fields, CriteriaQuery<?> query) {
-        Predicate predicate = createTypedQuery(value, builder, rootClass, keyClass, root, parentPath, determineRootOperator(value), fields, query);
-        return builder.not(predicate);
+    static Predicate applyFilterPlan(FilterPlan filterPlan, Map<String, Object> filterMap, CriteriaBuilder builder, Root<?> root, CriteriaQuery<?> query, QueryContext context) {
+        return applyGroup(filterPlan.root(), filterMap, builder, root, query, context);
     }
 
     /**
-     * Creates a typed query for a simple field based on the provided key and value.
+     * Applies a compiled group to the given root.
      *
-     * @param <T> The type of the root entity.
-     * @param key The key representing the field name.
-     * @param value The value to be matched against the field.
-     * @param parentPath The parent path for nested fields.
-     * @param rootClass The class of the root entity.
+     * @param group The compiled group.
+     * @param filterMap The filter map the group was compiled from.
+     * @param builder The criteria builder used to construct the query.
+     * @param root The root entity in the query.
+     * @param query The criteria query to which predicates will be applied.
+     * @param context The context of the current query invocation.
+     * @return A combined predicate representing the group, or a conjunction if the group is empty.
+     */
+    private static Predicate applyGroup(FilterPlan.Group group, Map<String, Object> filterMap, CriteriaBuilder builder, Root<?> root, CriteriaQuery<?> query, QueryContext context) {
+        if (group.children().isEmpty()) {
+            return builder.conjunction();
+        }
+
+        List<Predicate> predicates = new ArrayList<>(group.children().size());
+        for (FilterPlan.Entry entry : group.children()) {
+            predicates.add(applyNode(entry.node(), filterMap.get(entry.key()), builder, root, query, context));
+        }
+
+        return combinePredicates(predicates, builder, group.operator(), query, root);
+    }
+
+    /**
+     * Applies a compiled node to the given root.
+     *
+     * @param node The compiled node.
+     * @param value The value of the filter map the node was compiled from.
      * @param builder The criteria builder used to construct the query.
      * @param root The root entity in the query.
-     * @return A predicate representing the filter criteria for the simple field.
+     * @param query The criteria query to which predicates will be applied.
+     * @param context The context of the current query invocation.
+     * @return A predicate representing the node.
      */
-    private static <T> Predicate createSimpleFieldTypedQuery(String key, Object value, String parentPath, Class<T> rootClass, CriteriaBuilder builder, Root<T> root) {
-        Path<?> path = getPath(root, parentPath, key, rootClass);
-        return createPredicate(builder, path, value, getFieldType(rootClass, key));
+    @SuppressWarnings("unchecked") // Made sure these casts are safe
+    private static Predicate applyNode(FilterPlan.Node node, Object value, CriteriaBuilder builder, Root<?> root, CriteriaQuery<?> query, QueryContext context) {
+        return switch (node) {
+            case FilterPlan.Group group -> applyGroup(group, (Map<String, Object>) value, builder, root, query, context);
+            case FilterPlan.Logical logical -> {
+                List<Map<String, Object>> subFilters = (List<Map<String, Object>>) value;
+                List<Predicate> subPredicates = new ArrayList<>(logical.children().size());
+                for (int i = 0; i < logical.children().size(); i++) {
+                    subPredicates.add(applyGroup(logical.children().get(i), subFilters.get(i), builder, root, query, context));
+                }
+                yield combinePredicates(subPredicates, builder, logical.operator(), query, root);
+            }
+            case FilterPlan.Not not -> builder.not(applyGroup(not.child(), (Map<String, Object>) value, builder, root, query, context));
+            case FilterPlan.Condition condition -> createPredicate(builder, getPath(root, condition, context), condition.operator(), condition.valueOf(value), condition.fieldType());
+        };
     }
 
     /**
@@ -465,21 +1123,22 @@ public class TypedQueryBuilder {
      * @param fields A list of fields to be included in the projection.
      * @param aggregates Aggregates to be applied to the query.
      * @param paging Paging information for the query.
+     * @param context The context of the current query invocation.
      */
-    private static void applyFieldProjection(CriteriaBuilder builder, CriteriaQuery<?> query, Root<?> root, List<String> fields, Aggregates aggregates, DataPaging paging) {
+    private static void applyFieldProjection(CriteriaBuilder builder, CriteriaQuery<?> query, Root<?> root, List<String> fields, Aggregates aggregates, DataPaging paging, QueryContext context) {
         List<Selection<?>> selections = new ArrayList<>();
         List<Path<?>> groupByPaths = new ArrayList<>();
 
         for (String field : fields) {
-            PathObject pathAndAlias = getPathFromField(root, field);
+            PathObject pathAndAlias = getPathFromField(root, field, context);
             Path<?> path = pathAndAlias.path();
             String alias = pathAndAlias.alias();
             selections.add(path.alias(alias));
         }
 
         if (aggregates != null) {
-            addAggregateSelections(builder, root, aggregates, selections);
-            addGroupByPaths(root, aggregates, groupByPaths);
+            addAggregateSelections(builder, root, aggregates, selections, context);
+            addGroupByPaths(root, aggregates, groupByPaths, context);
             if (!groupByPaths.isEmpty()) {
                 query.groupBy(groupByPaths.toArray(new Path[0]));
             }
@@ -490,8 +1149,7 @@ public class TypedQueryBuilder {
             query.groupBy(groupByPaths.toArray(new Path[0]));
         }
 
-        applySorting(builder, query, root, paging);
-        joinsMap.clear(); // Clear the joins map to ensure that joins are not reused across queries or applied multiple times
+        applySorting(builder, query, root, paging, context);
     }
 
     /**
@@ -501,14 +1159,15 @@ public class TypedQueryBuilder {
      * @param query The criteria query to which sorting will be applied.
      * @param root The root entity in the query.
      * @param paging Paging information for the query, including sort orders.
+     * @param context The context of the current query invocation.
      */
-    private  static void applySorting(CriteriaBuilder builder, CriteriaQuery<?> query, Root<?> root, DataPaging paging) {
+    private  static void applySorting(CriteriaBuilder builder, CriteriaQuery<?> query, Root<?> root, DataPaging paging, QueryContext context) {
         if (paging == null)
             return;
         if (paging.sortOrders() != null && !paging.sortOrders().isEmpty()) {
             List<Order> orders = new ArrayList<>();
             for (Sort sortOrder : paging.sortOrders()) {
-                PathObject pathAndAlias = getPathFromField(root, sortOrder.field());
+                PathObject pathAndAlias = getPathFromField(root, sortOrder.field(), context);
                 Path<?> path = pathAndAlias.path();
                 orders.add(sortOrder.sortDirection() == SortDirection.ASC ? builder.asc(path) : builder.desc(path));
             }
@@ -523,13 +1182,14 @@ public class TypedQueryBuilder {
      * @param root The root entity in the query.
      * @param aggregates Aggregates to be applied to the query.
      * @param selections A list of selections to which aggregate selections will be added.
+     * @param context The context of the current query invocation.
      */
-    private static void addAggregateSelections(CriteriaBuilder builder, Root<?> root, Aggregates aggregates, List<Selection<?>> selections) {
-        addAggregateSelection(builder, root, aggregates.avg(), selections, "avg_", builder::avg);
-        addAggregateSelection(builder, root, aggregates.max(), selections, "max_", builder::max);
-        addAggregateSelection(builder, root, aggregates.min(), selections, "min_", builder::min);
-        addAggregateSelection(builder, root, aggregates.sum(), selections, "sum_", builder::sum);
-        addCountSelections(builder, root, aggregates.count(), selections);
+    private static void addAggregateSelections(CriteriaBuilder builder, Root<?> root, Aggregates aggregates, List<Selection<?>> selections, QueryContext context) {
+        addAggregateSelection(builder, root, aggregates.avg(), selections, "avg_", builder::avg, context);
+        addAggregateSelection(builder, root, aggregates.max(), selections, "max_", builder::max, context);
+        addAggregateSelection(builder, root, aggregates.min(), selections, "min_", builder::min, context);
+        addAggregateSelection(builder, root, aggregates.sum(), selections, "sum_", builder::sum, context);
+        addCountSelections(builder, root, aggregates.count(), selections, context);
     }
 
     /**
@@ -539,11 +1199,12 @@ public class TypedQueryBuilder {
      * @param root The root entity in the query.
      * @param aggregateFunction The aggregate function to be applied.
      * @param selections A list of selections to which aggregate selections will be added.
+     * @param context The context of the current query invocation.
      */
-    private static void addAggregateSelection(CriteriaBuilder builder, Root<?> root, List<String> fields, List<Selection<?>> selections, String prefix, Function<Expression<Number>, Expression<?>> aggregateFunction) {
+    private static void addAggregateSelection(CriteriaBuilder builder, Root<?> root, List<String> fields, List<Selection<?>> selections, String prefix, Function<Expression<Number>, Expression<?>> aggregateFunction, QueryContext context) {
         if (fields != null) {
             for (String field : fields) {
-                PathObject pathAndAlias = getPathFromField(root, field);
+                PathObject pathAndAlias = getPathFromField(root, field, context);
                 Path<?> path = pathAndAlias.path();
                 String alias = pathAndAlias.alias();
                 selections.add(aggregateFunction.apply((Expression<Number>) path).alias(prefix + alias));
@@ -558,11 +1219,12 @@ public class TypedQueryBuilder {
      * @param root The root entity in the query.
      * @param fields A list of fields to be included in the count selection.
      * @param selections A list of selections to which count selections will be added.
+     * @param context The context of the current query invocation.
      */
-    private static void addCountSelections(CriteriaBuilder builder, Root<?> root, List<String> fields, List<Selection<?>> selections) {
+    private static void addCountSelections(CriteriaBuilder builder, Root<?> root, List<String> fields, List<Selection<?>> selections, QueryContext context) {
         if (fields != null) {
             for (String field : fields) {
-                PathObject pathAndAlias = getPathFromField(root, field);
+                PathObject pathAndAlias = getPathFromField(root, field, context);
                 Path<?> path = pathAndAlias.path();
                 String alias = pathAndAlias.alias();
                 selections.add(builder.count(path).alias("count_" + alias));
@@ -576,11 +1238,12 @@ public class TypedQueryBuilder {
      * @param root The root entity in the query.
      * @param aggregates Aggregates containing the group by fields.
      * @param groupByPaths A list of paths to which group by paths will be added.
+     * @param context The context of the current query invocation.
      */
-    private static void addGroupByPaths(Root<?> root, Aggregates aggregates, List<Path<?>> groupByPaths) {
+    private static void addGroupByPaths(Root<?> root, Aggregates aggregates, List<Path<?>> groupByPaths, QueryContext context) {
         if (aggregates != null && aggregates.groupBy() != null) {
             for (String field : aggregates.groupBy()) {
-                PathObject pathAndAlias = getPathFromField(root, field);
+                PathObject pathAndAlias = getPathFromField(root, field, context);
                 Path<?> path = pathAndAlias.path();
                 groupByPaths.add(path);
             }
@@ -589,161 +1252,107 @@ public class TypedQueryBuilder {
 
     /**
      * Retrieves the path and alias from the specified field in the root entity.
+     * The path is only resolved once per query context.
      *
      * @param root The root entity in the query.
      * @param field The field for which the path and alias are to be retrieved.
+     * @param context The context of the current query invocation.
      * @return An array containing the path and alias. The first element is the path, and the second element is the alias.
      */
-    private static PathObject getPathFromField(Root<?> root, String field) {
-        String[] pathParts = field.split("\\."); // Split the field into segments
-        Path<?> currentPath = root; // Start from the root
-        StringBuilder joinAlias = new StringBuilder(); // To track alias for joins
-
-        if (!joinsMap.isEmpty()) {
-            for (int i = 1; i < pathParts.length; i++) {
-                String part = pathParts[i];
+    private static PathObject getPathFromField(Root<?> root, String field, QueryContext context) {
+        return context.resolvePath(field, f -> resolvePathFromField(root, f, context.joins()));
+    }
 
-                // Construct the current alias for the join (e.g., "Book.author")
-                if (!joinAlias.isEmpty()) {
-                    joinAlias.append(".");
-                }
-                joinAlias.append(part);
+    /**
+     * Resolves the path and alias from the specified field in the root entity, going through the joins when they exist.
+     *
+     * @param root The root entity in the query.
+     * @param field The field for which the path and alias are to be resolved.
+     * @param joinsMap The joins applied to the root, keyed by their path.
+     * @return An array containing the path and alias. The first element is the path, and the second element is the alias.
+     */
+    private static PathObject resolvePathFromField(Root<?> root, String field, Map<String, Join<?, ?>> joinsMap) {
+        AttributePath pathParts = AttributePath.of(field); // Tokenized once per field
+        Path<?> currentPath = root; // Start from the root
+        // The alias is the path without the root (e.g., "author.name" for "Book.author.name")
+        String alias = pathParts.size() > 1 ? pathParts.subPath(1).toString() : "";
 
-                if (i < pathParts.length - 1) {
-                    // Look for the join in the map (non-leaf nodes in the path)
-                    if (joinsMap.containsKey(joinAlias.toString())) {
-                        currentPath = joinsMap.get(joinAlias.toString());
-                    } else {
-                        currentPath = currentPath.get(part);
-                    }
-                } else {
-                    // Handle the leaf node (field, not a join)
-                    currentPath = currentPath.get(part);
-                }
-            }
-        }
-        else {
-            StringBuilder alias = new StringBuilder();
+        for (int i = 1; i < pathParts.size(); i++) {
+            String part = pathParts.segment(i);
 
-            for (int i = 1; i < pathParts.length; i++) {
-                currentPath = currentPath.get(pathParts[i]);
-                alias.append((!alias.isEmpty()) ? "." + pathParts[i] : pathParts[i]);
+            if (!joinsMap.isEmpty() && i < pathParts.size() - 1) {
+                // Look for the join in the map (non-leaf nodes in the path, e.g., "author")
+                Join<?, ?> join = joinsMap.get(pathParts.subPath(1, i + 1).toString());
+                currentPath = join != null ? join : currentPath.get(part);
+            } else {
+                // Handle the leaf node (field, not a join)
+                currentPath = currentPath.get(part);
             }
-
-            return new PathObject(currentPath, alias.toString());
         }
 
-        return new PathObject(currentPath, joinAlias.toString());
+        return new PathObject(currentPath, alias);
     }
 
     /**
      * Finds the primary key field of the specified entity class.
      *
+     * The primary key field is read from the {@link EntityAttributeIndex}.
+     *
      * @param entityClass The class of the entity for which the primary key field is to be found.
-     * @return An Optional containing the name of the primary key field, or an empty Optional if no primary key field is found.
+     * @return The name of the primary key field, or null if no primary key field is found.
      */
      static String findPrimaryKeyField(Class<?> entityClass) {
-        // Inspect superclass for @Id annotated field
-        Class<?> currentClass = entityClass;
-        while (currentClass != null) {
-            for (Field field : currentClass.getDeclaredFields()) {
-                if (field.isAnnotationPresent(Id.class)) {
-                    // Check for AttributeOverride in subclass
-                    AttributeOverride[] overrides = entityClass.getAnnotationsByType(AttributeOverride.class);
-                    for (AttributeOverride override : overrides) {
-                        if (override.name().equals(field.getName())) {
-                            return override.column().name();
-                        }
-                    }
-                    return field.getName();
-                }
-            }
-            currentClass = currentClass.getSuperclass();
+        if (entityClass == null) {
+            return null;
         }
-        return null;
+        return EntityAttributeIndex.shared().of(entityClass).idAttribute();
     }
 
     /**
-     * Creates a predicate based on the provided value and field type.
+     * Creates a predicate for the given operator and value.
      *
      * @param builder The criteria builder used to construct the query.
      * @param path The path to the field in the entity.
+     * @param operator The operator to be applied, or null if the value must be matched as is.
      * @param value The value to be matched against the field.
      * @param fieldType The type of the field.
      * @return A predicate representing the filter criteria for the field.
      */
     @SuppressWarnings("unchecked") // Made sure these casts are safe
-    private static Predicate createPredicate(CriteriaBuilder builder, Path path, Object value, Class<?> fieldType) {
-        if (value instanceof Map) {
-            Map<String, Object> valueMap = (Map<String, Object>) value;
+    private static Predicate createPredicate(CriteriaBuilder builder, Path path, Operator operator, Object value, Class<?> fieldType) {
+        if (operator == null) {
+            return builder.equal(path, convertValue(value, fieldType));
+        }
+
+        return switch (operator) {
             /* String operations.*/
-            if (valueMap.containsKey(Operator.STARTS.getName())) {
-                return builder.like(path, valueMap.get(Operator.STARTS.getName()) + "%");
-            }
-            else if (valueMap.containsKey(Operator.STARTSIC.getName())) {
-                return builder.like(builder.lower(path), ((String) valueMap.get(Operator.STARTSIC.getName())).toLowerCase() + "%");
-            }
-            else if (valueMap.containsKey(Operator.ENDS.getName())) {
-                return builder.like(path, "%" + valueMap.get(Operator.ENDS.getName()));
-            }
-            else if (valueMap.containsKey(Operator.ENDSIC.getName())) {
-                return builder.like(builder.lower(path), "%" + ((String) valueMap.get(Operator.ENDSIC.getName())).toLowerCase());
-            }
-            else if (valueMap.containsKey(Operator.CONTAINS.getName())) {
-                return builder.like(path, "%" + valueMap.get(Operator.CONTAINS.getName()) + "%");
-            }
-            else if (valueMap.containsKey(Operator.CONTAINSIC.getName())) {
-                return builder.like(builder.lower(path), "%" + ((String)valueMap.get(Operator.CONTAINSIC.getName())).toLowerCase() + "%");
-            }
-            else if (valueMap.containsKey(Operator.EQUALS.getName())) {
-                return builder.equal(path, valueMap.get(Operator.EQUALS.getName()));
-            }
-            else if (valueMap.containsKey(Operator.EQUALSIC.getName())) {
-                return builder.equal(builder.lower(path), ((String)valueMap.get(Operator.EQUALSIC.getName())).toLowerCase());
-            }
+            case STARTS -> builder.like(path, value + "%");
+            case STARTSIC -> builder.like(builder.lower(path), ((String) value).toLowerCase() + "%");
+            case ENDS -> builder.like(path, "%" + value);
+            case ENDSIC -> builder.like(builder.lower(path), "%" + ((String) value).toLowerCase());
+            case CONTAINS -> builder.like(path, "%" + value + "%");
+            case CONTAINSIC -> builder.like(builder.lower(path), "%" + ((String) value).toLowerCase() + "%");
+            case EQUALS -> builder.equal(path, value);
+            case EQUALSIC -> builder.equal(builder.lower(path), ((String) value).toLowerCase());
             /* Numeric operations.*/
-            else if (valueMap.containsKey(Operator.LT.getName())) {
-                Comparable comparableValue = convertIfDate((Comparable) valueMap.get(Operator.LT.getName()));
-                return builder.lessThan(path, comparableValue);
-            }
-            else if (valueMap.containsKey(Operator.LTE.getName())) {
-                Comparable comparableValue = convertIfDate((Comparable) valueMap.get(Operator.LTE.getName()));
-                return builder.lessThanOrEqualTo(path, comparableValue);
-            }
-            else if (valueMap.containsKey(Operator.EQ.getName())) {
-                if (valueMap.get(Operator.EQ.getName()) == null) {
-                    return builder.isNull(path);
-                } else {
-                    Comparable comparableValue = convertIfDate((Comparable) valueMap.get(Operator.EQ.getName()));
-                    return  builder.equal(path, comparableValue);
-                }
-            }
-            else if (valueMap.containsKey(Operator.GT.getName())) {
-                Comparable comparableValue = convertIfDate((Comparable) valueMap.get(Operator.GT.getName()));
-                return builder.greaterThan(path, comparableValue);
-            }
-            else if (valueMap.containsKey(Operator.GTE.getName())) {
-                Comparable comparableValue = convertIfDate((Comparable) valueMap.get(Operator.GTE.getName()));
-                return builder.greaterThanOrEqualTo(path, comparableValue);
-            }
-            else if (valueMap.containsKey(Operator.IN.getName())) {
-                List<Comparable> expressionInValues = (List<Comparable>) valueMap.get(Operator.IN.getName());
+            case LT -> builder.lessThan(path, convertIfDate((Comparable) value));
+            case LTE -> builder.lessThanOrEqualTo(path, convertIfDate((Comparable) value));
+            case EQ -> value == null ? builder.isNull(path) : builder.equal(path, convertIfDate((Comparable) value));
+            case GT -> builder.greaterThan(path, convertIfDate((Comparable) value));
+            case GTE -> builder.greaterThanOrEqualTo(path, convertIfDate((Comparable) value));
+            case IN -> {
                 List<Comparable> convertedValues = new ArrayList<>();
-                for (Comparable val : expressionInValues) {
+                for (Comparable val : (List<Comparable>) value) {
                     convertedValues.add(convertIfDate(val));
                 }
-                return builder.in(path).value(convertedValues);
+                yield builder.in(path).value(convertedValues);
             }
-            else if (valueMap.containsKey(Operator.BETWEEN.getName())) {
-                List<Comparable> expressionBetweenValues = (List<Comparable>) valueMap.get(Operator.BETWEEN.getName());
-                Comparable start = convertIfDate(expressionBetweenValues.get(0));
-                Comparable end = convertIfDate(expressionBetweenValues.get(1));
-                return builder.between(path, start, end);
+            case BETWEEN -> {
+                List<Comparable> expressionBetweenValues = (List<Comparable>) value;
+                yield builder.between(path, convertIfDate(expressionBetweenValues.get(0)), convertIfDate(expressionBetweenValues.get(1)));
             }
-            else
-                return builder.equal(path, value);
-        }
-        return builder.equal(path, convertValue(value, fieldType));
+            default -> builder.equal(path, value);
+        };
     }
 
     /**
@@ -762,57 +1371,31 @@ public class TypedQueryBuilder {
     }
 
     /**
-     * Retrieves the path to a field in the entity based on the provided parent path and key.
+     * Retrieves the path to the field of a compiled condition.
+     * The path starts from the join resolved at compile time when it is applied to the root, otherwise from the root.
      *
      * @param root The root entity in the query.
-     * @param parentPath The parent path for nested fields.
-     * @param key The key representing the field name.
-     * @param rootClass The class of the root entity.
-     * @return The path to the specified field in the entity.
+     * @param condition The compiled condition.
+     * @param context The context of the current query invocation.
+     * @return The path to the field of the condition.
      */
-    private static Path<?> getPath(From<?, ?> root, String parentPath, String key, Class<?> rootClass) {
-        String fieldName = getActualFieldName(rootClass, key);
-        if (parentPath.isEmpty()) {
-            return root.get(getActualFieldName(rootClass, key));
+    private static Path<?> getPath(From<?, ?> root, FilterPlan.Condition condition, QueryContext context) {
+        Path<?> path = root;
+        int start = 0;
+
+        if (condition.joinAlias() != null) {
+            Join<?, ?> join = context.joins().get(condition.joinAlias());
+            if (join != null) {
+                path = join;
+                start = condition.joinDepth();
+            }
         }
-        else {
-            if (joinsMap != null && !joinsMap.isEmpty()) {
-                String fieldPath = parentPath + "." + fieldName;
-                //String rootName = joinsMap.keySet().stream().toList().getFirst().split("\\.")[0];
-                String[] paths = fieldPath.split("\\.");
-                StringBuilder joinAlias = new StringBuilder();
-//                if (!Objects.equals(rootName, ""))
-//                    joinAlias.append(rootName);
-                Path<?> path = root;
-
-                for (int i = 0; i < paths.length; i++) {
-                    String p = paths[i];
-                    if (!joinAlias.isEmpty())
-                        joinAlias.append(".");
-                    joinAlias.append(p);
-
-                    if (i < paths.length - 1) {
-                        // Check if a join already exists for this alias
-                        if (joinsMap.containsKey(joinAlias.toString())) {
-                            path = joinsMap.get(joinAlias.toString());
-                        } else {
-                            // Traverse dynamically (shouldn't happen if joins are pre-handled)
-                            path = path.get(p);
-                        }
-                    }
-                }
 
-                return path.get(fieldName);
-            }
-            else {
-                String[] paths = parentPath.split("\\.");
-                Path<?> path = root;
-                for (String p : paths) {
-                    path = path.get(p);
-                }
-                return path.get(fieldName);
-            }
+        List<String> parentSegments = condition.parentSegments();
+        for (int i = start; i < parentSegments.size(); i++) {
+            path = path.get(parentSegments.get(i));
         }
+        return path.get(condition.fieldName());
     }
 
     /**
@@ -856,15 +1439,14 @@ public class TypedQueryBuilder {
      * @param root The root entity in the query.
      * @return A combined predicate representing the logical operation.
      */
-    private static <T> Predicate combinePredicates(@NotNull List<Predicate> predicates, CriteriaBuilder builder, String operator, CriteriaQuery<?> query, Root<T> root) {
+    private static <T> Predicate combinePredicates(@NotNull List<Predicate> predicates, CriteriaBuilder builder, Operator operator, CriteriaQuery<?> query, Root<T> root) {
         Predicate combinedPredicate = null;
 
         for (Predicate predicate : predicates) {
             if (combinedPredicate == null) {
                 combinedPredicate = predicate;
             } else {
-                Operator op = Operator.getOperator(operator);
-                combinedPredicate = switch (op) {
+                combinedPredicate = switch (operator) {
                     case AND -> builder.and(combinedPredicate, predicate);
                     case OR -> builder.or(combinedPredicate, predicate);
                     case NOT -> builder.not(combinedPredicate);
@@ -938,7 +1520,8 @@ public class TypedQueryBuilder {
     /**
      * Checks if the specified field in the given class is a complex field.
      * <p>
-     * A complex field is defined as a field that is not primitive, not a String,
+     * For an entity managed by JPA, a complex field is an embeddable or an association, as known by the metamodel.
+     * Otherwise, a complex field is defined as a field that is not primitive, not a String,
      * not overridden, and not one of the following types: UUID, Date, LocalDate,
      * LocalDateTime, OffsetDateTime.
      *
@@ -949,8 +1532,13 @@ public class TypedQueryBuilder {
      */
     private static boolean isComplexField(Class<?> clazz, Class<?> keyClass, String fieldName) throws NoSuchFieldException {
         try {
+            EntityAttributeIndex.Attribute attribute = getAttribute(clazz, fieldName);
+            if (attribute.isManaged()) {
+                return attribute.isComplex();
+            }
+
             Class<?> parentParamClass = null;
-            Class<?> fieldType = getActualFieldType(clazz, fieldName);
+            Class<?> fieldType = attribute.javaType();
             if (fieldType == Serializable.class) {
                 parentParamClass = getRealTypeParameter(clazz, keyClass);
                 fieldType = parentParamClass;
@@ -972,24 +1560,15 @@ public class TypedQueryBuilder {
     /**
      * Checks if the specified field in the given class is overridden.
      * <p>
-     * This method traverses the class hierarchy to check for the presence of the @AttributeOverride annotation
-     * on the specified field. If the annotation is found, it indicates that the field is overridden.
+     * This method checks, through the {@link EntityAttributeIndex}, for the presence of the @AttributeOverride annotation
+     * on the specified field in the class hierarchy. If the annotation is found, it indicates that the field is overridden.
      *
      * @param clazz The class containing the field.
      * @param fieldName The name of the field to check.
      * @return true if the field is overridden, false otherwise.
      */
     static boolean isOverriddenField(Class<?> clazz, String fieldName) {
-        // Check for @AttributeOverride
-        while (clazz != null) {
-            for (AttributeOverride override : clazz.getDeclaredAnnotationsByType(AttributeOverride.class)) {
-                if (override.name().equals(fieldName)) {
-                    return true;
-                }
-            }
-            clazz = clazz.getSuperclass();
-        }
-        return false;
+        return clazz != null && EntityAttributeIndex.shared().of(clazz).isOverridden(fieldName);
     }
 
     /**
@@ -1014,8 +1593,8 @@ public class TypedQueryBuilder {
     /**
      * Retrieves the actual type of the specified field in the given class.
      * <p>
-     * This method traverses the class hierarchy to find the field with the specified name
-     * and returns its type. If the field is not found, it throws a NoSuchFieldException.
+     * This method looks up the attribute with the specified name in the {@link EntityAttributeIndex}
+     * and returns its type. If the attribute is not found, it throws a NoSuchFieldException.
      *
      * @param clazz The class containing the field.
      * @param fieldName The name of the field whose type is to be retrieved.
@@ -1023,41 +1602,38 @@ public class TypedQueryBuilder {
      * @throws NoSuchFieldException If the field is not found in the class.
      */
     static Class<?> getActualFieldType(Class<?> clazz, String fieldName) throws NoSuchFieldException {
-        // Traverse the class hierarchy to find the field
-        while (clazz != null) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (field.getName().equals(fieldName)) {
-                    return field.getType();
-                }
-            }
-            clazz = clazz.getSuperclass();
+        return getAttribute(clazz, fieldName).javaType();
+    }
+
+    /**
+     * Retrieves the indexed attribute of the specified field in the given class.
+     *
+     * @param clazz The class containing the field.
+     * @param fieldName The name of the field.
+     * @return The attribute of the field.
+     * @throws NoSuchFieldException If the field is not found in the class.
+     */
+    private static EntityAttributeIndex.Attribute getAttribute(Class<?> clazz, String fieldName) throws NoSuchFieldException {
+        EntityAttributeIndex.Attribute attribute = clazz != null ? EntityAttributeIndex.shared().of(clazz).attribute(fieldName) : null;
+        if (attribute == null) {
+            throw new NoSuchFieldException(fieldName);
         }
-        throw new NoSuchFieldException(fieldName);
+        return attribute;
     }
 
     /**
      * Retrieves the actual field name of the specified field in the given class.
      *
-     * This method traverses the class hierarchy to find the field with the specified name
-     * and checks for the presence of the @AttributeOverride annotation. If the annotation
-     * is found, it returns the overridden column name. If the field is not found, it returns
-     * the original field name.
+     * This method checks, through the {@link EntityAttributeIndex}, for the presence of the @AttributeOverride annotation
+     * on the specified field in the class hierarchy. If the annotation is found, it returns the overridden column name.
+     * Otherwise, it returns the original field name.
      *
      * @param clazz The class containing the field.
      * @param fieldName The name of the field whose actual name is to be retrieved.
      * @return The actual field name, or the original field name if no override is found.
      */
     static String getActualFieldName(Class<?> clazz, String fieldName) {
-        // Check for @AttributeOverride
-        while (clazz != null) {
-            for (AttributeOverride override : clazz.getDeclaredAnnotationsByType(AttributeOverride.class)) {
-                if (override.name().equals(fieldName)) {
-                    return override.column().name();
-                }
-            }
-            clazz = clazz.getSuperclass();
-        }
-        return fieldName;
+        return clazz == null ? fieldName : EntityAttributeIndex.shared().of(clazz).actualName(fieldName);
     }
 
     /**
@@ -1089,10 +1665,30 @@ public class TypedQueryBuilder {
     }
 
     /**
-     * Cleans the list of fields by removing complex fields from the list.
+     * Extracts the paging elements (e.g., "total", "currentPage") from the list of fields.
+     *
+     * @param fields A list of fields, as requested by the client.
+     * @return The paging elements found in the fields, in the order they were requested.
+     */
+    public static Set<String> extractPagingElements(List<String> fields) {
+        Set<String> pagingElements = new LinkedHashSet<>();
+        if (fields == null)
+            return pagingElements;
+
+        for (String field : fields) {
+            if (PAGING_ELEMENTS.contains(field)) {
+                pagingElements.add(field);
+            }
+        }
+        return pagingElements;
+    }
+
+    /**
+     * Cleans the list of fields by removing complex fields and paging elements from the list.
      * <p>
      * This method creates a copy of the provided fields list to avoid concurrent modification issues.
      * It iterates through the fields and removes any complex fields from the list.
+     * The paging elements are not kept here, see {@link #extractPagingElements(List)}.
      *
      * @param rootClass The class of the root entity.
      * @param fields A list of fields to be cleaned.
@@ -1107,18 +1703,18 @@ public class TypedQueryBuilder {
         List<String> cleanedFields = new ArrayList<>(fields);
 
         for (int i = 0; i < cleanedFields.size(); i++) {
-            if (!Objects.equals(cleanedFields.get(i), "currentPage") && !Objects.equals(cleanedFields.get(i), "pageSize") && !Objects.equals(cleanedFields.get(i), "totalPages") && !Objects.equals(cleanedFields.get(i), "currentPageCount") && !Objects.equals(cleanedFields.get(i), "total")) {
-                String[] temp = cleanedFields.get(i).split("\\.");
+            if (!PAGING_ELEMENTS.contains(cleanedFields.get(i))) {
+                AttributePath temp = AttributePath.of(cleanedFields.get(i));
                 Class<?> currentClass = rootClass;  // Reset rootClass for each field entry
 
                 // Start from the second element (index 1)
-                for (int j = 1; j < temp.length; j++) {
-                    String fieldName = temp[j];
+                for (int j = 1; j < temp.size(); j++) {
+                    String fieldName = temp.segment(j);
 
                     if (isComplexField(currentClass, keyClass, fieldName)) {
                         // Mark as complex if we encounter a complex field
                         // If we are at the last element and it's complex, remove the entry
-                        if (j + 1 == temp.length) {
+                        if (j + 1 == temp.size()) {
                             cleanedFields.remove(i);
                             i--;  // Adjust the index after removal
                             break;
@@ -1130,7 +1726,6 @@ public class TypedQueryBuilder {
                 }
             }
             else {
-                pagingElementsToInclude.add(cleanedFields.get(i));
                 cleanedFields.remove(i);
                 i--;
             }
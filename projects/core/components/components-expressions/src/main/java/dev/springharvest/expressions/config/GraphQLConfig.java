@@ -1,10 +1,22 @@
 package dev.springharvest.expressions.config;
 
+import dev.springharvest.expressions.helpers.PersistedDocumentCache;
+import dev.springharvest.shared.constants.PageData;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.TypeName;
+import graphql.schema.DataFetcher;
+import graphql.schema.idl.FieldWiringEnvironment;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.WiringFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 import graphql.scalars.ExtendedScalars;
 
+import java.util.List;
+
 /**
  * This class is used to configure GraphQL in the application
  *
@@ -13,6 +25,11 @@ import graphql.scalars.ExtendedScalars;
 @Configuration
 public class GraphQLConfig {
 
+    /**
+     * The name of the interface implemented by the page types of the searches.
+     */
+    static final String PAGE_DATA_INTERFACE = "PageData";
+
     /**
      * Configures the runtime wiring for GraphQL
      *
@@ -20,10 +37,87 @@ public class GraphQLConfig {
      */
     @Bean
     RuntimeWiringConfigurer runtimeWiringConfigurer(){
-        return wiringBuilder ->
+        return new RuntimeWiringConfigurer() {
+            @Override
+            public void configure(RuntimeWiring.Builder wiringBuilder) {
                 wiringBuilder.scalar(ExtendedScalars.Date) // Adding Date scalar
                         .scalar(ExtendedScalars.Json) // Adding Json scalar
                         .scalar(ExtendedScalars.GraphQLLong) // Adding long scalar
                         .scalar(ExtendedScalars.Object); // Adding object scalar
+            }
+
+            @Override
+            public void configure(RuntimeWiring.Builder wiringBuilder, List<WiringFactory> container) {
+                container.add(new PageTotalWiringFactory()); // Resolving the totals of the pages once counted
+            }
+        };
+    }
+
+    /**
+     * Evaluates the cost of the searches of every GraphQL operation before they run, and admits them within the budget.
+     *
+     * @param maxCost The budget of an operation, or a negative value to only report the costs.
+     * @param policy What happens to the searches over the budget (REJECT, THROTTLE).
+     * @param throttlePermits The number of searches over the budget that may run at once when throttled.
+     * @param throttleTimeoutMillis The time a throttled search waits for a permit, in milliseconds.
+     * @return the query cost instrumentation
+     */
+    @Bean
+    QueryCostInstrumentation queryCostInstrumentation(@Value("${springharvest.expressions.cost.max-cost:-1}") long maxCost,
+                                                      @Value("${springharvest.expressions.cost.policy:REJECT}") QueryCostInstrumentation.Policy policy,
+                                                      @Value("${springharvest.expressions.cost.throttle.permits:1}") int throttlePermits,
+                                                      @Value("${springharvest.expressions.cost.throttle.timeout-ms:30000}") long throttleTimeoutMillis) {
+        return new QueryCostInstrumentation(maxCost, policy, throttlePermits, throttleTimeoutMillis);
+    }
+
+    /**
+     * The cache of the parsed and validated documents of the GraphQL requests, keyed by persisted query hash or query text.
+     *
+     * @param maxSize The maximum number of documents kept in the cache, 0 to disable it.
+     * @return the persisted document cache
+     */
+    @Bean
+    PersistedDocumentCache persistedDocumentCache(@Value("${springharvest.expressions.persisted-queries.max-size:" + PersistedDocumentCache.DEFAULT_MAX_SIZE + "}") int maxSize) {
+        return new PersistedDocumentCache(maxSize);
+    }
+
+    /**
+     * Provides the documents of the GraphQL requests from the persisted document cache, supporting the automatic
+     * persisted queries of the Apollo clients.
+     *
+     * @param persistedDocumentCache the cache of the parsed and validated documents
+     * @return the GraphQL source builder customizer
+     */
+    @Bean
+    GraphQlSourceBuilderCustomizer persistedQueryCustomizer(PersistedDocumentCache persistedDocumentCache) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(new PersistedQueryDocumentProvider(persistedDocumentCache)));
+    }
+
+    /**
+     * Wires the total and total pages of every type implementing the PageData interface to the future results of
+     * their count query, so that the page is returned as soon as its data is read and the totals are resolved without
+     * blocking once the count query, which runs concurrently, returns.
+     */
+    static class PageTotalWiringFactory implements WiringFactory {
+
+        private static final DataFetcher<Object> TOTAL = environment -> environment.getSource() instanceof PageData<?> page ? page.getTotalAsync() : null;
+        private static final DataFetcher<Object> TOTAL_PAGES = environment -> environment.getSource() instanceof PageData<?> page ? page.getTotalPagesAsync() : null;
+
+        @Override
+        public boolean providesDataFetcher(FieldWiringEnvironment environment) {
+            return getDataFetcher(environment) != null;
+        }
+
+        @Override
+        public DataFetcher<?> getDataFetcher(FieldWiringEnvironment environment) {
+            if (!(environment.getParentType() instanceof ObjectTypeDefinition type)
+                    || type.getImplements().stream().noneMatch(name -> name instanceof TypeName typeName && PAGE_DATA_INTERFACE.equals(typeName.getName())))
+                return null;
+            return switch (environment.getFieldDefinition().getName()) {
+                case "total" -> TOTAL;
+                case "totalPages" -> TOTAL_PAGES;
+                default -> null;
+            };
+        }
     }
-}
\ No newline at end of file
+}
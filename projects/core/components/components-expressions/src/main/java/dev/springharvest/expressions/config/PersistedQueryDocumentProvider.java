@@ -0,0 +1,41 @@
+package dev.springharvest.expressions.config;
+
+import dev.springharvest.expressions.helpers.PersistedDocumentCache;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+
+import java.util.function.Function;
+
+/**
+ * Provides the parsed and validated documents of the GraphQL requests from a {@link PersistedDocumentCache}.
+ * <p>
+ * The requests following the Apollo automatic persisted queries protocol send the SHA-256 hash of their query in the
+ * "persistedQuery" extension. Once the query is cached, the clients only send its hash, with the query text set to
+ * "PersistedQueryMarker" as the HTTP transport requires one. Until then, the request fails with a
+ * PersistedQueryNotFound error and the client sends the query text along with its hash. The other requests are cached by their query text, so that repeated documents
+ * are only parsed and validated once.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @since 1.0
+ */
+public class PersistedQueryDocumentProvider extends ApolloPersistedQuerySupport {
+
+    private final PersistedDocumentCache documentCache;
+
+    /**
+     * @param documentCache The cache of the parsed and validated documents.
+     */
+    public PersistedQueryDocumentProvider(PersistedDocumentCache documentCache) {
+        super(documentCache);
+        this.documentCache = documentCache;
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (getPersistedQueryId(executionInput).isPresent() || executionInput.getQuery() == null) {
+            return super.getDocument(executionInput, parseAndValidateFunction);
+        }
+        return documentCache.getPersistedQueryDocument(executionInput.getQuery(), executionInput, query -> parseAndValidateFunction.apply(executionInput));
+    }
+}
@@ -0,0 +1,280 @@
+package dev.springharvest.expressions.config;
+
+import dev.springharvest.expressions.helpers.QueryCost;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.springframework.graphql.execution.ErrorType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the {@link QueryCost} of every search field of a GraphQL operation before its data fetcher runs, i.e.
+ * before the filter of the search is parsed into a query, and admits the search only while the accumulated cost of the
+ * operation stays within the budget.
+ * <p>
+ * The searches over the budget are either rejected with a BAD_REQUEST error, or throttled: they wait for one of a few
+ * permits shared by every operation, so that only a bounded number of expensive searches run at once. A throttled search
+ * does not park the thread executing the operation: its field resolves to a future, completed by a virtual thread once a
+ * permit is released. The cost of each search and the total admitted cost are reported in the "cost" extension of the
+ * response.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see QueryCost
+ * @since 1.0
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    /**
+     * The name of the extension of the response holding the cost of the operation.
+     */
+    static final String COST_EXTENSION = "cost";
+
+    /**
+     * The name of the argument of the associations to join.
+     */
+    static final String JOIN_ARGUMENT = "join";
+
+    /**
+     * What happens to the searches over the budget.
+     */
+    public enum Policy {
+        /**
+         * The search is not executed, and its field resolves to an error.
+         */
+        REJECT,
+        /**
+         * The search waits for a throttle permit, and is rejected if none is released before the timeout.
+         */
+        THROTTLE
+    }
+
+    private final long maxCost;
+    private final Policy policy;
+    private final Throttle throttle;
+    private final long throttleTimeoutMillis;
+
+    /**
+     * The executor running the throttled searches that waited for a permit, one virtual thread per search.
+     */
+    private final ExecutorService throttleExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param maxCost The budget of an operation, or a negative value to only report the costs.
+     * @param policy What happens to the searches over the budget.
+     * @param throttlePermits The number of searches over the budget that may run at once.
+     * @param throttleTimeoutMillis The time a search over the budget waits for a permit, in milliseconds.
+     */
+    public QueryCostInstrumentation(long maxCost, Policy policy, int throttlePermits, long throttleTimeoutMillis) {
+        this.maxCost = maxCost;
+        this.policy = policy;
+        this.throttle = new Throttle(Math.max(throttlePermits, 1));
+        this.throttleTimeoutMillis = throttleTimeoutMillis;
+    }
+
+    /**
+     * Stops the executor of the throttled searches.
+     */
+    public void shutdown() {
+        throttleExecutor.shutdown();
+    }
+
+    /**
+     * The permits of the searches over the budget, handed in order to the searches waiting for one without blocking them.
+     */
+    static class Throttle {
+
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int availablePermits;
+
+        Throttle(int permits) {
+            this.availablePermits = permits;
+        }
+
+        /**
+         * @param timeoutMillis The time to wait for a permit, in milliseconds.
+         * @return A future completed once a permit is acquired, or completed exceptionally if none is released in time.
+         */
+        CompletableFuture<Void> acquire(long timeoutMillis) {
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            synchronized (this) {
+                if (availablePermits > 0) {
+                    availablePermits--;
+                    permit.complete(null);
+                    return permit;
+                }
+                waiters.add(permit);
+            }
+            permit.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    synchronized (this) {
+                        waiters.remove(permit);
+                    }
+                }
+            });
+            return permit;
+        }
+
+        /**
+         * Hands the permit to the first search still waiting for one, or makes it available.
+         */
+        void release() {
+            CompletableFuture<Void> waiter;
+            do {
+                synchronized (this) {
+                    waiter = waiters.poll();
+                    if (waiter == null) {
+                        availablePermits++;
+                        return;
+                    }
+                }
+                // A waiter that timed out meanwhile does not take the permit
+            } while (!waiter.complete(null));
+        }
+    }
+
+    /**
+     * The costs of the searches of an operation.
+     */
+    static class CostState implements InstrumentationState {
+
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+        private long total;
+
+        /**
+         * Adds the cost of a search to the operation if it stays within the budget.
+         *
+         * @return true if the search is admitted.
+         */
+        synchronized boolean admit(String path, QueryCost cost, long maxCost) {
+            fields.put(path, cost.toMap());
+            if (maxCost >= 0 && total + cost.total() > maxCost) {
+                return false;
+            }
+            total += cost.total();
+            return true;
+        }
+
+        synchronized void add(QueryCost cost) {
+            total += cost.total();
+        }
+
+        synchronized Map<String, Object> toMap(long maxCost) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("total", total);
+            map.put("maxCost", maxCost);
+            map.put("fields", new LinkedHashMap<>(fields));
+            return map;
+        }
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new CostState();
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher() || !(state instanceof CostState costState)
+                || !QueryCost.isSearch(parameters.getEnvironment().getArguments())) {
+            return dataFetcher;
+        }
+        return environment -> {
+            QueryCost cost = QueryCost.of(environment.getArguments(), countJoins(environment.getSelectionSet()));
+            if (costState.admit(environment.getExecutionStepInfo().getPath().toString(), cost, maxCost)) {
+                return dataFetcher.get(environment);
+            }
+            if (policy != Policy.THROTTLE) {
+                return overBudget(environment, cost);
+            }
+            CompletableFuture<Void> permit = throttle.acquire(throttleTimeoutMillis);
+            if (permit.isDone() && !permit.isCompletedExceptionally()) {
+                costState.add(cost);
+                return throttled(dataFetcher, environment);
+            }
+            return permit.handle((ignored, error) -> error == null)
+                    .thenComposeAsync(acquired -> {
+                        if (!acquired) {
+                            return CompletableFuture.<Object>completedFuture(overBudget(environment, cost));
+                        }
+                        costState.add(cost);
+                        try {
+                            Object value = throttled(dataFetcher, environment);
+                            return value instanceof CompletionStage<?> stage
+                                    ? stage.thenApply(Object.class::cast)
+                                    : CompletableFuture.completedFuture(value);
+                        } catch (Exception e) {
+                            return CompletableFuture.<Object>failedFuture(e);
+                        }
+                    }, throttleExecutor);
+        };
+    }
+
+    private DataFetcherResult<Object> overBudget(DataFetchingEnvironment environment, QueryCost cost) {
+        return DataFetcherResult.newResult()
+                .error(GraphqlErrorBuilder.newError(environment)
+                        .message("The cost of the query (%d) exceeds the budget of %d", cost.total(), maxCost)
+                        .errorType(ErrorType.BAD_REQUEST)
+                        .extensions(Map.of(COST_EXTENSION, cost.toMap(), "maxCost", maxCost))
+                        .build())
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        if (!(state instanceof CostState costState) || costState.fields.isEmpty()) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        return CompletableFuture.completedFuture(ExecutionResultImpl.newExecutionResult()
+                .from(executionResult)
+                .addExtension(COST_EXTENSION, costState.toMap(maxCost))
+                .build());
+    }
+
+    /**
+     * Runs the data fetcher while holding a throttle permit, released once its value, possibly asynchronous, is resolved.
+     */
+    private Object throttled(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment) throws Exception {
+        boolean released = false;
+        try {
+            Object value = dataFetcher.get(environment);
+            if (value instanceof CompletionStage<?> stage) {
+                released = true;
+                return stage.whenComplete((result, error) -> throttle.release());
+            }
+            return value;
+        } finally {
+            if (!released) {
+                throttle.release();
+            }
+        }
+    }
+
+    private static int countJoins(DataFetchingFieldSelectionSet selectionSet) {
+        int joins = 0;
+        for (SelectedField field : selectionSet.getFields()) {
+            if (field.getArguments().get(JOIN_ARGUMENT) != null) {
+                joins++;
+            }
+        }
+        return joins;
+    }
+}
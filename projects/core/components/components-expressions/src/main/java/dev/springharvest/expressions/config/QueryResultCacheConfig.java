@@ -0,0 +1,46 @@
+package dev.springharvest.expressions.config;
+
+import dev.springharvest.shared.cache.CaffeineQueryResultCache;
+import dev.springharvest.shared.cache.EntityDependencies;
+import dev.springharvest.shared.cache.QueryResultCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * This class is used to configure the cache of the results of the searches and counts.
+ * <p>
+ * The cache is disabled until its maximum size is set. Another implementation of {@link QueryResultCache} can be plugged
+ * in by declaring it as a bean.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ */
+@Configuration
+public class QueryResultCacheConfig {
+
+    /**
+     * The default cache of the results, backed by Caffeine. The results of an entity are invalidated when the entity or
+     * one of the entities reachable through its associations is written.
+     *
+     * @param maxSize The maximum number of results kept in the cache, 0 to disable it.
+     * @param ttlMillis The time a result is kept after it was loaded, in milliseconds, 0 to keep it until it is evicted or invalidated.
+     * @param entityManagerFactory The entity manager factory, whose metamodel tells which entities an entity joins.
+     * @return the query result cache
+     */
+    @Bean
+    @ConditionalOnMissingBean(QueryResultCache.class)
+    CaffeineQueryResultCache queryResultCache(@Value("${springharvest.expressions.result-cache.max-size:0}") long maxSize,
+                                              @Value("${springharvest.expressions.result-cache.ttl-ms:60000}") long ttlMillis,
+                                              ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new CaffeineQueryResultCache(maxSize, Duration.ofMillis(ttlMillis), entityClass -> {
+            EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+            return factory != null ? EntityDependencies.of(factory.getMetamodel(), entityClass) : Set.of(entityClass);
+        });
+    }
+}
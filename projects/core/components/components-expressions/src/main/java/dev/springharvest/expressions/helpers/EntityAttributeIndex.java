@@ -0,0 +1,191 @@
+package dev.springharvest.expressions.helpers;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Id;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the attributes of the entities, built once and read on every query.
+ * <p>
+ * The index is filled at startup from the JPA {@link Metamodel}, which covers every entity, mapped superclass
+ * (e.g., BaseEntity) and embeddable known to the persistence unit. The classes that are not managed by JPA are indexed
+ * through reflection the first time they are requested, and are then served from the index as well.
+ * For each class the index holds the attributes (type, field, persistent kind), the column overrides and the id attribute,
+ * so that no reflection is needed while building or mapping a query.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see Metamodel
+ * @since 1.0
+ */
+public final class EntityAttributeIndex {
+
+    private static final EntityAttributeIndex SHARED = new EntityAttributeIndex();
+
+    private final Map<Class<?>, EntityAttributes> entities = new ConcurrentHashMap<>();
+
+    EntityAttributeIndex() {
+    }
+
+    /**
+     * @return The index shared by the TypedQueryBuilder and the entity mappers.
+     */
+    public static EntityAttributeIndex shared() {
+        return SHARED;
+    }
+
+    /**
+     * Indexes every type managed by the given metamodel, replacing any previous entry for the same class.
+     *
+     * @param metamodel The metamodel of the persistence unit.
+     */
+    public void index(Metamodel metamodel) {
+        for (ManagedType<?> managedType : metamodel.getManagedTypes()) {
+            Class<?> javaType = managedType.getJavaType();
+            if (javaType != null) {
+                entities.put(javaType, EntityAttributes.of(javaType, managedType));
+            }
+        }
+    }
+
+    /**
+     * Returns the attributes of the given class, indexing the class through reflection if it is not indexed yet.
+     *
+     * @param clazz The class of the entity.
+     * @return The attributes of the class.
+     */
+    public EntityAttributes of(Class<?> clazz) {
+        return entities.computeIfAbsent(clazz, c -> EntityAttributes.of(c, null));
+    }
+
+    /**
+     * An attribute of an entity.
+     *
+     * @param name The name of the attribute.
+     * @param javaType The type of the attribute, as resolved by the metamodel when the class is managed.
+     * @param field The field holding the attribute, made accessible, or null if it cannot be made accessible (e.g. when its
+     *              package is not opened by its module), in which case the attribute is read and written through its
+     *              accessors.
+     * @param persistentType The persistent kind of the attribute (e.g., BASIC, EMBEDDED, MANY_TO_ONE), or null if the
+     *                       class is not managed by JPA.
+     */
+    public record Attribute(String name,
+                            Class<?> javaType,
+                            Field field,
+                            jakarta.persistence.metamodel.Attribute.PersistentAttributeType persistentType) {
+
+        /**
+         * @return true if the attribute is known to the metamodel, false otherwise.
+         */
+        public boolean isManaged() {
+            return persistentType != null;
+        }
+
+        /**
+         * @return true if the attribute is an embeddable or an association, false otherwise.
+         */
+        public boolean isComplex() {
+            return persistentType != null && persistentType != jakarta.persistence.metamodel.Attribute.PersistentAttributeType.BASIC;
+        }
+    }
+
+    /**
+     * The attributes of an entity.
+     *
+     * @param javaType The class of the entity.
+     * @param attributes The attributes of the entity and its superclasses, keyed by name.
+     * @param columnOverrides The column names of the overridden attributes, keyed by attribute name.
+     * @param idAttribute The name of the id attribute (or of its overriding column), or null if there is none.
+     */
+    public record EntityAttributes(Class<?> javaType,
+                                   Map<String, Attribute> attributes,
+                                   Map<String, String> columnOverrides,
+                                   String idAttribute) {
+
+        /**
+         * @param name The name of the attribute.
+         * @return The attribute, or null if the entity has no such attribute.
+         */
+        public Attribute attribute(String name) {
+            return attributes.get(name);
+        }
+
+        /**
+         * @param name The name of the attribute.
+         * @return true if an {@link AttributeOverride} applies to the attribute, false otherwise.
+         */
+        public boolean isOverridden(String name) {
+            return columnOverrides.containsKey(name);
+        }
+
+        /**
+         * @param name The name of the attribute.
+         * @return The overriding column name if the attribute is overridden, otherwise the name itself.
+         */
+        public String actualName(String name) {
+            return columnOverrides.getOrDefault(name, name);
+        }
+
+        /**
+         * Builds the attributes of a class from its fields and annotations, completed by the metamodel when available.
+         *
+         * @param clazz The class of the entity.
+         * @param managedType The managed type of the class, or null if the class is not managed by JPA.
+         * @return The attributes of the class.
+         */
+        static EntityAttributes of(Class<?> clazz, ManagedType<?> managedType) {
+            Map<String, Attribute> attributes = new HashMap<>();
+            Map<String, String> columnOverrides = new HashMap<>();
+            String idAttribute = null;
+
+            // The closest declaration wins, as when walking the hierarchy up from the class
+            for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!attributes.containsKey(field.getName())) {
+                        Field accessibleField = field.trySetAccessible() ? field : null;
+                        attributes.put(field.getName(), new Attribute(field.getName(), field.getType(), accessibleField, null));
+                    }
+                    if (idAttribute == null && field.isAnnotationPresent(Id.class)) {
+                        idAttribute = field.getName();
+                    }
+                }
+                for (AttributeOverride override : current.getDeclaredAnnotationsByType(AttributeOverride.class)) {
+                    columnOverrides.putIfAbsent(override.name(), override.column().name());
+                }
+            }
+
+            if (managedType != null) {
+                for (jakarta.persistence.metamodel.Attribute<?, ?> managedAttribute : managedType.getAttributes()) {
+                    Attribute attribute = attributes.get(managedAttribute.getName());
+                    attributes.put(managedAttribute.getName(), new Attribute(
+                            managedAttribute.getName(),
+                            managedAttribute.getJavaType() != null ? managedAttribute.getJavaType() : attribute != null ? attribute.javaType() : null,
+                            attribute != null ? attribute.field() : null,
+                            managedAttribute.getPersistentAttributeType()));
+                    if (managedAttribute instanceof SingularAttribute<?, ?> singularAttribute && singularAttribute.isId()) {
+                        idAttribute = singularAttribute.getName();
+                    }
+                }
+            }
+
+            // Only the overrides declared on the class itself rename its id
+            if (idAttribute != null) {
+                for (AttributeOverride override : clazz.getAnnotationsByType(AttributeOverride.class)) {
+                    if (override.name().equals(idAttribute)) {
+                        idAttribute = override.column().name();
+                        break;
+                    }
+                }
+            }
+
+            return new EntityAttributes(clazz, Collections.unmodifiableMap(attributes), Collections.unmodifiableMap(columnOverrides), idAttribute);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package dev.springharvest.expressions.helpers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A filter map compiled into a tree of operators and resolved attribute paths.
+ * <p>
+ * A plan only depends on the shape of the filter (its keys, operators and nesting), never on the values it holds.
+ * The values are read from the filter map of the current request when the plan is applied, which allows the same plan
+ * to be reused by every request that shares its shape.
+ *
+ * @param root The root group of the plan, compiled from the top level of the filter map.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see FilterPlanCache
+ * @since 1.0
+ */
+public record FilterPlan(Group root) {
+
+    /**
+     * A node of the plan. Every node reads its values from the filter value found at the same place in the filter map.
+     */
+    public sealed interface Node permits Group, Logical, Not, Condition {
+    }
+
+    /**
+     * The entries of a filter map combined with the given operator. An empty group matches everything.
+     *
+     * @param operator The operator used to combine the children (e.g., AND, OR).
+     * @param children The nodes of the entries, in the order of the filter map.
+     */
+    public record Group(Operator operator, List<Entry> children) implements Node {
+    }
+
+    /**
+     * An entry of a group, i.e. the node compiled from the value of a key of the filter map.
+     *
+     * @param key The key of the filter map (e.g., "title", "author", "or").
+     * @param node The node compiled from the value of the key.
+     */
+    public record Entry(String key, Node node) {
+    }
+
+    /**
+     * A list of sub-filters combined with a compound operator (e.g., "or": [{...}, {...}]).
+     *
+     * @param operator The compound operator (e.g., AND, OR).
+     * @param children The groups of the sub-filters, in the order of the list.
+     */
+    public record Logical(Operator operator, List<Group> children) implements Node {
+    }
+
+    /**
+     * The negation of a sub-filter (e.g., "not": {...}).
+     *
+     * @param child The group of the negated sub-filter.
+     */
+    public record Not(Group child) implements Node {
+    }
+
+    /**
+     * A condition on a simple field.
+     * <p>
+     * The path to the field is resolved against the deepest join matching its parent segments, if any, otherwise against
+     * the root of the query.
+     *
+     * @param fieldName The actual name of the field, once attribute overrides are applied.
+     * @param fieldType The type of the field.
+     * @param parentSegments The segments of the path leading to the field (e.g., ["author", "pet"]).
+     * @param joinAlias The alias of the deepest join covering the parent segments, or null if there is none.
+     * @param joinDepth The number of parent segments covered by the join.
+     * @param operator The operator applied to the field, or null if the value must be matched as is.
+     */
+    public record Condition(String fieldName,
+                            Class<?> fieldType,
+                            List<String> parentSegments,
+                            String joinAlias,
+                            int joinDepth,
+                            Operator operator) implements Node {
+
+        public Condition {
+            parentSegments = List.copyOf(parentSegments);
+        }
+
+        /**
+         * Reads the value of this condition from the filter value it was compiled from.
+         *
+         * @param filterValue The value of the key of this condition in the filter map.
+         * @return The value to match against the field.
+         */
+        @SuppressWarnings("unchecked")
+        public Object valueOf(Object filterValue) {
+            return operator == null ? filterValue : ((Map<String, Object>) filterValue).get(operator.getName());
+        }
+    }
+
+    /**
+     * The key under which a plan is cached.
+     *
+     * @param rootClass The class of the root entity.
+     * @param keyClass The class of the key of the root entity.
+     * @param joinAliases The aliases of the joins applied to the root (e.g., "author", "author.pet").
+     * @param shape The shape of the filter map, without its values.
+     */
+    public record Key(Class<?> rootClass, Class<?> keyClass, Set<String> joinAliases, String shape) {
+
+        public Key {
+            joinAliases = Set.copyOf(joinAliases);
+        }
+    }
+
+    /**
+     * Computes the shape of a filter map, i.e. its keys and nesting without the values.
+     * <p>
+     * Two filter maps with the same shape compile to the same plan. For example, {"title": {"containsic": "cat"}} and
+     * {"title": {"containsic": "ham"}} both have the shape {title:{containsic:?}}.
+     *
+     * @param filterMap The filter map.
+     * @return The shape of the filter map.
+     */
+    public static String shapeOf(Map<String, Object> filterMap) {
+        StringBuilder shape = new StringBuilder();
+        appendShape(shape, filterMap);
+        return shape.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendShape(StringBuilder shape, Map<String, Object> filterMap) {
+        shape.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : filterMap.entrySet()) {
+            if (!first) {
+                shape.append(',');
+            }
+            first = false;
+            shape.append(entry.getKey()).append(':');
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                appendShape(shape, (Map<String, Object>) value);
+            } else if (value instanceof List<?> list && !list.isEmpty() && list.getFirst() instanceof Map) {
+                // A list of sub-filters, as opposed to a list of values (e.g., "in": [1, 2])
+                shape.append('[');
+                for (Object subFilter : list) {
+                    appendShape(shape, (Map<String, Object>) subFilter);
+                }
+                shape.append(']');
+            } else {
+                shape.append('?');
+            }
+        }
+        shape.append('}');
+    }
+}
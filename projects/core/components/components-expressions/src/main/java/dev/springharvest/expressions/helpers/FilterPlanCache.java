@@ -0,0 +1,116 @@
+package dev.springharvest.expressions.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A bounded LRU cache of compiled filter plans, keyed by filter shape.
+ * <p>
+ * The cache is shared by every request and is safe to use concurrently. Once the maximum size is reached, the least
+ * recently used plan is evicted. A maximum size of 0 disables the cache, every plan is then compiled on demand.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see FilterPlan
+ * @since 1.0
+ */
+public class FilterPlanCache {
+
+    /**
+     * The default maximum number of plans kept in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private final int maxSize;
+    private final Map<FilterPlan.Key, FilterPlan> plans;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public FilterPlanCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The maximum size of the filter plan cache cannot be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FilterPlan.Key, FilterPlan> eldest) {
+                if (size() > FilterPlanCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the plan cached under the given key, compiling and caching it if it is not present.
+     * The compiler is called outside the lock, so two concurrent misses on the same key may both compile the plan.
+     *
+     * @param key The key of the plan.
+     * @param compiler The function used to compile the plan on a miss.
+     * @return The cached or freshly compiled plan.
+     */
+    public FilterPlan get(FilterPlan.Key key, Function<FilterPlan.Key, FilterPlan> compiler) {
+        FilterPlan plan;
+        synchronized (plans) {
+            plan = plans.get(key);
+        }
+        if (plan != null) {
+            hits.incrementAndGet();
+            return plan;
+        }
+        misses.incrementAndGet();
+        plan = compiler.apply(key);
+        if (maxSize > 0) {
+            synchronized (plans) {
+                plans.putIfAbsent(key, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Removes every plan from the cache. The metrics are kept.
+     */
+    public void clear() {
+        synchronized (plans) {
+            plans.clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics of the cache.
+     *
+     * @return The metrics of the cache.
+     */
+    public Stats stats() {
+        int size;
+        synchronized (plans) {
+            size = plans.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), size, maxSize);
+    }
+
+    /**
+     * A snapshot of the metrics of a {@link FilterPlanCache}.
+     *
+     * @param hits The number of requests served by a cached plan.
+     * @param misses The number of requests that had to compile their plan.
+     * @param evictions The number of plans evicted to respect the maximum size.
+     * @param size The number of plans currently cached.
+     * @param maxSize The maximum number of plans kept in the cache.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+
+        /**
+         * @return The ratio of requests served by a cached plan, between 0 and 1.
+         */
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+}
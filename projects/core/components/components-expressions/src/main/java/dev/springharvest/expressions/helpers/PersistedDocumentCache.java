@@ -0,0 +1,112 @@
+package dev.springharvest.expressions.helpers;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded LRU cache of parsed and validated GraphQL documents, keyed by the hash of their persisted query or by their
+ * query text.
+ * <p>
+ * The cache is shared by every request and is safe to use concurrently. Once the maximum size is reached, the least
+ * recently used document is evicted. The documents with parse or validation errors are not cached. A maximum size of 0
+ * disables the cache, every document is then parsed and validated on demand.
+ * <p>
+ * As a cached document is the same instance for every request sending it, the selections of its fields are the same
+ * instances too, which allows the work derived from them to be cached as well.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see dev.springharvest.expressions.config.PersistedQueryDocumentProvider
+ * @since 1.0
+ */
+public class PersistedDocumentCache implements PersistedQueryCache {
+
+    /**
+     * The default maximum number of documents kept in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private final int maxSize;
+    private final Map<Object, PreparsedDocumentEntry> documents;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PersistedDocumentCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The maximum size of the persisted document cache cannot be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.documents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, PreparsedDocumentEntry> eldest) {
+                if (size() > PersistedDocumentCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the document cached under the given key, parsing and validating it if it is not present.
+     * <p>
+     * For a persisted query sent without its query text, the miss raises a PersistedQueryNotFound error, upon which the
+     * client sends the query again with its text.
+     *
+     * @param key The hash of the persisted query, or the query text.
+     * @param executionInput The input of the execution.
+     * @param onCacheMiss The function parsing and validating the query text on a miss.
+     * @return The cached or freshly parsed document.
+     */
+    @Override
+    public PreparsedDocumentEntry getPersistedQueryDocument(Object key, ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) {
+        PreparsedDocumentEntry entry;
+        synchronized (documents) {
+            entry = documents.get(key);
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        // The marker stands for a query sent without its text, which the miss reports as not found
+        String query = executionInput.getQuery();
+        entry = onCacheMiss.apply(PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query) ? null : query);
+        if (maxSize > 0 && !entry.hasErrors()) {
+            synchronized (documents) {
+                documents.putIfAbsent(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Removes every document from the cache. The metrics are kept.
+     */
+    public void clear() {
+        synchronized (documents) {
+            documents.clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics of the cache.
+     *
+     * @return The metrics of the cache.
+     */
+    public FilterPlanCache.Stats stats() {
+        int size;
+        synchronized (documents) {
+            size = documents.size();
+        }
+        return new FilterPlanCache.Stats(hits.get(), misses.get(), evictions.get(), size, maxSize);
+    }
+}
@@ -0,0 +1,95 @@
+package dev.springharvest.expressions.helpers;
+
+import jakarta.persistence.criteria.Join;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Holds the state of a single query invocation in the TypedQueryBuilder.
+ * <p>
+ * A new context is created for every call to parseFilterExpression and handed down to every helper that needs the joins,
+ * the paging elements to include or the already resolved paths. Nothing is shared between invocations, which makes
+ * concurrent searches safe.
+ * The joins and the paging elements are copied on creation and cannot be modified. The resolved paths are only memoized
+ * for the root the joins belong to, which is why {@link #withJoins(Map)} always starts from an empty cache.
+ *
+ * @param joins The joins applied to the current root, keyed by their path (e.g., "author.pet").
+ * @param pagingElementsToInclude The paging elements requested by the client (e.g., "total", "currentPage").
+ * @param resolvedPaths The paths already resolved against the current root, keyed by their field (e.g., "Book.author.name").
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see PathObject
+ * @since 1.0
+ */
+public record QueryContext(
+        Map<String, Join<?, ?>> joins,
+        Set<String> pagingElementsToInclude,
+        Map<String, PathObject> resolvedPaths
+) {
+
+    public QueryContext {
+        joins = joins == null ? Map.of() : Map.copyOf(joins);
+        pagingElementsToInclude = pagingElementsToInclude == null ? Set.of() : Set.copyOf(pagingElementsToInclude);
+        resolvedPaths = resolvedPaths == null ? new HashMap<>() : resolvedPaths;
+    }
+
+    /**
+     * Creates a context without joins for the provided paging elements.
+     *
+     * @param pagingElementsToInclude The paging elements requested by the client.
+     * @return A new QueryContext.
+     */
+    public static QueryContext of(Collection<String> pagingElementsToInclude) {
+        return new QueryContext(null, pagingElementsToInclude == null ? null : Set.copyOf(pagingElementsToInclude), null);
+    }
+
+    /**
+     * Creates a copy of this context bound to a new set of joins.
+     * The resolved paths are not carried over since they belong to the previous root.
+     *
+     * @param joins The joins applied to the new root.
+     * @return A new QueryContext sharing the paging elements of this one.
+     */
+    public QueryContext withJoins(Map<String, Join<?, ?>> joins) {
+        return new QueryContext(joins, pagingElementsToInclude, null);
+    }
+
+    /**
+     * Checks whether the given paging element was requested by the client.
+     *
+     * @param pagingElement The paging element (e.g., "total", "totalPages").
+     * @return true if the element was requested, false otherwise.
+     */
+    public boolean includes(String pagingElement) {
+        return pagingElementsToInclude.contains(pagingElement);
+    }
+
+    /**
+     * Checks whether the client requested no paging element at all.
+     *
+     * @return true if no paging element was requested, false otherwise.
+     */
+    public boolean hasNoPagingElements() {
+        return pagingElementsToInclude.isEmpty();
+    }
+
+    /**
+     * Returns the path of the given field, resolving it only once per context.
+     *
+     * @param field The field to resolve (e.g., "Book.author.name").
+     * @param resolver The function used to resolve the field the first time it is requested.
+     * @return The resolved path and its alias.
+     */
+    public PathObject resolvePath(String field, Function<String, PathObject> resolver) {
+        PathObject pathObject = resolvedPaths.get(field);
+        if (pathObject == null) {
+            pathObject = resolver.apply(field);
+            resolvedPaths.put(field, pathObject);
+        }
+        return pathObject;
+    }
+}
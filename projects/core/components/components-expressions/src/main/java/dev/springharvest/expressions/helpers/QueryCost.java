@@ -0,0 +1,175 @@
+package dev.springharvest.expressions.helpers;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The estimated cost of a search, computed from its GraphQL arguments before any query is built.
+ * <p>
+ * The cost adds the rows the search may return, the conditions of its filter, its joins and its aggregates:
+ * <ul>
+ *     <li>Each row of the requested page costs {@value #ROW_WEIGHT}. A search without a page size may return every row of
+ *     the table and costs {@value #UNPAGED_ROWS} rows. A search without paging (e.g., a count) returns a single row.</li>
+ *     <li>Each condition costs {@value #INDEXABLE_CONDITION_WEIGHT}, or {@value #UNINDEXABLE_CONDITION_WEIGHT} when its
+ *     operator cannot use an index (a leading wildcard or a lower-cased column), multiplied by the depth of the condition
+ *     in the and/or/not tree. An "in" condition costs as many conditions as it has values.</li>
+ *     <li>Each join, i.e. each selected association with a join argument or filtered association, costs
+ *     {@value #JOIN_WEIGHT}.</li>
+ *     <li>Each aggregated or grouped field costs {@value #AGGREGATE_WEIGHT}.</li>
+ * </ul>
+ *
+ * @param rows The number of rows the search may return.
+ * @param conditions The weighted cost of the conditions of the filter.
+ * @param joins The number of joins.
+ * @param aggregates The number of aggregated or grouped fields.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @since 1.0
+ */
+public record QueryCost(long rows, long conditions, int joins, int aggregates) {
+
+    /**
+     * The names of the arguments of the searches.
+     */
+    public static final String FILTER_ARGUMENT = "filter";
+    public static final String PAGING_ARGUMENT = "paging";
+    public static final String AGGREGATES_ARGUMENT = "aggregates";
+
+    public static final long ROW_WEIGHT = 1;
+    public static final long UNPAGED_ROWS = 10_000;
+    public static final long INDEXABLE_CONDITION_WEIGHT = 1;
+    public static final long UNINDEXABLE_CONDITION_WEIGHT = 25;
+    public static final long JOIN_WEIGHT = 50;
+    public static final long AGGREGATE_WEIGHT = 25;
+
+    /**
+     * The operators that cannot use a B-tree index, as they match a leading wildcard (e.g., '%abc') or a lower-cased column.
+     */
+    private static final Set<Operator> UNINDEXABLE_OPERATORS = EnumSet.of(Operator.EQUALSIC, Operator.CONTAINS, Operator.CONTAINSIC,
+            Operator.STARTSIC, Operator.ENDS, Operator.ENDSIC);
+
+    private static final Map<String, Operator> OPERATORS = new HashMap<>();
+
+    static {
+        for (Operator operator : Operator.values()) {
+            OPERATORS.put(operator.getName(), operator);
+        }
+    }
+
+    /**
+     * Whether the arguments are the ones of a search, i.e. hold a filter, a paging or aggregates.
+     *
+     * @param arguments The arguments of the GraphQL field.
+     * @return true if the field is a search.
+     */
+    public static boolean isSearch(Map<String, Object> arguments) {
+        return arguments.containsKey(FILTER_ARGUMENT) || arguments.containsKey(PAGING_ARGUMENT) || arguments.containsKey(AGGREGATES_ARGUMENT);
+    }
+
+    /**
+     * Computes the cost of a search from its arguments.
+     *
+     * @param arguments The arguments of the GraphQL field (e.g., filter, paging, aggregates).
+     * @param selectedJoins The number of associations of the selection set with a join argument.
+     * @return The cost of the search.
+     */
+    @SuppressWarnings("unchecked")
+    public static QueryCost of(Map<String, Object> arguments, int selectedJoins) {
+        long rows = 1;
+        if (arguments.containsKey(PAGING_ARGUMENT)) {
+            rows = arguments.get(PAGING_ARGUMENT) instanceof Map<?, ?> paging && paging.get("size") instanceof Number size
+                    ? Math.max(size.longValue(), 0)
+                    : UNPAGED_ROWS;
+        }
+
+        long[] filterCost = new long[2]; // The weighted conditions and the joins of the filter
+        if (arguments.get(FILTER_ARGUMENT) instanceof Map<?, ?> filter) {
+            addFilterCost((Map<String, Object>) filter, 1, filterCost);
+        }
+
+        int aggregates = 0;
+        if (arguments.get(AGGREGATES_ARGUMENT) instanceof Map<?, ?> aggregatesMap) {
+            for (Object fields : aggregatesMap.values()) {
+                if (fields instanceof Collection<?> collection) {
+                    aggregates += collection.size();
+                }
+            }
+        }
+        return new QueryCost(rows, filterCost[0], selectedJoins + (int) filterCost[1], aggregates);
+    }
+
+    /**
+     * @return The total cost of the search.
+     */
+    public long total() {
+        return rows * ROW_WEIGHT + conditions + joins * JOIN_WEIGHT + aggregates * AGGREGATE_WEIGHT;
+    }
+
+    /**
+     * @return The detail of the cost, e.g. to report it in the extensions of a GraphQL response.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("rows", rows);
+        map.put("conditions", conditions);
+        map.put("joins", joins);
+        map.put("aggregates", aggregates);
+        map.put("total", total());
+        return map;
+    }
+
+    /**
+     * Adds the cost of the entries of a filter map, e.g. {title: {containsic: "a"}, author: {name: {eq: "b"}}, or: [...]}.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addFilterCost(Map<String, Object> filter, int depth, long[] cost) {
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            Operator operator = OPERATORS.get(entry.getKey());
+            Object value = entry.getValue();
+            if (operator != null && operator.getKind() == Operator.Kind.COMPOUND && value instanceof List<?> subFilters) {
+                for (Object subFilter : subFilters) {
+                    if (subFilter instanceof Map<?, ?> map) {
+                        addFilterCost((Map<String, Object>) map, depth + 1, cost);
+                    }
+                }
+            } else if (operator == Operator.NOT && value instanceof Map<?, ?> map) {
+                addFilterCost((Map<String, Object>) map, depth + 1, cost);
+            } else if (value instanceof Map<?, ?> map && !map.isEmpty()) {
+                if (isExpression(map)) {
+                    addExpressionCost(map, depth, cost);
+                } else {
+                    // A filter on an association, which is joined to the root
+                    cost[1]++;
+                    addFilterCost((Map<String, Object>) map, depth, cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the cost of the conditions of an expression, e.g. {containsic: "a", in: ["b", "c"]}.
+     */
+    private static void addExpressionCost(Map<?, ?> expression, int depth, long[] cost) {
+        for (Map.Entry<?, ?> entry : expression.entrySet()) {
+            Operator operator = OPERATORS.get(entry.getKey());
+            long weight = UNINDEXABLE_OPERATORS.contains(operator) ? UNINDEXABLE_CONDITION_WEIGHT : INDEXABLE_CONDITION_WEIGHT;
+            long count = operator == Operator.IN && entry.getValue() instanceof Collection<?> values ? Math.max(values.size(), 1) : 1;
+            cost[0] += weight * count * depth;
+        }
+    }
+
+    private static boolean isExpression(Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Operator operator = OPERATORS.get(entry.getKey());
+            if (operator == null || operator.getKind() == Operator.Kind.COMPOUND || operator == Operator.NOT || entry.getValue() instanceof Map) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package dev.springharvest.expressions.helpers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The results of a search in the STREAM format: the same shape as the COLUMNAR format, but the rows are read from the
+ * database while they are written.
+ * <p>
+ * The query is only executed when the rows are iterated, on its own entity manager, and its rows are scrolled with the
+ * configured JDBC fetch size. When the results are serialized by Jackson (e.g., as the JSON scalar of a GraphQL
+ * response), each row is written to the response as soon as it is read, so that the memory used does not depend on
+ * the number of rows. Each iteration executes the query again.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see dev.springharvest.shared.constants.ResultFormat
+ * @since 1.0
+ */
+public final class StreamedColumnarData implements JsonSerializable {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CriteriaQuery<Tuple> query;
+    private final int firstResult;
+    private final int maxResults;
+    private final int fetchSize;
+    private final List<String> columns;
+    private final Map<String, Object> paging;
+
+    /**
+     * @param entityManagerFactory The factory of the entity manager executing the query.
+     * @param query The query, which must not be modified afterward.
+     * @param firstResult The position of the first row, or -1 to read from the first row.
+     * @param maxResults The maximum number of rows, or -1 to read every row.
+     * @param fetchSize The number of rows fetched from the database at once.
+     * @param columns The aliases of the selections of the query.
+     * @param paging The paging of the results, completed with the number of rows once they are read.
+     */
+    public StreamedColumnarData(EntityManagerFactory entityManagerFactory, CriteriaQuery<Tuple> query, int firstResult, int maxResults, int fetchSize, List<String> columns, Map<String, Object> paging) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.query = query;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.fetchSize = fetchSize;
+        this.columns = columns;
+        this.paging = paging;
+    }
+
+    /**
+     * @return The aliases of the columns, in the order of the values of the rows.
+     */
+    public List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Executes the query and passes each row to the action as it is read, as an array of the values of the columns.
+     *
+     * @param action The action applied to each row.
+     * @return The number of rows read.
+     */
+    public int forEachRow(Consumer<Object[]> action) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            // Some drivers (e.g., PostgreSQL) only fetch the rows in batches inside a transaction
+            entityManager.getTransaction().begin();
+            TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+            if (firstResult > 0)
+                typedQuery.setFirstResult(firstResult);
+            if (maxResults >= 0)
+                typedQuery.setMaxResults(maxResults);
+            typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+            typedQuery.setHint(HibernateHints.HINT_READ_ONLY, true);
+            int count = 0;
+            try (Stream<Tuple> rows = typedQuery.getResultStream()) {
+                for (Tuple row : (Iterable<Tuple>) rows::iterator) {
+                    action.accept(row.toArray());
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            if (entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Returns the paging of the results. Its currentPageCount is -1, as the number of rows is only known once they are
+     * read, e.g. from {@link #forEachRow(Consumer)}.
+     *
+     * @return The paging of the results.
+     */
+    public Map<String, Object> paging() {
+        return paging;
+    }
+
+    /**
+     * Writes the columns, then the rows while they are read, then the paging with the number of rows written.
+     */
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartObject();
+        writeFields(generator, serializers);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        WritableTypeId typeId = typeSerializer.writeTypePrefix(generator, typeSerializer.typeId(this, JsonToken.START_OBJECT));
+        writeFields(generator, serializers);
+        typeSerializer.writeTypeSuffix(generator, typeId);
+    }
+
+    private void writeFields(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        serializers.defaultSerializeField("columns", columns, generator);
+        generator.writeArrayFieldStart("rows");
+        int count;
+        try {
+            count = forEachRow(row -> {
+                try {
+                    serializers.defaultSerializeValue(row, generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        Map<String, Object> pagingWithCount = new HashMap<>(paging);
+        pagingWithCount.put("currentPageCount", count);
+        serializers.defaultSerializeField("paging", pagingWithCount, generator);
+    }
+}
@@ -0,0 +1,82 @@
+package dev.springharvest.expressions.helpers;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A view of a tuple without its trailing elements.
+ * <p>
+ * Used to hide the technical columns added to a projection (e.g., the window total of a paged search) from the mappers,
+ * which map every element of a tuple to the entity or the map they build.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @since 1.0
+ */
+public final class TrimmedTuple implements Tuple {
+
+    private final Tuple tuple;
+    private final List<TupleElement<?>> elements;
+
+    private TrimmedTuple(Tuple tuple, int trailingElements) {
+        this.tuple = tuple;
+        List<TupleElement<?>> tupleElements = tuple.getElements();
+        this.elements = tupleElements.subList(0, tupleElements.size() - trailingElements);
+    }
+
+    /**
+     * Trims the given number of trailing elements from every tuple of the list.
+     *
+     * @param tuples The tuples to trim.
+     * @param trailingElements The number of trailing elements to hide.
+     * @return The trimmed tuples.
+     */
+    public static List<Tuple> trim(List<Tuple> tuples, int trailingElements) {
+        return tuples.stream().<Tuple>map(tuple -> new TrimmedTuple(tuple, trailingElements)).toList();
+    }
+
+    @Override
+    public <X> X get(TupleElement<X> tupleElement) {
+        return tuple.get(tupleElement);
+    }
+
+    @Override
+    public <X> X get(String alias, Class<X> type) {
+        return tuple.get(alias, type);
+    }
+
+    @Override
+    public Object get(String alias) {
+        return tuple.get(alias);
+    }
+
+    @Override
+    public <X> X get(int i, Class<X> type) {
+        checkIndex(i);
+        return tuple.get(i, type);
+    }
+
+    @Override
+    public Object get(int i) {
+        checkIndex(i);
+        return tuple.get(i);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(tuple.toArray(), elements.size());
+    }
+
+    @Override
+    public List<TupleElement<?>> getElements() {
+        return elements;
+    }
+
+    private void checkIndex(int i) {
+        if (i >= elements.size()) {
+            throw new IllegalArgumentException("Index " + i + " is out of the bounds of the tuple (" + elements.size() + " elements)");
+        }
+    }
+}
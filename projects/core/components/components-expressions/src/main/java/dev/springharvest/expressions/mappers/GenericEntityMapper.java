@@ -1,10 +1,7 @@
 package dev.springharvest.expressions.mappers;
 
 import jakarta.persistence.Tuple;
-import jakarta.persistence.TupleElement;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,70 +19,57 @@ import java.util.Map;
  */
 public class GenericEntityMapper<T> implements EntityMapper<T> {
 
+    /**
+     * Maps the tuples through the compiled plan of their shape, so that the aliases are resolved once per shape
+     * instead of once per element of every row.
+     *
+     * @see TupleMappingPlan
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public List<T> mapTuplesToEntity(List<Tuple> rawList, Class<T> entityClass) {
-        List<T> entities = new ArrayList<>();
+        List<T> entities = new ArrayList<>(rawList.size());
 
         try {
             if (!rawList.isEmpty()) {
+                // Every tuple of a query has the same shape
+                TupleMappingPlan plan = TupleMappingPlan.of(rawList.getFirst(), entityClass);
                 for (Tuple tuple : rawList) {
-                    // Create a new instance of the entity for each tuple
-                    T entity = entityClass.getDeclaredConstructor().newInstance();
-
-                    for (TupleElement<?> element : tuple.getElements()) {
-                        String elementName = element.getAlias(); // e.g., "author.pet.name"
-                        if (elementName.contains(".")) {
-                            // Handle nested fields
-                            String[] nestedFields = elementName.split("\\.");
-                            Object parentObject = entity;
-
-                            for (int i = 0; i < nestedFields.length; i++) {
-                                String fieldName = nestedFields[i];
-                                Field field = getFieldInHierarchy(parentObject.getClass(), fieldName);
-                                if (field == null) {
-                                    throw new NoSuchFieldException("Field not found: " + fieldName);
-                                }
-                                field.setAccessible(true);
-
-                                if (i == nestedFields.length - 1) {
-                                    // Last field: set the value
-                                    field.set(parentObject, tuple.get(elementName, element.getJavaType()));
-                                } else {
-                                    // Intermediate field: get or initialize nested object
-                                    Object childObject = field.get(parentObject);
-                                    if (childObject == null) {
-                                        childObject = field.getType().getDeclaredConstructor().newInstance();
-                                        field.set(parentObject, childObject);
-                                    }
-                                    parentObject = childObject;
-                                }
-                            }
-                        } else {
-                            // Handle direct fields
-                            Field field = getFieldInHierarchy(entityClass, elementName);
-                            if (field == null) {
-                                throw new NoSuchFieldException("Field not found: " + elementName);
-                            }
-                            field.setAccessible(true);
-                            field.set(entity, tuple.get(elementName, element.getJavaType()));
-                        }
-                    }
-
-                    // Add the mapped entity to the list
-                    entities.add(entity);
+                    entities.add((T) plan.map(tuple));
                 }
             }
-            else {
-                return new ArrayList<>();
-            }
-        } catch (InstantiationException | IllegalAccessException | NoSuchFieldException |
-                 InvocationTargetException | NoSuchMethodException e) {
+        } catch (IllegalAccessException | NoSuchFieldException | NoSuchMethodException e) {
             System.err.println("Error while mapping tuples to entities: " + e.getMessage());
         }
 
         return entities;
     }
 
+    /**
+     * Maps a list of database tuples to arrays of their values, in the order of their elements.
+     *
+     * @param rawList the list of tuples to map
+     * @return the values of each tuple
+     */
+    public List<Object[]> mapTuplesToArrays(List<Tuple> rawList) {
+        List<Object[]> result = new ArrayList<>(rawList.size());
+        for (Tuple tuple : rawList) {
+            result.add(tuple.toArray());
+        }
+        return result;
+    }
+
+    /**
+     * Returns read-only views of the tuples, keyed by the fields of the entity, instead of mapping them to entities.
+     *
+     * @param rawList the list of tuples to view
+     * @return the views of the tuples
+     * @see TupleRow
+     */
+    public List<TupleRow> mapTuplesToRows(List<Tuple> rawList) {
+        return TupleRow.of(rawList);
+    }
+
     @Override
     public List<Map<String, Object>> mapTuplesToMap(List<Tuple> rawList) {
         List<Map<String, Object>> result = new ArrayList<>();
@@ -109,15 +93,4 @@ public class GenericEntityMapper<T> implements EntityMapper<T> {
 
         return result;
     }
-
-    private Field getFieldInHierarchy(Class<?> clazz, String fieldName) {
-        while (clazz != null) {
-            try {
-                return clazz.getDeclaredField(fieldName);
-            } catch (NoSuchFieldException e) {
-                clazz = clazz.getSuperclass();
-            }
-        }
-        return null; // Field not found in hierarchy
-    }
 }
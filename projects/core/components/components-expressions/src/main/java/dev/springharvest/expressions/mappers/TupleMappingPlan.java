@@ -0,0 +1,228 @@
+package dev.springharvest.expressions.mappers;
+
+import dev.springharvest.expressions.helpers.EntityAttributeIndex;
+import dev.springharvest.shared.utils.AttributePath;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled plan mapping the tuples of one shape (entity class and tuple aliases) to entities.
+ * <p>
+ * The aliases are split, the fields resolved and the method handles of their setters, getters and constructors bound
+ * once per shape, so that mapping a row is a loop over the indexed values of the tuple. The plans are cached by shape.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see GenericEntityMapper
+ * @since 1.0
+ */
+final class TupleMappingPlan {
+
+    /**
+     * The maximum number of plans kept in the cache. The plans of the shapes past this limit are compiled on every use.
+     */
+    static final int MAX_CACHED_PLANS = 1024;
+
+    private static final Map<Key, TupleMappingPlan> PLANS = new ConcurrentHashMap<>();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The shape of the tuples mapped by a plan.
+     *
+     * @param entityClass The class of the entities.
+     * @param aliases The aliases of the elements of the tuples, in order.
+     */
+    record Key(Class<?> entityClass, List<String> aliases) {
+
+    }
+
+    /**
+     * An object of the entity graph that is built for each row: the entity itself (the first node) or a nested object.
+     *
+     * @param parent The index of the node holding this node, or -1 for the entity.
+     * @param constructor The constructor of the object, typed ()Object.
+     * @param getter The getter of the field of the parent holding this node, typed (Object)Object, or null for the entity.
+     * @param setter The setter of the field of the parent holding this node, typed (Object,Object)void, or null for the entity.
+     */
+    private record Node(int parent, MethodHandle constructor, MethodHandle getter, MethodHandle setter) {
+
+    }
+
+    private final Node[] nodes;
+    private final int[][] nodePaths; // For each element, the nodes to resolve before setting its value, from the entity
+    private final int[] targets; // For each element, the node holding its field
+    private final MethodHandle[] setters; // For each element, the setter of its field, typed (Object,Object)void
+
+    private TupleMappingPlan(Node[] nodes, int[][] nodePaths, int[] targets, MethodHandle[] setters) {
+        this.nodes = nodes;
+        this.nodePaths = nodePaths;
+        this.targets = targets;
+        this.setters = setters;
+    }
+
+    /**
+     * Returns the plan of the shape of the given tuple, compiling it if it is not cached.
+     *
+     * @param tuple A tuple of the shape.
+     * @param entityClass The class of the entities.
+     * @return The plan.
+     * @throws NoSuchFieldException If an alias does not match a field of the entity graph.
+     * @throws NoSuchMethodException If an object of the entity graph has no no-args constructor.
+     * @throws IllegalAccessException If a field or a constructor cannot be accessed.
+     */
+    static TupleMappingPlan of(Tuple tuple, Class<?> entityClass) throws NoSuchFieldException, NoSuchMethodException, IllegalAccessException {
+        List<TupleElement<?>> elements = tuple.getElements();
+        List<String> aliases = new ArrayList<>(elements.size());
+        for (TupleElement<?> element : elements) {
+            aliases.add(element.getAlias());
+        }
+        Key key = new Key(entityClass, aliases);
+        TupleMappingPlan plan = PLANS.get(key);
+        if (plan == null) {
+            plan = compile(key);
+            if (PLANS.size() < MAX_CACHED_PLANS) {
+                PLANS.putIfAbsent(key, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Maps a tuple of the shape of this plan to a new entity.
+     *
+     * @param tuple The tuple.
+     * @return The entity.
+     */
+    Object map(Tuple tuple) {
+        Object[] objects = new Object[nodes.length];
+        try {
+            objects[0] = nodes[0].constructor().invokeExact();
+            for (int i = 0; i < setters.length; i++) {
+                for (int node : nodePaths[i]) {
+                    if (objects[node] == null) {
+                        objects[node] = resolve(nodes[node], objects[nodes[node].parent()]);
+                    }
+                }
+                setters[i].invokeExact(objects[targets[i]], tuple.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to map the tuple", e);
+        }
+        return objects[0];
+    }
+
+    /**
+     * Returns the nested object held by the parent, creating it if the parent does not hold one yet.
+     */
+    private static Object resolve(Node node, Object parent) throws Throwable {
+        Object child = (Object) node.getter().invokeExact(parent);
+        if (child == null) {
+            child = (Object) node.constructor().invokeExact();
+            node.setter().invokeExact(parent, child);
+        }
+        return child;
+    }
+
+    private static TupleMappingPlan compile(Key key) throws NoSuchFieldException, NoSuchMethodException, IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Node> nodes = new ArrayList<>();
+        List<Class<?>> nodeClasses = new ArrayList<>();
+        Map<String, Integer> nodesByPath = new HashMap<>();
+        nodes.add(new Node(-1, constructor(lookup, key.entityClass()), null, null));
+        nodeClasses.add(key.entityClass());
+
+        int size = key.aliases().size();
+        int[][] nodePaths = new int[size][];
+        int[] targets = new int[size];
+        MethodHandle[] setters = new MethodHandle[size];
+        for (int i = 0; i < size; i++) {
+            AttributePath alias = AttributePath.of(key.aliases().get(i));
+            int[] nodePath = new int[alias.size() - 1];
+            int node = 0;
+            for (int j = 0; j < alias.size() - 1; j++) {
+                String path = alias.subPath(0, j + 1).toString();
+                Integer child = nodesByPath.get(path);
+                if (child == null) {
+                    Class<?> parentClass = nodeClasses.get(node);
+                    EntityAttributeIndex.Attribute attribute = attribute(parentClass, alias.segment(j));
+                    nodes.add(new Node(node,
+                            constructor(lookup, attribute.javaType()),
+                            getter(lookup, parentClass, attribute),
+                            setter(lookup, parentClass, attribute)));
+                    nodeClasses.add(attribute.javaType());
+                    child = nodes.size() - 1;
+                    nodesByPath.put(path, child);
+                }
+                node = child;
+                nodePath[j] = node;
+            }
+            nodePaths[i] = nodePath;
+            targets[i] = node;
+            setters[i] = setter(lookup, nodeClasses.get(node), attribute(nodeClasses.get(node), alias.last()));
+        }
+        return new TupleMappingPlan(nodes.toArray(new Node[0]), nodePaths, targets, setters);
+    }
+
+    /**
+     * Retrieves the attribute with the given name in the class hierarchy, from the {@link EntityAttributeIndex}.
+     */
+    private static EntityAttributeIndex.Attribute attribute(Class<?> clazz, String fieldName) throws NoSuchFieldException {
+        EntityAttributeIndex.Attribute attribute = EntityAttributeIndex.shared().of(clazz).attribute(fieldName);
+        if (attribute == null) {
+            throw new NoSuchFieldException("Field not found: " + fieldName);
+        }
+        return attribute;
+    }
+
+    /**
+     * Binds the getter of an attribute: its field when the index could make it accessible, its public getter otherwise.
+     */
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> clazz, EntityAttributeIndex.Attribute attribute) throws NoSuchFieldException, IllegalAccessException {
+        if (attribute.field() != null) {
+            return lookup.unreflectGetter(attribute.field()).asType(GETTER_TYPE);
+        }
+        return lookup.unreflect(accessor(clazz, accessorName("get", attribute.name()))).asType(GETTER_TYPE);
+    }
+
+    /**
+     * Binds the setter of an attribute: its field when the index could make it accessible, its public setter otherwise.
+     */
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Class<?> clazz, EntityAttributeIndex.Attribute attribute) throws NoSuchFieldException, IllegalAccessException {
+        if (attribute.field() != null) {
+            return lookup.unreflectSetter(attribute.field()).asType(SETTER_TYPE);
+        }
+        return lookup.unreflect(accessor(clazz, accessorName("set", attribute.name()), attribute.javaType())).asType(SETTER_TYPE);
+    }
+
+    private static String accessorName(String prefix, String attributeName) {
+        return prefix + Character.toUpperCase(attributeName.charAt(0)) + attributeName.substring(1);
+    }
+
+    private static Method accessor(Class<?> clazz, String name, Class<?>... parameterTypes) throws NoSuchFieldException {
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new NoSuchFieldException("Field not accessible and without public accessor " + name + " in " + clazz.getName());
+        }
+    }
+
+    private static MethodHandle constructor(MethodHandles.Lookup lookup, Class<?> clazz) throws NoSuchMethodException, IllegalAccessException {
+        var constructor = clazz.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+    }
+}
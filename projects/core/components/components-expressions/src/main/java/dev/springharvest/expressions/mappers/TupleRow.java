@@ -0,0 +1,143 @@
+package dev.springharvest.expressions.mappers;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A read-only view of a tuple, keyed by the fields of the entity the tuple was selected from.
+ * <p>
+ * The value of a field is read from the tuple on access, through an index of the tuple aliases built once per shape of
+ * tuple. A nested entity (e.g., "author" for the aliases "author.name" and "author.id") is a view of the same tuple.
+ * As a view is a {@link Map}, the default data fetchers of GraphQL resolve the fields straight from the tuple, without
+ * instantiating the entity.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see GenericEntityMapper#mapTuplesToRows(List)
+ * @since 1.0
+ */
+public final class TupleRow extends AbstractMap<String, Object> {
+
+    private final Tuple tuple;
+    private final Shape shape;
+
+    private TupleRow(Tuple tuple, Shape shape) {
+        this.tuple = tuple;
+        this.shape = shape;
+    }
+
+    /**
+     * Returns the views of the given tuples, which must share the same shape.
+     *
+     * @param tuples The tuples.
+     * @return The views of the tuples.
+     */
+    static List<TupleRow> of(List<Tuple> tuples) {
+        if (tuples.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Shape shape = Shape.of(tuples.getFirst());
+        List<TupleRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            rows.add(new TupleRow(tuple, shape));
+        }
+        return rows;
+    }
+
+    @Override
+    public Object get(Object field) {
+        Integer index = shape.indexes().get(field);
+        if (index != null) {
+            return tuple.get(index);
+        }
+        Shape nested = shape.nested().get(field);
+        return nested != null ? new TupleRow(tuple, nested) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object field) {
+        return shape.indexes().containsKey(field) || shape.nested().containsKey(field);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for (String field : shape.fields()) {
+            entries.put(field, get(field));
+        }
+        return Collections.unmodifiableMap(entries).entrySet();
+    }
+
+    /**
+     * The index of the aliases of a shape of tuple, for one level of the entity graph.
+     *
+     * @param fields The fields of this level, in the order of the tuple.
+     * @param indexes The index in the tuple of each simple field of this level.
+     * @param nested The shape of each nested entity of this level.
+     */
+    record Shape(Set<String> fields, Map<String, Integer> indexes, Map<String, Shape> nested) {
+
+        private static final int MAX_CACHED_SHAPES = 1024;
+        private static final Map<List<String>, Shape> SHAPES = new ConcurrentHashMap<>();
+
+        static Shape of(Tuple tuple) {
+            List<TupleElement<?>> elements = tuple.getElements();
+            List<String> aliases = new ArrayList<>(elements.size());
+            for (TupleElement<?> element : elements) {
+                aliases.add(element.getAlias());
+            }
+            Shape shape = SHAPES.get(aliases);
+            if (shape == null) {
+                shape = compile(aliases);
+                if (SHAPES.size() < MAX_CACHED_SHAPES) {
+                    SHAPES.putIfAbsent(aliases, shape);
+                }
+            }
+            return shape;
+        }
+
+        private static Shape compile(List<String> aliases) {
+            Map<String, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < aliases.size(); i++) {
+                indexes.put(aliases.get(i), i);
+            }
+            return compile(indexes);
+        }
+
+        /**
+         * Compiles the shape of a level from the indexes of the aliases relative to this level.
+         */
+        private static Shape compile(Map<String, Integer> aliasIndexes) {
+            Set<String> fields = new LinkedHashSet<>();
+            Map<String, Integer> indexes = new HashMap<>();
+            Map<String, Map<String, Integer>> nestedAliasIndexes = new LinkedHashMap<>();
+            aliasIndexes.entrySet().stream()
+                    .sorted(Entry.comparingByValue())
+                    .forEach(entry -> {
+                        String alias = entry.getKey();
+                        int dot = alias.indexOf('.');
+                        if (dot < 0) {
+                            fields.add(alias);
+                            indexes.put(alias, entry.getValue());
+                        } else {
+                            String field = alias.substring(0, dot);
+                            fields.add(field);
+                            nestedAliasIndexes.computeIfAbsent(field, f -> new HashMap<>()).put(alias.substring(dot + 1), entry.getValue());
+                        }
+                    });
+            Map<String, Shape> nested = new HashMap<>();
+            nestedAliasIndexes.forEach((field, nestedIndexes) -> nested.put(field, compile(nestedIndexes)));
+            return new Shape(fields, indexes, nested);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.springharvest.expressions.builders;
+
+import jakarta.persistence.*;
+import jakarta.persistence.metamodel.Metamodel;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An in-memory H2 database of books and authors, used to run the TypedQueryBuilder against a real persistence unit.
+ */
+final class SearchTestDatabase implements AutoCloseable {
+
+    @Entity(name = "Author")
+    public static class Author {
+        @Id
+        UUID id;
+        String name;
+    }
+
+    @Entity(name = "Book")
+    public static class Book {
+        @Id
+        UUID id;
+        String title;
+        int pages;
+        @ManyToOne
+        Author author;
+    }
+
+    private final EmbeddedDatabase database;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private SearchTestDatabase() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(database);
+        factoryBean.setPersistenceProvider(new HibernatePersistenceProvider());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(Author.class.getName(), Book.class.getName()));
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.generate_statistics", "true"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+    }
+
+    /**
+     * @return An empty database.
+     */
+    static SearchTestDatabase create() {
+        return new SearchTestDatabase();
+    }
+
+    /**
+     * Persists the given number of books, titled "Book 000", "Book 001", etc. with 10 pages more than the previous one.
+     * Every fifth book has no author, the others share 3 authors.
+     *
+     * @param count The number of books.
+     */
+    void persistBooks(int count) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Author author = new Author();
+            author.id = UUID.randomUUID();
+            author.name = "Author " + i;
+            entityManager.persist(author);
+            authors.add(author);
+        }
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.id = UUID.randomUUID();
+            book.title = String.format("Book %03d", i);
+            book.pages = i * 10;
+            book.author = i % 5 == 0 ? null : authors.get(i % authors.size());
+            entityManager.persist(book);
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    /**
+     * @return A TypedQueryBuilder bound to this database.
+     */
+    TypedQueryBuilder newTypedQueryBuilder() {
+        TypedQueryBuilder builder = new TypedQueryBuilder();
+        builder.setEntityManagerFactory(entityManagerFactory);
+        builder.indexEntities();
+        return builder;
+    }
+
+    /**
+     * @return The metamodel of the persistence unit.
+     */
+    Metamodel metamodel() {
+        return entityManagerFactory.getMetamodel();
+    }
+
+    /**
+     * @return The statistics of the persistence unit, e.g. to count the prepared statements.
+     */
+    Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        database.shutdown();
+    }
+}
@@ -0,0 +1,149 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.shared.constants.CountStrategy;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.PageData;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import jakarta.persistence.criteria.JoinType;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the paged search against an in-memory H2 database, to check that the WINDOW count strategy returns the same
+ * page and total as the TWO_QUERIES strategy, in a single statement.
+ */
+class TypedQueryBuilderCountStrategyTest {
+
+    private static final int BOOKS = 47;
+
+    private static SearchTestDatabase database;
+    private static TypedQueryBuilder typedQueryBuilder;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+        typedQueryBuilder = database.newTypedQueryBuilder();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void search_withWindowStrategy_returnsSamePageAndTotalAsTwoQueries() {
+        Map<String, Object> filter = Map.of("pages", Map.of("gte", 100));
+
+        for (int page = 1; page <= 4; page++) {
+            PageData<Book> window = search(typedQueryBuilder, CountStrategy.WINDOW, filter, null, page, 10, "Book.title", "Book.pages");
+            PageData<Book> twoQueries = search(typedQueryBuilder, CountStrategy.TWO_QUERIES, filter, null, page, 10, "Book.title", "Book.pages");
+
+            assertEquals(BOOKS - 10, window.getTotal());
+            assertEquals(BOOKS - 10, twoQueries.getTotal());
+            assertEquals(twoQueries.getTotalPages(), window.getTotalPages());
+            assertEquals(twoQueries.getCurrentPageCount(), window.getCurrentPageCount());
+            assertEquals(titles(twoQueries), titles(window));
+            assertEquals(page < 4 ? 10 : 7, window.getData().size());
+        }
+    }
+
+    @Test
+    void search_withWindowStrategy_executesSingleStatement() {
+        Statistics statistics = database.statistics();
+
+        statistics.clear();
+        search(typedQueryBuilder, CountStrategy.WINDOW, null, null, 2, 10, "Book.title");
+        long windowStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        search(typedQueryBuilder, CountStrategy.TWO_QUERIES, null, null, 2, 10, "Book.title");
+        long twoQueriesStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(1, windowStatements);
+        assertEquals(2, twoQueriesStatements);
+    }
+
+    @Test
+    void search_withWindowStrategyAndToOneJoin_returnsSameTotalAsTwoQueries() {
+        Map<String, JoinType> joins = Map.of("Book.author", JoinType.INNER);
+
+        PageData<Book> window = search(typedQueryBuilder, CountStrategy.WINDOW, null, joins, 1, 10, "Book.title", "Book.author.name");
+        PageData<Book> twoQueries = search(typedQueryBuilder, CountStrategy.TWO_QUERIES, null, joins, 1, 10, "Book.title", "Book.author.name");
+
+        assertEquals(twoQueries.getTotal(), window.getTotal());
+        assertEquals(titles(twoQueries), titles(window));
+        assertNotNull(window.getData().getFirst().author.name);
+    }
+
+    @Test
+    void search_withTwoQueriesStrategy_countsEveryMatchOnce() {
+        PageData<Book> all = search(typedQueryBuilder, CountStrategy.TWO_QUERIES, null, null, 1, 10, "Book.title");
+        PageData<Book> joined = search(typedQueryBuilder, CountStrategy.TWO_QUERIES, null, Map.of("Book.author", JoinType.INNER), 1, 10, "Book.title", "Book.author.name");
+
+        assertEquals(BOOKS, all.getTotal());
+        // Every fifth book has no author, so the inner join leaves 37 of them
+        assertEquals(37, joined.getTotal());
+        assertEquals(5, all.getTotalPages());
+    }
+
+    @Test
+    void search_withWindowStrategyPastLastPage_fallsBackToCountQuery() {
+        PageData<Book> window = search(typedQueryBuilder, CountStrategy.WINDOW, null, null, 10, 10, "Book.title");
+
+        assertTrue(window.getData().isEmpty());
+        assertEquals(BOOKS, window.getTotal());
+        assertEquals(5, window.getTotalPages());
+    }
+
+    @Test
+    void search_withWindowStrategyAndNoMatch_returnsZeroTotal() {
+        PageData<Book> window = search(typedQueryBuilder, CountStrategy.WINDOW, Map.of("title", Map.of("equals", "Missing")), null, 1, 10, "Book.title");
+
+        assertTrue(window.getData().isEmpty());
+        assertEquals(0, window.getTotal());
+        assertEquals(0, window.getTotalPages());
+    }
+
+    @Test
+    void search_withoutCountStrategy_usesConfiguredDefault() {
+        Statistics statistics = database.statistics();
+        TypedQueryBuilder windowByDefault = database.newTypedQueryBuilder();
+        windowByDefault.setDefaultCountStrategy(CountStrategy.WINDOW);
+
+        statistics.clear();
+        PageData<Book> window = search(windowByDefault, null, null, null, 1, 10, "Book.title");
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(BOOKS, window.getTotal());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PageData<Book> search(TypedQueryBuilder builder, CountStrategy strategy, Map<String, Object> filter, Map<String, JoinType> joins, int page, int size, String... fields) {
+        Map<String, Object> clause = new HashMap<>();
+        if (strategy != null) {
+            clause.put("countStrategy", strategy.name());
+        }
+        List<String> requestedFields = new ArrayList<>(List.of(fields));
+        requestedFields.addAll(List.of("total", "totalPages", "currentPageCount"));
+        DataPaging paging = new DataPaging(page, size, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        return (PageData<Book>) builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, filter, clause, requestedFields, joins, null, paging);
+    }
+
+    private static List<String> titles(PageData<Book> pageData) {
+        return pageData.getData().stream().map(book -> book.title).toList();
+    }
+}
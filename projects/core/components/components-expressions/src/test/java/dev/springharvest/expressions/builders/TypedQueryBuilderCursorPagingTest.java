@@ -0,0 +1,105 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.PageData;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the keyset pagination against an in-memory H2 database, and compares it to the offset pagination.
+ */
+class TypedQueryBuilderCursorPagingTest {
+
+    private static final int BOOKS = 47;
+
+    private static SearchTestDatabase database;
+    private static TypedQueryBuilder typedQueryBuilder;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+        typedQueryBuilder = database.newTypedQueryBuilder();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void search_followingNextCursor_returnsSamePagesAsOffsetPaging() {
+        List<Sort> sorts = List.of(new Sort("Book.title", SortDirection.DESC));
+        String cursor = null;
+
+        for (int page = 1; page <= 5; page++) {
+            PageData<Book> byCursor = search(typedQueryBuilder, null, new DataPaging(page, 10, sorts, cursor), "Book.title", "total", "nextCursor");
+            PageData<Book> byOffset = search(typedQueryBuilder, null, new DataPaging(page, 10, sorts, null), "Book.title", "total");
+
+            assertEquals(titles(byOffset), titles(byCursor));
+            assertEquals(BOOKS, byCursor.getTotal());
+            cursor = byCursor.getNextCursor();
+            assertEquals(page < 5, cursor != null);
+        }
+    }
+
+    @Test
+    void search_withSortOnDuplicateValues_usesIdToBreakTies() {
+        // The books of an author share the same sort value, so the id decides their order
+        List<Sort> sorts = List.of(new Sort("Book.author.name", SortDirection.ASC));
+        Map<String, Object> filter = Map.of("author", Map.of("name", Map.of("in", List.of("Author 0", "Author 1", "Author 2"))));
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            PageData<Book> page = search(typedQueryBuilder, filter, new DataPaging(1, 4, sorts, cursor), "Book.title", "nextCursor");
+            titles.addAll(titles(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Every book is read exactly once, even though the pages split the books of an author
+        PageData<Book> all = search(typedQueryBuilder, filter, new DataPaging(1, BOOKS, sorts, null), "Book.title");
+        assertEquals(BOOKS - 10, titles.size());
+        assertEquals(new HashSet<>(titles(all)), new HashSet<>(titles));
+    }
+
+    @Test
+    void search_withoutNextCursorRequested_returnsNoCursor() {
+        PageData<Book> page = search(typedQueryBuilder, null, new DataPaging(1, 10, List.of(), null), "Book.title");
+
+        assertNull(page.getNextCursor());
+        assertEquals(10, page.getData().size());
+    }
+
+    @Test
+    void search_withCursorOfAnotherSort_throwsException() {
+        PageData<Book> page = search(typedQueryBuilder, null, new DataPaging(1, 10, List.of(new Sort("Book.title", SortDirection.ASC)), null), "Book.title", "nextCursor");
+        DataPaging otherSort = new DataPaging(1, 10, List.of(new Sort("Book.pages", SortDirection.ASC)), page.getNextCursor());
+        DataPaging malformed = new DataPaging(1, 10, List.of(), "not a cursor");
+
+        assertThrows(IllegalArgumentException.class, () -> search(typedQueryBuilder, null, otherSort, "Book.title"));
+        assertThrows(IllegalArgumentException.class, () -> search(typedQueryBuilder, null, malformed, "Book.title"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PageData<Book> search(TypedQueryBuilder builder, Map<String, Object> filter, DataPaging paging, String... fields) {
+        return (PageData<Book>) builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, filter, Map.of(), List.of(fields), null, null, paging);
+    }
+
+    private static List<String> titles(PageData<Book> pageData) {
+        return pageData.getData().stream().map(book -> book.title).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.PageData;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import dev.springharvest.shared.utils.SearchMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs searches and counts against an in-memory H2 database, to check the metrics recorded for each of their phases.
+ */
+class TypedQueryBuilderMetricsTest {
+
+    private static final int BOOKS = 30;
+
+    private static SearchTestDatabase database;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void search_withRegistry_timesEveryPhaseAndCountsTheRows() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TypedQueryBuilder builder = database.newTypedQueryBuilder();
+        builder.setMeterRegistry(registry);
+        builder.setParallelCount(false);
+
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        @SuppressWarnings("unchecked")
+        PageData<Book> page = (PageData<Book>) builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class,
+                Map.of("pages", Map.of("gte", 100)), Map.of(), List.of("Book.title", "total"), null, null, paging);
+
+        assertEquals(10, page.getData().size());
+        for (String phase : List.of(SearchMetrics.CLEAN_FIELDS, SearchMetrics.PREDICATES, SearchMetrics.COUNT, SearchMetrics.DATA, SearchMetrics.MAPPING)) {
+            Timer timer = registry.get(SearchMetrics.PHASE_TIMER)
+                    .tags(SearchMetrics.PHASE_TAG, phase, SearchMetrics.ENTITY_TAG, "Book", SearchMetrics.OPERATION_TAG, "search")
+                    .timer();
+            assertEquals(1, timer.count(), phase);
+        }
+        assertEquals(10, registry.get(SearchMetrics.ROWS_SUMMARY).tags(SearchMetrics.ENTITY_TAG, "Book").summary().totalAmount());
+    }
+
+    @Test
+    void count_withRegistry_timesTheCountAsACountOperation() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TypedQueryBuilder builder = database.newTypedQueryBuilder();
+        builder.setMeterRegistry(registry);
+
+        long count = (long) builder.parseFilterExpression(Operation.COUNT, Book.class, UUID.class, Map.of(), Map.of(), List.of("Book.id"), null, null, null);
+
+        assertEquals(BOOKS, count);
+        assertEquals(1, registry.get(SearchMetrics.PHASE_TIMER).tags(SearchMetrics.PHASE_TAG, SearchMetrics.COUNT, SearchMetrics.OPERATION_TAG, "count").timer().count());
+        assertNull(registry.find(SearchMetrics.PHASE_TIMER).tags(SearchMetrics.PHASE_TAG, SearchMetrics.DATA).timer());
+    }
+
+    @Test
+    void search_withoutRegistry_recordsNothing() {
+        TypedQueryBuilder builder = database.newTypedQueryBuilder();
+        builder.setMeterRegistry(null);
+
+        Object result = builder.parseFilterExpression(Operation.COUNT, Book.class, UUID.class, Map.of(), Map.of(), List.of("Book.id"), null, null, null);
+
+        assertEquals((long) BOOKS, result);
+        assertFalse(SearchMetrics.of(null).isEnabled());
+        assertEquals(0L, SearchMetrics.NOOP.start());
+    }
+}
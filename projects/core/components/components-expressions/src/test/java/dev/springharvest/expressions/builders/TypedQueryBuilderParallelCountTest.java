@@ -0,0 +1,124 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.PageData;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the paged search against an in-memory H2 database, to check that the count query running concurrently on its
+ * own entity manager resolves the same totals as the count query running after the data query.
+ */
+class TypedQueryBuilderParallelCountTest {
+
+    private static final int BOOKS = 47;
+
+    private static SearchTestDatabase database;
+    private static TypedQueryBuilder parallel;
+    private static TypedQueryBuilder sequential;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+        parallel = database.newTypedQueryBuilder();
+        parallel.setParallelCount(true);
+        sequential = database.newTypedQueryBuilder();
+        sequential.setParallelCount(false);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void search_withParallelCount_resolvesSameTotalsAsSequentialCount() {
+        Map<String, Object> filter = Map.of("pages", Map.of("gte", 100));
+
+        for (int page = 1; page <= 4; page++) {
+            PageData<Book> byParallel = search(parallel, filter, page, "Book.title", "total", "totalPages");
+            PageData<Book> bySequential = search(sequential, filter, page, "Book.title", "total", "totalPages");
+
+            assertEquals(BOOKS - 10, byParallel.getTotalAsync().join());
+            assertEquals(bySequential.getTotal(), byParallel.getTotal());
+            assertEquals(bySequential.getTotalPages(), byParallel.getTotalPages());
+            assertEquals(titles(bySequential), titles(byParallel));
+        }
+    }
+
+    @Test
+    void search_withParallelCount_countsOnItsOwnEntityManager() {
+        Statistics statistics = database.statistics();
+
+        statistics.clear();
+        search(parallel, null, 1, "Book.title", "total").getTotal();
+
+        assertEquals(2, statistics.getSessionOpenCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void search_withoutCountPermit_countsAfterTheDataQuery() {
+        TypedQueryBuilder builder = database.newTypedQueryBuilder();
+        builder.setParallelCount(true);
+        builder.setParallelCountMaxConcurrency(0);
+        Statistics statistics = database.statistics();
+
+        statistics.clear();
+        PageData<Book> page = search(builder, null, 1, "Book.title", "total");
+
+        assertEquals(1, statistics.getSessionOpenCount());
+        assertEquals(BOOKS, page.getTotal());
+    }
+
+    @Test
+    void search_withinTransaction_countsAfterTheDataQuery() {
+        Statistics statistics = database.statistics();
+
+        statistics.clear();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            search(parallel, null, 1, "Book.title", "total").getTotal();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, statistics.getSessionOpenCount());
+    }
+
+    @Test
+    void search_withoutTotalRequested_skipsCount() {
+        Statistics statistics = database.statistics();
+
+        statistics.clear();
+        PageData<Book> page = search(parallel, null, 1, "Book.title", "currentPageCount");
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(-1, page.getTotal());
+        assertEquals(-1, page.getTotalAsync().join());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PageData<Book> search(TypedQueryBuilder builder, Map<String, Object> filter, int page, String... fields) {
+        DataPaging paging = new DataPaging(page, 10, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        return (PageData<Book>) builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, filter, Map.of(), List.of(fields), null, null, paging);
+    }
+
+    private static List<String> titles(PageData<Book> pageData) {
+        return pageData.getData().stream().map(book -> book.title).toList();
+    }
+}
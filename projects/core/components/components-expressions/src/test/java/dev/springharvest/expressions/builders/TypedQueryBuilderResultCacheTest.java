@@ -0,0 +1,106 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Author;
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.shared.cache.CaffeineQueryResultCache;
+import dev.springharvest.shared.cache.EntityDependencies;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.PageData;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs repeated searches and counts against an in-memory H2 database, to check which of them are read from the query
+ * result cache.
+ */
+class TypedQueryBuilderResultCacheTest {
+
+    private static final int BOOKS = 20;
+
+    private static SearchTestDatabase database;
+
+    private CaffeineQueryResultCache cache;
+    private TypedQueryBuilder builder;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new CaffeineQueryResultCache(64, Duration.ofMinutes(1), entityClass -> EntityDependencies.of(database.metamodel(), entityClass));
+        builder = database.newTypedQueryBuilder();
+        builder.setParallelCount(false);
+        builder.setQueryResultCache(cache);
+    }
+
+    @Test
+    void dependencies_ofBook_includeItsAuthor() {
+        assertEquals(Set.of(Book.class, Author.class), EntityDependencies.of(database.metamodel(), Book.class));
+        assertEquals(Set.of(Author.class), EntityDependencies.of(database.metamodel(), Author.class));
+    }
+
+    @Test
+    void search_repeated_runsTheQueriesOnce() {
+        Statistics statistics = database.statistics();
+        statistics.clear();
+
+        PageData<?> first = search(Map.of("pages", Map.of("gte", 100)));
+        long statements = statistics.getPrepareStatementCount();
+        PageData<?> second = search(Map.of("pages", Map.of("gte", 100)));
+
+        assertSame(first, second);
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void search_withAnotherFilterValue_isNotReadFromTheCache() {
+        PageData<?> first = search(Map.of("pages", Map.of("gte", 100)));
+        PageData<?> second = search(Map.of("pages", Map.of("gte", 150)));
+
+        assertNotEquals(first.getTotal(), second.getTotal());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void count_afterAWriteOfAJoinedEntity_runsTheQueryAgain() {
+        Statistics statistics = database.statistics();
+        assertEquals((long) BOOKS, count());
+        cache.invalidate(Author.class);
+        statistics.clear();
+
+        assertEquals((long) BOOKS, count());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private PageData<?> search(Map<String, Object> filter) {
+        DataPaging paging = new DataPaging(1, 5, List.of(), null);
+        return (PageData<?>) builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, filter, Map.of(),
+                List.of("Book.title", "total"), null, null, paging);
+    }
+
+    private Object count() {
+        return builder.parseFilterExpression(Operation.COUNT, Book.class, UUID.class, Map.of(), Map.of(), List.of("Book.id"), null, null, null);
+    }
+}
@@ -0,0 +1,82 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.shared.constants.Aggregates;
+import dev.springharvest.shared.constants.ColumnarData;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.ResultFormat;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the aggregated search against an in-memory H2 database, to check that the COLUMNAR result format holds the same
+ * results as the MAPS result format.
+ */
+class TypedQueryBuilderResultFormatTest {
+
+    private static final int BOOKS = 47;
+
+    private static SearchTestDatabase database;
+    private static TypedQueryBuilder typedQueryBuilder;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+        typedQueryBuilder = database.newTypedQueryBuilder();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_withColumnarFormat_returnsSameResultsAsMaps() {
+        List<Map<String, Object>> maps = (List<Map<String, Object>>) search(typedQueryBuilder, ResultFormat.MAPS, 1, 10);
+        ColumnarData columnar = (ColumnarData) search(typedQueryBuilder, ResultFormat.COLUMNAR, 1, 10);
+
+        // The maps end with the paging
+        assertEquals(maps.getLast().get("paging"), columnar.paging());
+        assertEquals(maps.size() - 1, columnar.rows().size());
+        for (int i = 0; i < columnar.rows().size(); i++) {
+            Map<String, Object> row = new HashMap<>();
+            for (int j = 0; j < columnar.columns().size(); j++) {
+                row.put(columnar.columns().get(j), columnar.rows().get(i)[j]);
+            }
+            assertEquals(maps.get(i), row);
+        }
+    }
+
+    @Test
+    void search_withColumnarFormatAndNoRow_returnsColumns() {
+        ColumnarData columnar = (ColumnarData) search(typedQueryBuilder, ResultFormat.COLUMNAR, 10, 10);
+
+        assertTrue(columnar.rows().isEmpty());
+        assertEquals(2, columnar.columns().size());
+    }
+
+    private static Object search(TypedQueryBuilder builder, ResultFormat format, int page, int size) {
+        return search(builder, format, page, size, "Book.pages");
+    }
+
+    private static Object search(TypedQueryBuilder builder, ResultFormat format, int page, int size, String groupBy) {
+        Aggregates aggregates = new Aggregates(List.of("Book.id"), null, null, null, null, List.of(groupBy));
+        DataPaging paging = new DataPaging(page, size, List.of(new Sort(groupBy, SortDirection.ASC)), null);
+        Map<String, Object> clause = Map.of("resultFormat", format.name());
+        return builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, null, clause, new ArrayList<>(List.of(groupBy)), null, aggregates, paging);
+    }
+}
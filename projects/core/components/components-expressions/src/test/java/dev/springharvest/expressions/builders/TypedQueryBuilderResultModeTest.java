@@ -0,0 +1,100 @@
+package dev.springharvest.expressions.builders;
+
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.expressions.mappers.TupleRow;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.PageData;
+import dev.springharvest.shared.constants.ResultMode;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import jakarta.persistence.criteria.JoinType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the search against an in-memory H2 database, to check that the ROWS result mode returns views resolving the
+ * same GraphQL results as the entities of the ENTITIES result mode.
+ */
+class TypedQueryBuilderResultModeTest {
+
+    private static final int BOOKS = 47;
+
+    private static final String SCHEMA = """
+            type Query { books : BookPageData }
+            type BookPageData { data : [Book] total : Int }
+            type Book { id : ID title : String pages : Int author : Author }
+            type Author { id : ID name : String }
+            """;
+
+    private static final String QUERY = "{ books { total data { id title pages author { name } } } }";
+
+    // The page is the root object of the execution
+    private static final GraphQL GRAPHQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA),
+            RuntimeWiring.newRuntimeWiring().type("Query", type -> type.dataFetcher("books", environment -> environment.getRoot())).build())).build();
+
+    private static SearchTestDatabase database;
+    private static TypedQueryBuilder entities;
+    private static TypedQueryBuilder rows;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+        entities = database.newTypedQueryBuilder();
+        rows = database.newTypedQueryBuilder();
+        rows.setDefaultResultMode(ResultMode.ROWS);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void search_withRowsResultMode_returnsViewsOfTuples() {
+        PageData<?> page = search(rows, 1, 10, "Book.title", "Book.pages", "Book.author.name");
+
+        assertEquals(10, page.getData().size());
+        TupleRow row = (TupleRow) page.getData().get(1);
+        assertEquals("Book 001", row.get("title"));
+        assertEquals(10, row.get("pages"));
+        assertEquals(Map.of("name", "Author 1"), row.get("author"));
+        assertNull(row.get("publisher"));
+        assertEquals(List.of("title", "pages", "author"), List.copyOf(row.keySet()));
+    }
+
+    @Test
+    void search_withRowsResultMode_resolvesSameGraphQLResultAsEntities() {
+        for (int page = 1; page <= 5; page++) {
+            Object byEntities = execute(search(entities, page, 10, "Book.id", "Book.title", "Book.pages", "Book.author.name", "total"));
+            Object byRows = execute(search(rows, page, 10, "Book.id", "Book.title", "Book.pages", "Book.author.name", "total"));
+
+            assertEquals(byEntities, byRows);
+        }
+    }
+
+    private static PageData<?> search(TypedQueryBuilder builder, int page, int size, String... fields) {
+        DataPaging paging = new DataPaging(page, size, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        return (PageData<?>) builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, null, Map.of(), List.of(fields), Map.of("Book.author", JoinType.LEFT), null, paging);
+    }
+
+    private static Object execute(PageData<?> page) {
+        ExecutionResult result = GRAPHQL.execute(ExecutionInput.newExecutionInput(QUERY).root(page));
+        assertTrue(result.getErrors().isEmpty(), result.getErrors()::toString);
+        return result.getData();
+    }
+}
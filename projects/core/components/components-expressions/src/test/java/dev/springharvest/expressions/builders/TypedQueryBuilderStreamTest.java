@@ -0,0 +1,101 @@
+package dev.springharvest.expressions.builders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.springharvest.expressions.builders.SearchTestDatabase.Book;
+import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.expressions.helpers.StreamedColumnarData;
+import dev.springharvest.shared.constants.Aggregates;
+import dev.springharvest.shared.constants.ColumnarData;
+import dev.springharvest.shared.constants.DataPaging;
+import dev.springharvest.shared.constants.ResultFormat;
+import dev.springharvest.shared.constants.Sort;
+import dev.springharvest.shared.constants.SortDirection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the streamed search against an in-memory H2 database, to check that it writes the same results as the COLUMNAR
+ * result format.
+ */
+class TypedQueryBuilderStreamTest {
+
+    private static final int BOOKS = 47;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static SearchTestDatabase database;
+    private static TypedQueryBuilder typedQueryBuilder;
+
+    @BeforeAll
+    static void setUp() {
+        database = SearchTestDatabase.create();
+        database.persistBooks(BOOKS);
+        typedQueryBuilder = database.newTypedQueryBuilder();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void search_withStreamFormat_readsSameRowsAsColumnar() {
+        Aggregates aggregates = new Aggregates(List.of("Book.id"), null, null, null, null, List.of("Book.pages"));
+        ColumnarData columnar = (ColumnarData) search(typedQueryBuilder, ResultFormat.COLUMNAR, aggregates, 2, 10, "Book.pages");
+        StreamedColumnarData stream = (StreamedColumnarData) search(typedQueryBuilder, ResultFormat.STREAM, aggregates, 2, 10, "Book.pages");
+
+        List<Object[]> rows = new ArrayList<>();
+        int count = stream.forEachRow(rows::add);
+
+        assertEquals(10, count);
+        assertEquals(columnar.columns(), stream.columns());
+        assertEquals(columnar.rows().stream().map(Arrays::asList).toList(), rows.stream().map(Arrays::asList).toList());
+        assertEquals(columnar.paging().get("totalCount"), stream.paging().get("totalCount"));
+    }
+
+    @Test
+    void search_withStreamFormat_writesColumnarJson() throws Exception {
+        Aggregates aggregates = new Aggregates(List.of("Book.id"), null, null, null, null, List.of("Book.pages"));
+        JsonNode columnar = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsBytes(search(typedQueryBuilder, ResultFormat.COLUMNAR, aggregates, 5, 10, "Book.pages")));
+        JsonNode stream = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsBytes(search(typedQueryBuilder, ResultFormat.STREAM, aggregates, 5, 10, "Book.pages")));
+
+        assertEquals(columnar, stream);
+        assertEquals(7, stream.get("paging").get("currentPageCount").asInt());
+    }
+
+    @Test
+    void search_withStreamFormatWithoutAggregates_streamsSelectedFields() {
+        StreamedColumnarData stream = (StreamedColumnarData) search(typedQueryBuilder, ResultFormat.STREAM, null, 1, BOOKS, "Book.title");
+
+        List<Object> titles = new ArrayList<>();
+        stream.forEachRow(row -> titles.add(row[0]));
+
+        assertEquals(1, stream.columns().size());
+        assertEquals(BOOKS, titles.size());
+        assertEquals("Book 000", titles.getFirst());
+    }
+
+    @Test
+    void search_withStreamFormatAndCursor_throwsException() {
+        DataPaging paging = new DataPaging(1, 10, List.of(), "cursor");
+        Map<String, Object> clause = Map.of("resultFormat", ResultFormat.STREAM.name());
+
+        assertThrows(IllegalArgumentException.class, () -> typedQueryBuilder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, null, clause, new ArrayList<>(List.of("Book.title")), null, null, paging));
+    }
+
+    private static Object search(TypedQueryBuilder builder, ResultFormat format, Aggregates aggregates, int page, int size, String field) {
+        DataPaging paging = new DataPaging(page, size, List.of(new Sort(field, SortDirection.ASC)), null);
+        Map<String, Object> clause = Map.of("resultFormat", format.name());
+        return builder.parseFilterExpression(Operation.SEARCH, Book.class, UUID.class, null, clause, new ArrayList<>(List.of(field)), null, aggregates, paging);
+    }
+}
@@ -1,6 +1,10 @@
 package dev.springharvest.expressions.builders;
 
+import dev.springharvest.expressions.helpers.FilterPlan;
+import dev.springharvest.expressions.helpers.FilterPlanCache;
 import dev.springharvest.expressions.helpers.Operation;
+import dev.springharvest.expressions.helpers.Operator;
+import dev.springharvest.expressions.helpers.QueryContext;
 import dev.springharvest.expressions.mappers.GenericEntityMapper;
 import dev.springharvest.shared.constants.*;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
@@ -13,10 +17,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -142,7 +149,7 @@ class TypedQueryBuilderTest {
         List<Author> resultList = List.of(new Author("Paulo Coelo", new Pet("Jiji")), new Author("De la Fontaine", new Pet("Patrache")));
         Map<String, JoinType> joins = new HashMap<>();
         Aggregates aggregates = null;
-        DataPaging paging = new DataPaging(1, 10, Collections.emptyList());
+        DataPaging paging = new DataPaging(1, 10, Collections.emptyList(), null);
 
 
         when(root.get("name")).thenReturn(authorPath);
@@ -170,7 +177,7 @@ class TypedQueryBuilderTest {
         Map<String, JoinType> joins = new HashMap<>();
         joins.put("Author.pet", JoinType.LEFT);
         Aggregates aggregates = null;
-        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("pet.name", SortDirection.DESC)));
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("pet.name", SortDirection.DESC)), null);
         List<Author> resultList = List.of(new Author("Paulo Coelo", new Pet("Jiji")), new Author("De la Fontaine", new Pet("Patrache")));
 
         when(root.get("name")).thenReturn(authorPath);
@@ -200,7 +207,7 @@ class TypedQueryBuilderTest {
         List<String> fields = Arrays.asList("Author.name", "Author.pet.name");
         Map<String, JoinType> joins = new HashMap<>();
         Aggregates aggregates = new Aggregates(List.of("Author.name"), null, null, null, null, List.of("Author.pet.name"));
-        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("pet.name", SortDirection.DESC)));
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("pet.name", SortDirection.DESC)), null);
         List<Object> results = getObjects();
 
         when(root.get("name")).thenReturn(authorPath);
@@ -256,7 +263,7 @@ class TypedQueryBuilderTest {
         Map<String, Object> clauseMap = new HashMap<>();
         Map<String, JoinType> joins = new HashMap<>();
         Aggregates aggregates =  null;
-        DataPaging paging = new DataPaging(1, 10, Collections.emptyList());
+        DataPaging paging = new DataPaging(1, 10, Collections.emptyList(), null);
         List<Author> resultList = List.of(new Author("Paulo Coelo", new Pet("Jiji")), new Author("De la Fontaine", new Pet("Patrache")));
 
         when(typedCountQuery.getSingleResult()).thenReturn(2L);
@@ -294,7 +301,7 @@ class TypedQueryBuilderTest {
         List<String> fields = List.of("Author.id");
         Map<String, JoinType> joins = new HashMap<>();
         Aggregates aggregates = null;
-        DataPaging paging = new DataPaging(1, 10, Collections.emptyList());
+        DataPaging paging = new DataPaging(1, 10, Collections.emptyList(), null);
         when(typedCountQuery.getSingleResult()).thenReturn(2L);
 
         Long result = (Long)typedQueryBuilder.parseFilterExpression(Operation.COUNT, entityClass, keyClass, filterMap, clauseMap, fields, joins, aggregates, paging);
@@ -311,7 +318,7 @@ class TypedQueryBuilderTest {
         List<String> fields = Arrays.asList("field1", "field2");
         Map<String, JoinType> joins = new HashMap<>();
         Aggregates aggregates = new Aggregates(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        DataPaging paging = new DataPaging(1, 10, Collections.emptyList());
+        DataPaging paging = new DataPaging(1, 10, Collections.emptyList(), null);
 
         assertThrows(NullPointerException.class, () -> {
             typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, filterMap, clauseMap, fields, joins, aggregates, paging);
@@ -326,7 +333,7 @@ class TypedQueryBuilderTest {
         List<String> fields = Arrays.asList("Author.car", "Author.pet.name");
         Map<String, JoinType> joins = new HashMap<>();
         Aggregates aggregates = new Aggregates(List.of("Author.name"), null, null, null, null, List.of("Author.pet.name"));
-        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("pet.name", SortDirection.DESC)));
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("pet.name", SortDirection.DESC)), null);
 
         assertThrows(RuntimeException.class, () -> {
             typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, filter, clauseMap, fields, joins, aggregates, paging);
@@ -334,28 +341,22 @@ class TypedQueryBuilderTest {
     }
 
     @Test
-    void testCreateTypedQuery() throws Exception {
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
+    void testApplyFilterPlan() throws Exception {
         Map<String, Object> filterMap = new HashMap<>();
         Map<String, Object> equals = new LinkedHashMap<>();
         equals.put("containsic", "Paulo");
         filterMap.put("name", equals);
-        String parentPath = "";
-        String rootOperator = "and";
-        List<String> fields = List.of("Author.name");
         when(root.get("name")).thenReturn(authorPath);
         when(criteriaBuilder.lower((Path)authorPath)).thenReturn(authorPath);
         when(criteriaBuilder.like(eq((Path)authorPath), anyString())).thenReturn(mockPredicate);
 
 
-        Predicate result = (Predicate) method.invoke(null, filterMap, criteriaBuilder, entityClass, keyClass, root, parentPath, rootOperator, fields, criteriaQuery);
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(filterMap, entityClass, keyClass, Set.of()), filterMap, criteriaBuilder, root, criteriaQuery, QueryContext.of(null));
         assertNotNull(result);
     }
 
     @Test
-    void createTypedQuery_withValidSimpleField_returnsPredicate() throws Exception {
+    void applyFilterPlan_withValidSimpleField_returnsPredicate() throws Exception {
         Map<String, Object> filterMap = Map.of("name", "Paulo");
         CriteriaBuilder builder = mock(CriteriaBuilder.class);
         Root<Author> root = mock(Root.class);
@@ -365,17 +366,14 @@ class TypedQueryBuilderTest {
         when(root.get("name")).thenReturn(path);
         when(builder.equal(path, "Paulo")).thenReturn(predicate);
 
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
-        Predicate result = (Predicate) method.invoke(null, filterMap, builder, Author.class, UUID.class, root, "", "and", List.of("Author.name"), mock(CriteriaQuery.class));
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(filterMap, Author.class, UUID.class, Set.of()), filterMap, builder, root, mock(CriteriaQuery.class), QueryContext.of(null));
 
         assertNotNull(result);
         assertEquals(predicate, result);
     }
 
     @Test
-    void createTypedQuery_withLogicalOperator_returnsCombinedPredicate() throws Exception {
+    void applyFilterPlan_withLogicalOperator_returnsCombinedPredicate() throws Exception {
         Map<String, Object> filterMap = Map.of("or", List.of(Map.of("name", "Paulo"), Map.of("name", "John")));
         CriteriaBuilder builder = mock(CriteriaBuilder.class);
         Root<Author> root = mock(Root.class);
@@ -389,17 +387,14 @@ class TypedQueryBuilderTest {
         when(builder.equal(path, "John")).thenReturn(predicate2);
         when(builder.or(predicate1, predicate2)).thenReturn(combinedPredicate);
 
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
-        Predicate result = (Predicate) method.invoke(null, filterMap, builder, Author.class, UUID.class, root, "", "or", List.of("Author.name"), mock(CriteriaQuery.class));
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(filterMap, Author.class, UUID.class, Set.of()), filterMap, builder, root, mock(CriteriaQuery.class), QueryContext.of(null));
 
         assertNotNull(result);
         assertEquals(combinedPredicate, result);
     }
 
     @Test
-    void createTypedQuery_withComplexField_returnsNestedPredicate() throws Exception {
+    void applyFilterPlan_withComplexField_returnsNestedPredicate() throws Exception {
         Map<String, Object> filterMap = Map.of("pet", Map.of("name", "Jiji"));
         CriteriaBuilder builder = mock(CriteriaBuilder.class);
         Root<Author> root = mock(Root.class);
@@ -411,17 +406,14 @@ class TypedQueryBuilderTest {
         when(petPath.get("name")).thenReturn(petNamePath);
         when(builder.equal(petNamePath, "Jiji")).thenReturn(predicate);
 
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
-        Predicate result = (Predicate) method.invoke(null, filterMap, builder, Author.class, UUID.class, root, "", "and", List.of("Author.pet.name"), mock(CriteriaQuery.class));
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(filterMap, Author.class, UUID.class, Set.of()), filterMap, builder, root, mock(CriteriaQuery.class), QueryContext.of(null));
 
         assertNotNull(result);
         assertEquals(predicate, result);
     }
 
     @Test
-    void createTypedQuery_withEmptyFilterMap_returnsTruePredicate() throws Exception {
+    void applyFilterPlan_withEmptyFilterMap_returnsTruePredicate() throws Exception {
         Map<String, Object> filterMap = new HashMap<>();
         Predicate truePredicate = mock(Predicate.class);
 
@@ -430,37 +422,28 @@ class TypedQueryBuilderTest {
         when(criteriaBuilder.like(eq((Path)authorPath), anyString())).thenReturn(mockPredicate);
         when(criteriaBuilder.conjunction()).thenReturn(truePredicate);
 
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
-        Predicate result = (Predicate) method.invoke(null, filterMap, criteriaBuilder, entityClass, keyClass, root, "", "and", List.of("Author.name"), criteriaQuery);
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(filterMap, entityClass, keyClass, Set.of()), filterMap, criteriaBuilder, root, criteriaQuery, QueryContext.of(null));
 
         assertNotNull(result);
         assertEquals(truePredicate, result);
     }
 
     @Test
-    void createTypedQuery_withNullFilterMap_returnsTruePredicate() throws Exception {
+    void applyFilterPlan_withNullFilterMap_returnsTruePredicate() throws Exception {
         CriteriaBuilder builder = mock(CriteriaBuilder.class);
         Root<Author> root = mock(Root.class);
         Predicate truePredicate = mock(Predicate.class);
 
         when(builder.conjunction()).thenReturn(truePredicate);
 
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
-        Predicate result = (Predicate) method.invoke(null, null, builder, Author.class, UUID.class, root, "", "and", List.of("Author.name"), mock(CriteriaQuery.class));
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(null, Author.class, UUID.class, Set.of()), null, builder, root, mock(CriteriaQuery.class), QueryContext.of(null));
 
         assertNotNull(result);
         assertEquals(truePredicate, result);
     }
 
     @Test
-    void testCreateLogicalOperatorTypedQuery() throws Exception {
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createLogicalOperatorTypedQuery", String.class, List.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
+    void applyFilterPlan_withLogicalOperatorList_returnsPredicate() throws Exception {
         String operator = "or";
         List<Map<String, Object>> value = new ArrayList<>();
         Map<String, Object> filterMap = new HashMap<>();
@@ -468,32 +451,28 @@ class TypedQueryBuilderTest {
         equals.put("containsic", "Paulo");
         filterMap.put("name", equals);
         value.add(filterMap);
-        String parentPath = "";
-        List<String> fields = List.of("Author.name");
         when(root.get("name")).thenReturn(authorPath);
         when(criteriaBuilder.lower((Path)authorPath)).thenReturn(authorPath);
         when(criteriaBuilder.like(eq((Path)authorPath), anyString())).thenReturn(mockPredicate);
 
-        Predicate result = (Predicate) method.invoke(null, operator, value, criteriaBuilder, entityClass, keyClass, root, parentPath, fields, criteriaQuery);
+        Map<String, Object> logicalFilterMap = Map.of(operator, value);
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(logicalFilterMap, entityClass, keyClass, Set.of()), logicalFilterMap, criteriaBuilder, root, criteriaQuery, QueryContext.of(null));
         assertNotNull(result);
     }
 
     @Test
-    void testCreateUnaryOperatorTypedQuery() throws Exception {
-        Method method = TypedQueryBuilder.class.getDeclaredMethod("createUnaryOperatorTypedQuery", Map.class, CriteriaBuilder.class, Class.class, Class.class, Root.class, String.class, List.class, CriteriaQuery.class);
-        method.setAccessible(true);
-
+    void applyFilterPlan_withNotOperator_returnsNegatedPredicate() throws Exception {
         Map<String, Object> filterMap = new HashMap<>();
         Map<String, Object> equals = new LinkedHashMap<>();
         equals.put("containsic", "Paulo");
         filterMap.put("name", equals);
-        String parentPath = "";
-        List<String> fields = List.of("Author.name");
         when(root.get("name")).thenReturn(authorPath);
         when(criteriaBuilder.lower((Path)authorPath)).thenReturn(authorPath);
         when(criteriaBuilder.like(eq((Path)authorPath), anyString())).thenReturn(mockPredicate);
 
-        Predicate result = (Predicate) method.invoke(null, filterMap, criteriaBuilder, entityClass, keyClass, root, parentPath, fields, criteriaQuery);
+        Map<String, Object> notFilterMap = Map.of("not", filterMap);
+        when(criteriaBuilder.not(mockPredicate)).thenReturn(mockPredicate);
+        Predicate result = TypedQueryBuilder.applyFilterPlan(TypedQueryBuilder.compileFilterPlan(notFilterMap, entityClass, keyClass, Set.of()), notFilterMap, criteriaBuilder, root, criteriaQuery, QueryContext.of(null));
         assertNotNull(result);
     }
 
@@ -694,14 +673,128 @@ class TypedQueryBuilderTest {
     }
 
     @Test
-    void CleanFields_withPagingElements_addsToPagingElementsToInclude() throws NoSuchFieldException {
+    void CleanFields_withPagingElements_removesPagingElements() throws NoSuchFieldException {
         List<String> fields = Arrays.asList("Author.name", "currentPage", "pageSize");
         List<String> expected = Arrays.asList("Author.name");
         List<String> result = TypedQueryBuilder.CleanFields(Author.class, UUID.class, fields);
         assertNotNull(result);
         assertEquals(expected, result);
-        assertTrue(TypedQueryBuilder.pagingElementsToInclude.contains("currentPage"));
-        assertTrue(TypedQueryBuilder.pagingElementsToInclude.contains("pageSize"));
+    }
+
+    @Test
+    void extractPagingElements_withPagingElements_returnsOnlyPagingElements() {
+        List<String> fields = Arrays.asList("Author.name", "currentPage", "pageSize");
+        Set<String> result = TypedQueryBuilder.extractPagingElements(fields);
+        assertEquals(Set.of("currentPage", "pageSize"), result);
+    }
+
+    @Test
+    void extractPagingElements_withNullFields_returnsEmptySet() {
+        Set<String> result = TypedQueryBuilder.extractPagingElements(null);
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void parseFilterExpression_withConcurrentRequests_keepsPagingElementsPerRequest() throws Exception {
+        when(root.get("name")).thenReturn(authorPath);
+        when(typedCountQuery.getSingleResult()).thenReturn(42L);
+        when(query.getResultList()).thenReturn(new ArrayList<>());
+
+        int requests = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                boolean withPagingElements = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    List<String> fields = withPagingElements
+                            ? List.of("Author.name", "currentPage", "pageSize", "total")
+                            : List.of("Author.name");
+                    DataPaging paging = new DataPaging(3, 7, Collections.emptyList(), null);
+                    PageData<Author> result = (PageData<Author>) typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, null, new HashMap<>(), fields, null, null, paging);
+                    if (withPagingElements) {
+                        return result.getCurrentPage() == 3 && result.getPageSize() == 7 && result.getTotal() == 42L;
+                    }
+                    return result.getCurrentPage() == -1 && result.getPageSize() == -1 && result.getTotal() == -1L;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void parseFilterExpression_withSameFilterShape_reusesCompiledPlan() {
+        when(root.get("name")).thenReturn(authorPath);
+        when(criteriaBuilder.lower((Path) authorPath)).thenReturn(authorPath);
+        when(criteriaBuilder.like(eq((Path) authorPath), anyString())).thenReturn(mockPredicate);
+        when(typedCountQuery.getSingleResult()).thenReturn(1L);
+        when(query.getResultList()).thenReturn(new ArrayList<>());
+        List<String> fields = List.of("Author.name");
+        DataPaging paging = new DataPaging(1, 10, Collections.emptyList(), null);
+
+        typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, Map.of("name", Map.of("containsic", "Paulo")), null, fields, null, null, paging);
+        typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, Map.of("name", Map.of("containsic", "John")), null, fields, null, null, paging);
+
+        verify(criteriaBuilder).like((Path) authorPath, "%paulo%");
+        verify(criteriaBuilder).like((Path) authorPath, "%john%");
+        FilterPlanCache.Stats stats = typedQueryBuilder.getFilterPlanCacheStats();
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void parseFilterExpression_withCacheFull_evictsLeastRecentlyUsedPlan() {
+        typedQueryBuilder.setFilterPlanCacheMaxSize(1);
+        when(root.get("name")).thenReturn(authorPath);
+        when(criteriaBuilder.equal(any(Expression.class), any(Object.class))).thenReturn(mockPredicate);
+        when(criteriaBuilder.greaterThan(any(Expression.class), any(Comparable.class))).thenReturn(mockPredicate);
+        when(query.getResultList()).thenReturn(new ArrayList<>());
+        List<String> fields = List.of("Author.name");
+
+        typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, Map.of("name", "Paulo"), null, fields, null, null, null);
+        typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, Map.of("name", Map.of("gt", "M")), null, fields, null, null, null);
+        typedQueryBuilder.parseFilterExpression(Operation.SEARCH, entityClass, keyClass, Map.of("name", "John"), null, fields, null, null, null);
+
+        FilterPlanCache.Stats stats = typedQueryBuilder.getFilterPlanCacheStats();
+        assertEquals(3, stats.misses());
+        assertEquals(0, stats.hits());
+        assertEquals(2, stats.evictions());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void shapeOf_withDifferentValues_returnsSameShape() {
+        Map<String, Object> first = Map.of("or", List.of(Map.of("name", Map.of("in", List.of("a", "b"))), Map.of("pet", Map.of("name", "Jiji"))));
+        Map<String, Object> second = Map.of("or", List.of(Map.of("name", Map.of("in", List.of("c"))), Map.of("pet", Map.of("name", "Patrache"))));
+
+        assertEquals(FilterPlan.shapeOf(first), FilterPlan.shapeOf(second));
+        assertEquals("{or:[{name:{in:?}}{pet:{name:?}}]}", FilterPlan.shapeOf(first));
+    }
+
+    @Test
+    void shapeOf_withDifferentOperators_returnsDifferentShapes() {
+        assertNotEquals(FilterPlan.shapeOf(Map.of("name", Map.of("gt", 1))), FilterPlan.shapeOf(Map.of("name", Map.of("lt", 1))));
+        assertNotEquals(FilterPlan.shapeOf(Map.of("name", "Paulo")), FilterPlan.shapeOf(Map.of("name", Map.of("equals", "Paulo"))));
+    }
+
+    @Test
+    void compileFilterPlan_withNestedFieldAndJoin_resolvesJoinOnce() {
+        FilterPlan plan = TypedQueryBuilder.compileFilterPlan(Map.of("pet", Map.of("name", Map.of("equals", "Jiji"))), Author.class, UUID.class, Set.of("pet"));
+
+        FilterPlan.Group petGroup = (FilterPlan.Group) plan.root().children().getFirst().node();
+        FilterPlan.Condition condition = (FilterPlan.Condition) petGroup.children().getFirst().node();
+        assertEquals("name", condition.fieldName());
+        assertEquals(String.class, condition.fieldType());
+        assertEquals(List.of("pet"), condition.parentSegments());
+        assertEquals("pet", condition.joinAlias());
+        assertEquals(1, condition.joinDepth());
+        assertEquals(Operator.EQUALS, condition.operator());
     }
 
     @Test
@@ -0,0 +1,57 @@
+package dev.springharvest.expressions.config;
+
+import dev.springharvest.shared.constants.PageData;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphQLConfigTest {
+
+    private static final String SCHEMA = """
+            type Query { page : BookPageData }
+            interface PageData { total : Int totalPages : Int currentPage : Int }
+            type BookPageData implements PageData { total : Int totalPages : Int currentPage : Int }
+            """;
+
+    @Test
+    void pageTotalWiringFactory_resolvesPendingTotalsOfPageDataTypes() {
+        CompletableFuture<Long> pendingTotal = new CompletableFuture<>();
+        PageData<Object> page = new PageData<>(List.of(), 2, 10, -1, -1, 0);
+        page.setPendingTotal(pendingTotal, pendingTotal.thenApply(total -> (int) Math.ceil(total / 10.0)));
+
+        CompletableFuture<ExecutionResult> result = graphQL(page).executeAsync(builder -> builder.query("{ page { total totalPages currentPage } }"));
+        assertFalse(result.isDone());
+        pendingTotal.complete(42L);
+
+        assertEquals(Map.of("page", Map.of("total", 42, "totalPages", 5, "currentPage", 2)), result.join().getData());
+    }
+
+    @Test
+    void pageTotalWiringFactory_resolvesResolvedTotals() {
+        PageData<Object> page = new PageData<>(List.of(), 1, 10, 7, 1, 7);
+
+        ExecutionResult result = graphQL(page).execute("{ page { total totalPages } }");
+
+        assertEquals(Map.of("page", Map.of("total", 7, "totalPages", 1)), result.getData());
+    }
+
+    private static GraphQL graphQL(PageData<Object> page) {
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .wiringFactory(new GraphQLConfig.PageTotalWiringFactory())
+                .type("Query", type -> type.dataFetcher("page", environment -> page))
+                .type("PageData", type -> type.typeResolver(environment -> environment.getSchema().getObjectType("BookPageData")))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+        return GraphQL.newGraphQL(schema).build();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.springharvest.expressions.config;
+
+import dev.springharvest.expressions.helpers.PersistedDocumentCache;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedQueryDocumentProviderTest {
+
+    private static final String QUERY = "{ countBooks }";
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private final PersistedDocumentCache cache = new PersistedDocumentCache(16);
+    private final GraphQL graphQL = graphQL();
+
+    @Test
+    void getDocument_withUnknownHash_requestsTheQueryText() throws Exception {
+        ExecutionResult result = graphQL.execute(persisted(PersistedQuerySupport.PERSISTED_QUERY_MARKER, sha256(QUERY)));
+
+        assertEquals("PersistedQueryNotFound", result.getErrors().getFirst().getMessage());
+        assertEquals(0, parses.get());
+    }
+
+    @Test
+    void getDocument_withRegisteredHash_parsesTheQueryOnce() throws Exception {
+        assertEquals(Map.of("countBooks", 42), graphQL.execute(persisted(QUERY, sha256(QUERY))).getData());
+        assertEquals(Map.of("countBooks", 42), graphQL.execute(persisted(PersistedQuerySupport.PERSISTED_QUERY_MARKER, sha256(QUERY))).getData());
+        assertEquals(Map.of("countBooks", 42), graphQL.execute(persisted(PersistedQuerySupport.PERSISTED_QUERY_MARKER, sha256(QUERY))).getData());
+
+        assertEquals(1, parses.get());
+        assertEquals(2, cache.stats().hits());
+    }
+
+    @Test
+    void getDocument_withHashOfAnotherQuery_isRejected() throws Exception {
+        ExecutionResult result = graphQL.execute(persisted(QUERY, sha256("{ other }")));
+
+        assertEquals("PersistedQueryIdInvalid", result.getErrors().getFirst().getMessage());
+    }
+
+    @Test
+    void getDocument_withQueryText_parsesRepeatedQueriesOnce() {
+        graphQL.execute(QUERY);
+        graphQL.execute(QUERY);
+
+        assertEquals(1, parses.get());
+        assertEquals(1, cache.stats().size());
+    }
+
+    @Test
+    void getDocument_withInvalidQuery_isNotCached() {
+        assertFalse(graphQL.execute("{ unknown }").getErrors().isEmpty());
+        assertFalse(graphQL.execute("{ unknown }").getErrors().isEmpty());
+
+        assertEquals(2, parses.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    private static ExecutionInput persisted(String query, String hash) {
+        return ExecutionInput.newExecutionInput(query)
+                .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+                .build();
+    }
+
+    private static String sha256(String query) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+
+    private GraphQL graphQL() {
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type.dataFetcher("countBooks", environment -> 42))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("type Query { countBooks : Int other : Int }"), wiring);
+        return GraphQL.newGraphQL(schema)
+                .preparsedDocumentProvider(new PersistedQueryDocumentProvider(cache))
+                .instrumentation(new SimplePerformantInstrumentation() {
+                    @Override
+                    public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters, InstrumentationState state) {
+                        parses.incrementAndGet();
+                        return SimpleInstrumentationContext.noOp();
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package dev.springharvest.expressions.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCostInstrumentationTest {
+
+    private static final String SCHEMA = """
+            type Query { searchBooks(filter : BookFilter = {}, paging : PageRequest = {page: 1, size: 10}) : [Book] }
+            type Book { title : String author(join : String) : Author }
+            type Author { name : String }
+            input BookFilter { title : StringExpression or : [BookFilter!] }
+            input StringExpression { eq : String containsic : String }
+            input PageRequest { page : Int size : Int }
+            """;
+
+    private static final List<Map<String, Object>> BOOKS = List.of(Map.of("title", "Book", "author", Map.of("name", "Author")));
+
+    @Test
+    void instrumentation_reportsTheCostOfEachSearch() {
+        AtomicInteger searches = new AtomicInteger();
+        GraphQL graphQL = graphQL(new QueryCostInstrumentation(-1, QueryCostInstrumentation.Policy.REJECT, 1, 0), environment -> {
+            searches.incrementAndGet();
+            return BOOKS;
+        });
+
+        ExecutionResult result = graphQL.execute("{ searchBooks(filter: {title: {containsic: \"a\"}}) { title author(join: \"INNER\") { name } } }");
+
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(1, searches.get());
+        Map<String, Object> cost = cost(result);
+        assertEquals(10 + 25 + 50L, cost.get("total"));
+        assertEquals(Map.of("rows", 10L, "conditions", 25L, "joins", 1, "aggregates", 0, "total", 85L),
+                ((Map<?, ?>) cost.get("fields")).get("/searchBooks"));
+    }
+
+    @Test
+    void instrumentation_rejectsSearchesOverTheBudget() {
+        AtomicInteger searches = new AtomicInteger();
+        GraphQL graphQL = graphQL(new QueryCostInstrumentation(100, QueryCostInstrumentation.Policy.REJECT, 1, 0), environment -> {
+            searches.incrementAndGet();
+            return BOOKS;
+        });
+
+        ExecutionResult result = graphQL.execute("""
+                { cheap: searchBooks(paging: {size: 50}) { title }
+                  expensive: searchBooks(paging: {size: 1000000}) { title }
+                  tooMany: searchBooks(paging: {size: 60}) { title } }
+                """);
+
+        assertEquals(1, searches.get());
+        assertEquals(BOOKS.size(), ((List<?>) ((Map<?, ?>) result.getData()).get("cheap")).size());
+        assertNull(((Map<?, ?>) result.getData()).get("expensive"));
+        assertNull(((Map<?, ?>) result.getData()).get("tooMany"));
+        assertEquals(2, result.getErrors().size());
+        assertEquals("BAD_REQUEST", result.getErrors().getFirst().getErrorType().toString());
+        assertEquals(50L, cost(result).get("total"));
+    }
+
+    @Test
+    void instrumentation_throttlesSearchesOverTheBudget() {
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(100, QueryCostInstrumentation.Policy.THROTTLE, 1, 0);
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        GraphQL graphQL = graphQL(instrumentation, environment -> pending);
+
+        // The first search over the budget holds the only permit until its value is resolved
+        CompletableFuture<ExecutionResult> first = graphQL.executeAsync(builder -> builder.query("{ searchBooks(paging: {size: 500}) { title } }"));
+        ExecutionResult second = graphQL.execute("{ searchBooks(paging: {size: 500}) { title } }");
+        assertEquals(1, second.getErrors().size());
+
+        pending.complete(BOOKS);
+        assertTrue(first.join().getErrors().isEmpty());
+        assertEquals(500L, cost(first.join()).get("total"));
+        ExecutionResult third = graphQL.execute("{ searchBooks(paging: {size: 500}) { title } }");
+        assertTrue(third.getErrors().isEmpty());
+    }
+
+    @Test
+    void instrumentation_throttledSearchWaitsForThePermitWithoutBlocking() {
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(100, QueryCostInstrumentation.Policy.THROTTLE, 1, 30000);
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        GraphQL graphQL = graphQL(instrumentation, environment -> pending.isDone() ? BOOKS : pending);
+
+        CompletableFuture<ExecutionResult> first = graphQL.executeAsync(builder -> builder.query("{ searchBooks(paging: {size: 500}) { title } }"));
+        // The second search is handed back while it waits for the permit held by the first one
+        CompletableFuture<ExecutionResult> second = graphQL.executeAsync(builder -> builder.query("{ searchBooks(paging: {size: 500}) { title } }"));
+        assertFalse(second.isDone());
+
+        pending.complete(BOOKS);
+        assertTrue(first.join().getErrors().isEmpty());
+        assertTrue(second.join().getErrors().isEmpty());
+        assertEquals(500L, cost(second.join()).get("total"));
+        instrumentation.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cost(ExecutionResult result) {
+        return (Map<String, Object>) result.getExtensions().get(QueryCostInstrumentation.COST_EXTENSION);
+    }
+
+    private static GraphQL graphQL(QueryCostInstrumentation instrumentation, DataFetcher<?> searchBooks) {
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type.dataFetcher("searchBooks", searchBooks))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+        return GraphQL.newGraphQL(schema).instrumentation(instrumentation).build();
+    }
+}
@@ -0,0 +1,95 @@
+package dev.springharvest.expressions.helpers;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntityAttributeIndexTest {
+
+    static class Base<K extends Serializable> {
+        @Id
+        K id;
+    }
+
+    @AttributeOverride(name = "id", column = @Column(name = "book_id"))
+    static class Book extends Base<UUID> {
+        String title;
+        Author author;
+    }
+
+    static class Author extends Base<UUID> {
+        String name;
+    }
+
+    @Test
+    void of_withUnmanagedClass_indexesFieldsThroughReflection() {
+        EntityAttributeIndex index = new EntityAttributeIndex();
+
+        EntityAttributeIndex.EntityAttributes attributes = index.of(Book.class);
+
+        assertEquals(String.class, attributes.attribute("title").javaType());
+        assertEquals(Serializable.class, attributes.attribute("id").javaType());
+        assertFalse(attributes.attribute("author").isManaged());
+        assertNotNull(attributes.attribute("author").field());
+        assertNull(attributes.attribute("missing"));
+        assertTrue(attributes.isOverridden("id"));
+        assertEquals("book_id", attributes.actualName("id"));
+        assertEquals("title", attributes.actualName("title"));
+        assertEquals("book_id", attributes.idAttribute());
+        assertSame(attributes, index.of(Book.class));
+    }
+
+    @Test
+    void of_withFieldOfUnopenedPackage_indexesItWithoutTheField() {
+        EntityAttributeIndex index = new EntityAttributeIndex();
+
+        // java.base does not open java.util.concurrent.atomic, so the field cannot be made accessible
+        EntityAttributeIndex.Attribute value = index.of(java.util.concurrent.atomic.AtomicInteger.class).attribute("value");
+
+        assertEquals(int.class, value.javaType());
+        assertNull(value.field());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void index_withManagedType_readsTypesAndKindsFromMetamodel() {
+        SingularAttribute id = mock(SingularAttribute.class);
+        when(id.getName()).thenReturn("id");
+        when(id.getJavaType()).thenReturn(UUID.class);
+        when(id.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.BASIC);
+        when(id.isId()).thenReturn(true);
+        SingularAttribute author = mock(SingularAttribute.class);
+        when(author.getName()).thenReturn("author");
+        when(author.getJavaType()).thenReturn(Author.class);
+        when(author.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.MANY_TO_ONE);
+        ManagedType bookType = mock(ManagedType.class);
+        when(bookType.getJavaType()).thenReturn(Book.class);
+        when(bookType.getAttributes()).thenReturn(Set.of(id, author));
+        Metamodel metamodel = mock(Metamodel.class);
+        when(metamodel.getManagedTypes()).thenReturn(Set.of(bookType));
+        EntityAttributeIndex index = new EntityAttributeIndex();
+
+        index.index(metamodel);
+        EntityAttributeIndex.EntityAttributes attributes = index.of(Book.class);
+
+        assertEquals(UUID.class, attributes.attribute("id").javaType());
+        assertFalse(attributes.attribute("id").isComplex());
+        assertTrue(attributes.attribute("author").isComplex());
+        assertNotNull(attributes.attribute("author").field());
+        assertFalse(attributes.attribute("title").isManaged());
+        assertEquals("book_id", attributes.idAttribute());
+    }
+}
@@ -0,0 +1,82 @@
+package dev.springharvest.expressions.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCostTest {
+
+    @Test
+    void of_withPagedSearch_costsTheRowsOfThePage() {
+        QueryCost cost = QueryCost.of(Map.of("filter", Map.of(), "paging", Map.of("page", 1, "size", 25)), 0);
+
+        assertEquals(new QueryCost(25, 0, 0, 0), cost);
+        assertEquals(25, cost.total());
+    }
+
+    @Test
+    void of_withoutPageSize_costsUnpagedRows() {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("paging", null);
+
+        assertEquals(QueryCost.UNPAGED_ROWS, QueryCost.of(arguments, 0).rows());
+    }
+
+    @Test
+    void of_withoutPaging_costsASingleRow() {
+        assertEquals(1, QueryCost.of(Map.of("filter", Map.of()), 0).rows());
+    }
+
+    @Test
+    void of_weighsUnindexableOperatorsAndInValues() {
+        Map<String, Object> filter = Map.of(
+                "title", Map.of("containsic", "a"),
+                "genre", Map.of("in", List.of("b", "c", "d")));
+
+        QueryCost cost = QueryCost.of(Map.of("filter", filter), 0);
+
+        assertEquals(QueryCost.UNINDEXABLE_CONDITION_WEIGHT + 3 * QueryCost.INDEXABLE_CONDITION_WEIGHT, cost.conditions());
+    }
+
+    @Test
+    void of_multipliesConditionsByTheirDepth() {
+        Map<String, Object> filter = Map.of(
+                "or", List.of(
+                        Map.of("title", Map.of("eq", "a")),
+                        Map.of("not", Map.of("title", Map.of("endsic", "b")))));
+
+        QueryCost cost = QueryCost.of(Map.of("filter", filter), 0);
+
+        assertEquals(2 * QueryCost.INDEXABLE_CONDITION_WEIGHT + 3 * QueryCost.UNINDEXABLE_CONDITION_WEIGHT, cost.conditions());
+    }
+
+    @Test
+    void of_countsFilteredAssociationsAndSelectedJoins() {
+        Map<String, Object> filter = Map.of("author", Map.of("name", Map.of("equals", "a"), "pet", Map.of("name", Map.of("equals", "b"))));
+
+        QueryCost cost = QueryCost.of(Map.of("filter", filter), 1);
+
+        assertEquals(3, cost.joins());
+        assertEquals(2, cost.conditions());
+    }
+
+    @Test
+    void of_countsAggregatedAndGroupedFields() {
+        Map<String, Object> aggregates = Map.of("count", List.of("Book_id"), "groupBy", List.of("Book_title", "Book_genre"));
+
+        QueryCost cost = QueryCost.of(Map.of("aggregates", aggregates, "paging", Map.of("size", 10)), 0);
+
+        assertEquals(3, cost.aggregates());
+        assertEquals(10 + 3 * QueryCost.AGGREGATE_WEIGHT, cost.total());
+    }
+
+    @Test
+    void isSearch_detectsSearchArguments() {
+        assertTrue(QueryCost.isSearch(Map.of("paging", Map.of())));
+        assertFalse(QueryCost.isSearch(Map.of("join", "INNER")));
+    }
+}
@@ -11,6 +11,7 @@ import org.mockito.MockitoAnnotations;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,8 +50,8 @@ class GenericEntityMapperTest {
         when(authorNameElement.getAlias()).thenReturn("name");
         when(petNameElement.getAlias()).thenReturn("pet.name");
 
-        when(tuple.get("name", String.class)).thenReturn("John Doe");
-        when(tuple.get("pet.name", String.class)).thenReturn("Buddy");
+        when(tuple.get(0)).thenReturn("John Doe");
+        when(tuple.get(1)).thenReturn("Buddy");
 
         // Invoking the method under test
         List<GenericEntityMapperTest.Author> result = genericEntityMapper.mapTuplesToEntity(rawList, GenericEntityMapperTest.Author.class);
@@ -62,6 +63,31 @@ class GenericEntityMapperTest {
         assertEquals("Buddy", result.get(0).getPet().getName());
     }
 
+    @Test
+    void mapTuplesToEntity_withTuplesOfSameShape_mapsEachRowToItsOwnGraph() {
+        List<Tuple> rawList = new ArrayList<>();
+        for (String name : List.of("John Doe", "Jane Doe")) {
+            rawList.add(mockTuple(Map.of("id", UUID.randomUUID(), "name", name, "pet.id", UUID.randomUUID(), "pet.name", name + "'s pet")));
+        }
+
+        List<GenericEntityMapperTest.Author> result = genericEntityMapper.mapTuplesToEntity(rawList, GenericEntityMapperTest.Author.class);
+
+        assertEquals(2, result.size());
+        assertEquals("Jane Doe", result.get(1).getName());
+        assertEquals("Jane Doe's pet", result.get(1).getPet().getName());
+        assertNotSame(result.get(0).getPet(), result.get(1).getPet());
+        assertEquals(rawList.get(0).get(2), result.get(0).getPet().getId());
+    }
+
+    @Test
+    void mapTuplesToEntity_withInheritedField_setsField() {
+        UUID id = UUID.randomUUID();
+
+        List<GenericEntityMapperTest.Author> result = genericEntityMapper.mapTuplesToEntity(List.of(mockTuple(Map.of("id", id))), GenericEntityMapperTest.Author.class);
+
+        assertEquals(id, result.getFirst().getId());
+        assertNull(result.getFirst().getPet());
+    }
 
     @Test
     void mapTuplesToEntity_withEmptyList_returnsEmptyList() {
@@ -116,6 +142,25 @@ class GenericEntityMapperTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+    /**
+     * Mocks a tuple whose elements are the entries of the given map, in their iteration order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Tuple mockTuple(Map<String, Object> values) {
+        Tuple tuple = mock(Tuple.class);
+        List<TupleElement<?>> elements = new ArrayList<>();
+        List<Map.Entry<String, Object>> entries = new ArrayList<>(new TreeMap<>(values).entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            TupleElement element = mock(TupleElement.class);
+            when(element.getAlias()).thenReturn(entries.get(i).getKey());
+            when(element.getJavaType()).thenReturn(entries.get(i).getValue().getClass());
+            elements.add(element);
+            when(tuple.get(i)).thenReturn(entries.get(i).getValue());
+        }
+        when(tuple.getElements()).thenReturn(elements);
+        return tuple;
+    }
+
     public static class Author extends BaseEntity<UUID> {
         private String name;
         private Pet pet;
@@ -0,0 +1,125 @@
+package dev.springharvest.search.domains.base.mappers.queries;
+
+import dev.springharvest.errors.constants.ExceptionMessages;
+import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterBO;
+import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterDTO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterBO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterDTO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestDTO;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * This class contains utility methods to resolve the binder of a filter request class.
+ * <p>
+ * The binder generated by the Harvest annotation processor, named after the filter request class with the
+ * {@value #GENERATED_BINDER_SUFFIX} suffix, is used when it exists. Otherwise, the fields of the filter request are walked
+ * once and the resulting binder only reads them. The binders are resolved once per class.
+ *
+ * @see IFilterBinder
+ */
+public class FilterBinders {
+
+  /**
+   * The suffix of the binders generated for the filter requests annotated with @HarvestFilter.
+   */
+  public static final String GENERATED_BINDER_SUFFIX = "Binder_";
+
+  private static final ClassValue<IFilterBinder<Object, Object>> BINDERS = new ClassValue<>() {
+    @Override
+    protected IFilterBinder<Object, Object> computeValue(Class<?> type) {
+      return resolve(type);
+    }
+  };
+
+  private FilterBinders() {
+    throw new UnsupportedOperationException(ExceptionMessages.PRIVATE_CONSTRUCTOR_MESSAGE);
+  }
+
+  /**
+   * Returns the binder of a filter request class.
+   *
+   * @param filterRequestClass The class of the filter request, or of a filter nested in it.
+   * @param <T>                The type of the filter request.
+   * @param <P>                The type of the filter parameters, FilterParameterDTO for the DTOs and FilterParameterBO otherwise.
+   * @return The binder of the filter request class.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T, P> IFilterBinder<T, P> of(Class<?> filterRequestClass) {
+    return (IFilterBinder<T, P>) BINDERS.get(filterRequestClass);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static IFilterBinder<Object, Object> resolve(Class<?> type) {
+    try {
+      Class<?> generated = Class.forName(type.getName() + GENERATED_BINDER_SUFFIX, true, type.getClassLoader());
+      return (IFilterBinder<Object, Object>) generated.getDeclaredConstructor().newInstance();
+    } catch (ClassNotFoundException e) {
+      boolean isDto = BaseFilterRequestDTO.class.isAssignableFrom(type) || BaseFilterDTO.class.isAssignableFrom(type);
+      return new ReflectiveFilterBinder(compile(type, "", isDto ? FilterParameterDTO.class : FilterParameterBO.class));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate the generated binder of " + type.getName(), e);
+    }
+  }
+
+  /**
+   * Walks the fields of a filter, in the same order and with the same paths as the generated binders: the path of a nested
+   * filter is its field name prefixed by the path of its parent, and the path of a filter parameter is its field name
+   * prefixed by the path of its filter and a dot.
+   */
+  private static List<Node> compile(Class<?> type, String path, Class<?> parameterType) {
+    List<Node> nodes = new ArrayList<>();
+    for (Field field : type.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers())) {
+        continue;
+      }
+      if (parameterType.isAssignableFrom(field.getType())) {
+        field.setAccessible(true);
+        nodes.add(new Node(field, path + "." + field.getName(), null));
+      } else if (BaseFilterBO.class.isAssignableFrom(field.getType()) || BaseFilterDTO.class.isAssignableFrom(field.getType())) {
+        field.setAccessible(true);
+        String nestedPath = path.isEmpty() ? field.getName() : path + "." + field.getName();
+        nodes.add(new Node(field, nestedPath, compile(field.getType(), nestedPath, parameterType)));
+      }
+    }
+    return List.copyOf(nodes);
+  }
+
+  /**
+   * A field of a filter, which is a filter parameter when its children are null, or a nested filter otherwise.
+   */
+  private record Node(Field field, String path, List<Node> children) {
+
+  }
+
+  private record ReflectiveFilterBinder(List<Node> nodes) implements IFilterBinder<Object, Object> {
+
+    @Override
+    public void forEachParameter(Object filterRequest, BiConsumer<String, Object> action) {
+      forEachParameter(nodes, filterRequest, action);
+    }
+
+    private static void forEachParameter(List<Node> nodes, Object filter, BiConsumer<String, Object> action) {
+      for (Node node : nodes) {
+        Object value;
+        try {
+          value = node.field().get(filter);
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException("Failed to read the filter " + node.path(), e);
+        }
+        if (value == null) {
+          continue;
+        }
+        if (node.children() == null) {
+          action.accept(node.path(), value);
+        } else {
+          forEachParameter(node.children(), value, action);
+        }
+      }
+    }
+  }
+
+}
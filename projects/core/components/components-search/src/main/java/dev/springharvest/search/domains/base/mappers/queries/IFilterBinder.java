@@ -0,0 +1,27 @@
+package dev.springharvest.search.domains.base.mappers.queries;
+
+import java.util.function.BiConsumer;
+
+/**
+ * This interface contracts the enumeration of the filter parameters of a filter request, along with their paths.
+ * <p>
+ * The binders of the filter requests annotated with @HarvestFilter are generated by the Harvest annotation processor, with
+ * direct getters and path constants. The other filter requests are bound by walking their fields, which is done once per
+ * class.
+ *
+ * @param <T> The type of the filter request, e.g. a BaseFilterRequestBO or a BaseFilterRequestDTO.
+ * @param <P> The type of the filter parameters, i.e. FilterParameterBO or FilterParameterDTO.
+ * @see FilterBinders
+ */
+@FunctionalInterface
+public interface IFilterBinder<T, P> {
+
+  /**
+   * Calls the action with each filter parameter set in the filter request, along with its path, e.g. "book.title".
+   *
+   * @param filterRequest The filter request.
+   * @param action        The action called with the path and the value of each filter parameter that is not null.
+   */
+  void forEachParameter(T filterRequest, BiConsumer<String, P> action);
+
+}
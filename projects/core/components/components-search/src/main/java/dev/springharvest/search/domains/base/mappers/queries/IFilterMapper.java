@@ -5,7 +5,6 @@ import dev.springharvest.search.domains.base.models.queries.requests.filters.Bas
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterDTO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestDTO;
-import java.lang.reflect.Field;
 import java.util.Set;
 import org.mapstruct.BeforeMapping;
 import org.mapstruct.MappingTarget;
@@ -59,65 +58,26 @@ public interface IFilterMapper<RD extends BaseFilterRequestDTO, RB extends BaseF
   /**
    * This method is used in conjunction in a PATCH request to refresh any attributes that are present in the already persisted entity, but omitted form the
    * PATCH request.
+   * <p>
+   * The path of each filter parameter of the source is set by the binder of its class, which is generated for the filter requests annotated with
+   * HarvestFilter.
    *
    * @param source The BaseFilterRequestDTO object that will be mapped from.
    * @param target The BaseFilterRequestBO object that will be mapped to.
    * @see BaseFilterRequestDTO
    * @see BaseFilterRequestBO
+   * @see FilterBinders
    */
   @BeforeMapping
   default void setDirtyFields(RD source, @MappingTarget RB target) {
 
-    buildAttributePaths(target, source, source, "");
+    FilterBinders.<RD, FilterParameterDTO>of(source.getClass()).forEachParameter(source, (path, filterParameterDTO) -> {
+      filterParameterDTO.setAlias(path);
+      filterParameterDTO.setPath(path);
+      filterParameterDTO.setClazz(Object.class);
+      toParameter(filterParameterDTO);
+    });
 
   }
 
-  /**
-   * This method is used to recursively iterate through all fields in the FilterParameter's class and its superclasses to build the full path of the attributes
-   * contained within it.
-   *
-   * @param target The BaseFilterRequestBO object that will be mapped to.
-   * @param source The BaseFilterRequestDTO object that will be mapped from.
-   * @param object The object that will be iterated through.
-   * @param path   The path that will be used to construct the full path.
-   * @see BaseFilterRequestDTO
-   * @see BaseFilterRequestBO
-   */
-  private void buildAttributePaths(RB target, RD source, Object object, String path) {
-    try {
-      // Iterate through all fields in the object's class
-      for (Field field : object.getClass()
-          .getDeclaredFields()) {
-        // Make the field accessible (in case it's private)
-        field.setAccessible(true);
-
-        // Get the value of the field
-        Object value = field.get(object);
-
-        // Check if the value is a FilterParameterDTO
-        if (value != null && FilterParameterDTO.class.isAssignableFrom(field.getType())) {
-          // Construct the full path by concatenating the previous path with the current field name
-
-          String fullPath = path + "." + field.getName();
-
-          // Do something with the FilterParameterDTO
-          FilterParameterDTO filterParameterDTO = (FilterParameterDTO) value;
-          filterParameterDTO.setAlias(fullPath);
-          filterParameterDTO.setPath(fullPath);
-          filterParameterDTO.setClazz(Object.class);
-          toParameter(filterParameterDTO);
-
-        } else if (value != null) {
-          // Construct the new path by concatenating the previous path with the current field name
-          String newPath = path.isEmpty() ? field.getName() : path + "." + field.getName();
-
-          // Recursively iterate through the nested object with the new path
-          buildAttributePaths(target, source, value, newPath);
-        }
-      }
-    } catch (IllegalAccessException e) {
-      // TODO: Convert interface to abstract class and log exception message
-    }
-  }
-
 }
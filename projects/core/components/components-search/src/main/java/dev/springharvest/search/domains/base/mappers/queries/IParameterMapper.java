@@ -4,6 +4,7 @@ import dev.springharvest.search.domains.base.models.queries.parameters.filters.F
 import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterDTO;
 import dev.springharvest.search.domains.base.models.queries.parameters.selections.SelectionBO;
 import dev.springharvest.search.domains.base.models.queries.parameters.selections.SelectionDTO;
+import dev.springharvest.shared.utils.AttributePath;
 import java.util.List;
 import java.util.Set;
 import javax.naming.OperationNotSupportedException;
@@ -77,9 +78,7 @@ public interface IParameterMapper {
    * @return True if the path is joined, false otherwise.
    */
   default boolean getIsJoined(String path) {
-    Set<String> roots = getRoots();
-    String prefix = path.split("\\.")[0];
-    return !roots.contains(prefix);
+    return !getRoots().contains(AttributePath.of(path).first());
   }
 
   /**
@@ -4,28 +4,53 @@ import dev.springharvest.search.domains.base.models.entities.IEntityMetadata;
 import dev.springharvest.search.domains.base.persistence.AbstractCriteriaSearchDao;
 import dev.springharvest.search.domains.base.persistence.ICriteriaSearchRepository;
 import dev.springharvest.shared.domains.DomainModel;
+import dev.springharvest.shared.utils.AttributePath;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TupleElement;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.util.ObjectUtils;
 
-@Slf4j
 /**
  * This class is used to transform a Tuple that is returned from a TupleQuery in the CriteriaSearch repository, into
  * a concrete Entity.
+ * <p>
+ * The associated entities are declared with {@link #addAssociation(String, AbstractBaseTupleTransformer, BiConsumer)}, so that the entity and its
+ * associated entities are mapped in a single pass over the elements of the Tuple, following a {@link TupleTransformerPlan} compiled once per shape of
+ * Tuple.
  * @param <M> The highest parameterized type of data-transfer-object (DTO), business-object (BO), or Entity.
  * @see ICriteriaSearchRepository
  * @see AbstractCriteriaSearchDao
  */ public abstract class AbstractBaseTupleTransformer<M extends DomainModel> implements Function<Tuple, M> {
 
+  /**
+   * The maximum number of plans kept by a transformer. The plans of the shapes past this limit are compiled on every use.
+   */
+  static final int MAX_CACHED_PLANS = 256;
+
   protected IEntityMetadata<M> entityMetadata;
 
+  private final Map<String, Association<M, ?>> associations = new LinkedHashMap<>();
+  private final Map<List<String>, TupleTransformerPlan> plans = new ConcurrentHashMap<>();
+
+  /**
+   * An associated entity of the entity that is being transformed.
+   *
+   * @param transformer The transformer of the associated entity.
+   * @param setter      The setter of the associated entity on the entity.
+   */
+  record Association<M extends DomainModel, A extends DomainModel>(AbstractBaseTupleTransformer<A> transformer, BiConsumer<M, A> setter) {
+
+  }
+
   @Autowired
   protected AbstractBaseTupleTransformer(IEntityMetadata<M> entityMetadata) {
     this.entityMetadata = entityMetadata;
@@ -51,18 +76,67 @@ import org.springframework.util.ObjectUtils;
    */
   protected M mapTuple(Tuple tuple) {
 
-    M entity = getNewEntity();
+    M entity = getPlan(tuple).map(tuple);
 
-    for (TupleElement<?> element : tuple.getElements()) {
-      String alias = element.getAlias();
-      Object value = tuple.get(alias);
+    return entity.isEmpty() ? null : entity;
+  }
 
-      alias = scrubAlias(alias);
+  /**
+   * This method is used to declare an associated entity of the entity that is being transformed. The elements of the Tuple whose alias goes through the
+   * association, e.g. "book.author.name" for the "author" association of a book, are mapped by the transformer of the associated entity, which is set on the
+   * entity when it is not empty.
+   *
+   * @param attribute   The name of the attribute of the association, e.g. "author".
+   * @param transformer The transformer of the associated entity.
+   * @param setter      The setter of the associated entity on the entity.
+   * @param <A>         The type of the associated entity.
+   */
+  protected <A extends DomainModel> void addAssociation(String attribute, AbstractBaseTupleTransformer<A> transformer, BiConsumer<M, A> setter) {
+    associations.put(attribute, new Association<>(transformer, setter));
+    plans.clear();
+  }
 
-      mapTupleElement(entity, alias, value);
+  /**
+   * This method is used to get the plan mapping the Tuples of the shape of the given Tuple, compiling it if it is not cached.
+   *
+   * @param tuple The Tuple that is being transformed from.
+   * @return The plan of the shape of the Tuple.
+   */
+  TupleTransformerPlan getPlan(Tuple tuple) {
+    List<TupleElement<?>> elements = tuple.getElements();
+    List<String> aliases = new ArrayList<>(elements.size());
+    for (TupleElement<?> element : elements) {
+      aliases.add(element.getAlias());
     }
+    TupleTransformerPlan plan = plans.get(aliases);
+    if (plan == null) {
+      plan = TupleTransformerPlan.compile(this, aliases);
+      if (plans.size() < MAX_CACHED_PLANS) {
+        plans.putIfAbsent(aliases, plan);
+      }
+    }
+    return plan;
+  }
 
-    return entity.isEmpty() ? null : entity;
+  /**
+   * This method is used to get the associated entity declared for the given attribute.
+   *
+   * @param attribute The name of the attribute of the association.
+   * @return The association, or null if no associated entity is declared for the attribute.
+   */
+  Association<M, ?> getAssociation(String attribute) {
+    return associations.get(attribute);
+  }
+
+  /**
+   * This method is used to get the index of the domain name of the entity that is being transformed in the path of a TupleElement.
+   *
+   * @param path The path of the TupleElement.
+   * @return The index of the first segment that is the singular or plural domain name, or -1 if the path does not contain it.
+   */
+  int indexOfDomainName(AttributePath path) {
+    int index = path.indexOf(entityMetadata.getDomainName(false));
+    return index >= 0 ? index : path.indexOf(entityMetadata.getDomainName(true));
   }
 
   /**
@@ -108,30 +182,14 @@ import org.springframework.util.ObjectUtils;
   }
 
   /**
-   * This method is used to map the TupleElement to the domain model object.
-   *
-   * @param entity The domain model object that is being transformed to.
-   * @param alias  The alias of the TupleElement.
-   * @param value  The value of the TupleElement.
-   * @see DomainModel
-   */
-  protected void mapTupleElement(M entity, String alias, Object value) {
-    BiConsumer<M, Object> function = entityMetadata.getRootMappingFunctions().get(alias);
-    if (ObjectUtils.isEmpty(function)) {
-      return;
-    }
-    function.accept(entity, value);
-  }
-
-  /**
-   * This method is used to upsert the associated entities of the entity that is being transformed.
+   * This method is used to upsert the associated entities of the entity that is being transformed which are not declared with
+   * {@link #addAssociation(String, AbstractBaseTupleTransformer, BiConsumer)}. It does nothing by default.
    *
    * @param entity The entity that is to upsert associated entities to.
    * @param tuple  The Tuple that is being transformed from.
    * @see DomainModel
    */
   protected void upsertAssociatedEntities(M entity, Tuple tuple) {
-    log.info("No associations to upsert for this entity root tuple transformer: {}", this.getClass().getSimpleName());
   }
 
 
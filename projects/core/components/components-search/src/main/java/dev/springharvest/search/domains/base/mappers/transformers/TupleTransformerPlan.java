@@ -0,0 +1,116 @@
+package dev.springharvest.search.domains.base.mappers.transformers;
+
+import dev.springharvest.search.domains.base.mappers.transformers.AbstractBaseTupleTransformer.Association;
+import dev.springharvest.shared.domains.DomainModel;
+import dev.springharvest.shared.utils.AttributePath;
+import jakarta.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A compiled plan mapping the Tuples of one shape (the aliases of their elements) to an entity and its associated entities.
+ * <p>
+ * The alias of each element is routed once per shape to the transformer of the entity or of the associated entity it belongs to, following the
+ * associations declared on the transformers, and bound to the mapping function of its field. Mapping a row is then a single loop over the indexed values of
+ * the Tuple, whatever the number of associations.
+ *
+ * @see AbstractBaseTupleTransformer
+ */
+final class TupleTransformerPlan {
+
+  /**
+   * An object built for each row: the entity (the first node) or an associated entity.
+   *
+   * @param parent      The index of the node holding this node, or -1 for the entity.
+   * @param transformer The transformer of the object.
+   * @param setter      The setter of the object on the object of the parent, or null for the entity.
+   */
+  private record Node(int parent, AbstractBaseTupleTransformer<?> transformer, BiConsumer<Object, Object> setter) {
+
+  }
+
+  private final Node[] nodes;
+  private final int[] targets; // For each element, the node holding its field
+  private final BiConsumer<Object, Object>[] functions; // For each element, the mapping function of its field, or null if it is not mapped
+
+  private TupleTransformerPlan(Node[] nodes, int[] targets, BiConsumer<Object, Object>[] functions) {
+    this.nodes = nodes;
+    this.targets = targets;
+    this.functions = functions;
+  }
+
+  /**
+   * Compiles the plan of the given shape for the given transformer.
+   *
+   * @param transformer The transformer of the entity.
+   * @param aliases     The aliases of the elements of the Tuples, in order.
+   * @return The plan.
+   */
+  @SuppressWarnings("unchecked")
+  static TupleTransformerPlan compile(AbstractBaseTupleTransformer<?> transformer, List<String> aliases) {
+    List<Node> nodes = new ArrayList<>();
+    Map<String, Integer> nodesByPath = new HashMap<>();
+    nodes.add(new Node(-1, transformer, null));
+
+    int[] targets = new int[aliases.size()];
+    BiConsumer<Object, Object>[] functions = new BiConsumer[aliases.size()];
+    for (int i = 0; i < aliases.size(); i++) {
+      if (aliases.get(i) == null) {
+        continue;
+      }
+      AttributePath alias = AttributePath.of(aliases.get(i));
+      int node = 0;
+      String nodePath = "";
+      AbstractBaseTupleTransformer<?> current = transformer;
+      // The alias goes through an association when a segment follows the attribute after the domain name, e.g. "book.author.name"
+      int start = current.indexOfDomainName(alias) + 1;
+      Association<?, ?> association;
+      while (start < alias.size() - 1 && (association = current.getAssociation(alias.segment(start))) != null) {
+        nodePath = nodePath + AttributePath.SEPARATOR + alias.segment(start);
+        int parent = node;
+        Association<?, ?> child = association;
+        node = nodesByPath.computeIfAbsent(nodePath, path -> {
+          nodes.add(new Node(parent, child.transformer(), (BiConsumer<Object, Object>) child.setter()));
+          return nodes.size() - 1;
+        });
+        current = association.transformer();
+        alias = alias.subPath(start);
+        start = current.indexOfDomainName(alias) + 1;
+      }
+      targets[i] = node;
+      functions[i] = (BiConsumer<Object, Object>) current.entityMetadata.getRootMappingFunctions().get(current.scrubAlias(alias.toString()));
+    }
+    return new TupleTransformerPlan(nodes.toArray(new Node[0]), targets, functions);
+  }
+
+  /**
+   * Maps a Tuple of the shape of this plan to a new entity, on which the associated entities that are not empty are set.
+   *
+   * @param tuple The Tuple.
+   * @param <M>   The type of the entity.
+   * @return The entity.
+   */
+  @SuppressWarnings("unchecked")
+  <M extends DomainModel> M map(Tuple tuple) {
+    DomainModel[] objects = new DomainModel[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      objects[i] = nodes[i].transformer().getNewEntity();
+    }
+    for (int i = 0; i < functions.length; i++) {
+      if (functions[i] != null) {
+        functions[i].accept(objects[targets[i]], tuple.get(i));
+      }
+    }
+    // The nodes follow their parent, so the associated entities are complete when they are set on their parent
+    for (int i = nodes.length - 1; i > 0; i--) {
+      if (!objects[i].isEmpty()) {
+        nodes[i].setter().accept(objects[nodes[i].parent()], objects[i]);
+      }
+    }
+    return (M) objects[0];
+  }
+
+}
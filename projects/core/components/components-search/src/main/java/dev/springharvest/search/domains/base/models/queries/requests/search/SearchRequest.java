@@ -40,6 +40,8 @@ public class SearchRequest<RB extends BaseFilterRequestBO> implements ISearchReq
   @Setter
   private Set<RB> filters;
 
+  private String after;
+
   @JsonIgnore
   public boolean isPageable() {
     return page != null && page.getPageSize() != 0;
@@ -39,5 +39,10 @@ public class SearchRequestDTO<F extends BaseFilterRequestDTO> {
   @Schema(name = "filters", description = "The filters to apply to the search.")
   private Set<F> filters;
 
+  @Schema(name = "after",
+          description = "The cursor returned in the X-Next-Cursor header of the previous page. When set, the page is read "
+                        + "after the last row of the previous page instead of at an offset, and the page number is ignored.")
+  private String after;
+
 }
 
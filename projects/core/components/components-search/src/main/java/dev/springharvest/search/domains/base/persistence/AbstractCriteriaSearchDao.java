@@ -1,11 +1,9 @@
 package dev.springharvest.search.domains.base.persistence;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -17,24 +15,31 @@ import java.util.UUID;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.util.CollectionUtils;
 
+import dev.springharvest.crud.domains.base.persistence.FetchPlan;
 import dev.springharvest.errors.constants.ExceptionMessages;
 import dev.springharvest.errors.models.ClientException;
 import dev.springharvest.errors.models.ExceptionDetail;
+import dev.springharvest.search.domains.base.mappers.queries.FilterBinders;
+import dev.springharvest.search.domains.base.models.entities.IEntityMetadata;
 import dev.springharvest.search.domains.base.models.queries.parameters.base.BaseParameterBO;
 import dev.springharvest.search.domains.base.models.queries.parameters.filters.CriteriaOperator;
 import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterBO;
 import dev.springharvest.search.domains.base.models.queries.parameters.selections.SelectionBO;
-import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterBO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequest;
+import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import dev.springharvest.shared.utils.AttributePath;
+import dev.springharvest.shared.utils.CursorUtils;
+import dev.springharvest.shared.utils.SearchMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.common.util.StringUtils;
-import jakarta.persistence.Embedded;
-import jakarta.persistence.Entity;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Id;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
@@ -45,6 +50,7 @@ import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.SpecHints;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -62,54 +68,203 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
     RB extends BaseFilterRequestBO>
     implements ICriteriaSearchRepository<E, RB> {
 
+  /**
+   * The name of the id attribute of the entities, as declared by BaseEntity.
+   */
+  private static final String ID_ATTRIBUTE = "id";
+
+  /**
+   * The prefix of the aliases of the cursor keys added to the selections when they are not selected.
+   */
+  private static final String CURSOR_KEY_ALIAS_PREFIX = "springharvest_cursor_key_";
+
+  /**
+   * The operations tagging the metrics of the searches, counts and existence checks.
+   */
+  private static final String SEARCH_OPERATION = "search";
+  private static final String COUNT_OPERATION = "count";
+  private static final String EXISTS_OPERATION = "exists";
+
   @Getter
   private final Class<E> clazz;
 
   @Getter
   private final String rootPath;
   private final Function<Tuple, E> tupleTransformer;
+
+  /**
+   * The to-one associations loaded along with the entities of the searches without selections, the direct ones unless another depth is set.
+   */
+  @Getter
+  private List<String> fetchPlan;
+
+  /**
+   * The metadata of the entity, whose paths are registered along with the attributes of the JPA metamodel.
+   */
+  private final IEntityMetadata<?> entityMetadata;
+
+  /**
+   * The paths of the entity, against which the selections and filters are validated, built once the entity manager is set.
+   */
+  private volatile PathRegistry pathRegistry;
   @PersistenceContext
   protected EntityManager entityManager;
+
+  /**
+   * The metrics of the phases of the searches, recording nothing until a meter registry is set.
+   */
+  private SearchMetrics metrics = SearchMetrics.NOOP;
   
   public void setEntityManager(EntityManager entityManager) {
       this.entityManager = entityManager;
+      this.pathRegistry = null;
+  }
+
+  /**
+   * Builds the registry of the paths of the entity at startup, so that no search pays for it.
+   */
+  @PostConstruct
+  void buildPathRegistry() {
+    if (entityManager != null) {
+      getPathRegistry();
+    }
+  }
+
+  /**
+   * Returns the registry of the paths of the entity, built once from the JPA metamodel and the entity metadata.
+   *
+   * @return The registry of the paths of the entity.
+   * @see PathRegistry
+   */
+  public PathRegistry getPathRegistry() {
+    PathRegistry registry = pathRegistry;
+    if (registry == null) {
+      registry = PathRegistry.of(entityManager.getMetamodel(), getClazz(), entityMetadata);
+      pathRegistry = registry;
+    }
+    return registry;
+  }
+
+  /**
+   * Sets the registry in which the duration of the phases of the searches (building the selections and the predicates, the
+   * data query and the mapping of the rows) and the number of rows read are recorded.
+   *
+   * @param meterRegistry The meter registry.
+   * @see SearchMetrics
+   */
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.metrics = SearchMetrics.of(meterRegistry);
+  }
+
+  /**
+   * Sets the maximum depth of the to-one associations loaded along with the entities of the searches without selections, e.g. 2 to load the author of a book
+   * and the pet of the author. A depth of 0 loads none.
+   *
+   * @param maxDepth The maximum number of associations in a fetched path.
+   * @see FetchPlan
+   */
+  @Value("${springharvest.search.fetch-plan.max-depth:" + FetchPlan.DEFAULT_MAX_DEPTH + "}")
+  public void setFetchPlanMaxDepth(int maxDepth) {
+    this.fetchPlan = FetchPlan.of(clazz, null, maxDepth);
   }
 
 
-  @Autowired
   protected AbstractCriteriaSearchDao(String rootPath, Function<Tuple, E> tupleTransformer) {
+    this(rootPath, tupleTransformer, null);
+  }
+
+  @Autowired
+  protected AbstractCriteriaSearchDao(String rootPath, Function<Tuple, E> tupleTransformer, IEntityMetadata<?> entityMetadata) {
 
     this.rootPath = rootPath;
 
+    this.entityMetadata = entityMetadata;
+
     this.tupleTransformer = tupleTransformer;
 
     // Setting clazz
     ParameterizedType parameterizedType = (ParameterizedType) getClass().getGenericSuperclass();
     @SuppressWarnings("unchecked") Class<E> entityClass = (Class<E>) parameterizedType.getActualTypeArguments()[0];
     this.clazz = entityClass;
+    this.fetchPlan = FetchPlan.of(entityClass, null);
 
   }
 
   @Override
   public boolean existsByUnique(SearchRequest<RB> searchRequest) {
-    return count(searchRequest) > 0;
+    return exists(searchRequest);
   }
 
+  /**
+   * Tells whether an entity matches the filters of the search request, reading at most one id rather than the entities.
+   * The selections and the page of the search request are ignored.
+   */
   @Override
   public boolean exists(SearchRequest<RB> searchRequest) {
-    return count(searchRequest) > 0;
+    validatePaths(searchRequest);
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object> existsQuery = cb.createQuery(Object.class);
+    Root<E> root = existsQuery.from(getClazz());
+    existsQuery.select(root.get(ID_ATTRIBUTE));
+
+    long start = metrics.start();
+    CriteriaBuilderHelper.buildAndSetPredicates(cb, searchRequest, root, rootPath, new HashMap<>(), existsQuery);
+    metrics.stop(start, SearchMetrics.PREDICATES, getClazz(), EXISTS_OPERATION);
+
+    start = metrics.start();
+    boolean exists = !entityManager.createQuery(existsQuery).setMaxResults(1).getResultList().isEmpty();
+    metrics.stop(start, SearchMetrics.DATA, getClazz(), EXISTS_OPERATION);
+    return exists;
   }
 
+  /**
+   * Counts the entities matching the filters of the search request in a count query, rather than reading them. The
+   * selections and the page of the search request are ignored.
+   */
   @Override
   public int count(SearchRequest<RB> searchRequest) {
-    List<E> results = search(searchRequest);
-    return results.size();
+    validatePaths(searchRequest);
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+    Root<E> root = countQuery.from(getClazz());
+    Map<String, Path<E>> joinMap = new HashMap<>();
+
+    long start = metrics.start();
+    CriteriaBuilderHelper.buildAndSetPredicates(cb, searchRequest, root, rootPath, joinMap, countQuery);
+    metrics.stop(start, SearchMetrics.PREDICATES, getClazz(), COUNT_OPERATION);
+    // A joined collection repeats an entity once per matching element
+    countQuery.select(joinMap.isEmpty() ? cb.count(root) : cb.countDistinct(root));
+
+    start = metrics.start();
+    Long count = entityManager.createQuery(countQuery).getSingleResult();
+    metrics.stop(start, SearchMetrics.DATA, getClazz(), COUNT_OPERATION);
+    return Math.toIntExact(count);
   }
 
-  @SuppressWarnings("unchecked")
+  @Override
   public List<E> search(SearchRequest<RB> searchRequest) {
+    return search(searchRequest, false).getData();
+  }
+
+  @Override
+  public PageData<E> searchPage(SearchRequest<RB> searchRequest) {
+    return search(searchRequest, true);
+  }
 
+  /**
+   * Searches for a page of entities, reading the page after the cursor of the search request when it has one.
+   *
+   * @param searchRequest  The search request that will be used to identify the entity.
+   * @param withNextCursor Whether the cursor of the next page must be computed.
+   * @return The page of entities that match the search request.
+   */
+  @SuppressWarnings("unchecked")
+  private PageData<E> search(SearchRequest<RB> searchRequest, boolean withNextCursor) {
+
+    validatePaths(searchRequest);
     boolean isSelectAll = CollectionUtils.isEmpty(searchRequest.getSelections());
+    boolean isCursorPaging = searchRequest.isPageable() && (withNextCursor || searchRequest.getAfter() != null);
     CriteriaBuilder cb = entityManager.getCriteriaBuilder();
     Map<String, Path<E>> joinMap = new HashMap<>();
 
@@ -119,30 +274,140 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
     Root<E> root = isSelectAll ? entityQuery.from(getClazz()) : tupleQuery.from(getClazz());
 
     // SELECT
+    long start = metrics.start();
+    List<Selection<?>> selections = new ArrayList<>();
     if (isSelectAll) {
       entityQuery.select(root);
       setSortingOrder(cb, searchRequest, root, rootPath, joinMap, entityQuery);
     } else {
-      tupleQuery.multiselect(buildSelections(root, searchRequest.getSelections(), joinMap));
+      selections.addAll(List.of(buildSelections(root, searchRequest.getSelections(), joinMap)));
+      tupleQuery.multiselect(selections);
       setSortingOrder(cb, searchRequest, root, rootPath, joinMap, tupleQuery);
     }
 
+    metrics.stop(start, SearchMetrics.SELECTIONS, getClazz(), SEARCH_OPERATION);
+
     // WHERE
+    start = metrics.start();
     CriteriaBuilderHelper.buildAndSetPredicates(cb, searchRequest, root, rootPath, joinMap,
                                                 isSelectAll ? entityQuery : tupleQuery);
+    metrics.stop(start, SearchMetrics.PREDICATES, getClazz(), SEARCH_OPERATION);
+
+    // SEEK
+    List<CursorUtils.Key> cursorKeys = List.of();
+    int[] cursorIndexes = new int[0];
+    if (isCursorPaging) {
+      CriteriaQuery<?> query = isSelectAll ? entityQuery : tupleQuery;
+      cursorKeys = getCursorKeys(cb, searchRequest, root, joinMap, query);
+      if (searchRequest.getAfter() != null) {
+        Predicate after = CriteriaBuilderHelper.getAfterPredicate(cb, searchRequest.getAfter(), cursorKeys);
+        query.where(query.getRestriction() != null ? cb.and(query.getRestriction(), after) : after);
+      }
+      if (!isSelectAll) {
+        cursorIndexes = addCursorSelections(selections, cursorKeys);
+        tupleQuery.multiselect(selections);
+      }
+    }
 
     // Handle Pagination
     TypedQuery<?> typedQuery =
         isSelectAll ? entityManager.createQuery(entityQuery) : entityManager.createQuery(tupleQuery);
-    CriteriaBuilderHelper.setPagination(typedQuery, searchRequest);
+    CriteriaBuilderHelper.setPagination(typedQuery, searchRequest, isCursorPaging && withNextCursor);
+    if (isSelectAll && !getFetchPlan().isEmpty()) {
+      // The associations are read when the entities are mapped, so they are loaded by the same statement
+      typedQuery.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, FetchPlan.toEntityGraph(entityManager, getClazz(), getFetchPlan()));
+    }
 
-    if (isSelectAll) {
-      return (List<E>) typedQuery.getResultList();
-    } else {
-      return aggregateAssociatedEntityLists(
-          ((List<Tuple>) typedQuery.getResultList()).stream().map(tupleTransformer).toList());
+    start = metrics.start();
+    List<?> results = typedQuery.getResultList();
+    metrics.stop(start, SearchMetrics.DATA, getClazz(), SEARCH_OPERATION);
+    metrics.recordRows(results.size(), SearchMetrics.DATA, getClazz(), SEARCH_OPERATION);
+    String nextCursor = null;
+    if (isCursorPaging && withNextCursor && results.size() > searchRequest.getPage().getMaxResults()) {
+      results = results.subList(0, searchRequest.getPage().getMaxResults());
+      Object last = results.getLast();
+      List<Object> values = new ArrayList<>();
+      if (isSelectAll) {
+        // Without selections the search is only sorted by id
+        values.add(((E) last).getId());
+      } else {
+        for (int index : cursorIndexes) {
+          values.add(((Tuple) last).get(index));
+        }
+      }
+      nextCursor = CursorUtils.encode(cursorKeys, values);
     }
 
+    start = metrics.start();
+    List<E> entities = isSelectAll ? (List<E>) results
+                                   : aggregateAssociatedEntityLists(((List<Tuple>) results).stream().map(tupleTransformer).toList());
+    metrics.stop(start, SearchMetrics.MAPPING, getClazz(), SEARCH_OPERATION);
+    PageData<E> page = new PageData<>(entities, searchRequest.isPageable() ? searchRequest.getPage().getPageNumber() : -1,
+                                      searchRequest.isPageable() ? searchRequest.getPage().getPageSize() : -1, -1, -1,
+                                      entities.size());
+    page.setNextCursor(nextCursor);
+    return page;
+
+  }
+
+  /**
+   * A helper method that will build the keys of the cursor of the search, i.e. its sorted selections followed by the id. The id is also added to the sort
+   * order of the query when it is not sorted yet, so that the order of the rows is total.
+   *
+   * @param cb            The criteria builder.
+   * @param searchRequest The search request.
+   * @param root          The root of the query.
+   * @param joinMap       The map of joins of the query.
+   * @param query         The query, whose sort order is already set.
+   * @return The keys of the cursor.
+   * @see CursorUtils
+   */
+  private List<CursorUtils.Key> getCursorKeys(CriteriaBuilder cb, SearchRequest<RB> searchRequest, Root<E> root,
+                                              Map<String, Path<E>> joinMap, CriteriaQuery<?> query) {
+    List<CursorUtils.Key> keys = new ArrayList<>();
+    PriorityQueue<SelectionBO> selectionsByPriority = searchRequest.getSelectionsByPriority(true);
+    while (!selectionsByPriority.isEmpty()) {
+      SelectionBO selection = selectionsByPriority.poll();
+      if (selection.getIsAscending() != null) {
+        keys.add(new CursorUtils.Key(selection.getAlias(), CriteriaBuilderHelper.getPath(selection, root, rootPath, joinMap),
+                                     Boolean.TRUE.equals(selection.getIsAscending())));
+      }
+    }
+    Path<?> idPath = root.get(ID_ATTRIBUTE);
+    if (keys.stream().noneMatch(key -> key.path() == idPath)) {
+      keys.add(new CursorUtils.Key(ID_ATTRIBUTE, idPath, true));
+      List<Order> orderList = new ArrayList<>(query.getOrderList());
+      orderList.add(cb.asc(idPath));
+      query.orderBy(orderList);
+    }
+    return keys;
+  }
+
+  /**
+   * A helper method that will find the keys of the cursor in the selections, and add the keys that are not selected.
+   *
+   * @param selections The selections of the query, completed by this method.
+   * @param keys       The keys of the cursor.
+   * @return The indexes of the keys in the selections.
+   */
+  private static int[] addCursorSelections(List<Selection<?>> selections, List<CursorUtils.Key> keys) {
+    int[] indexes = new int[keys.size()];
+    for (int i = 0; i < keys.size(); i++) {
+      Path<?> path = keys.get(i).path();
+      int index = -1;
+      for (int j = 0; j < selections.size() && index < 0; j++) {
+        if (selections.get(j) == path) {
+          index = j;
+        }
+      }
+      if (index < 0) {
+        // The alias is unknown to the tuple transformers, which then skip the selection
+        selections.add(path.alias(CURSOR_KEY_ALIAS_PREFIX + i));
+        index = selections.size() - 1;
+      }
+      indexes[i] = index;
+    }
+    return indexes;
   }
 
   private void setSortingOrder(CriteriaBuilder cb, SearchRequest<RB> searchRequest, Root<E> root, String rootPath,
@@ -189,22 +454,56 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
    * @see Path
    */
   private Selection<?> buildSelection(Root<E> root, SelectionBO selection, Map<String, Path<E>> joinMap) {
-    CriteriaBuilderHelper.debugPaths(true, getClazz());
+    return CriteriaBuilderHelper.getPath(selection, root, rootPath, joinMap);
+  }
+
+  /**
+   * A helper method that will validate the paths of the selections and filters of the search request against the registry of the paths of the entity,
+   * before any query is built.
+   *
+   * @param searchRequest The search request whose paths are validated.
+   * @throws ClientException If a selection has no path, or if a selection or a filter has a path that is not an attribute of the entity.
+   * @see PathRegistry
+   */
+  private void validatePaths(SearchRequest<RB> searchRequest) {
+    PathRegistry registry = getPathRegistry();
+    List<ExceptionDetail> unknownPaths = new ArrayList<>();
+
+    if (searchRequest.getSelections() != null) {
+      for (SelectionBO selection : searchRequest.getSelections()) {
+        if (StringUtils.isBlank(selection.getPath())) {
+          throw ClientException.builder()
+              .message("Path is required")
+              .details(List.of(ExceptionDetail.builder()
+                                   .field("SelectionBO selection")
+                                   .message(selection.getAlias())
+                                   .build()))
+              .build();
+        }
+        if (!registry.contains(selection.getPath(), selection.isJoined(), rootPath)) {
+          unknownPaths.add(ExceptionDetail.builder().field("selections").message(selection.getPath()).build());
+        }
+      }
+    }
 
-    String fullPath = selection.getPath();
+    if (searchRequest.getFilters() != null) {
+      for (RB filter : searchRequest.getFilters()) {
+        for (FilterParameterBO parameter : CriteriaBuilderHelper.getParameters(filter).values()) {
+          if (!registry.contains(parameter.getPath(), parameter.isJoined(), rootPath)) {
+            unknownPaths.add(ExceptionDetail.builder().field("filters").message(parameter.getPath()).build());
+          }
+        }
+      }
+    }
 
-    if (StringUtils.isBlank(fullPath)) {
+    if (!unknownPaths.isEmpty()) {
       throw ClientException.builder()
-          .message("Path is required")
-          .details(List.of(ExceptionDetail.builder()
-                               .field("SelectionBO selection")
-                               .message(selection.getAlias())
-                               .build()))
+          .statusCode(400)
+          .status(HttpStatus.BAD_REQUEST)
+          .message("Unknown path")
+          .details(unknownPaths)
           .build();
     }
-
-    return CriteriaBuilderHelper.getPath(selection, root, rootPath, joinMap);
-
   }
 
   /**
@@ -228,122 +527,24 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
     }
 
     /**
-     * A utility debugging method that will recursively iterate the entity class and build a list of paths to each attribute it has.
-     *
-     * @param debug A flag that identifies whether to debug.
-     * @return A list of paths to each attribute.
-     * @see Class
-     */
-    private static <E> List<String> debugPaths(boolean debug, Class<E> entityClass) {
-
-      if (!debug) {
-        return Collections.emptyList();
-      }
-
-      List<String> paths = new ArrayList<>();
-      Field[] fields = entityClass.getDeclaredFields();
-      for (Field field : fields) {
-        if (field.isAnnotationPresent(Id.class)) {
-          paths.add(field.getName());
-        } else if (field.isAnnotationPresent(Embedded.class) || field.isAnnotationPresent(Entity.class)) {
-          Class<?> fieldType = field.getType();
-          for (String subPath : debugPaths(true, fieldType)) {
-            paths.add(field.getName() + "." + subPath);
-          }
-        } else {
-          paths.add(field.getName());
-        }
-      }
-      return paths;
-    }
-
-
-    /**
-     * A utility method that will build a map of the filter parameters in a search query, with the key as the variable name that holds the FilterParameterBO,
-     * and the value as the FilterParameterBO. Java Reflection is used to identify the key, so naming conventions is important.
+     * A utility method that will build a map of the filter parameters in a search query, with the key as the path of the FilterParameterBO, and the value as
+     * the FilterParameterBO. The filter parameters are enumerated by the binder of the filter request, which is generated for the filter requests annotated
+     * with @HarvestFilter and otherwise walks the fields of the filter request, so naming conventions is important.
      *
      * @param filterRequestBO The filter parameter business object that is contained in a Search Request and will be used to build the map for this method.
      * @return A map of the filter parameters in a search query.
      * @see BaseFilterRequestBO
      * @see FilterParameterBO
      * @see SearchRequest
-     * @see #aggregateFilterParameters(BaseFilterBO)
+     * @see FilterBinders
      */
     private static Map<String, FilterParameterBO> getParameters(BaseFilterRequestBO filterRequestBO) {
       Map<String, FilterParameterBO> filterParametersMap = new LinkedHashMap<>();
-
-      // Iterate through all fields in the filterRequestBO object
-      Field[] fields = filterRequestBO.getClass().getDeclaredFields();
-      for (Field field : fields) {
-        // Check if the field is a BaseFilterBO object
-        if (BaseFilterBO.class.isAssignableFrom(field.getType())) {
-          try {
-            // Get the value of the field
-            field.setAccessible(true);
-            BaseFilterBO filterBO = (BaseFilterBO) field.get(filterRequestBO);
-            if (filterBO != null) {
-              // Recursively aggregate the FilterParameterBOs in the filterBO object
-              filterParametersMap.putAll(aggregateFilterParameters(filterBO));
-            }
-          } catch (IllegalAccessException e) {
-            // Handle exception
-          }
+      FilterBinders.<BaseFilterRequestBO, FilterParameterBO>of(filterRequestBO.getClass()).forEachParameter(filterRequestBO, (path, filterParameterBO) -> {
+        if (filterParameterBO.getPath() != null) {
+          filterParametersMap.put(filterParameterBO.getPath(), filterParameterBO);
         }
-      }
-
-      return filterParametersMap;
-    }
-
-    /**
-     * A utility method that will recursively iterate through a BaseFilterBO object and aggregate them into a map.
-     *
-     * @param filterBO The filter parameter business object that will be used to build the map for this method.
-     * @return A map of the filter parameters in a search query.
-     * @see BaseFilterBO
-     * @see FilterParameterBO
-     * @see #getParameters(BaseFilterRequestBO)
-     */
-    private static Map<String, FilterParameterBO> aggregateFilterParameters(BaseFilterBO filterBO) {
-      Map<String, FilterParameterBO> filterParametersMap = new LinkedHashMap<>();
-
-      // Iterate through all fields in the filterBO object
-      Field[] fields = filterBO.getClass().getDeclaredFields();
-      for (Field field : fields) {
-        // Check if the field is a BaseFilterBO object
-        if (BaseFilterBO.class.isAssignableFrom(field.getType())) {
-          try {
-            // Get the value of the field
-            field.setAccessible(true);
-            BaseFilterBO subFilterBO = (BaseFilterBO) field.get(filterBO);
-            if (subFilterBO != null) {
-              // Recursively aggregate the FilterParameterBOs in the sub-filterBO
-              // object
-              filterParametersMap.putAll(aggregateFilterParameters(subFilterBO));
-            }
-          } catch (IllegalAccessException e) {
-            // Handle exception
-          }
-        }
-      }
-
-      // Aggregate the FilterParameterBOs in the current filterBO object
-      Field[] filterParameterFields = filterBO.getClass().getDeclaredFields();
-      for (Field field : filterParameterFields) {
-        if (FilterParameterBO.class.isAssignableFrom(field.getType())) {
-          try {
-            // Get the value of the field
-            field.setAccessible(true);
-            FilterParameterBO filterParameterBO = (FilterParameterBO) field.get(filterBO);
-            if (filterBO != null && filterParameterBO != null && filterParameterBO.getPath() != null) {
-              filterParametersMap.put(filterParameterBO.getPath(), filterParameterBO);
-            }
-
-          } catch (IllegalAccessException e) {
-            // Handle exception
-          }
-        }
-      }
-
+      });
       return filterParametersMap;
     }
 
@@ -365,23 +566,23 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
                                                                                      Root<E> root, String rootPath,
                                                                                      Map<String, Path<E>> joinMap) {
 
-      String[] pathArray = getPathArray(parameterBO.getPath());
+      AttributePath attributePath = AttributePath.of(parameterBO.getPath());
 
-      if (pathArray.length == 1) {
+      if (attributePath.size() == 1) {
         throw new IllegalArgumentException("Path must be at least 2 levels deep");
       }
 
       boolean isJoined = parameterBO.isJoined();
-      int rootIndex = getRootPathIndex(pathArray, Set.of(rootPath), isJoined);
+      int rootIndex = getRootPathIndex(attributePath, rootPath, isJoined);
 
       if (isJoined) {
-        joinMap.computeIfAbsent(pathArray[0], value -> root.join(pathArray[rootIndex]));
+        joinMap.computeIfAbsent(attributePath.first(), value -> root.join(attributePath.segment(rootIndex)));
       }
 
-      Path<E> curr = isJoined ? joinMap.get(pathArray[0]) : root.get(pathArray[rootIndex]);
+      Path<E> curr = isJoined ? joinMap.get(attributePath.first()) : root.get(attributePath.segment(rootIndex));
 
-      for (int i = rootIndex + 1; i < pathArray.length; i++) {
-        curr = curr.get(pathArray[i]);
+      for (int i = rootIndex + 1; i < attributePath.size(); i++) {
+        curr = curr.get(attributePath.segment(i));
       }
       curr.alias(parameterBO.getAlias());
       return curr;
@@ -389,37 +590,22 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
 
 
     /**
-     * A utility method that will split a path string into an array of strings.
-     *
-     * @param path The path string that will be split into an array of strings.
-     * @return An array of strings that represents the path.
-     */
-    private static String[] getPathArray(String path) {
-      return path.split("\\.");
-    }
-
-    /**
-     * A utility method that will get the index of the root path in the path array.
+     * A utility method that will get the index of the segment following the root path in the attribute path.
      *
-     * @param pathArray The path array that will be used to get the index of the root path.
-     * @param rootPaths The root paths that will be used to get the index of the root path.
-     * @param isJoined  The boolean flag that is used to identify whether the path is from a joined object with respect to the Root object.
-     * @return
+     * @param attributePath The attribute path that will be used to get the index of the root path.
+     * @param rootPath      The root path of the query.
+     * @param isJoined      The boolean flag that is used to identify whether the path is from a joined object with respect to the Root object.
+     * @return The index of the first segment to resolve from the root, or 0 if the path is joined.
      * @see #getPath(BaseParameterBO, Root, String, Map)
      * @see Path
      * @see Root
      */
-    private static int getRootPathIndex(String[] pathArray, Set<String> rootPaths, boolean isJoined) {
+    private static int getRootPathIndex(AttributePath attributePath, String rootPath, boolean isJoined) {
       if (isJoined) {
         return 0;
       }
-      int i = 0;
-      for (; i < pathArray.length; i++) {
-        if (CollectionUtils.containsAny(rootPaths, Set.of(pathArray[i]))) {
-          break;
-        }
-      }
-      return ++i;
+      int index = attributePath.indexOf(rootPath);
+      return (index < 0 ? attributePath.size() : index) + 1;
     }
 
     /**
@@ -563,16 +749,44 @@ public abstract class AbstractCriteriaSearchDao<E extends BaseEntity<K>, K exten
      *
      * @param typedQuery    The TypedQuery object that will be used to set the pagination.
      * @param searchRequest The SearchRequest object that will be used to set the pagination.
+     * @param withExtraRow  Whether one more row must be read, to know if there is a next page.
      * @param <RB>          The type of the BaseFilterRequestBO object.
      * @see TypedQuery
      * @see SearchRequest
      */
     private static <RB extends BaseFilterRequestBO> void setPagination(TypedQuery<?> typedQuery,
-                                                                       SearchRequest<RB> searchRequest) {
+                                                                       SearchRequest<RB> searchRequest,
+                                                                       boolean withExtraRow) {
 
       if (searchRequest.isPageable()) {
-        typedQuery.setFirstResult(searchRequest.getPage().getFirstResult());
-        typedQuery.setMaxResults(searchRequest.getPage().getMaxResults());
+        // The cursor already skips the previous pages
+        typedQuery.setFirstResult(searchRequest.getAfter() != null ? 0 : searchRequest.getPage().getFirstResult());
+        typedQuery.setMaxResults(searchRequest.getPage().getMaxResults() + (withExtraRow ? 1 : 0));
+      }
+    }
+
+    /**
+     * A utility method that will build the predicate selecting the rows after the cursor of a search request.
+     *
+     * @param cb     The CriteriaBuilder object used to build the Predicate object.
+     * @param after  The cursor of the search request.
+     * @param keys   The keys of the cursor.
+     * @return The predicate selecting the rows after the cursor.
+     * @see CursorUtils
+     */
+    private static Predicate getAfterPredicate(CriteriaBuilder cb, String after, List<CursorUtils.Key> keys) {
+      try {
+        return CursorUtils.after(cb, keys, CursorUtils.decode(after, keys));
+      } catch (IllegalArgumentException e) {
+        throw ClientException.builder()
+            .statusCode(400)
+            .status(HttpStatus.BAD_REQUEST)
+            .message("Invalid cursor")
+            .details(List.of(ExceptionDetail.builder()
+                                 .field("after")
+                                 .message(e.getMessage())
+                                 .build()))
+            .build();
       }
     }
 
@@ -2,6 +2,7 @@ package dev.springharvest.search.domains.base.persistence;
 
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequest;
+import dev.springharvest.shared.constants.PageData;
 import java.util.List;
 import org.springframework.data.repository.NoRepositoryBean;
 
@@ -23,7 +24,7 @@ public interface ICriteriaSearchRepository<E, RB extends BaseFilterRequestBO> {
   boolean existsByUnique(SearchRequest<RB> searchRequest);
 
   /**
-   * This method is used to determine if an entity exists by the unique filter.
+   * This method is used to determine if any entity matches the filters of the search request, without reading the entities.
    *
    * @param searchRequest The search request.
    * @return True if the entity exists, false otherwise.
@@ -31,7 +32,8 @@ public interface ICriteriaSearchRepository<E, RB extends BaseFilterRequestBO> {
   boolean exists(SearchRequest<RB> searchRequest);
 
   /**
-   * Counts the number of entities that match the search request.
+   * Counts the number of entities that match the filters of the search request, without reading the entities. The page of
+   * the search request is ignored.
    *
    * @param searchRequest The search request that will be used to identify the entity.
    * @return The number of entities that match the search request.
@@ -46,4 +48,12 @@ public interface ICriteriaSearchRepository<E, RB extends BaseFilterRequestBO> {
    */
   List<E> search(SearchRequest<RB> searchRequest);
 
+  /**
+   * Searches for a page of entities that match the criteria search request, along with the cursor of the next page.
+   *
+   * @param searchRequest The search request that will be used to identify the entity.
+   * @return The page of entities that match the search request, whose next cursor is null if there is no next page.
+   */
+  PageData<E> searchPage(SearchRequest<RB> searchRequest);
+
 }
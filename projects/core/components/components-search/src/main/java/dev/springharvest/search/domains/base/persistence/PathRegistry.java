@@ -0,0 +1,149 @@
+package dev.springharvest.search.domains.base.persistence;
+
+import dev.springharvest.search.domains.base.models.entities.IEntityMetadata;
+import dev.springharvest.shared.utils.AttributePath;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable registry of the attribute paths of an entity, relative to the entity, e.g. "title" and "author.name" for a book, along with the Java type
+ * they lead to.
+ * <p>
+ * The registry is built once per entity from the JPA metamodel, walking the attributes, embeddables and associations of the entity without following the
+ * associations leading back to an entity of the path, and from the paths of the entity metadata, whose domain prefix is removed. The paths of the selections
+ * and filters of the search requests are then validated against it in constant time.
+ *
+ * @see AbstractCriteriaSearchDao
+ * @see IEntityMetadata#getPathClazzMap()
+ */
+public final class PathRegistry {
+
+  private final Map<String, Class<?>> paths;
+
+  private PathRegistry(Map<String, Class<?>> paths) {
+    this.paths = Map.copyOf(paths);
+  }
+
+  /**
+   * Builds the registry of the paths of an entity.
+   *
+   * @param metamodel      The JPA metamodel, or null when it is not available.
+   * @param entityClass    The class of the entity.
+   * @param entityMetadata The metadata of the entity, or null when it is not available.
+   * @return The registry of the paths of the entity.
+   */
+  public static PathRegistry of(Metamodel metamodel, Class<?> entityClass, IEntityMetadata<?> entityMetadata) {
+    Map<String, Class<?>> paths = new HashMap<>();
+    if (entityMetadata != null) {
+      String prefix = entityMetadata.getDomainName() + ".";
+      entityMetadata.getPathClazzMap().forEach((path, clazz) -> {
+        if (path.startsWith(prefix)) {
+          paths.put(path.substring(prefix.length()), clazz);
+        }
+      });
+    }
+    ManagedType<?> entityType = managedType(metamodel, entityClass);
+    if (entityType != null) {
+      Set<Class<?>> visited = new HashSet<>();
+      visited.add(entityClass);
+      addPaths(entityType, null, visited, paths);
+    }
+    return new PathRegistry(paths);
+  }
+
+  /**
+   * Tells whether the attribute path is known, e.g. "author.name".
+   *
+   * @param attributePath The path of the attribute, relative to the entity.
+   * @return True if the path leads to an attribute of the entity, false otherwise.
+   */
+  public boolean contains(String attributePath) {
+    return attributePath != null && paths.containsKey(attributePath);
+  }
+
+  /**
+   * Tells whether the path of a selection or a filter of a search request is known.
+   * <p>
+   * The path of a joined parameter starts with the association it is joined on, e.g. "author.name", while the other paths start with the root path of the
+   * search, followed by the path of the attribute, e.g. "book.title".
+   *
+   * @param path     The path of the selection or the filter.
+   * @param isJoined Whether the parameter is joined.
+   * @param rootPath The root path of the search, e.g. "book".
+   * @return True if the path leads to an attribute of the entity, false otherwise.
+   */
+  public boolean contains(String path, boolean isJoined, String rootPath) {
+    return contains(toAttributePath(path, isJoined, rootPath));
+  }
+
+  /**
+   * Returns the Java type the attribute path leads to, i.e. the type of the elements of a collection.
+   *
+   * @param attributePath The path of the attribute, relative to the entity.
+   * @return The Java type of the attribute, or null when the path is unknown.
+   */
+  public Class<?> getJavaType(String attributePath) {
+    return paths.get(attributePath);
+  }
+
+  /**
+   * Returns the known attribute paths of the entity.
+   *
+   * @return The immutable set of the attribute paths.
+   */
+  public Set<String> getPaths() {
+    return paths.keySet();
+  }
+
+  private static String toAttributePath(String path, boolean isJoined, String rootPath) {
+    if (path == null || isJoined) {
+      return path;
+    }
+    AttributePath attributePath = AttributePath.of(path);
+    int rootIndex = attributePath.indexOf(rootPath);
+    if (rootIndex < 0 || rootIndex == attributePath.size() - 1) {
+      return null;
+    }
+    return attributePath.subPath(rootIndex + 1).toString();
+  }
+
+  private static ManagedType<?> managedType(Metamodel metamodel, Class<?> entityClass) {
+    if (metamodel == null) {
+      return null;
+    }
+    try {
+      return metamodel.managedType(entityClass);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static void addPaths(ManagedType<?> type, String prefix, Set<Class<?>> visited, Map<String, Class<?>> paths) {
+    for (Attribute<?, ?> attribute : type.getAttributes()) {
+      String path = prefix == null ? attribute.getName() : prefix + "." + attribute.getName();
+      ManagedType<?> target = null;
+      if (attribute instanceof PluralAttribute<?, ?, ?> pluralAttribute) {
+        paths.put(path, pluralAttribute.getElementType().getJavaType());
+        target = pluralAttribute.getElementType() instanceof ManagedType<?> managedType ? managedType : null;
+      } else {
+        paths.put(path, attribute.getJavaType());
+        if (attribute instanceof SingularAttribute<?, ?> singularAttribute && singularAttribute.getType() instanceof ManagedType<?> managedType) {
+          target = managedType;
+        }
+      }
+      // The associations leading back to an entity of the path are not followed, to stop on cycles
+      if (target != null && visited.add(target.getJavaType())) {
+        addPaths(target, path, visited, paths);
+        visited.remove(target.getJavaType());
+      }
+    }
+  }
+
+}
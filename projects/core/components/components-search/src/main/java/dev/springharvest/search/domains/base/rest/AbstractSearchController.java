@@ -7,6 +7,7 @@ import dev.springharvest.search.domains.base.models.queries.requests.filters.Bas
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequestDTO;
 import dev.springharvest.search.domains.base.rest.constants.SearchControllerUri;
 import dev.springharvest.search.domains.base.services.AbstractSearchService;
+import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.mappers.IBaseModelMapper;
 import dev.springharvest.shared.domains.base.models.dtos.BaseDTO;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
@@ -25,6 +26,11 @@ public class AbstractSearchController<D extends BaseDTO<K>, E extends BaseEntity
     FB extends BaseFilterBO>
     implements ISearchController<RD, D, K> {
 
+  /**
+   * The response header holding the cursor of the next page, to be sent back in SearchRequestDTO.after.
+   */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   protected IBaseModelMapper<D, E, K> modelMapper;
   protected AbstractSearchService<E, K, RD, RB, FD, FB> searchService;
 
@@ -38,8 +44,13 @@ public class AbstractSearchController<D extends BaseDTO<K>, E extends BaseEntity
   @PostMapping(value = {SearchControllerUri.SEARCH}, consumes = MediaType.APPLICATION_JSON_VALUE,
                produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<List<D>> search(@RequestBody SearchRequestDTO<RD> searchQuery) {
-    List<D> dtos = modelMapper.entityToDto(searchService.search(searchQuery));
-    return ResponseEntity.status(HttpStatusCode.valueOf(200)).body(dtos);
+    PageData<E> page = searchService.searchPage(searchQuery);
+    List<D> dtos = modelMapper.entityToDto(page.getData());
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatusCode.valueOf(200));
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(dtos);
   }
 
   @Override
@@ -4,6 +4,7 @@ import dev.springharvest.search.domains.base.models.queries.requests.filters.Bas
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequestDTO;
 import dev.springharvest.shared.domains.base.models.dtos.BaseDTO;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import java.io.Serializable;
@@ -28,7 +29,9 @@ public interface ISearchController<RD extends BaseFilterRequestDTO, D extends Ba
                  In this version, the parameter must be the path to access the attribute in the entity.
                  """, required = false),
              responses = {@ApiResponse(responseCode = "200",
-                                       description = "The entities found from the provided search filters.")})
+                                       description = "The entities found from the provided search filters.",
+                                       headers = @Header(name = "X-Next-Cursor",
+                                                         description = "The cursor of the next page, absent on the last page."))})
   ResponseEntity<List<D>> search(@RequestBody SearchRequestDTO<RD> searchQuery);
 
   @Operation(operationId = "searchCount", summary = "Retrieves the number of entities matched by the search query.",
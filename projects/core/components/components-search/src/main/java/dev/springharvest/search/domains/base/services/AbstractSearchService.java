@@ -3,7 +3,6 @@ package dev.springharvest.search.domains.base.services;
 import dev.springharvest.search.domains.base.mappers.queries.ISearchMapper;
 import dev.springharvest.search.domains.base.models.entities.EntityMetadata;
 import dev.springharvest.search.domains.base.models.entities.IEntityMetadata;
-import dev.springharvest.search.domains.base.models.queries.parameters.selections.SelectionDTO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterBO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterDTO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
@@ -11,13 +10,14 @@ import dev.springharvest.search.domains.base.models.queries.requests.filters.Bas
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequestDTO;
 import dev.springharvest.search.domains.base.persistence.AbstractCriteriaSearchDao;
 import dev.springharvest.search.domains.base.persistence.ICriteriaSearchRepository;
+import dev.springharvest.shared.cache.QueryResultCache;
+import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.util.List;
-import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 @Slf4j
 public abstract class AbstractSearchService<E extends BaseEntity<K>, K extends Serializable,
@@ -25,9 +25,15 @@ public abstract class AbstractSearchService<E extends BaseEntity<K>, K extends S
     FB extends BaseFilterBO>
     implements ISearchService<E, K, RD> {
 
+  static final String SEARCH_OPERATION = "search";
+  static final String SEARCH_PAGE_OPERATION = "searchPage";
+  static final String COUNT_OPERATION = "count";
+  static final String EXISTS_OPERATION = "exists";
+
   protected final IEntityMetadata<E> entityMetadata;
   protected ISearchMapper<E, K, RD, RB, FD, FB> filterMapper;
   protected ICriteriaSearchRepository<E, RB> searchRepository;
+  protected QueryResultCache queryResultCache;
 
   protected AbstractSearchService(EntityMetadata<E> entityMetadata,
                                   ISearchMapper<E, K, RD, RB, FD, FB> filterMapper,
@@ -37,6 +43,16 @@ public abstract class AbstractSearchService<E extends BaseEntity<K>, K extends S
     this.searchRepository = searchRepository;
   }
 
+  /**
+   * Sets the cache of the results of the searches, keyed by their filters, selections and page.
+   *
+   * @param queryResultCache The query result cache.
+   */
+  @Autowired(required = false)
+  public void setQueryResultCache(QueryResultCache queryResultCache) {
+    this.queryResultCache = queryResultCache;
+  }
+
   protected Class<E> getClazz() {
     ParameterizedType paramType = (ParameterizedType) getClass().getGenericSuperclass();
     return (Class<E>) paramType.getActualTypeArguments()[1];
@@ -45,23 +61,41 @@ public abstract class AbstractSearchService<E extends BaseEntity<K>, K extends S
   @Override
   public List<E> search(SearchRequestDTO<RD> filterRequest) {
     var searchRequest = filterMapper.toSearchRequest(filterRequest);
-    return searchRepository.search(searchRequest);
+    if (queryResultCache == null) {
+      return searchRepository.search(searchRequest);
+    }
+    return queryResultCache.get(QueryResultCache.Key.of(entityMetadata.getDomainClazz(), SEARCH_OPERATION, searchRequest),
+                                () -> searchRepository.search(searchRequest));
+  }
+
+  @Override
+  public PageData<E> searchPage(SearchRequestDTO<RD> filterRequest) {
+    var searchRequest = filterMapper.toSearchRequest(filterRequest);
+    if (queryResultCache == null) {
+      return searchRepository.searchPage(searchRequest);
+    }
+    return queryResultCache.get(QueryResultCache.Key.of(entityMetadata.getDomainClazz(), SEARCH_PAGE_OPERATION, searchRequest),
+                                () -> searchRepository.searchPage(searchRequest));
   }
 
   @Override
   public Integer count(SearchRequestDTO<RD> filterRequest) {
-    Set<String> paths = CollectionUtils.isNotEmpty(entityMetadata.getRootPaths()) ? entityMetadata.getRootPaths() : entityMetadata.getNestedPaths();
-    filterRequest.setSelections(List.of(SelectionDTO.builder()
-                                            .alias(paths.stream()
-                                                       .findFirst()
-                                                       .orElseThrow(() -> new RuntimeException("No paths found for entity " + entityMetadata.getDomainName())))
-                                            .build()));
-    return search(filterRequest).size();
+    var searchRequest = filterMapper.toSearchRequest(filterRequest);
+    if (queryResultCache == null) {
+      return searchRepository.count(searchRequest);
+    }
+    return queryResultCache.get(QueryResultCache.Key.of(entityMetadata.getDomainClazz(), COUNT_OPERATION, searchRequest.getFilters()),
+                                () -> searchRepository.count(searchRequest));
   }
 
   @Override
   public boolean exists(SearchRequestDTO<RD> filterRequest) {
-    return count(filterRequest) > 0;
+    var searchRequest = filterMapper.toSearchRequest(filterRequest);
+    if (queryResultCache == null) {
+      return searchRepository.exists(searchRequest);
+    }
+    return queryResultCache.get(QueryResultCache.Key.of(entityMetadata.getDomainClazz(), EXISTS_OPERATION, searchRequest.getFilters()),
+                                () -> searchRepository.exists(searchRequest));
   }
 
 }
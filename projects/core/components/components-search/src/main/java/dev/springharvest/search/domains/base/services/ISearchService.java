@@ -2,6 +2,7 @@ package dev.springharvest.search.domains.base.services;
 
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestDTO;
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequestDTO;
+import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import java.io.Serializable;
 import java.util.List;
@@ -23,6 +24,14 @@ public interface ISearchService<E extends BaseEntity<K>, K extends Serializable,
    */
   List<E> search(SearchRequestDTO<RD> query);
 
+  /**
+   * This method is used to retrieve a page of entities along with the cursor of the next page.
+   *
+   * @param query The search request.
+   * @return The page of entities, whose next cursor is null if there is no next page.
+   */
+  PageData<E> searchPage(SearchRequestDTO<RD> query);
+
   Integer count(SearchRequestDTO<RD> query);
 
   boolean exists(SearchRequestDTO<RD> query);
@@ -7,6 +7,7 @@ import dev.springharvest.errors.constants.ExceptionMessages;
 import dev.springharvest.search.domains.base.models.entities.EntityMetadata;
 import dev.springharvest.shared.domains.embeddables.traces.dates.models.entities.TraceDatesEntity;
 import dev.springharvest.shared.domains.embeddables.traces.dates.models.entities.TraceDatesEntity_;
+import dev.springharvest.shared.utils.MetadataUtils;
 
 import java.time.LocalDate;
 import java.util.Map;
@@ -28,17 +29,7 @@ public class TraceDatesMetadata extends EntityMetadata<TraceDatesEntity> {
 
   @Override
   public Class<?> getClazz(String path) {
-    return super.getClazz(scrubPrefix(path));
-  }
-
-  private static String scrubPrefix(String path) {
-    String[] pathArray = path.split("\\.");
-    if (!pathArray[0].equals(DOMAIN_SINGULAR)) {
-      String[] newPathArray = new String[pathArray.length - 1];
-      System.arraycopy(pathArray, 1, newPathArray, 0, pathArray.length - 1);
-      path = String.join(".", newPathArray);
-    }
-    return path;
+    return super.getClazz(MetadataUtils.scrubPrefix(path, DOMAIN_SINGULAR));
   }
 
   public static class Constants {
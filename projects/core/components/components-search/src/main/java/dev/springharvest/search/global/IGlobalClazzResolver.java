@@ -1,6 +1,7 @@
 package dev.springharvest.search.global;
 
 import dev.springharvest.search.domains.base.models.entities.IEntityMetadata;
+import dev.springharvest.shared.utils.AttributePath;
 import java.util.Map;
 
 public interface IGlobalClazzResolver {
@@ -8,9 +9,9 @@ public interface IGlobalClazzResolver {
   default Class<?> getClazz(String path) {
 
     String domain = "";
-    String[] pathContexts = path.split("\\.");
-    for (int i = pathContexts.length - 1; i >= 0; i--) {
-      String pathContext = pathContexts[i];
+    AttributePath attributePath = AttributePath.of(path);
+    for (int i = attributePath.size() - 1; i >= 0; i--) {
+      String pathContext = attributePath.segment(i);
       if (getEntityMetadataMap().containsKey(pathContext)) {
         domain = pathContext;
         path = path.substring(path.indexOf(domain));
@@ -0,0 +1,76 @@
+package dev.springharvest.search.domains.base.mappers.queries;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dev.springharvest.search.domains.base.models.queries.parameters.filters.FilterParameterBO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterBO;
+import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.Test;
+
+class FilterBindersTest {
+
+    static class BookFilterBO extends BaseFilterBO {
+
+        private static final String IGNORED = "ignored";
+
+        private FilterParameterBO id;
+        private FilterParameterBO title;
+    }
+
+    static class BookFilterRequestBO extends BaseFilterRequestBO {
+
+        private BookFilterBO book;
+        private String notAFilter;
+    }
+
+    static class GeneratedFilterRequestBO extends BaseFilterRequestBO {
+
+    }
+
+    public static class GeneratedFilterRequestBOBinder_ implements IFilterBinder<GeneratedFilterRequestBO, FilterParameterBO> {
+
+        @Override
+        public void forEachParameter(GeneratedFilterRequestBO filterRequest, BiConsumer<String, FilterParameterBO> action) {
+            action.accept("generated.id", new FilterParameterBO());
+        }
+    }
+
+    @Test
+    void testOf_withoutGeneratedBinder_bindsTheParametersThatAreSet() {
+        FilterParameterBO title = new FilterParameterBO();
+        BookFilterRequestBO filterRequest = new BookFilterRequestBO();
+        filterRequest.book = new BookFilterBO();
+        filterRequest.book.title = title;
+        filterRequest.notAFilter = "value";
+
+        Map<String, FilterParameterBO> parameters = new LinkedHashMap<>();
+        FilterBinders.<BookFilterRequestBO, FilterParameterBO>of(BookFilterRequestBO.class).forEachParameter(filterRequest, parameters::put);
+
+        assertEquals(Map.of("book.title", title), parameters);
+    }
+
+    @Test
+    void testOf_withoutFilters_bindsNothing() {
+        Map<String, FilterParameterBO> parameters = new LinkedHashMap<>();
+        FilterBinders.<BookFilterRequestBO, FilterParameterBO>of(BookFilterRequestBO.class)
+            .forEachParameter(new BookFilterRequestBO(), parameters::put);
+
+        assertEquals(Map.of(), parameters);
+    }
+
+    @Test
+    void testOf_isResolvedOncePerClass() {
+        assertSame(FilterBinders.of(BookFilterRequestBO.class), FilterBinders.of(BookFilterRequestBO.class));
+    }
+
+    @Test
+    void testOf_withGeneratedBinder_usesIt() {
+        assertInstanceOf(GeneratedFilterRequestBOBinder_.class, FilterBinders.of(GeneratedFilterRequestBO.class));
+    }
+
+}
@@ -0,0 +1,121 @@
+package dev.springharvest.search.domains.base.mappers.transformers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.springharvest.search.domains.base.models.entities.EntityMetadata;
+import dev.springharvest.shared.domains.DomainModel;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AbstractBaseTupleTransformerTest {
+
+    public static class Author extends DomainModel {
+
+        String name;
+
+        @Override
+        public boolean isEmpty() {
+            return name == null;
+        }
+    }
+
+    public static class Book extends DomainModel {
+
+        String title;
+        Author author;
+        Author editor;
+
+        @Override
+        public boolean isEmpty() {
+            return title == null && author == null && editor == null;
+        }
+    }
+
+    static class AuthorMetadata extends EntityMetadata<Author> {
+
+        AuthorMetadata() {
+            super(Author.class, "author", "authors", Map.of(), Map.of("author.name", String.class),
+                  Map.of("author.name", (author, value) -> author.name = (String) value));
+        }
+    }
+
+    static class BookMetadata extends EntityMetadata<Book> {
+
+        BookMetadata() {
+            super(Book.class, "book", "books", Map.of(), Map.of("book.title", String.class),
+                  Map.of("book.title", (book, value) -> book.title = (String) value));
+        }
+    }
+
+    static class AuthorTupleTransformer extends AbstractBaseTupleTransformer<Author> {
+
+        AuthorTupleTransformer() {
+            super(new AuthorMetadata());
+        }
+    }
+
+    static class BookTupleTransformer extends AbstractBaseTupleTransformer<Book> {
+
+        BookTupleTransformer() {
+            super(new BookMetadata());
+            addAssociation("author", new AuthorTupleTransformer(), (book, author) -> book.author = author);
+            addAssociation("editor", new AuthorTupleTransformer(), (book, editor) -> book.editor = editor);
+        }
+    }
+
+    private final BookTupleTransformer transformer = new BookTupleTransformer();
+
+    @Test
+    void testApply_mapsTheEntityAndItsAssociationsInOnePass() {
+        Tuple tuple = tuple(List.of("book.title", "book.author.name", "book.editor.name"), "Dune", "Frank Herbert", null);
+
+        Book book = transformer.apply(tuple);
+
+        assertEquals("Dune", book.title);
+        assertNotNull(book.author);
+        assertEquals("Frank Herbert", book.author.name);
+        assertNull(book.editor);
+    }
+
+    @Test
+    void testApply_withJoinedAlias_routesItToTheAssociation() {
+        Tuple tuple = tuple(List.of("author.name", "book.unknown"), "Frank Herbert", "ignored");
+
+        Book book = transformer.apply(tuple);
+
+        assertNull(book.title);
+        assertEquals("Frank Herbert", book.author.name);
+    }
+
+    @Test
+    void testGetPlan_isCompiledOncePerShape() {
+        Tuple first = tuple(List.of("book.title", "book.author.name"), "Dune", "Frank Herbert");
+        Tuple second = tuple(List.of("book.title", "book.author.name"), "Emma", "Jane Austen");
+
+        assertSame(transformer.getPlan(first), transformer.getPlan(second));
+    }
+
+    private static Tuple tuple(List<String> aliases, Object... values) {
+        Tuple tuple = mock(Tuple.class);
+        List<TupleElement<?>> elements = new ArrayList<>();
+        for (int i = 0; i < aliases.size(); i++) {
+            TupleElement<?> element = mock(TupleElement.class);
+            when(element.getAlias()).thenReturn(aliases.get(i));
+            elements.add(element);
+            when(tuple.get(i)).thenReturn(values[i]);
+        }
+        doReturn(elements).when(tuple).getElements();
+        return tuple;
+    }
+
+}
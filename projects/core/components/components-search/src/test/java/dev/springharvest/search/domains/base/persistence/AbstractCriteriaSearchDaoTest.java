@@ -6,29 +6,38 @@ import java.util.PriorityQueue;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 
+import dev.springharvest.errors.models.ClientException;
 import dev.springharvest.search.domains.base.models.queries.parameters.selections.SelectionBO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequest;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
+import dev.springharvest.shared.utils.SearchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.SpecHints;
 import org.mockito.quality.Strictness;
 
 
@@ -142,13 +151,36 @@ class AbstractCriteriaSearchDaoTest {
 */
 
     @Test
+    @SuppressWarnings("unchecked")
     void testCount() {
-        when(selectionsByPriority.isEmpty()).thenReturn(true);
+        CriteriaQuery<Long> countQuery = mock(CriteriaQuery.class);
+        TypedQuery<Long> countTypedQuery = mock(TypedQuery.class);
+        when(criteriaBuilder.createQuery(Long.class)).thenReturn(countQuery);
+        when(countQuery.from(TestEntity.class)).thenReturn(root);
+        when(entityManager.createQuery(countQuery)).thenReturn(countTypedQuery);
+        when(countTypedQuery.getSingleResult()).thenReturn(2L);
 
         int count = dao.count(searchRequest);
 
         assertEquals(2, count, "Count should match mocked result");
-        verify(typedQuery).getResultList();
+        verify(criteriaBuilder).count(root);
+        verify(typedQuery, never()).getResultList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExists() {
+        CriteriaQuery<Object> existsQuery = mock(CriteriaQuery.class);
+        TypedQuery<Object> existsTypedQuery = mock(TypedQuery.class);
+        when(criteriaBuilder.createQuery(Object.class)).thenReturn(existsQuery);
+        when(existsQuery.from(TestEntity.class)).thenReturn(root);
+        when(entityManager.createQuery(existsQuery)).thenReturn(existsTypedQuery);
+        when(existsTypedQuery.setMaxResults(1)).thenReturn(existsTypedQuery);
+        when(existsTypedQuery.getResultList()).thenReturn(List.of(1L));
+
+        assertTrue(dao.exists(searchRequest));
+        verify(existsTypedQuery).setMaxResults(1);
+        verify(typedQuery, never()).getResultList();
     }
 
 
@@ -228,6 +260,34 @@ class AbstractCriteriaSearchDaoTest {
             this.id = id;
         }
     }
+    public class TestBookEntity extends BaseEntity<Long> {
+        @ManyToOne
+        private TestEntity author;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearch_SelectAllFetchesToOneAssociations() {
+        CriteriaQuery<TestBookEntity> bookQuery = mock(CriteriaQuery.class);
+        TypedQuery<TestBookEntity> bookTypedQuery = mock(TypedQuery.class);
+        EntityGraph<TestBookEntity> graph = mock(EntityGraph.class, RETURNS_DEEP_STUBS);
+        when(criteriaBuilder.createQuery(TestBookEntity.class)).thenReturn(bookQuery);
+        when(bookQuery.from(TestBookEntity.class)).thenReturn(mock(Root.class));
+        when(entityManager.createQuery(bookQuery)).thenReturn(bookTypedQuery);
+        when(entityManager.createEntityGraph(TestBookEntity.class)).thenReturn(graph);
+        when(bookTypedQuery.getResultList()).thenReturn(List.of(new TestBookEntity()));
+        AbstractCriteriaSearchDao<TestBookEntity, Long, BaseFilterRequestBO> bookDao =
+                new AbstractCriteriaSearchDao<TestBookEntity, Long, BaseFilterRequestBO>("testRoot", tuple -> new TestBookEntity()) {};
+        bookDao.setEntityManager(entityManager);
+
+        List<TestBookEntity> results = bookDao.search(searchRequest);
+
+        assertEquals(1, results.size());
+        assertEquals(List.of("author"), bookDao.getFetchPlan());
+        verify(graph).addSubgraph("author");
+        verify(bookTypedQuery).setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, graph);
+    }
+
     @Test
     void testSearch() {
         SearchRequest<BaseFilterRequestBO> searchRequest = new SearchRequest<>();
@@ -239,5 +299,32 @@ class AbstractCriteriaSearchDaoTest {
         assertEquals(2, results.size(), "Results size should match the mocked response");
     }
 
-    
-}
\ No newline at end of file
+    @Test
+    void testSearch_RecordsPhaseMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dao.setMeterRegistry(registry);
+        SearchRequest<BaseFilterRequestBO> searchRequest = new SearchRequest<>();
+        searchRequest.setSelections(Collections.emptyList());
+
+        dao.search(searchRequest);
+
+        for (String phase : List.of(SearchMetrics.SELECTIONS, SearchMetrics.PREDICATES, SearchMetrics.DATA, SearchMetrics.MAPPING)) {
+            assertEquals(1, registry.get(SearchMetrics.PHASE_TIMER).tags(SearchMetrics.PHASE_TAG, phase, SearchMetrics.ENTITY_TAG, "TestEntity").timer().count());
+        }
+        assertEquals(2, registry.get(SearchMetrics.ROWS_SUMMARY).tag(SearchMetrics.OPERATION_TAG, "search").summary().totalAmount());
+    }
+
+    @Test
+    void testSearch_WithUnknownSelectionPath_IsRejectedBeforeBuildingTheQuery() {
+        SelectionBO selection = SelectionBO.builder().alias("testRoot.unknown").path("testRoot.unknown").isJoined(false).build();
+        SearchRequest<BaseFilterRequestBO> searchRequest = new SearchRequest<>();
+        searchRequest.setSelections(List.of(selection));
+
+        ClientException exception = assertThrows(ClientException.class, () -> dao.search(searchRequest));
+
+        assertEquals(400, exception.getStatusCode());
+        assertEquals("testRoot.unknown", exception.getDetails().getFirst().message());
+        verify(entityManager, never()).getCriteriaBuilder();
+    }
+
+}
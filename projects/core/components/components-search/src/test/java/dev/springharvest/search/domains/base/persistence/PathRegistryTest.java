@@ -0,0 +1,87 @@
+package dev.springharvest.search.domains.base.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.springharvest.search.domains.base.models.entities.IEntityMetadata;
+import jakarta.persistence.metamodel.BasicType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PathRegistryTest {
+
+    static class Book {
+
+    }
+
+    static class Author {
+
+    }
+
+    @Test
+    void testOf_withEntityMetadata_registersThePathsWithoutTheDomainPrefix() {
+        IEntityMetadata<?> entityMetadata = mock(IEntityMetadata.class);
+        when(entityMetadata.getDomainName()).thenReturn("book");
+        when(entityMetadata.getPathClazzMap()).thenReturn(Map.of("book.title", String.class,
+                                                                 "book.author.name", String.class,
+                                                                 "author.id", UUID.class));
+
+        PathRegistry registry = PathRegistry.of(null, Book.class, entityMetadata);
+
+        assertEquals(Set.of("title", "author.name"), registry.getPaths());
+        assertTrue(registry.contains("book.title", false, "book"));
+        assertTrue(registry.contains("book.author.name", false, "book"));
+        assertTrue(registry.contains("author.name", true, "book"));
+        assertFalse(registry.contains("book.isbn", false, "book"));
+        assertFalse(registry.contains("title", false, "book"));
+        assertFalse(registry.contains("book", false, "book"));
+        assertFalse(registry.contains(null, false, "book"));
+    }
+
+    @Test
+    void testOf_withMetamodel_registersTheAttributesWithoutFollowingCycles() {
+        EntityType<?> bookType = mock(EntityType.class);
+        EntityType<?> authorType = mock(EntityType.class);
+        doReturn(Book.class).when(bookType).getJavaType();
+        doReturn(Author.class).when(authorType).getJavaType();
+
+        SingularAttribute<?, ?> title = attribute("title", String.class);
+        doReturn(mock(BasicType.class)).when(title).getType();
+        SingularAttribute<?, ?> author = attribute("author", Author.class);
+        doReturn(authorType).when(author).getType();
+        SingularAttribute<?, ?> name = attribute("name", String.class);
+        doReturn(mock(BasicType.class)).when(name).getType();
+        PluralAttribute<?, ?, ?> books = mock(PluralAttribute.class);
+        when(books.getName()).thenReturn("books");
+        doReturn(bookType).when(books).getElementType();
+        doReturn(Set.of(title, author)).when(bookType).getAttributes();
+        doReturn(Set.of(name, books)).when(authorType).getAttributes();
+
+        Metamodel metamodel = mock(Metamodel.class);
+        doReturn(bookType).when(metamodel).managedType(Book.class);
+
+        PathRegistry registry = PathRegistry.of(metamodel, Book.class, null);
+
+        assertEquals(Set.of("title", "author", "author.name", "author.books"), registry.getPaths());
+        assertEquals(Book.class, registry.getJavaType("author.books"));
+        assertTrue(registry.contains("book.author.name", false, "book"));
+    }
+
+    private static SingularAttribute<?, ?> attribute(String name, Class<?> javaType) {
+        SingularAttribute<?, ?> attribute = mock(SingularAttribute.class);
+        when(attribute.getName()).thenReturn(name);
+        doReturn(javaType).when(attribute).getJavaType();
+        return attribute;
+    }
+
+}
@@ -7,6 +7,7 @@ import dev.springharvest.search.domains.base.models.queries.requests.filters.Bas
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestDTO;
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequestDTO;
 import dev.springharvest.search.domains.base.services.AbstractSearchService;
+import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.mappers.IBaseModelMapper;
 import dev.springharvest.shared.domains.base.models.dtos.BaseDTO;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
@@ -23,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 class AbstractSearchControllerTest {
@@ -51,7 +53,7 @@ class AbstractSearchControllerTest {
         List<TestDTO> dtos = Arrays.asList(new TestDTO(1L), new TestDTO(2L));
 
         // Mock behavior
-        when(searchService.search(searchQuery)).thenReturn(entities);
+        when(searchService.searchPage(searchQuery)).thenReturn(new PageData<>(entities, 1, 25, -1, -1, entities.size()));
         when(modelMapper.entityToDto(entities)).thenReturn(dtos);
 
         // Execute method
@@ -60,12 +62,34 @@ class AbstractSearchControllerTest {
         // Validate results
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(dtos, response.getBody());
+        assertNull(response.getHeaders().getFirst(AbstractSearchController.NEXT_CURSOR_HEADER));
 
         // Verify interactions
-        verify(searchService).search(searchQuery);
+        verify(searchService).searchPage(searchQuery);
         verify(modelMapper).entityToDto(entities);
     }
 
+    @Test
+    void testSearchWithNextCursor() {
+        // Mock inputs
+        SearchRequestDTO<BaseFilterRequestDTO> searchQuery = new SearchRequestDTO<>();
+        List<TestEntity> entities = List.of(new TestEntity(1L));
+        List<TestDTO> dtos = List.of(new TestDTO(1L));
+        PageData<TestEntity> page = new PageData<>(entities, 1, 1, -1, -1, entities.size());
+        page.setNextCursor("cursor");
+
+        // Mock behavior
+        when(searchService.searchPage(searchQuery)).thenReturn(page);
+        when(modelMapper.entityToDto(entities)).thenReturn(dtos);
+
+        // Execute method
+        ResponseEntity<List<TestDTO>> response = controller.search(searchQuery);
+
+        // Validate results
+        assertEquals(dtos, response.getBody());
+        assertEquals("cursor", response.getHeaders().getFirst(AbstractSearchController.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     void testCount() {
         // Mock inputs
@@ -9,6 +9,8 @@ import dev.springharvest.search.domains.base.models.queries.requests.filters.Bas
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequest;
 import dev.springharvest.search.domains.base.models.queries.requests.search.SearchRequestDTO;
 import dev.springharvest.search.domains.base.persistence.AbstractCriteriaSearchDao;
+import dev.springharvest.shared.cache.CaffeineQueryResultCache;
+import dev.springharvest.shared.constants.PageData;
 import dev.springharvest.shared.domains.base.models.entities.BaseEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -61,30 +63,77 @@ class AbstractSearchServiceTest {
         verify(searchRepository).search(searchRequest);
     }
 
+    @Test
+    void testSearchPage() {
+        // Setup mock behavior
+        var filterRequestDTO = new SearchRequestDTO<BaseFilterRequestDTO>();
+        var searchRequest = mock(SearchRequest.class); // Use SearchRequest<BaseFilterRequestBO>
+        var page = new PageData<>(List.of(new TestEntity()), 1, 1, -1, -1, 1);
+
+        when(filterMapper.toSearchRequest(filterRequestDTO)).thenReturn(searchRequest); // Mock returning SearchRequest
+        when(searchRepository.searchPage(searchRequest)).thenReturn(page);
+
+        // Execute
+        PageData<TestEntity> result = searchService.searchPage(filterRequestDTO);
+
+        // Verify
+        assertSame(page, result, "Result should be the page of the repository");
+        verify(searchRepository).searchPage(searchRequest);
+    }
 
     @Test
     void testCount() {
         // Setup mock behavior
         var filterRequestDTO = new SearchRequestDTO<BaseFilterRequestDTO>();
         var searchRequest = mock(SearchRequest.class); // Use SearchRequest<BaseFilterRequestBO>
-        var testEntities = List.of(new TestEntity(), new TestEntity());
 
-        when(entityMetadata.getRootPaths()).thenReturn(Set.of("path"));
         when(filterMapper.toSearchRequest(filterRequestDTO)).thenReturn(searchRequest); // Mock returning SearchRequest
-        when(searchRepository.search(searchRequest)).thenReturn(testEntities);
+        when(searchRepository.count(searchRequest)).thenReturn(2);
 
         // Execute
         int count = searchService.count(filterRequestDTO);
 
         // Verify
-        assertEquals(2, count, "Count should match the size of mocked entities");
-        verify(entityMetadata, times(2)).getRootPaths();
+        assertEquals(2, count, "Count should be the count of the repository");
         verify(filterMapper).toSearchRequest(filterRequestDTO);
-        verify(searchRepository).search(searchRequest);
+        verify(searchRepository).count(searchRequest);
+        verify(searchRepository, never()).search(searchRequest);
     }
 
+    @Test
+    void testExists() {
+        var filterRequestDTO = new SearchRequestDTO<BaseFilterRequestDTO>();
+        var searchRequest = mock(SearchRequest.class);
 
-    
+        when(filterMapper.toSearchRequest(filterRequestDTO)).thenReturn(searchRequest);
+        when(searchRepository.exists(searchRequest)).thenReturn(true);
+
+        assertTrue(searchService.exists(filterRequestDTO));
+        verify(searchRepository).exists(searchRequest);
+        verify(searchRepository, never()).count(searchRequest);
+    }
+
+    @Test
+    void testSearch_WithQueryResultCache_ReadsRepeatedSearchesOnce() {
+        var filterRequestDTO = new SearchRequestDTO<BaseFilterRequestDTO>();
+        var searchRequest = SearchRequest.<BaseFilterRequestBO>builder().build();
+        var testEntities = List.of(new TestEntity(), new TestEntity());
+        var cache = new CaffeineQueryResultCache(16, null, Set::of);
+        searchService.setQueryResultCache(cache);
+
+        when(entityMetadata.getDomainClazz()).thenReturn(TestEntity.class);
+        when(filterMapper.toSearchRequest(filterRequestDTO)).thenAnswer(invocation -> SearchRequest.<BaseFilterRequestBO>builder().build());
+        when(searchRepository.search(searchRequest)).thenReturn(testEntities);
+
+        assertSame(testEntities, searchService.search(filterRequestDTO));
+        assertSame(testEntities, searchService.search(filterRequestDTO));
+        verify(searchRepository, times(1)).search(searchRequest);
+
+        cache.invalidate(TestEntity.class);
+        searchService.search(filterRequestDTO);
+        verify(searchRepository, times(2)).search(searchRequest);
+        assertEquals(1, cache.stats().hits());
+    }
 
 
     // Define a concrete implementation of AbstractSearchService
@@ -3,6 +3,7 @@ package dev.springharvest.search.unit;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import dev.springharvest.search.domains.base.mappers.queries.FilterBinders;
 import dev.springharvest.search.domains.base.rest.constants.SearchControllerUri;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -13,7 +14,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 class PrivateConstructorTest {
 
   private static Stream<Class<?>> provideClassesForTesting() {
-    return Stream.of(SearchControllerUri.class
+    return Stream.of(SearchControllerUri.class,
+                     FilterBinders.class
                     );
   }
 
@@ -0,0 +1,115 @@
+package dev.springharvest.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link QueryResultCache} backed by a Caffeine cache, bounded in size and expiring its results a fixed time after they
+ * were loaded.
+ * <p>
+ * The entities a result depends on are resolved once per searched entity, usually with
+ * {@link EntityDependencies#of(jakarta.persistence.metamodel.Metamodel, Class)}. A result loaded while one of its
+ * entities was written is returned but not cached, as the load may have read the rows before the write.
+ * <p>
+ * The metrics of the cache are bound to a Micrometer registry under the name {@value #CACHE_NAME}, the hit ratio being
+ * derived from the "cache.gets" counters tagged with the hit and miss results. A maximum size of 0 disables the cache,
+ * every result is then loaded on demand.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @since 1.0
+ */
+public class CaffeineQueryResultCache implements QueryResultCache, MeterBinder {
+
+  /**
+   * The name of the cache in its metrics.
+   */
+  public static final String CACHE_NAME = "springharvest.query-results";
+
+  private final long maxSize;
+  private final Cache<Key, Object> results;
+  private final Function<Class<?>, Set<Class<?>>> dependencyResolver;
+  private final Map<Class<?>, Set<Class<?>>> dependencies = new ConcurrentHashMap<>();
+  private final AtomicLong writes = new AtomicLong();
+
+  /**
+   * @param maxSize            The maximum number of results kept in the cache, 0 to disable it.
+   * @param ttl                The time a result is kept after it was loaded, or null to keep it until it is evicted or
+   *                           invalidated.
+   * @param dependencyResolver Resolves the entities the results of an entity depend on, the entity included.
+   */
+  public CaffeineQueryResultCache(long maxSize, Duration ttl, Function<Class<?>, Set<Class<?>>> dependencyResolver) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("The maximum size of the query result cache cannot be negative: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.dependencyResolver = dependencyResolver;
+    Caffeine<Object, Object> builder = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats();
+    if (ttl != null && ttl.isPositive()) {
+      builder.expireAfterWrite(ttl);
+    }
+    this.results = builder.build();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <V> V get(Key key, Supplier<V> loader) {
+    if (maxSize == 0) {
+      return loader.get();
+    }
+    Object result = results.getIfPresent(key);
+    if (result != null) {
+      return (V) result;
+    }
+    long writesBeforeLoad = writes.get();
+    V loaded = loader.get();
+    if (loaded != null) {
+      results.put(key, loaded);
+      if (writes.get() != writesBeforeLoad) {
+        // An entity was written during the load, which may have missed it
+        results.asMap().remove(key, loaded);
+      }
+    }
+    return loaded;
+  }
+
+  @Override
+  public void invalidate(Class<?> entityClass) {
+    writes.incrementAndGet();
+    results.asMap().keySet().removeIf(key -> dependenciesOf(key.entityClass()).contains(entityClass));
+  }
+
+  @Override
+  public void invalidateAll() {
+    writes.incrementAndGet();
+    results.invalidateAll();
+  }
+
+  @Override
+  public Stats stats() {
+    CacheStats stats = results.stats();
+    return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), results.estimatedSize(), maxSize);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    new CaffeineCacheMetrics<>(results, CACHE_NAME, Tags.empty()).bindTo(registry);
+  }
+
+  private Set<Class<?>> dependenciesOf(Class<?> entityClass) {
+    return dependencies.computeIfAbsent(entityClass, dependencyResolver);
+  }
+}
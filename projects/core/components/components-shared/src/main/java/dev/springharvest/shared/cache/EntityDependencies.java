@@ -0,0 +1,63 @@
+package dev.springharvest.shared.cache;
+
+import dev.springharvest.errors.constants.ExceptionMessages;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EmbeddableType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class contains utility methods to resolve the entities the results of the searches of an entity depend on.
+ * <p>
+ * A search of an entity may filter, select or join any entity reachable through its associations, so its results
+ * depend on every one of them, e.g. the books depend on their authors and on the pets of their authors.
+ */
+public class EntityDependencies {
+
+  private EntityDependencies() {
+    throw new UnsupportedOperationException(ExceptionMessages.PRIVATE_CONSTRUCTOR_MESSAGE);
+  }
+
+  /**
+   * Returns the entity and the entities reachable from it through its associations, including the associations of its
+   * embedded attributes.
+   *
+   * @param metamodel   The metamodel of the persistence unit.
+   * @param entityClass The class of the entity.
+   * @return The classes of the entities the results of the entity depend on, the entity included.
+   */
+  public static Set<Class<?>> of(Metamodel metamodel, Class<?> entityClass) {
+    Set<Class<?>> entities = new LinkedHashSet<>();
+    Set<ManagedType<?>> visited = new HashSet<>();
+    Deque<ManagedType<?>> pending = new ArrayDeque<>();
+    entities.add(entityClass);
+    pending.add(metamodel.managedType(entityClass));
+    while (!pending.isEmpty()) {
+      ManagedType<?> type = pending.poll();
+      if (!visited.add(type)) {
+        continue;
+      }
+      for (Attribute<?, ?> attribute : type.getAttributes()) {
+        Type<?> target = attribute instanceof PluralAttribute<?, ?, ?> plural ? plural.getElementType()
+                                                                               : ((SingularAttribute<?, ?>) attribute).getType();
+        if (target instanceof EntityType<?> entity) {
+          entities.add(entity.getJavaType());
+          pending.add(entity);
+        } else if (target instanceof EmbeddableType<?> embeddable) {
+          pending.add(embeddable);
+        }
+      }
+    }
+    return Collections.unmodifiableSet(entities);
+  }
+}
@@ -0,0 +1,161 @@
+package dev.springharvest.shared.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A cache of the results of the searches and counts, keyed by the searched entity, the operation and the normalized
+ * request (e.g., the filter, the selection and the paging).
+ * <p>
+ * The results of an entity depend on the entity itself and on the entities it joins. Once one of them is written, the
+ * results depending on it are invalidated, so that the next request reads the database again. The writes that do not go
+ * through the services of the entities (e.g., bulk updates, other applications) are only seen once the results expire.
+ * <p>
+ * The cached results are shared by every request, they must not be modified by their readers.
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ * @see CaffeineQueryResultCache
+ * @since 1.0
+ */
+public interface QueryResultCache {
+
+  /**
+   * Returns the result cached under the given key, loading and caching it if it is not present.
+   * The loader is called outside any lock, so two concurrent misses on the same key may both load the result.
+   *
+   * @param key    The key of the result.
+   * @param loader The function loading the result on a miss.
+   * @param <V>    The type of the result.
+   * @return The cached or freshly loaded result.
+   */
+  <V> V get(Key key, Supplier<V> loader);
+
+  /**
+   * Removes the results depending on the given entity, i.e. the results of the entity and of the entities joining it.
+   *
+   * @param entityClass The class of the written entity.
+   */
+  void invalidate(Class<?> entityClass);
+
+  /**
+   * Removes every result from the cache. The metrics are kept.
+   */
+  void invalidateAll();
+
+  /**
+   * Returns a snapshot of the metrics of the cache.
+   *
+   * @return The metrics of the cache.
+   */
+  Stats stats();
+
+  /**
+   * Removes the results depending on the given entity once the current transaction commits, or right away outside of a
+   * transaction. The entities written several times in a transaction are only invalidated once, and nothing is
+   * invalidated when the transaction rolls back.
+   *
+   * @param entityClass The class of the written entity.
+   */
+  default void invalidateAfterCommit(Class<?> entityClass) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate(entityClass);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<Class<?>> written = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+    if (written == null) {
+      Set<Class<?>> entityClasses = new LinkedHashSet<>();
+      TransactionSynchronizationManager.bindResource(this, entityClasses);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          entityClasses.forEach(QueryResultCache.this::invalidate);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(QueryResultCache.this);
+        }
+      });
+      written = entityClasses;
+    }
+    written.add(entityClass);
+  }
+
+  /**
+   * The key of a cached result.
+   *
+   * @param entityClass The class of the searched entity.
+   * @param operation   The operation (e.g., search, count).
+   * @param request     The normalized parts of the request.
+   */
+  record Key(Class<?> entityClass, String operation, List<Object> request) {
+
+    /**
+     * Returns the key of a request, normalizing its parts so that equivalent requests share the same key: the entries of
+     * the maps are sorted by key, the lists keep their order and the sets are compared regardless of their order.
+     *
+     * @param entityClass The class of the searched entity.
+     * @param operation   The operation (e.g., search, count).
+     * @param request     The parts of the request (e.g., the filter, the selected fields, the paging), which may be null.
+     * @return The key of the request.
+     */
+    public static Key of(Class<?> entityClass, String operation, Object... request) {
+      List<Object> parts = new ArrayList<>(request.length);
+      for (Object part : request) {
+        parts.add(normalize(part));
+      }
+      return new Key(entityClass, operation, Collections.unmodifiableList(parts));
+    }
+
+    private static Object normalize(Object value) {
+      if (value instanceof Map<?, ?> map) {
+        Map<Object, Object> sorted = new TreeMap<>(Comparator.comparing(String::valueOf));
+        map.forEach((key, entry) -> sorted.put(key, normalize(entry)));
+        return Collections.unmodifiableMap(sorted);
+      }
+      if (value instanceof Set<?> set) {
+        Set<Object> normalized = new HashSet<>();
+        set.forEach(entry -> normalized.add(normalize(entry)));
+        return Collections.unmodifiableSet(normalized);
+      }
+      if (value instanceof Collection<?> collection) {
+        List<Object> normalized = new ArrayList<>(collection.size());
+        collection.forEach(entry -> normalized.add(normalize(entry)));
+        return Collections.unmodifiableList(normalized);
+      }
+      return value;
+    }
+  }
+
+  /**
+   * A snapshot of the metrics of the cache.
+   *
+   * @param hits      The number of results read from the cache.
+   * @param misses    The number of results loaded on a miss.
+   * @param evictions The number of results evicted because of the maximum size or of their expiry.
+   * @param size      The current number of results in the cache.
+   * @param maxSize   The maximum number of results kept in the cache.
+   */
+  record Stats(long hits, long misses, long evictions, long size, long maxSize) {
+
+    /**
+     * @return The ratio of hits over the number of lookups, or 0 when the cache was never read.
+     */
+    public double hitRatio() {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0d : (double) hits / lookups;
+    }
+  }
+}
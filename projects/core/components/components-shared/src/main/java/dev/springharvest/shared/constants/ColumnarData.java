@@ -0,0 +1,20 @@
+package dev.springharvest.shared.constants;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The results of an aggregated search in the COLUMNAR format.
+ *
+ * @param columns The aliases of the selected fields and aggregates, e.g. ["author_name", "count_id"].
+ * @param rows The rows, each one holding the values of the columns in the same order.
+ * @param paging The paging of the results (page, size, currentPageCount, totalCount, totalPages).
+ * @author Gilles Djawa (NeroNemesis)
+ * @see ResultFormat
+ */
+public record ColumnarData(
+        List<String> columns,
+        List<Object[]> rows,
+        Map<String, Object> paging
+) {
+}
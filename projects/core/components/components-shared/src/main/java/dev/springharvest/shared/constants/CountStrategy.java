@@ -0,0 +1,19 @@
+package dev.springharvest.shared.constants;
+
+
+/**
+ * Helps to specify how the total count of a paged search is computed
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ */
+public enum CountStrategy {
+    /**
+     * The page and the total count are fetched by two separate queries.
+     */
+    TWO_QUERIES,
+    /**
+     * The page and the total count are fetched by a single query, through a COUNT(*) OVER() window function.
+     * Falls back to {@link #TWO_QUERIES} when the database does not support window functions.
+     */
+    WINDOW
+}
@@ -9,13 +9,16 @@ import java.util.List;
  * @param page
  * @param size
  * @param sortOrders
+ * @param after The cursor of the last row of the previous page. When set, the page is read after this row instead of at
+ *              an offset, and the page number is ignored.
  *
  * @author Gilles Djawa (NeroNemesis)
  */
 public record DataPaging(
         int page, // Represents the current page number
         int size, // Represents the number of items per page
-        List<Sort> sortOrders // Represents the order of sorting (e.g., "name,age")
+        List<Sort> sortOrders, // Represents the order of sorting (e.g., "name,age")
+        String after // Represents the cursor to read the page after (e.g., PageData.nextCursor of the previous page)
 ) {}
 
 
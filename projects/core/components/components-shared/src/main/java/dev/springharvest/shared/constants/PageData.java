@@ -1,8 +1,14 @@
 package dev.springharvest.shared.constants;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Data
 public class PageData<D> {
@@ -12,17 +18,94 @@ public class PageData<D> {
     private int pageSize;
     private long total;
     private int totalPages;
+    private String nextCursor; // The cursor of the next page, null if there is no next page or it was not requested
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private volatile CompletableFuture<Long> pendingTotal; // The total while its count query may still be running, null if there is none
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private volatile CompletableFuture<Integer> pendingTotalPages; // The total pages while the count query may still be running, null if there are none
 
     public PageData(List<D> data, int currentPage, int pageSize, long total, int totalPages, int currentPageCount) {
+        this(data, currentPage, pageSize, total, totalPages, currentPageCount, null);
+    }
+
+    public PageData(List<D> data, int currentPage, int pageSize, long total, int totalPages, int currentPageCount, String nextCursor) {
         this.data = data;
         this.currentPage = currentPage;
         this.pageSize = pageSize;
         this.total = total;
         this.totalPages = totalPages;
         this.currentPageCount = currentPageCount;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Defers the total and the total pages to the result of a count query that is still running.
+     *
+     * @param pendingTotal      The future total.
+     * @param pendingTotalPages The future total pages, or null if they were not requested.
+     */
+    public void setPendingTotal(CompletableFuture<Long> pendingTotal, CompletableFuture<Integer> pendingTotalPages) {
+        this.pendingTotal = pendingTotal;
+        this.pendingTotalPages = pendingTotalPages;
+    }
+
+    /**
+     * @return The total, waiting for its count query if it is still running. The page is not modified, so that it can be
+     * read from several threads.
+     */
+    public long getTotal() {
+        CompletableFuture<Long> pending = pendingTotal;
+        return pending != null ? pending.join() : total;
+    }
+
+    /**
+     * @param total The total, replacing the total of a count query that may still be running.
+     */
+    public void setTotal(long total) {
+        this.total = total;
+        this.pendingTotal = null;
+    }
+
+    /**
+     * @return The total pages, waiting for the count query if it is still running. The page is not modified, so that it
+     * can be read from several threads.
+     */
+    public int getTotalPages() {
+        CompletableFuture<Integer> pending = pendingTotalPages;
+        return pending != null ? pending.join() : totalPages;
+    }
+
+    /**
+     * @param totalPages The total pages, replacing the total pages of a count query that may still be running.
+     */
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+        this.pendingTotalPages = null;
+    }
+
+    /**
+     * @return The total, completed once its count query returns, so that it can be resolved without blocking.
+     */
+    @JsonIgnore
+    public CompletableFuture<Long> getTotalAsync() {
+        CompletableFuture<Long> pending = pendingTotal;
+        return pending != null ? pending : CompletableFuture.completedFuture(total);
+    }
+
+    /**
+     * @return The total pages, completed once the count query returns, so that they can be resolved without blocking.
+     */
+    @JsonIgnore
+    public CompletableFuture<Integer> getTotalPagesAsync() {
+        CompletableFuture<Integer> pending = pendingTotalPages;
+        return pending != null ? pending : CompletableFuture.completedFuture(totalPages);
     }
 
     public String toString() {
-        return "PageData(dtos=" + this.getData() + ", currentPage=" + this.getCurrentPage() + ", currentPageCount=" + this.getCurrentPageCount() + ", pageSize=" + this.getPageSize() + ", total=" + this.getTotal() + ", totalPages=" + this.getTotalPages() + ")";
+        return "PageData(dtos=" + this.getData() + ", currentPage=" + this.getCurrentPage() + ", currentPageCount=" + this.getCurrentPageCount() + ", pageSize=" + this.getPageSize() + ", total=" + this.getTotal() + ", totalPages=" + this.getTotalPages() + ", nextCursor=" + this.getNextCursor() + ")";
     }
 }
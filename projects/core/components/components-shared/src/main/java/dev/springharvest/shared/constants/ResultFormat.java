@@ -0,0 +1,28 @@
+package dev.springharvest.shared.constants;
+
+
+/**
+ * Helps to specify the shape of the results of a complex search
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ */
+public enum ResultFormat {
+    /**
+     * A map of aliases to values per row, followed by a map holding the paging. Only applies to aggregated searches.
+     */
+    MAPS,
+    /**
+     * The aliases once, the rows as arrays of values in the order of the aliases, and the paging.
+     *
+     * Only applies to aggregated searches.
+     *
+     * @see ColumnarData
+     */
+    COLUMNAR,
+    /**
+     * The shape of {@link #COLUMNAR}, but the rows are read from the database while the response is written, so that
+     * large results are exported without being held in memory. The paging follows the rows, with their count.
+     * Applies to aggregated and non-aggregated searches, without cursor paging.
+     */
+    STREAM
+}
@@ -0,0 +1,19 @@
+package dev.springharvest.shared.constants;
+
+
+/**
+ * Helps to specify how the rows of a search are returned to GraphQL
+ *
+ * @author Gilles Djawa (NeroNemesis)
+ */
+public enum ResultMode {
+    /**
+     * Each row is mapped to a new instance of the entity, with its nested entities.
+     */
+    ENTITIES,
+    /**
+     * Each row is returned as a read-only view of its tuple, from which the default data fetchers of GraphQL resolve
+     * the fields. No entity is instantiated.
+     */
+    ROWS
+}
@@ -0,0 +1,217 @@
+package dev.springharvest.shared.utils;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents a dotted attribute path, e.g. "book.author.name", tokenized once into its segments.
+ * <p>
+ * The paths are interned: {@link #of(String)} returns the same instance for the same path, so that the paths read on every request (selections, filters,
+ * aliases, joins) are split once and then served from a map lookup, without allocating. The sub paths (e.g. "book.author") are interned as well and
+ * cached by the path they are taken from, and the JPA attributes a path leads to are resolved once per managed type.
+ * <p>
+ * The number of interned paths is bounded by {@value #MAX_INTERNED_PATHS}, as the paths may come from the requests. Past that bound, the paths are still
+ * tokenized but no longer interned.
+ */
+public final class AttributePath {
+
+  public static final char SEPARATOR = '.';
+
+  static final int MAX_INTERNED_PATHS = 10_000;
+
+  private static final Map<String, AttributePath> INTERNED = new ConcurrentHashMap<>();
+
+  private final String path;
+  private final String[] segments;
+  private final List<String> segmentList;
+  /**
+   * The sub paths taken from this path, indexed by their first and last segments, computed on first use.
+   */
+  private final AttributePath[][] subPaths;
+  private final Map<ManagedType<?>, List<Attribute<?, ?>>> attributes = new ConcurrentHashMap<>(2);
+
+  private AttributePath(String path) {
+    this.path = path;
+    this.segments = tokenize(path);
+    this.segmentList = Collections.unmodifiableList(Arrays.asList(segments));
+    this.subPaths = new AttributePath[segments.length][];
+  }
+
+  /**
+   * Returns the interned attribute path of the given dotted path.
+   *
+   * @param path The dotted path, e.g. "book.author.name".
+   * @return The attribute path.
+   */
+  public static AttributePath of(String path) {
+    AttributePath attributePath = INTERNED.get(path);
+    if (attributePath != null) {
+      return attributePath;
+    }
+    attributePath = new AttributePath(path);
+    if (INTERNED.size() >= MAX_INTERNED_PATHS) {
+      return attributePath;
+    }
+    AttributePath existing = INTERNED.putIfAbsent(path, attributePath);
+    return existing != null ? existing : attributePath;
+  }
+
+  /**
+   * @return The number of segments of the path, e.g. 3 for "book.author.name".
+   */
+  public int size() {
+    return segments.length;
+  }
+
+  /**
+   * @param index The index of the segment.
+   * @return The segment at the given index, e.g. "author" at 1 for "book.author.name".
+   */
+  public String segment(int index) {
+    return segments[index];
+  }
+
+  /**
+   * @return The first segment of the path, e.g. "book" for "book.author.name".
+   */
+  public String first() {
+    return segments[0];
+  }
+
+  /**
+   * @return The last segment of the path, e.g. "name" for "book.author.name".
+   */
+  public String last() {
+    return segments[segments.length - 1];
+  }
+
+  /**
+   * @return The immutable list of the segments of the path.
+   */
+  public List<String> segments() {
+    return segmentList;
+  }
+
+  /**
+   * @param segment The segment to look for.
+   * @return The index of the first occurrence of the segment in the path, or -1 if the path does not contain it.
+   */
+  public int indexOf(String segment) {
+    for (int i = 0; i < segments.length; i++) {
+      if (segments[i].equals(segment)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param from The index of the first segment of the sub path.
+   * @return The sub path starting at the given segment, e.g. "author.name" from 1 for "book.author.name".
+   */
+  public AttributePath subPath(int from) {
+    return subPath(from, segments.length);
+  }
+
+  /**
+   * Returns the sub path made of the segments between the given indexes, which is computed once per path and indexes.
+   *
+   * @param from The index of the first segment of the sub path, inclusive.
+   * @param to   The index of the last segment of the sub path, exclusive.
+   * @return The sub path, e.g. "book.author" from 0 to 2 for "book.author.name".
+   * @throws IndexOutOfBoundsException If the indexes do not delimit at least one segment of the path.
+   */
+  public AttributePath subPath(int from, int to) {
+    if (from < 0 || to > segments.length || from >= to) {
+      throw new IndexOutOfBoundsException("Invalid sub path [" + from + ", " + to + ") of " + path);
+    }
+    if (from == 0 && to == segments.length) {
+      return this;
+    }
+    AttributePath[] fromSubPaths = subPaths[from];
+    if (fromSubPaths == null) {
+      fromSubPaths = new AttributePath[segments.length + 1];
+      subPaths[from] = fromSubPaths;
+    }
+    AttributePath subPath = fromSubPaths[to];
+    if (subPath == null) {
+      subPath = of(String.join(String.valueOf(SEPARATOR), segmentList.subList(from, to)));
+      fromSubPaths[to] = subPath;
+    }
+    return subPath;
+  }
+
+  /**
+   * Resolves the JPA attributes the path leads to from the given managed type, e.g. the author attribute of the book entity followed by the name attribute
+   * of the author entity for "author.name". The attributes are resolved once per managed type.
+   *
+   * @param managedType The managed type the first segment of the path is an attribute of.
+   * @return The immutable list of the attributes, one per segment.
+   * @throws IllegalArgumentException If a segment is not an attribute of the type it is resolved from, or if a segment follows a basic attribute.
+   */
+  public List<Attribute<?, ?>> attributes(ManagedType<?> managedType) {
+    return attributes.computeIfAbsent(managedType, this::resolve);
+  }
+
+  private List<Attribute<?, ?>> resolve(ManagedType<?> managedType) {
+    List<Attribute<?, ?>> resolved = new ArrayList<>(segments.length);
+    ManagedType<?> current = managedType;
+    for (String segment : segments) {
+      if (current == null) {
+        throw new IllegalArgumentException("The path " + path + " goes through a basic attribute before " + segment);
+      }
+      Attribute<?, ?> attribute = current.getAttribute(segment);
+      resolved.add(attribute);
+      if (attribute instanceof PluralAttribute<?, ?, ?> pluralAttribute) {
+        current = pluralAttribute.getElementType() instanceof ManagedType<?> elementType ? elementType : null;
+      } else {
+        current = ((SingularAttribute<?, ?>) attribute).getType() instanceof ManagedType<?> type ? type : null;
+      }
+    }
+    return List.copyOf(resolved);
+  }
+
+  private static String[] tokenize(String path) {
+    int count = 1;
+    for (int i = 0; i < path.length(); i++) {
+      if (path.charAt(i) == SEPARATOR) {
+        count++;
+      }
+    }
+    String[] tokens = new String[count];
+    int start = 0;
+    for (int i = 0; i < count; i++) {
+      int end = path.indexOf(SEPARATOR, start);
+      if (end < 0) {
+        end = path.length();
+      }
+      tokens[i] = path.substring(start, end);
+      start = end + 1;
+    }
+    return tokens;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof AttributePath other && path.equals(other.path));
+  }
+
+  @Override
+  public int hashCode() {
+    return path.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+
+}
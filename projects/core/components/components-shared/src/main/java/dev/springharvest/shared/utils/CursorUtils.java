@@ -0,0 +1,198 @@
+package dev.springharvest.shared.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.springharvest.errors.constants.ExceptionMessages;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class contains utility methods for keyset (seek) pagination.
+ * <p>
+ * A cursor is an opaque token holding the values of the sort keys of the last row of a page, the id being the last key.
+ * The next page is read with a predicate such as {@code WHERE (title, id) > (?, ?)}, expanded as
+ * {@code title > ? OR (title = ? AND id > ?)} so that each key keeps its own sort direction. Unlike an offset, the
+ * predicate lets the database seek into the index of the sort keys, so that the cost of a page does not depend on its
+ * depth.
+ * <p>
+ * The sort keys are expected to be non-nullable, rows with a null sort key are not reachable through a cursor.
+ */
+public class CursorUtils {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private CursorUtils() {
+    throw new UnsupportedOperationException(ExceptionMessages.PRIVATE_CONSTRUCTOR_MESSAGE);
+  }
+
+  /**
+   * A sort key of a cursor.
+   *
+   * @param name      The name of the key (e.g., the sorted field), used to reject a cursor issued for another sort.
+   * @param path      The path of the key in the query.
+   * @param ascending Whether the key is sorted in ascending order.
+   */
+  public record Key(String name, Path<?> path, boolean ascending) {
+
+  }
+
+  /**
+   * Encodes the values of the sort keys of a row into an opaque cursor.
+   *
+   * @param keys   The sort keys, the id being the last one.
+   * @param values The values of the sort keys, in the same order.
+   * @return The cursor.
+   */
+  public static String encode(List<Key> keys, List<?> values) {
+    List<String> names = keys.stream().map(Key::name).toList();
+    List<String> stringValues = values.stream().map(CursorUtils::toString).toList();
+    try {
+      byte[] json = OBJECT_MAPPER.writeValueAsBytes(new Token(names, stringValues));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to encode the cursor", e);
+    }
+  }
+
+  /**
+   * Decodes a cursor into the values of the sort keys, converted to the types of their paths.
+   *
+   * @param cursor The cursor, as returned by {@link #encode(List, List)}.
+   * @param keys   The sort keys of the current query.
+   * @return The values of the sort keys.
+   * @throws IllegalArgumentException If the cursor is malformed or was issued for different sort keys.
+   */
+  public static List<Object> decode(String cursor, List<Key> keys) {
+    Token token;
+    try {
+      token = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII)), Token.class);
+    } catch (IllegalArgumentException | java.io.IOException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+    if (token.k() == null || token.v() == null || !token.k().equals(keys.stream().map(Key::name).toList())
+        || token.v().size() != keys.size()) {
+      throw new IllegalArgumentException("The cursor does not match the sort order of the search: " + cursor);
+    }
+    List<Object> values = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      values.add(fromString(token.v().get(i), keys.get(i).path().getJavaType()));
+    }
+    return values;
+  }
+
+  /**
+   * Builds the predicate selecting the rows that come after the given values, in the order of the sort keys.
+   *
+   * @param cb     The criteria builder.
+   * @param keys   The sort keys, the id being the last one.
+   * @param values The values of the sort keys of the last row of the previous page.
+   * @return The predicate.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static Predicate after(CriteriaBuilder cb, List<Key> keys, List<Object> values) {
+    List<Predicate> alternatives = new ArrayList<>();
+    List<Predicate> equalities = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      Key key = keys.get(i);
+      Object value = values.get(i);
+      Expression<Comparable> path = (Expression<Comparable>) key.path();
+      if (value != null) {
+        Predicate comparison = key.ascending() ? cb.greaterThan(path, (Comparable) value)
+                                               : cb.lessThan(path, (Comparable) value);
+        List<Predicate> alternative = new ArrayList<>(equalities);
+        alternative.add(comparison);
+        alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+        equalities.add(cb.equal(path, value));
+      } else {
+        equalities.add(cb.isNull(path));
+      }
+    }
+    return cb.or(alternatives.toArray(new Predicate[0]));
+  }
+
+  private static String toString(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Enum<?> enumValue) {
+      return enumValue.name();
+    }
+    if (value instanceof Date date) {
+      return String.valueOf(date.getTime());
+    }
+    return value.toString();
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object fromString(String value, Class<?> type) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      if (String.class.equals(type)) {
+        return value;
+      } else if (Integer.class.equals(type) || int.class.equals(type)) {
+        return Integer.valueOf(value);
+      } else if (Long.class.equals(type) || long.class.equals(type)) {
+        return Long.valueOf(value);
+      } else if (Short.class.equals(type) || short.class.equals(type)) {
+        return Short.valueOf(value);
+      } else if (Double.class.equals(type) || double.class.equals(type)) {
+        return Double.valueOf(value);
+      } else if (Float.class.equals(type) || float.class.equals(type)) {
+        return Float.valueOf(value);
+      } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+        return Boolean.valueOf(value);
+      } else if (BigDecimal.class.equals(type)) {
+        return new BigDecimal(value);
+      } else if (BigInteger.class.equals(type)) {
+        return new BigInteger(value);
+      } else if (UUID.class.equals(type)) {
+        return UUID.fromString(value);
+      } else if (LocalDate.class.equals(type)) {
+        return LocalDate.parse(value);
+      } else if (LocalDateTime.class.equals(type)) {
+        return LocalDateTime.parse(value);
+      } else if (LocalTime.class.equals(type)) {
+        return LocalTime.parse(value);
+      } else if (OffsetDateTime.class.equals(type)) {
+        return OffsetDateTime.parse(value);
+      } else if (ZonedDateTime.class.equals(type)) {
+        return ZonedDateTime.parse(value);
+      } else if (Instant.class.equals(type)) {
+        return Instant.parse(value);
+      } else if (Date.class.equals(type)) {
+        return new Date(Long.parseLong(value));
+      } else if (type.isEnum()) {
+        return Enum.valueOf((Class<? extends Enum>) type, value);
+      }
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor value '" + value + "' for type " + type.getSimpleName(), e);
+    }
+    throw new IllegalArgumentException("Unsupported cursor key type: " + type.getName());
+  }
+
+  /**
+   * The content of a cursor: the names of the sort keys and their values.
+   */
+  private record Token(List<String> k, List<String> v) {
+
+  }
+
+}
@@ -29,11 +29,9 @@ public class MetadataUtils {
   }
 
   public static String scrubPrefix(String path, String domainSingular) {
-    String[] pathArray = path.split("\\.");
-    if (!pathArray[0].equals(domainSingular)) {
-      String[] newPathArray = new String[pathArray.length - 1];
-      System.arraycopy(pathArray, 1, newPathArray, 0, pathArray.length - 1);
-      path = String.join(".", newPathArray);
+    AttributePath attributePath = AttributePath.of(path);
+    if (!attributePath.first().equals(domainSingular)) {
+      return attributePath.size() > 1 ? attributePath.subPath(1).toString() : "";
     }
     return path;
   }
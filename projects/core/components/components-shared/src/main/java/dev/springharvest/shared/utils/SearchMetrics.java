@@ -0,0 +1,125 @@
+package dev.springharvest.shared.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class records the duration of the phases of the searches, and the number of rows they read, in a Micrometer registry.
+ * <p>
+ * Each phase is timed by the {@value #PHASE_TIMER} timer and each row count is recorded by the {@value #ROWS_SUMMARY} summary,
+ * tagged by the phase, the simple name of the searched entity and the operation (e.g., search, count). The meters are
+ * resolved once per tag combination.
+ * <p>
+ * Without a registry, {@link #NOOP} is used: the phases are not timed and no clock is read, so that the instrumented code
+ * only pays for a null check.
+ */
+public final class SearchMetrics {
+
+  public static final String PHASE_TIMER = "springharvest.search.phase";
+  public static final String ROWS_SUMMARY = "springharvest.search.rows";
+
+  public static final String PHASE_TAG = "phase";
+  public static final String ENTITY_TAG = "entity";
+  public static final String OPERATION_TAG = "operation";
+
+  /**
+   * The phases of the searches.
+   */
+  public static final String CLEAN_FIELDS = "clean_fields";
+  public static final String SELECTIONS = "selections";
+  public static final String PREDICATES = "predicates";
+  public static final String COUNT = "count";
+  public static final String DATA = "data";
+  public static final String MAPPING = "mapping";
+
+  /**
+   * The metrics recording nothing, used when no registry is present.
+   */
+  public static final SearchMetrics NOOP = new SearchMetrics(null);
+
+  private final MeterRegistry registry;
+  private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+  private final Map<Key, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+  private record Key(String phase, Class<?> entity, String operation) {
+
+  }
+
+  private SearchMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Returns the metrics recorded in the given registry.
+   *
+   * @param registry The registry, or null to record nothing.
+   * @return The metrics.
+   */
+  public static SearchMetrics of(MeterRegistry registry) {
+    return registry == null ? NOOP : new SearchMetrics(registry);
+  }
+
+  /**
+   * @return Whether the metrics are recorded in a registry.
+   */
+  public boolean isEnabled() {
+    return registry != null;
+  }
+
+  /**
+   * Starts timing a phase.
+   *
+   * @return The start of the phase, to pass to {@link #stop(long, String, Class, String)}, or 0 when the metrics are not recorded.
+   */
+  public long start() {
+    return registry == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * Records the duration of a phase, since its start.
+   *
+   * @param start     The start of the phase, as returned by {@link #start()}.
+   * @param phase     The phase (e.g., {@link #DATA}).
+   * @param entity    The searched entity.
+   * @param operation The operation (e.g., search, count).
+   */
+  public void stop(long start, String phase, Class<?> entity, String operation) {
+    if (registry == null) {
+      return;
+    }
+    long duration = System.nanoTime() - start;
+    timers.computeIfAbsent(new Key(phase, entity, operation), key -> Timer.builder(PHASE_TIMER)
+            .description("The duration of a phase of the searches")
+            .tag(PHASE_TAG, key.phase())
+            .tag(ENTITY_TAG, key.entity().getSimpleName())
+            .tag(OPERATION_TAG, key.operation())
+            .register(registry))
+        .record(duration, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the number of rows read or mapped by a phase.
+   *
+   * @param rows      The number of rows.
+   * @param phase     The phase (e.g., {@link #DATA}).
+   * @param entity    The searched entity.
+   * @param operation The operation (e.g., search, count).
+   */
+  public void recordRows(long rows, String phase, Class<?> entity, String operation) {
+    if (registry == null) {
+      return;
+    }
+    summaries.computeIfAbsent(new Key(phase, entity, operation), key -> DistributionSummary.builder(ROWS_SUMMARY)
+            .description("The number of rows read by a phase of the searches")
+            .baseUnit("rows")
+            .tag(PHASE_TAG, key.phase())
+            .tag(ENTITY_TAG, key.entity().getSimpleName())
+            .tag(OPERATION_TAG, key.operation())
+            .register(registry))
+        .record(rows);
+  }
+}
@@ -0,0 +1,138 @@
+package dev.springharvest.shared.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class CaffeineQueryResultCacheTest {
+
+  private static final Map<Class<?>, Set<Class<?>>> DEPENDENCIES = Map.of(
+      Book.class, Set.of(Book.class, Author.class),
+      Author.class, Set.of(Author.class));
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private final CaffeineQueryResultCache cache = new CaffeineQueryResultCache(16, Duration.ofMinutes(1), DEPENDENCIES::get);
+
+  @Test
+  void get_withEquivalentRequests_loadsTheResultOnce() {
+    Map<String, Object> filter = new LinkedHashMap<>();
+    filter.put("title", Map.of("eq", "Dune"));
+    filter.put("pages", Map.of("gte", 100));
+    Map<String, Object> reordered = new LinkedHashMap<>();
+    reordered.put("pages", Map.of("gte", 100));
+    reordered.put("title", Map.of("eq", "Dune"));
+
+    assertEquals(1, cache.get(QueryResultCache.Key.of(Book.class, "search", filter, List.of("Book.title")), this::load));
+    assertEquals(1, cache.get(QueryResultCache.Key.of(Book.class, "search", reordered, List.of("Book.title")), this::load));
+
+    assertEquals(1, loads.get());
+    assertEquals(0.5d, cache.stats().hitRatio());
+  }
+
+  @Test
+  void key_withDifferentSelectionOrPaging_isNotShared() {
+    assertNotEquals(QueryResultCache.Key.of(Book.class, "search", null, List.of("Book.title")),
+                    QueryResultCache.Key.of(Book.class, "search", null, List.of("Book.id")));
+    assertNotEquals(QueryResultCache.Key.of(Book.class, "search", null, 1),
+                    QueryResultCache.Key.of(Book.class, "search", null, 2));
+  }
+
+  @Test
+  void invalidate_removesTheResultsOfTheEntitiesJoiningIt() {
+    cache.get(QueryResultCache.Key.of(Book.class, "search"), this::load);
+    cache.get(QueryResultCache.Key.of(Author.class, "search"), this::load);
+
+    cache.invalidate(Author.class);
+
+    assertEquals(0, cache.stats().size());
+  }
+
+  @Test
+  void invalidate_keepsTheResultsOfTheEntitiesItJoins() {
+    cache.get(QueryResultCache.Key.of(Book.class, "search"), this::load);
+    cache.get(QueryResultCache.Key.of(Author.class, "search"), this::load);
+
+    cache.invalidate(Book.class);
+
+    assertEquals(2, cache.get(QueryResultCache.Key.of(Author.class, "search"), this::load));
+    assertEquals(1, cache.stats().size());
+  }
+
+  @Test
+  void get_withWriteDuringTheLoad_doesNotCacheTheResult() {
+    QueryResultCache.Key key = QueryResultCache.Key.of(Book.class, "count");
+
+    cache.get(key, () -> {
+      cache.invalidate(Author.class);
+      return load();
+    });
+
+    assertEquals(2, cache.get(key, this::load));
+  }
+
+  @Test
+  void get_withMaxSizeOfZero_alwaysLoads() {
+    CaffeineQueryResultCache disabled = new CaffeineQueryResultCache(0, null, DEPENDENCIES::get);
+
+    disabled.get(QueryResultCache.Key.of(Book.class, "count"), this::load);
+    disabled.get(QueryResultCache.Key.of(Book.class, "count"), this::load);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void invalidateAfterCommit_invalidatesOnceTheTransactionCommits() {
+    QueryResultCache.Key key = QueryResultCache.Key.of(Book.class, "count");
+    cache.get(key, this::load);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.invalidateAfterCommit(Book.class);
+      cache.invalidateAfterCommit(Book.class);
+      assertEquals(1, cache.stats().size());
+
+      List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+      assertEquals(1, synchronizations.size());
+      synchronizations.forEach(TransactionSynchronization::afterCommit);
+      synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(0, cache.stats().size());
+    assertNull(TransactionSynchronizationManager.getResource(cache));
+  }
+
+  @Test
+  void bindTo_registersTheMetricsOfTheCache() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+
+    cache.get(QueryResultCache.Key.of(Book.class, "count"), this::load);
+    cache.get(QueryResultCache.Key.of(Book.class, "count"), this::load);
+
+    assertEquals(1, registry.get("cache.gets").tags("cache", CaffeineQueryResultCache.CACHE_NAME, "result", "hit").functionCounter().count());
+  }
+
+  private Integer load() {
+    return loads.incrementAndGet();
+  }
+
+  private static class Book {
+
+  }
+
+  private static class Author {
+
+  }
+}
@@ -3,7 +3,9 @@ package dev.springharvest.shared.unit;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import dev.springharvest.shared.cache.EntityDependencies;
 import dev.springharvest.shared.constants.ControllerUri;
+import dev.springharvest.shared.utils.CursorUtils;
 import dev.springharvest.shared.utils.MetadataUtils;
 import dev.springharvest.shared.utils.ReflectionUtils;
 import dev.springharvest.shared.utils.StringUtils;
@@ -21,7 +23,9 @@ class PrivateConstructorTest {
                      ControllerUri.ControllerParameters.class,
                      MetadataUtils.class,
                      ReflectionUtils.class,
-                     StringUtils.class
+                     StringUtils.class,
+                     CursorUtils.class,
+                     EntityDependencies.class
                     );
   }
 
@@ -0,0 +1,83 @@
+package dev.springharvest.shared.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import jakarta.persistence.metamodel.BasicType;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AttributePathTest {
+
+  @Test
+  void of_tokenizesThePathOnceAndInternsIt() {
+    AttributePath path = AttributePath.of("book.author.name");
+
+    assertSame(path, AttributePath.of("book.author.name"));
+    assertEquals(List.of("book", "author", "name"), path.segments());
+    assertEquals(3, path.size());
+    assertEquals("book", path.first());
+    assertEquals("author", path.segment(1));
+    assertEquals("name", path.last());
+    assertEquals(1, path.indexOf("author"));
+    assertEquals(-1, path.indexOf("publisher"));
+    assertEquals("book.author.name", path.toString());
+  }
+
+  @Test
+  void of_withoutSeparator_hasOneSegment() {
+    AttributePath path = AttributePath.of("book");
+
+    assertEquals(List.of("book"), path.segments());
+    assertSame(path, path.subPath(0));
+  }
+
+  @Test
+  void subPath_isInternedAndCachedByThePathItIsTakenFrom() {
+    AttributePath path = AttributePath.of("book.author.pet.name");
+
+    AttributePath subPath = path.subPath(1, 3);
+
+    assertEquals("author.pet", subPath.toString());
+    assertSame(subPath, AttributePath.of("author.pet"));
+    assertSame(subPath, path.subPath(1, 3));
+    assertEquals("author.pet.name", path.subPath(1).toString());
+    assertThrows(IndexOutOfBoundsException.class, () -> path.subPath(2, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> path.subPath(0, 5));
+  }
+
+  @Test
+  void attributes_areResolvedOncePerManagedType() {
+    EntityType<?> bookType = mock(EntityType.class);
+    EntityType<?> authorType = mock(EntityType.class);
+    SingularAttribute<?, ?> author = mock(SingularAttribute.class);
+    SingularAttribute<?, ?> name = mock(SingularAttribute.class);
+    doReturn(author).when(bookType).getAttribute("author");
+    doReturn(authorType).when(author).getType();
+    doReturn(name).when(authorType).getAttribute("name");
+    doReturn(mock(BasicType.class)).when(name).getType();
+    AttributePath path = AttributePath.of("author.name");
+
+    assertEquals(List.of(author, name), path.attributes(bookType));
+    assertSame(path.attributes(bookType), path.attributes(bookType));
+    verify(bookType, times(1)).getAttribute("author");
+  }
+
+  @Test
+  void attributes_throughABasicAttribute_areRejected() {
+    EntityType<?> bookType = mock(EntityType.class);
+    SingularAttribute<?, ?> title = mock(SingularAttribute.class);
+    doReturn(title).when(bookType).getAttribute("title");
+    doReturn(mock(BasicType.class)).when(title).getType();
+
+    assertThrows(IllegalArgumentException.class, () -> AttributePath.of("title.length").attributes(bookType));
+  }
+
+}
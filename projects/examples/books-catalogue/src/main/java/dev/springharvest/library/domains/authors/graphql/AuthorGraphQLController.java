@@ -2,7 +2,10 @@ package dev.springharvest.library.domains.authors.graphql;
 
 import dev.springharvest.crud.domains.base.graphql.AbstractGraphQLCrudController;
 import dev.springharvest.library.domains.authors.models.entities.AuthorEntity;
+import dev.springharvest.library.domains.authors.services.AuthorCrudService;
+import dev.springharvest.library.domains.pet.models.entities.PetEntity;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import dev.springharvest.shared.constants.DataPaging;
 import dev.springharvest.shared.constants.PageData;
@@ -11,14 +14,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 @Slf4j
 @Controller
 public class AuthorGraphQLController extends AbstractGraphQLCrudController<AuthorEntity, UUID> {
 
-  protected AuthorGraphQLController() {
-    super(AuthorEntity.class, UUID.class);
+  @Autowired
+  protected AuthorGraphQLController(AuthorCrudService crudService) {
+    super(AuthorEntity.class, UUID.class, crudService);
+    batchAssociation("pet", PetEntity.class);
   }
 
   @QueryMapping
@@ -30,4 +36,9 @@ public class AuthorGraphQLController extends AbstractGraphQLCrudController<Autho
   public long countAuthors(@Argument Map<String, Object> filter, @Argument Map<String, Object> clause, @Argument List<String> fields) {
     return count(filter, clause, fields);
   }
+
+  @SchemaMapping(typeName = "Author")
+  public CompletableFuture<Object> pet(DataFetchingEnvironment environment) {
+    return loadAssociation(environment);
+  }
 }
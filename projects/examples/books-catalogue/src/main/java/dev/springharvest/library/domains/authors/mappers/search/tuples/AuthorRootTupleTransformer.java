@@ -4,9 +4,8 @@ import dev.springharvest.library.domains.authors.models.entities.AuthorEntity;
 import dev.springharvest.library.domains.authors.models.entities.AuthorEntityMetadata;
 import dev.springharvest.search.domains.base.mappers.transformers.AbstractBaseTupleTransformer;
 import dev.springharvest.search.domains.embeddables.traces.trace.mappers.transformers.UUIDTraceDataTransformer;
-import jakarta.persistence.Tuple;
+import dev.springharvest.shared.domains.embeddables.traces.traceable.models.entities.AbstractTraceableEntity_;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -14,20 +13,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuthorRootTupleTransformer extends AbstractBaseTupleTransformer<AuthorEntity> {
 
-  private final UUIDTraceDataTransformer traceDataTransformer;
-
   @Autowired
   public AuthorRootTupleTransformer(AuthorEntityMetadata entityMetadata, UUIDTraceDataTransformer traceDataTransformer) {
     super(entityMetadata);
-    this.traceDataTransformer = traceDataTransformer;
-  }
-
-  @Override
-  public void upsertAssociatedEntities(AuthorEntity entity, Tuple tuple) {
-    var traceData = traceDataTransformer.apply(tuple);
-    if (ObjectUtils.isNotEmpty(traceData) && !traceData.isEmpty()) {
-      entity.setTraceData(traceData);
-    }
+    addAssociation(AbstractTraceableEntity_.TRACE_DATA, traceDataTransformer, AuthorEntity::setTraceData);
   }
 
 }
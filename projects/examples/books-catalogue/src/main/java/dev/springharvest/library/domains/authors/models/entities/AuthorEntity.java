@@ -15,6 +15,8 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 
 @Data
@@ -23,6 +25,8 @@ import org.springframework.graphql.data.method.annotation.SchemaMapping;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 @Table(name = "authors")
 @AttributeOverride(name = "id", column = @Column(name = "id"))
 public class AuthorEntity extends AbstractTraceableEntity<UUID> {
@@ -1,5 +1,6 @@
 package dev.springharvest.library.domains.authors.models.queries;
 
+import dev.springharvest.codegen.annotations.HarvestFilter;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Data
+@HarvestFilter
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
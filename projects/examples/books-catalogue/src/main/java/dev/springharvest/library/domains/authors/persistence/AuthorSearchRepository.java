@@ -12,7 +12,7 @@ import org.springframework.stereotype.Repository;
 public class AuthorSearchRepository extends AbstractCriteriaSearchDao<AuthorEntity, UUID, AuthorFilterRequestBO> {
 
   AuthorSearchRepository(AuthorRootTupleTransformer tupleTransformer, AuthorEntityMetadata entityMetadata) {
-    super(entityMetadata.getDomainName(), tupleTransformer);
+    super(entityMetadata.getDomainName(), tupleTransformer, entityMetadata);
   }
 
 }
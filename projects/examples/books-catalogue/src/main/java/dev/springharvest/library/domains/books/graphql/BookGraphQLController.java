@@ -1,8 +1,12 @@
 package dev.springharvest.library.domains.books.graphql;
 
 import dev.springharvest.crud.domains.base.graphql.AbstractGraphQLCrudController;
+import dev.springharvest.library.domains.authors.models.entities.AuthorEntity;
 import dev.springharvest.library.domains.books.models.entities.BookEntity;
+import dev.springharvest.library.domains.books.services.BookCrudService;
+import dev.springharvest.library.domains.publishers.models.entities.PublisherEntity;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import dev.springharvest.shared.constants.Aggregates;
 import dev.springharvest.shared.constants.DataPaging;
@@ -12,14 +16,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 @Slf4j
 @Controller
 public class BookGraphQLController extends AbstractGraphQLCrudController<BookEntity, UUID> {
 
-  protected BookGraphQLController() {
-      super(BookEntity.class, UUID.class);
+  @Autowired
+  protected BookGraphQLController(BookCrudService crudService) {
+      super(BookEntity.class, UUID.class, crudService);
+      batchAssociation("author", AuthorEntity.class);
+      batchAssociation("publisher", PublisherEntity.class);
   }
 
     @QueryMapping
@@ -36,4 +44,14 @@ public class BookGraphQLController extends AbstractGraphQLCrudController<BookEnt
     public long countBooks(@Argument Map<String, Object> filter, @Argument Map<String, Object> clause, @Argument List<String> fields) {
         return count(filter, clause, fields);
     }
+
+    @SchemaMapping(typeName = "Book")
+    public CompletableFuture<Object> author(DataFetchingEnvironment environment) {
+        return loadAssociation(environment);
+    }
+
+    @SchemaMapping(typeName = "Book")
+    public CompletableFuture<Object> publisher(DataFetchingEnvironment environment) {
+        return loadAssociation(environment);
+    }
 }
@@ -1,5 +1,6 @@
 package dev.springharvest.library.domains.books.models.queries;
 
+import dev.springharvest.codegen.annotations.HarvestFilter;
 import dev.springharvest.library.domains.authors.models.queries.AuthorFilterBO;
 import dev.springharvest.library.domains.publishers.models.queries.PublisherFilterBO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Data
+@HarvestFilter
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
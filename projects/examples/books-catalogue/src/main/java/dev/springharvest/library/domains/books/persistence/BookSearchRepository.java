@@ -12,7 +12,7 @@ import org.springframework.stereotype.Repository;
 public class BookSearchRepository extends AbstractCriteriaSearchDao<BookEntity, UUID, BookFilterRequestBO> {
 
   BookSearchRepository(BookTupleTransformer tupleTransformer, BookEntityMetadata entityMetadata) {
-    super(entityMetadata.getDomainName(), tupleTransformer);
+    super(entityMetadata.getDomainName(), tupleTransformer, entityMetadata);
   }
 
 }
@@ -2,6 +2,7 @@ package dev.springharvest.library.domains.pet.graphql;
 
 import dev.springharvest.crud.domains.base.graphql.AbstractGraphQLCrudController;
 import dev.springharvest.library.domains.pet.models.entities.PetEntity;
+import dev.springharvest.library.domains.pet.service.PetCrudService;
 import dev.springharvest.shared.constants.DataPaging;
 import dev.springharvest.shared.constants.PageData;
 import graphql.schema.DataFetchingEnvironment;
@@ -19,8 +20,9 @@ import java.util.UUID;
 @Controller
 public class PetGraphQLController extends AbstractGraphQLCrudController<PetEntity, UUID> {
 
-    public  PetGraphQLController(){
-        super(PetEntity.class, UUID.class);
+    @Autowired
+    public  PetGraphQLController(PetCrudService crudService){
+        super(PetEntity.class, UUID.class, crudService);
     }
 
     @QueryMapping
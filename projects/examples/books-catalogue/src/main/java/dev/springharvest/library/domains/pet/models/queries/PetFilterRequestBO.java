@@ -1,5 +1,6 @@
 package dev.springharvest.library.domains.pet.models.queries;
 
+import dev.springharvest.codegen.annotations.HarvestFilter;
 import dev.springharvest.library.domains.authors.models.queries.AuthorFilterBO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestBO;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Data
+@HarvestFilter
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
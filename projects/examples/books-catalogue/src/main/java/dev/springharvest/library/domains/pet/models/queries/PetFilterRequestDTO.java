@@ -1,6 +1,7 @@
 package dev.springharvest.library.domains.pet.models.queries;
 
 
+import dev.springharvest.codegen.annotations.HarvestFilter;
 import dev.springharvest.library.domains.authors.models.queries.AuthorFilterDTO;
 import dev.springharvest.search.domains.base.models.queries.requests.filters.BaseFilterRequestDTO;
 import lombok.AllArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Data
+@HarvestFilter
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,6 +13,6 @@ import java.util.UUID;
 public class PetSearchRepository extends AbstractCriteriaSearchDao<PetEntity, UUID, PetFilterRequestBO> {
 
     PetSearchRepository(PetTupleTransformer tupleTransformer, PetEntityMetadata entityMetadata) {
-        super(entityMetadata.getDomainName(), tupleTransformer);
+        super(entityMetadata.getDomainName(), tupleTransformer, entityMetadata);
     }
 }
@@ -2,6 +2,7 @@ package dev.springharvest.library.domains.publishers.graphql;
 
 import dev.springharvest.crud.domains.base.graphql.AbstractGraphQLCrudController;
 import dev.springharvest.library.domains.publishers.models.entities.PublisherEntity;
+import dev.springharvest.library.domains.publishers.services.PublisherCrudService;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -16,8 +17,9 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class PublisherGraphQLController extends AbstractGraphQLCrudController<PublisherEntity, UUID> {
 
-  protected PublisherGraphQLController() {
-      super(PublisherEntity.class, UUID.class);
+  @Autowired
+  protected PublisherGraphQLController(PublisherCrudService crudService) {
+      super(PublisherEntity.class, UUID.class, crudService);
   }
 
     @QueryMapping
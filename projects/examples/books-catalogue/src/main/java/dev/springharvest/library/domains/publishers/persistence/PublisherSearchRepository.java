@@ -13,7 +13,7 @@ public class PublisherSearchRepository
     extends AbstractCriteriaSearchDao<PublisherEntity, UUID, PublisherFilterRequestBO> {
 
   PublisherSearchRepository(PublisherRootTupleTransformer tupleTransformer, PublisherEntityMetadata entityMetadata) {
-    super(entityMetadata.getDomainName(), tupleTransformer);
+    super(entityMetadata.getDomainName(), tupleTransformer, entityMetadata);
   }
 
 }
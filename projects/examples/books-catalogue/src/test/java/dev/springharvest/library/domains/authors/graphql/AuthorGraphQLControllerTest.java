@@ -52,7 +52,7 @@ public class AuthorGraphQLControllerTest {
     void searchAuthorsReturnsResultsForPartialNameMatch() {
         Map<String, Object> filter = Map.of("name", "John");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -78,7 +78,7 @@ public class AuthorGraphQLControllerTest {
     void searchAuthorsReturnsEmptyResults() {
         Map<String, Object> filter = Map.of("name", "NonExistentAuthor");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -99,7 +99,7 @@ public class AuthorGraphQLControllerTest {
     void searchAuthorsReturnsResultsForExactNameMatch() {
         Map<String, Object> filter = Map.of("name", "John Doe");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
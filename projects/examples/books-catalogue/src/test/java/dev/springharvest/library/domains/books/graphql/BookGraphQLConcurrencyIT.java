@@ -0,0 +1,151 @@
+package dev.springharvest.library.domains.books.graphql;
+
+import dev.springharvest.library.config.LiquibaseTestExecutionListener;
+import dev.springharvest.library.config.TestComponentScanningConfig;
+import dev.springharvest.library.config.TestContainerConfig;
+import dev.springharvest.library.domains.books.models.entities.BookEntity;
+import dev.springharvest.shared.constants.*;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires thousands of parallel searchBooks/complexBooksSearch calls against the real TypedQueryBuilder and checks that every
+ * result matches the one obtained when the same query runs alone.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(value = {TestComponentScanningConfig.class, TestContainerConfig.class})
+@TestExecutionListeners(
+        listeners = {DependencyInjectionTestExecutionListener.class, LiquibaseTestExecutionListener.class},
+        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+@TestPropertySource(locations = "classpath:application.properties")
+@ActiveProfiles("test")
+class BookGraphQLConcurrencyIT {
+
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookGraphQLController bookGraphQLController;
+
+    @Test
+    void parallelSearchesReturnTheSameResultsAsSequentialSearches() throws Exception {
+        List<Supplier<Object>> queries = List.of(
+                this::searchTitlesWithPagingElements,
+                this::searchTitlesAndAuthorsWithJoin,
+                this::searchAllWithoutPagingElements,
+                this::complexSearchGenresCount,
+                this::complexSearchTitles
+        );
+
+        List<Object> expectedResults = new ArrayList<>();
+        for (Supplier<Object> query : queries) {
+            expectedResults.add(query.get());
+        }
+        assertFalse(expectedResults.contains(null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(queries.get(i % queries.size())::get));
+            }
+            for (int i = 0; i < REQUESTS; i++) {
+                assertEquals(expectedResults.get(i % queries.size()), futures.get(i).get(60, TimeUnit.SECONDS), "Request " + i + " returned a wrong result");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Object searchTitlesWithPagingElements() {
+        Map<String, Object> filter = Map.of("title", Map.of("containsic", "the"));
+        DataPaging paging = new DataPaging(1, 2, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        DataFetchingEnvironment environment = mockEnvironment(Map.of(
+                "BookPageData.data", Map.of(),
+                "BookPageData.data/Book.id", Map.of(),
+                "BookPageData.data/Book.title", Map.of(),
+                "BookPageData.total", Map.of(),
+                "BookPageData.totalPages", Map.of(),
+                "BookPageData.currentPage", Map.of(),
+                "BookPageData.pageSize", Map.of()));
+        return summarize(bookGraphQLController.searchBooks(filter, Map.of(), paging, environment));
+    }
+
+    private Object searchTitlesAndAuthorsWithJoin() {
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("Book.title", SortDirection.DESC)), null);
+        DataFetchingEnvironment environment = mockEnvironment(Map.of(
+                "BookPageData.data", Map.of(),
+                "BookPageData.data/Book.title", Map.of(),
+                "BookPageData.data/Book.author", Map.of("join", "LEFT"),
+                "BookPageData.data/Book.author/Author.name", Map.of(),
+                "BookPageData.currentPageCount", Map.of()));
+        return summarize(bookGraphQLController.searchBooks(Map.of(), Map.of(), paging, environment));
+    }
+
+    private Object searchAllWithoutPagingElements() {
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        DataFetchingEnvironment environment = mockEnvironment(Map.of(
+                "BookPageData.data", Map.of(),
+                "BookPageData.data/Book.title", Map.of(),
+                "BookPageData.data/Book.genre", Map.of()));
+        return summarize(bookGraphQLController.searchBooks(Map.of(), Map.of(), paging, environment));
+    }
+
+    private Object complexSearchGenresCount() {
+        DataPaging paging = new DataPaging(1, 10, List.of(new Sort("Book.genre", SortDirection.ASC)), null);
+        Aggregates aggregates = new Aggregates(List.of("Book_id"), null, null, null, null, null);
+        return bookGraphQLController.complexBooksSearch(Map.of(), Map.of(), List.of("Book_genre"), paging, aggregates);
+    }
+
+    private Object complexSearchTitles() {
+        Map<String, Object> filter = Map.of("genre", Map.of("containsic", "literature"));
+        DataPaging paging = new DataPaging(1, 3, List.of(new Sort("Book.title", SortDirection.ASC)), null);
+        Aggregates aggregates = new Aggregates(List.of("Book_genre"), null, null, null, null, null);
+        return bookGraphQLController.complexBooksSearch(filter, Map.of(), List.of("Book_title"), paging, aggregates);
+    }
+
+    private static DataFetchingEnvironment mockEnvironment(Map<String, Map<String, Object>> selectedFields) {
+        DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
+        DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
+        List<SelectedField> fields = new ArrayList<>();
+        selectedFields.forEach((name, arguments) -> {
+            SelectedField field = mock(SelectedField.class);
+            when(field.getFullyQualifiedName()).thenReturn(name);
+            when(field.getArguments()).thenReturn(arguments);
+            fields.add(field);
+        });
+        when(environment.getSelectionSet()).thenReturn(selectionSet);
+        when(selectionSet.getFields()).thenReturn(fields);
+        return environment;
+    }
+
+    private static List<Object> summarize(PageData<BookEntity> pageData) {
+        List<Object> summary = new ArrayList<>();
+        for (BookEntity book : pageData.getData()) {
+            summary.add(Arrays.asList(book.getId(), book.getTitle(), book.getGenre(), book.getAuthor() != null ? book.getAuthor().getName() : null));
+        }
+        summary.add(List.of(pageData.getCurrentPage(), pageData.getPageSize(), pageData.getTotal(), pageData.getTotalPages(), pageData.getCurrentPageCount()));
+        return summary;
+    }
+}
@@ -64,7 +64,7 @@ class BookGraphQLControllerTest {
         filter.put("title", equals);
         Map<String, Object> clause = Map.of("distinct", "true");
         Map<String, JoinType> join = Map.of("Book.author", JoinType.LEFT);
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("title", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("title", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -89,7 +89,7 @@ class BookGraphQLControllerTest {
     void searchBooksReturnsEmptyResults() {
         Map<String, Object> filter = Map.of("title", "NonExistentBook");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("title", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("title", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -119,7 +119,7 @@ class BookGraphQLControllerTest {
         List<String> formattedFields = new ArrayList<>();
         formattedFields.add("Book.title");
         formattedFields.add("Book.genre");
-        DataPaging paging = new DataPaging(1, 10, Collections.singletonList(new Sort("Book.title", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(1, 10, Collections.singletonList(new Sort("Book.title", SortDirection.ASC)), null);
         List<String> countFields = new ArrayList<>();
         countFields.add("Book_genre");
         List<String> formattedCountFields = new ArrayList<>();
@@ -177,7 +177,7 @@ class BookGraphQLControllerTest {
         List<String> formattedFields = new ArrayList<>();
         formattedFields.add("Book.id");
         formattedFields.add("Book.title");
-        DataPaging paging = new DataPaging(1, 10, Collections.singletonList(new Sort("Book.title", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(1, 10, Collections.singletonList(new Sort("Book.title", SortDirection.ASC)), null);
         Aggregates aggregates = new Aggregates(List.of("Book_genre"), null, null, null, null, null);
         List<String> formattedCountFields = new ArrayList<>();
         formattedCountFields.add("Book.genre");
@@ -55,7 +55,7 @@ public class PetGraphQLControllerTest {
     void searchPetsReturnsExpectedResults() {
         Map<String, Object> filter = Map.of("name", "Buddy");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -76,7 +76,7 @@ public class PetGraphQLControllerTest {
     void searchPetsReturnsEmptyResults() {
         Map<String, Object> filter = Map.of("name", "NonExistent");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -97,7 +97,7 @@ public class PetGraphQLControllerTest {
     void searchPetsReturnsResultsForPartialNameMatch() {
         Map<String, Object> filter = Map.of("name", "Bud");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -119,7 +119,7 @@ public class PetGraphQLControllerTest {
     void searchPetsReturnsResultsForEmptyFilter() {
         Map<String, Object> filter = Map.of();
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -56,7 +56,7 @@ public class PublisherGraphQLControllerTest {
     void searchPublishersReturnsResultsForPartialNameMatch() {
         Map<String, Object> filter = Map.of("name", "O'");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -78,7 +78,7 @@ public class PublisherGraphQLControllerTest {
     void searchPublishersReturnsResultsForEmptyFilter() {
         Map<String, Object> filter = Map.of();
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -101,7 +101,7 @@ public class PublisherGraphQLControllerTest {
     void searchPublishersReturnsResultsForSpecificLocation() {
         Map<String, Object> filter = Map.of("location", "USA");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
@@ -124,7 +124,7 @@ public class PublisherGraphQLControllerTest {
     void searchPublishersReturnsResultsForSpecificType() {
         Map<String, Object> filter = Map.of("type", "Tech");
         Map<String, Object> clause = Map.of();
-        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)));
+        DataPaging paging = new DataPaging(0, 10, Collections.singletonList(new Sort("name", SortDirection.ASC)), null);
         DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
 
         DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);